@@ -1,12 +1,15 @@
 package com.munitax.ledger.controller;
 
 import com.munitax.ledger.dto.AccountStatementResponse;
+import com.munitax.ledger.dto.AgingAnalysis;
 import com.munitax.ledger.service.AccountStatementService;
+import com.munitax.ledger.service.StatementExportService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -18,6 +21,7 @@ import java.util.UUID;
 public class AccountStatementController {
     
     private final AccountStatementService accountStatementService;
+    private final StatementExportService statementExportService;
     
     @GetMapping("/filer/{tenantId}/{filerId}")
     public ResponseEntity<AccountStatementResponse> getFilerStatement(
@@ -32,45 +36,75 @@ public class AccountStatementController {
         return ResponseEntity.ok(statement);
     }
     
+    /**
+     * T037: Aging of a filer's outstanding balance (0-30, 31-60, 61-90, 90+ days).
+     * 
+     * @param tenantId The tenant identifier
+     * @param filerId The filer identifier
+     * @return Aging analysis
+     */
+    @GetMapping("/filer/{tenantId}/{filerId}/aging")
+    public ResponseEntity<AgingAnalysis> getFilerAging(
+            @PathVariable String tenantId,
+            @PathVariable String filerId) {
+        
+        log.info("Getting aging analysis for filer {}", filerId);
+        return ResponseEntity.ok(accountStatementService.calculateAgingAnalysis(tenantId, filerId));
+    }
+    
+    /**
+     * T037: Aging of all filers' outstanding balances for a municipality.
+     * 
+     * @param tenantId The tenant identifier
+     * @return Aging analysis
+     */
+    @GetMapping("/municipality/{tenantId}/aging")
+    public ResponseEntity<AgingAnalysis> getMunicipalityAging(@PathVariable String tenantId) {
+        log.info("Getting municipality aging analysis for tenant {}", tenantId);
+        return ResponseEntity.ok(accountStatementService.calculateMunicipalityAgingAnalysis(tenantId));
+    }
+    
     /**
      * T035: Export account statement to PDF format.
+     * Pages are rendered as rows are read from the database.
      * 
      * @param tenantId The tenant identifier
      * @param filerId The filer identifier
-     * @return PDF file as byte array
+     * @return PDF file
      */
     @GetMapping("/filer/{tenantId}/{filerId}/pdf")
-    public ResponseEntity<byte[]> exportStatementToPdf(
+    public ResponseEntity<StreamingResponseBody> exportStatementToPdf(
             @PathVariable String tenantId,
             @PathVariable String filerId) {
         
         log.info("Exporting statement to PDF for filer {}", filerId);
-        byte[] pdfContent = accountStatementService.exportStatementToPdf(tenantId, filerId);
+        StreamingResponseBody body = output -> statementExportService.writePdf(tenantId, filerId, output);
         
         return ResponseEntity.ok()
                 .header("Content-Type", "application/pdf")
                 .header("Content-Disposition", "attachment; filename=statement-" + filerId + ".pdf")
-                .body(pdfContent);
+                .body(body);
     }
     
     /**
      * T036: Export account statement to CSV format.
+     * Rows are streamed to the response as they are read from the database.
      * 
      * @param tenantId The tenant identifier
      * @param filerId The filer identifier
-     * @return CSV file as string
+     * @return CSV file
      */
     @GetMapping("/filer/{tenantId}/{filerId}/csv")
-    public ResponseEntity<String> exportStatementToCsv(
+    public ResponseEntity<StreamingResponseBody> exportStatementToCsv(
             @PathVariable String tenantId,
             @PathVariable String filerId) {
         
         log.info("Exporting statement to CSV for filer {}", filerId);
-        String csvContent = accountStatementService.exportStatementToCsv(tenantId, filerId);
+        StreamingResponseBody body = output -> statementExportService.writeCsv(tenantId, filerId, output);
         
         return ResponseEntity.ok()
                 .header("Content-Type", "text/csv")
                 .header("Content-Disposition", "attachment; filename=statement-" + filerId + ".csv")
-                .body(csvContent);
+                .body(body);
     }
 }
@@ -1,12 +1,17 @@
 package com.munitax.ledger.controller;
 
+import com.munitax.ledger.dto.AuditLogFilter;
+import com.munitax.ledger.dto.AuditLogPage;
 import com.munitax.ledger.model.AuditLog;
 import com.munitax.ledger.service.AuditLogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -83,29 +88,81 @@ public class AuditController {
     
     /**
      * T072 - Get filtered audit trail
-     * Supports filtering by entity type, action, and user
+     * Supports filtering by entity type, action, user and time range, one page at a time
      * 
      * @param tenantId Tenant ID (required)
      * @param entityType Filter by entity type (optional, e.g., "JOURNAL_ENTRY", "PAYMENT")
      * @param action Filter by action (optional, e.g., "CREATE", "UPDATE", "REVERSE")
      * @param userId Filter by user (optional)
-     * @return Filtered list of audit logs
+     * @param from Inclusive start of the time range (optional)
+     * @param to Exclusive end of the time range (optional)
+     * @param cursor Cursor returned with the previous page (optional)
+     * @param limit Page size (default 100)
+     * @return Page of audit logs, newest first, with the cursor for the next page
      */
     @GetMapping("/filtered")
-    public ResponseEntity<List<AuditLog>> getFilteredAuditTrail(
+    public ResponseEntity<AuditLogPage> getFilteredAuditTrail(
             @RequestParam String tenantId,
             @RequestParam(required = false) String entityType,
             @RequestParam(required = false) String action,
-            @RequestParam(required = false) UUID userId) {
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
         
         log.info("Getting filtered audit trail for tenant {} with filters: entityType={}, action={}, userId={}", 
                  tenantId, entityType, action, userId);
         
-        List<AuditLog> filteredLogs = auditLogService.getFilteredAuditTrail(
-                tenantId, entityType, action, userId);
+        AuditLogPage page = auditLogService.getFilteredAuditTrail(
+                filter(tenantId, entityType, action, userId, from, to), cursor, limit);
         
-        log.info("Retrieved {} filtered audit log entries", filteredLogs.size());
+        log.info("Retrieved {} filtered audit log entries", page.getItems().size());
         
-        return ResponseEntity.ok(filteredLogs);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * Export the filtered audit trail as CSV.
+     * Rows are streamed to the response as they are read, so any range can be exported.
+     * 
+     * @param tenantId Tenant ID (required)
+     * @param entityType Filter by entity type (optional)
+     * @param action Filter by action (optional)
+     * @param userId Filter by user (optional)
+     * @param from Inclusive start of the time range (optional)
+     * @param to Exclusive end of the time range (optional)
+     * @return CSV file, newest first
+     */
+    @GetMapping("/filtered/export")
+    public ResponseEntity<StreamingResponseBody> exportFilteredAuditTrail(
+            @RequestParam String tenantId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        log.info("Exporting filtered audit trail for tenant {}", tenantId);
+        
+        AuditLogFilter filter = filter(tenantId, entityType, action, userId, from, to);
+        StreamingResponseBody body = output -> auditLogService.exportFilteredAuditTrail(filter, output);
+        
+        return ResponseEntity.ok()
+                .header("Content-Type", "text/csv")
+                .header("Content-Disposition", "attachment; filename=audit-" + tenantId + ".csv")
+                .body(body);
+    }
+    
+    private AuditLogFilter filter(String tenantId, String entityType, String action, UUID userId,
+                                  LocalDateTime from, LocalDateTime to) {
+        return AuditLogFilter.builder()
+                .tenantId(tenantId)
+                .entityType(entityType)
+                .action(action)
+                .userId(userId)
+                .from(from)
+                .to(to)
+                .build();
     }
 }
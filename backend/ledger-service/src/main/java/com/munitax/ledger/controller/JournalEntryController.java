@@ -1,7 +1,10 @@
 package com.munitax.ledger.controller;
 
+import com.munitax.ledger.dto.BatchJournalEntryRequest;
+import com.munitax.ledger.dto.BatchJournalEntryResponse;
 import com.munitax.ledger.dto.JournalEntryRequest;
 import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.service.JournalEntryBatchService;
 import com.munitax.ledger.service.JournalEntryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +21,7 @@ import java.util.UUID;
 public class JournalEntryController {
     
     private final JournalEntryService journalEntryService;
+    private final JournalEntryBatchService journalEntryBatchService;
     
     @PostMapping
     public ResponseEntity<JournalEntry> createJournalEntry(@RequestBody JournalEntryRequest request) {
@@ -26,6 +30,13 @@ public class JournalEntryController {
         return ResponseEntity.ok(entry);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<BatchJournalEntryResponse> createJournalEntries(@RequestBody BatchJournalEntryRequest request) {
+        log.info("Posting batch of {} journal entries", request.getEntries().size());
+        BatchJournalEntryResponse response = journalEntryBatchService.postBatch(request);
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/{entryId}/reverse")
     public ResponseEntity<JournalEntry> reverseEntry(
             @PathVariable UUID entryId,
@@ -22,5 +22,6 @@ public class AgingAnalysis {
     private BigDecimal sixtyDays;       // 61-90 days
     private BigDecimal ninetyPlus;      // 90+ days
     private BigDecimal totalOutstanding;
+    private BigDecimal unappliedCredit; // Payments not yet matched to a charge (filer aging only)
     private LocalDate analysisDate;
 }
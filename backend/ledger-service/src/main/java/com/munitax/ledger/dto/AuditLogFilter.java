@@ -0,0 +1,49 @@
+package com.munitax.ledger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Filter for tenant audit trail queries; null fields are not filtered on
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogFilter {
+    
+    /**
+     * Tenant ID (required)
+     */
+    private String tenantId;
+    
+    /**
+     * Entity type, e.g. JOURNAL_ENTRY, PAYMENT
+     */
+    private String entityType;
+    
+    /**
+     * Action, e.g. CREATE, UPDATE, REVERSE
+     */
+    private String action;
+    
+    /**
+     * User who performed the action
+     */
+    private UUID userId;
+    
+    /**
+     * Inclusive lower bound on timestamp
+     */
+    private LocalDateTime from;
+    
+    /**
+     * Exclusive upper bound on timestamp
+     */
+    private LocalDateTime to;
+}
@@ -0,0 +1,36 @@
+package com.munitax.ledger.dto;
+
+import com.munitax.ledger.model.AuditLog;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated audit trail, newest first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPage {
+    
+    /**
+     * Audit logs on this page
+     */
+    @Builder.Default
+    private List<AuditLog> items = new ArrayList<>();
+    
+    /**
+     * Opaque cursor for the next page (null on the last page)
+     */
+    private String nextCursor;
+    
+    /**
+     * Whether more logs follow this page
+     */
+    private boolean hasMore;
+}
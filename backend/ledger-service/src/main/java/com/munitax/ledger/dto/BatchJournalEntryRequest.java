@@ -0,0 +1,33 @@
+package com.munitax.ledger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for posting many journal entries at once (assessment runs, lockbox imports)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJournalEntryRequest {
+    
+    /**
+     * Client-chosen batch identifier (optional). Resubmitting the same batch with the same
+     * batchId after a partial failure posts only the entries not posted yet; entries are
+     * matched by their position in the batch. Batch IDs are unique per tenant, so all entries
+     * of such a batch must have the same tenantId.
+     */
+    private String batchId;
+    
+    /**
+     * Entries to post; each must be balanced
+     */
+    @Builder.Default
+    private List<JournalEntryRequest> entries = new ArrayList<>();
+}
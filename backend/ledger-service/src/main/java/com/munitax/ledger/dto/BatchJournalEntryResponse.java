@@ -0,0 +1,47 @@
+package com.munitax.ledger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for batch journal posting
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJournalEntryResponse {
+    
+    /**
+     * Number of journal entries posted
+     */
+    private int entriesPosted;
+    
+    /**
+     * Number of entries skipped because an earlier submission of the same batchId posted them
+     */
+    private int entriesSkipped;
+    
+    /**
+     * Number of chunks (transactions) the batch was persisted in
+     */
+    private int chunks;
+    
+    /**
+     * Posted entry IDs (including previously posted ones), in request order
+     */
+    @Builder.Default
+    private List<UUID> entryIds = new ArrayList<>();
+    
+    /**
+     * Posted entry numbers (e.g., JE-2024-00001, including previously posted ones), in request order
+     */
+    @Builder.Default
+    private List<String> entryNumbers = new ArrayList<>();
+}
@@ -10,6 +10,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
+/**
+ * Materialized per-period balance of one account for one entity (filer or municipality).
+ * Periods are calendar months. Rows are maintained by AccountBalanceService when journal
+ * entries are posted, so balances never have to be recomputed from the full entry history.
+ */
 @Entity
 @Table(name = "account_balances")
 @Data
@@ -27,7 +32,7 @@ public class AccountBalance {
     private ChartOfAccounts account;
     
     @Column(nullable = false)
-    private UUID entityId; // Filer or Municipality ID
+    private String entityId; // Filer or Municipality ID
     
     @Column(nullable = false)
     private String tenantId;
@@ -38,6 +43,9 @@ public class AccountBalance {
     @Column(nullable = false)
     private LocalDate periodEndDate;
     
+    /**
+     * Net balance (in the account's normal-balance direction) carried in from prior periods.
+     */
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal beginningBalance;
     
@@ -47,6 +55,9 @@ public class AccountBalance {
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal totalCredits;
     
+    /**
+     * beginningBalance plus this period's net activity.
+     */
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal endingBalance;
 }
@@ -0,0 +1,52 @@
+package com.munitax.ledger.model;
+
+import com.munitax.ledger.enums.AccountType;
+import com.munitax.ledger.enums.NormalBalance;
+
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of a chart of accounts row, held by ChartOfAccountsCache.
+ */
+public record AccountDescriptor(
+        UUID accountId,
+        String accountNumber,
+        String accountName,
+        AccountType accountType,
+        NormalBalance normalBalance,
+        UUID parentAccountId,
+        String tenantId,
+        String description,
+        boolean active) {
+
+    public static AccountDescriptor from(ChartOfAccounts account) {
+        return new AccountDescriptor(
+                account.getAccountId(),
+                account.getAccountNumber(),
+                account.getAccountName(),
+                account.getAccountType(),
+                account.getNormalBalance(),
+                account.getParentAccountId(),
+                account.getTenantId(),
+                account.getDescription(),
+                !Boolean.FALSE.equals(account.getActive()));
+    }
+
+    /**
+     * Detached account instance for use as a journal line or balance reference.
+     * Only the ID is written as the foreign key, so no database read is needed.
+     */
+    public ChartOfAccounts toAccount() {
+        return ChartOfAccounts.builder()
+                .accountId(accountId)
+                .accountNumber(accountNumber)
+                .accountName(accountName)
+                .accountType(accountType)
+                .normalBalance(normalBalance)
+                .parentAccountId(parentAccountId)
+                .tenantId(tenantId)
+                .description(description)
+                .active(active)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.munitax.ledger.model;
 
 import com.munitax.ledger.enums.AccountType;
 import com.munitax.ledger.enums.NormalBalance;
+import com.munitax.ledger.service.ChartOfAccountsCacheListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -12,6 +13,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "chart_of_accounts")
+@EntityListeners(ChartOfAccountsCacheListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,62 @@
+package com.munitax.ledger.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-filer aging of open receivable items as of asOfDate.
+ * Updated by ReceivableSubledgerService on every posting to the filer's tax liability
+ * accounts, and re-aged from the filer's open items once the date moves on.
+ */
+@Entity
+@Table(name = "filer_aging_summaries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_filer_aging_summary_tenant_filer",
+                                             columnNames = {"tenant_id", "filer_id"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilerAgingSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID summaryId;
+    
+    @Column(nullable = false)
+    private String tenantId;
+    
+    @Column(nullable = false)
+    private String filerId;
+    
+    @Column(nullable = false)
+    private LocalDate asOfDate;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal currentAmount;      // 0-30 days
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal thirtyDays;         // 31-60 days
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal sixtyDays;          // 61-90 days
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal ninetyPlus;         // 90+ days
+    
+    /**
+     * Payments and credits not yet matched to an open item (overpayment).
+     */
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal unappliedCredit;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -16,7 +16,9 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "journal_entries")
+@Table(name = "journal_entries",
+       uniqueConstraints = @UniqueConstraint(name = "uk_journal_entries_tenant_entry_number",
+                                             columnNames = {"tenant_id", "entry_number"}))
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,7 +29,10 @@ public class JournalEntry {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID entryId;
     
-    @Column(nullable = false, unique = true)
+    /**
+     * Unique per tenant; numbering restarts for each tenant and year.
+     */
+    @Column(nullable = false)
     private String entryNumber;
     
     @Column(nullable = false)
@@ -67,6 +72,10 @@ public class JournalEntry {
     
     private UUID reversalEntryId;
     
+    private String batchId; // Client batch ID for batch-posted entries
+    
+    private Integer batchIndex; // Position in the batch
+    
     @OneToMany(mappedBy = "journalEntry", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<JournalEntryLine> lines = new ArrayList<>();
@@ -0,0 +1,40 @@
+package com.munitax.ledger.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * High-water mark of journal entry numbers leased per tenant and year.
+ * Nodes lease blocks of numbers by advancing nextValue under a row lock.
+ */
+@Entity
+@Table(name = "journal_entry_number_counters",
+       uniqueConstraints = @UniqueConstraint(name = "uk_entry_number_counter_tenant_year",
+                                             columnNames = {"tenant_id", "entry_year"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntryNumberCounter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID counterId;
+    
+    @Column(nullable = false)
+    private String tenantId;
+    
+    @Column(nullable = false)
+    private Integer entryYear;
+    
+    /**
+     * First number not yet leased to any node.
+     */
+    @Column(nullable = false)
+    private Long nextValue;
+}
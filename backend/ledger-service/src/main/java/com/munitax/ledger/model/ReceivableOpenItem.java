@@ -0,0 +1,62 @@
+package com.munitax.ledger.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One unpaid charge owed by a filer: a credit to a tax liability account (21xx) from an
+ * assessment. Payments and other debits reduce remainingAmount, oldest item first.
+ * Maintained by ReceivableSubledgerService when journal entries are posted.
+ */
+@Entity
+@Table(name = "receivable_open_items")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceivableOpenItem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID itemId;
+    
+    @Column(nullable = false)
+    private String tenantId;
+    
+    @Column(nullable = false)
+    private String filerId;
+    
+    @Column(nullable = false)
+    private UUID entryId;
+    
+    @Column(nullable = false)
+    private String entryNumber;
+    
+    @Column(nullable = false)
+    private Integer lineNumber;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    /**
+     * Date the charge was assessed; aging is measured from here.
+     */
+    @Column(nullable = false)
+    private LocalDate openDate;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal originalAmount;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal remainingAmount;
+    
+    private LocalDateTime clearedAt;
+}
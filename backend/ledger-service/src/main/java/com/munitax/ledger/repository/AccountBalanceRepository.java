@@ -0,0 +1,70 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.model.AccountBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AccountBalanceRepository extends JpaRepository<AccountBalance, UUID> {
+
+    /**
+     * Lock the balance rows of an account from a period onward, so concurrent postings
+     * to the same account serialize their running-balance updates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalance b WHERE b.account.accountId = :accountId AND b.entityId = :entityId " +
+           "AND b.periodStartDate >= :periodStart ORDER BY b.periodStartDate")
+    List<AccountBalance> lockFromPeriod(@Param("accountId") UUID accountId,
+                                        @Param("entityId") String entityId,
+                                        @Param("periodStart") LocalDate periodStart);
+
+    /**
+     * Serialize balance updates of one (account, entity) until the transaction ends. Row locks
+     * alone cannot cover a period row another transaction is still inserting, nor keep the
+     * prior period's ending balance stable while a new period is opened.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext(:lockKey))) l", nativeQuery = true)
+    Integer lockAccountEntity(@Param("lockKey") String lockKey);
+
+    /**
+     * Open a period row with no activity, carrying in the ending balance of the latest earlier
+     * period, unless the row exists. Never fails on a concurrent insert of the same row, so the
+     * posting transaction is not aborted.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO account_balances (balance_id, account_id, entity_id, tenant_id, period_start_date, " +
+                   "period_end_date, beginning_balance, total_debits, total_credits, ending_balance) " +
+                   "SELECT gen_random_uuid(), :accountId, :entityId, :tenantId, :periodStart, :periodEnd, " +
+                   "p.balance, 0, 0, p.balance " +
+                   "FROM (SELECT COALESCE((SELECT b.ending_balance FROM account_balances b " +
+                   "WHERE b.account_id = :accountId AND b.entity_id = :entityId " +
+                   "AND b.period_start_date < :periodStart " +
+                   "ORDER BY b.period_start_date DESC LIMIT 1), 0) AS balance) p " +
+                   "ON CONFLICT (account_id, entity_id, period_start_date, period_end_date) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("accountId") UUID accountId,
+                       @Param("entityId") String entityId,
+                       @Param("tenantId") String tenantId,
+                       @Param("periodStart") LocalDate periodStart,
+                       @Param("periodEnd") LocalDate periodEnd);
+
+    /**
+     * Debit/credit totals per account over all periods that ended before the given date.
+     */
+    @Query("SELECT b.account.accountNumber AS accountNumber, SUM(b.totalDebits) AS totalDebits, " +
+           "SUM(b.totalCredits) AS totalCredits FROM AccountBalance b " +
+           "WHERE b.tenantId = :tenantId AND b.entityId = :entityId AND b.periodEndDate < :date " +
+           "GROUP BY b.account.accountNumber")
+    List<AccountTotals> sumByAccountBefore(@Param("tenantId") String tenantId,
+                                           @Param("entityId") String entityId,
+                                           @Param("date") LocalDate date);
+}
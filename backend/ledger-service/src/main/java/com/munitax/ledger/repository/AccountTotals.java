@@ -0,0 +1,12 @@
+package com.munitax.ledger.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of debit/credit totals for one account, aggregated in the database.
+ */
+public interface AccountTotals {
+    String getAccountNumber();
+    BigDecimal getTotalDebits();
+    BigDecimal getTotalCredits();
+}
@@ -0,0 +1,13 @@
+package com.munitax.ledger.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of open receivable amounts per aging bucket, aggregated in the database.
+ */
+public interface AgingTotals {
+    BigDecimal getCurrentAmount();
+    BigDecimal getThirtyDays();
+    BigDecimal getSixtyDays();
+    BigDecimal getNinetyPlus();
+}
@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
+public interface AuditLogRepository extends JpaRepository<AuditLog, UUID>, AuditLogRepositoryCustom {
     List<AuditLog> findByEntityIdOrderByTimestampDesc(UUID entityId);
     List<AuditLog> findByTenantIdOrderByTimestampDesc(String tenantId);
 }
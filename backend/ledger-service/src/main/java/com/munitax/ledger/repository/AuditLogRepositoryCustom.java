@@ -0,0 +1,36 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.dto.AuditLogFilter;
+import com.munitax.ledger.model.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Filtered audit trail queries ordered by (timestamp, logId) descending, matching the
+ * (tenant_id, [filter column,] timestamp, log_id) indexes.
+ */
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Seek to the logs strictly after the given position and return at most {@code limit} of them.
+     *
+     * @param filter          tenant and optional filters
+     * @param afterTimestamp  timestamp of the last log of the previous page (null for the first page)
+     * @param afterLogId      log ID of the last log of the previous page (null for the first page)
+     * @param limit           maximum number of logs
+     * @return matching logs, newest first
+     */
+    List<AuditLog> findFilteredPage(AuditLogFilter filter, LocalDateTime afterTimestamp, UUID afterLogId, int limit);
+
+    /**
+     * Stream all matching logs, newest first. Rows are detached as they are read, so memory use does
+     * not grow with the result size. Must be consumed inside a transaction and closed.
+     *
+     * @param filter tenant and optional filters
+     * @return matching logs
+     */
+    Stream<AuditLog> streamFiltered(AuditLogFilter filter);
+}
@@ -0,0 +1,13 @@
+package com.munitax.ledger.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of debit/credit totals for one (entity, account) pair, aggregated in the database.
+ */
+public interface EntityAccountTotals {
+    String getEntityId();
+    String getAccountNumber();
+    BigDecimal getTotalDebits();
+    BigDecimal getTotalCredits();
+}
@@ -0,0 +1,39 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.model.FilerAgingSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface FilerAgingSummaryRepository extends JpaRepository<FilerAgingSummary, UUID> {
+
+    Optional<FilerAgingSummary> findByTenantIdAndFilerId(String tenantId, String filerId);
+
+    /**
+     * Lock a filer's summary row so concurrent postings for the filer serialize.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM FilerAgingSummary s WHERE s.tenantId = :tenantId AND s.filerId = :filerId")
+    Optional<FilerAgingSummary> lockByTenantIdAndFilerId(@Param("tenantId") String tenantId,
+                                                         @Param("filerId") String filerId);
+
+    /**
+     * Create an empty summary row unless one exists, without failing the posting transaction
+     * when another posting for the same filer creates it first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO filer_aging_summaries (summary_id, tenant_id, filer_id, as_of_date, current_amount, " +
+                   "thirty_days, sixty_days, ninety_plus, unapplied_credit, updated_at) " +
+                   "VALUES (gen_random_uuid(), :tenantId, :filerId, CURRENT_DATE, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (tenant_id, filer_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("tenantId") String tenantId, @Param("filerId") String filerId);
+}
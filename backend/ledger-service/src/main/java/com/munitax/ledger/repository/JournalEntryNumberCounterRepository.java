@@ -0,0 +1,17 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.model.JournalEntryNumberCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface JournalEntryNumberCounterRepository extends JpaRepository<JournalEntryNumberCounter, UUID> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<JournalEntryNumberCounter> findByTenantIdAndEntryYear(String tenantId, Integer entryYear);
+}
@@ -2,13 +2,19 @@ package com.munitax.ledger.repository;
 
 import com.munitax.ledger.enums.EntryStatus;
 import com.munitax.ledger.model.JournalEntry;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID> {
@@ -18,7 +24,104 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
             String tenantId, String entityId, LocalDate startDate, LocalDate endDate);
     List<JournalEntry> findByTenantIdAndStatus(String tenantId, EntryStatus status);
     List<JournalEntry> findBySourceIdOrderByEntryDateDesc(UUID sourceId);
+
+    /**
+     * Entries a tenant already posted under a client batch ID, for resubmitting a partially posted batch.
+     */
+    @Query("SELECT e.batchIndex AS batchIndex, e.entryId AS entryId, e.entryNumber AS entryNumber, " +
+           "e.entityId AS entityId, e.entryDate AS entryDate, e.sourceType AS sourceType, " +
+           "e.sourceId AS sourceId, SUM(l.debit) AS totalDebits " +
+           "FROM JournalEntryLine l JOIN l.journalEntry e " +
+           "WHERE e.tenantId = :tenantId AND e.batchId = :batchId " +
+           "GROUP BY e.entryId, e.batchIndex, e.entryNumber, e.entityId, e.entryDate, e.sourceType, e.sourceId")
+    List<PostedBatchEntry> findPostedBatchEntries(@Param("tenantId") String tenantId,
+                                                  @Param("batchId") String batchId);
     
     @Query("SELECT MAX(e.entryNumber) FROM JournalEntry e WHERE e.tenantId = :tenantId AND e.entryNumber LIKE CONCAT(:prefix, '%')")
     String findMaxEntryNumberByPrefix(String tenantId, String prefix);
+    
+    /**
+     * Entry statuses whose lines count toward account balances (drafts are not posted).
+     */
+    List<EntryStatus> POSTED_STATUSES = List.of(EntryStatus.POSTED, EntryStatus.REVERSED);
+    
+    /**
+     * Debit/credit totals per account for an entity up to and including asOfDate,
+     * summed in the database instead of loading entries and lines.
+     */
+    @Query("SELECT a.accountNumber AS accountNumber, SUM(l.debit) AS totalDebits, SUM(l.credit) AS totalCredits " +
+           "FROM JournalEntryLine l JOIN l.journalEntry e JOIN l.account a " +
+           "WHERE e.tenantId = :tenantId AND e.entityId = :entityId AND e.status IN :statuses " +
+           "AND e.entryDate <= :asOfDate " +
+           "GROUP BY a.accountNumber")
+    List<AccountTotals> sumLinesByAccount(@Param("tenantId") String tenantId,
+                                          @Param("entityId") String entityId,
+                                          @Param("statuses") Collection<EntryStatus> statuses,
+                                          @Param("asOfDate") LocalDate asOfDate);
+    
+    /**
+     * Debit/credit totals per account for an entity within a date range (inclusive).
+     */
+    @Query("SELECT a.accountNumber AS accountNumber, SUM(l.debit) AS totalDebits, SUM(l.credit) AS totalCredits " +
+           "FROM JournalEntryLine l JOIN l.journalEntry e JOIN l.account a " +
+           "WHERE e.tenantId = :tenantId AND e.entityId = :entityId AND e.status IN :statuses " +
+           "AND e.entryDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY a.accountNumber")
+    List<AccountTotals> sumLinesByAccountBetween(@Param("tenantId") String tenantId,
+                                                 @Param("entityId") String entityId,
+                                                 @Param("statuses") Collection<EntryStatus> statuses,
+                                                 @Param("fromDate") LocalDate fromDate,
+                                                 @Param("toDate") LocalDate toDate);
+    
+    /**
+     * Debit/credit totals of a single account for an entity up to and including asOfDate.
+     */
+    @Query("SELECT a.accountNumber AS accountNumber, SUM(l.debit) AS totalDebits, SUM(l.credit) AS totalCredits " +
+           "FROM JournalEntryLine l JOIN l.journalEntry e JOIN l.account a " +
+           "WHERE e.tenantId = :tenantId AND e.entityId = :entityId AND e.status IN :statuses " +
+           "AND e.entryDate <= :asOfDate AND a.accountNumber = :accountNumber " +
+           "GROUP BY a.accountNumber")
+    Optional<AccountTotals> sumLinesForAccount(@Param("tenantId") String tenantId,
+                                               @Param("entityId") String entityId,
+                                               @Param("accountNumber") String accountNumber,
+                                               @Param("statuses") Collection<EntryStatus> statuses,
+                                               @Param("asOfDate") LocalDate asOfDate);
+    
+    /**
+     * Debit/credit totals per (entity, account) for the whole tenant, restricted to liability
+     * accounts (2xxx) and the given additional accounts. One grouped query replaces per-entity,
+     * per-account balance lookups; rows are streamed in entity order so large tenants can be
+     * folded one entity at a time without being held in memory.
+     * Must be consumed inside a read-only transaction.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT e.entityId AS entityId, a.accountNumber AS accountNumber, " +
+           "SUM(l.debit) AS totalDebits, SUM(l.credit) AS totalCredits " +
+           "FROM JournalEntryLine l JOIN l.journalEntry e JOIN l.account a " +
+           "WHERE e.tenantId = :tenantId AND e.entityId IS NOT NULL AND e.status IN :statuses " +
+           "AND e.entryDate <= :asOfDate " +
+           "AND (a.accountNumber LIKE '2%' OR a.accountNumber IN :accountNumbers) " +
+           "GROUP BY e.entityId, a.accountNumber ORDER BY e.entityId")
+    Stream<EntityAccountTotals> streamLiabilityAndAccountTotalsByEntity(
+            @Param("tenantId") String tenantId,
+            @Param("accountNumbers") Collection<String> accountNumbers,
+            @Param("statuses") Collection<EntryStatus> statuses,
+            @Param("asOfDate") LocalDate asOfDate);
+    
+    /**
+     * Statement lines for an entity in chronological order: lines on liability accounts (2xxx)
+     * and cash (1000). Rows are streamed so a statement of any length can be exported without
+     * loading entries and lines.
+     * Must be consumed inside a read-only transaction.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT e.entryDate AS entryDate, e.sourceType AS sourceType, e.entryNumber AS entryNumber, " +
+           "e.description AS entryDescription, l.description AS lineDescription, " +
+           "a.accountNumber AS accountNumber, l.debit AS debit, l.credit AS credit " +
+           "FROM JournalEntryLine l JOIN l.journalEntry e JOIN l.account a " +
+           "WHERE e.tenantId = :tenantId AND e.entityId = :entityId " +
+           "AND (a.accountNumber LIKE '2%' OR a.accountNumber = '1000') " +
+           "ORDER BY e.entryDate, e.entryNumber, l.lineNumber")
+    Stream<StatementLine> streamStatementLines(@Param("tenantId") String tenantId,
+                                               @Param("entityId") String entityId);
 }
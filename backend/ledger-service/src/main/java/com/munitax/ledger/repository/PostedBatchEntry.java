@@ -0,0 +1,22 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.enums.SourceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Projection of a journal entry already posted as part of a client batch, with the fields a
+ * resubmitted entry is compared against.
+ */
+public interface PostedBatchEntry {
+    Integer getBatchIndex();
+    UUID getEntryId();
+    String getEntryNumber();
+    String getEntityId();
+    LocalDate getEntryDate();
+    SourceType getSourceType();
+    UUID getSourceId();
+    BigDecimal getTotalDebits();
+}
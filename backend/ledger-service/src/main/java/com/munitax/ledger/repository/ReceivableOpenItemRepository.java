@@ -0,0 +1,42 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.model.ReceivableOpenItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReceivableOpenItemRepository extends JpaRepository<ReceivableOpenItem, UUID> {
+
+    /**
+     * Lock a filer's open items, oldest first (the order payments clear them in).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ReceivableOpenItem i WHERE i.tenantId = :tenantId AND i.filerId = :filerId " +
+           "AND i.remainingAmount > 0 ORDER BY i.openDate, i.entryNumber, i.lineNumber")
+    List<ReceivableOpenItem> lockOpenItems(@Param("tenantId") String tenantId,
+                                           @Param("filerId") String filerId);
+
+    /**
+     * Open amounts of all filers of a tenant per aging bucket, in one aggregate over open items.
+     * Bucket boundaries are passed as the oldest open date that still falls in the bucket.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN i.openDate >= :currentFrom THEN i.remainingAmount ELSE 0 END), 0) AS currentAmount, " +
+           "COALESCE(SUM(CASE WHEN i.openDate < :currentFrom AND i.openDate >= :thirtyFrom " +
+           "THEN i.remainingAmount ELSE 0 END), 0) AS thirtyDays, " +
+           "COALESCE(SUM(CASE WHEN i.openDate < :thirtyFrom AND i.openDate >= :sixtyFrom " +
+           "THEN i.remainingAmount ELSE 0 END), 0) AS sixtyDays, " +
+           "COALESCE(SUM(CASE WHEN i.openDate < :sixtyFrom THEN i.remainingAmount ELSE 0 END), 0) AS ninetyPlus " +
+           "FROM ReceivableOpenItem i WHERE i.tenantId = :tenantId AND i.remainingAmount > 0")
+    AgingTotals sumOpenItemsByAge(@Param("tenantId") String tenantId,
+                                  @Param("currentFrom") LocalDate currentFrom,
+                                  @Param("thirtyFrom") LocalDate thirtyFrom,
+                                  @Param("sixtyFrom") LocalDate sixtyFrom);
+}
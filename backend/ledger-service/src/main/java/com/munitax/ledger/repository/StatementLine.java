@@ -0,0 +1,20 @@
+package com.munitax.ledger.repository;
+
+import com.munitax.ledger.enums.SourceType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of one journal entry line shown on a filer account statement.
+ */
+public interface StatementLine {
+    LocalDate getEntryDate();
+    SourceType getSourceType();
+    String getEntryNumber();
+    String getEntryDescription();
+    String getLineDescription();
+    String getAccountNumber();
+    BigDecimal getDebit();
+    BigDecimal getCredit();
+}
@@ -0,0 +1,166 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.enums.NormalBalance;
+import com.munitax.ledger.model.AccountBalance;
+import com.munitax.ledger.model.ChartOfAccounts;
+import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.model.JournalEntryLine;
+import com.munitax.ledger.repository.AccountBalanceRepository;
+import com.munitax.ledger.repository.AccountTotals;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maintains materialized monthly account balances (account_balances).
+ *
+ * Each posted journal entry adds its debits/credits to the (account, entity, month) row
+ * and shifts the running beginning/ending balances of every later month, so reports can
+ * read closed periods from these rows instead of re-summing the full entry history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountBalanceService {
+
+    private final AccountBalanceRepository accountBalanceRepository;
+
+    /**
+     * Apply a posted journal entry to the period balances of its accounts.
+     * Must run in the posting transaction so the entry and its balances commit together.
+     *
+     * @param entry the posted journal entry
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyEntry(JournalEntry entry) {
+        applyEntries(List.of(entry));
+    }
+
+    /**
+     * Apply posted journal entries to period balances, updating each (entity, account, period)
+     * row once per call. Rows are locked in a fixed order so concurrent batches cannot deadlock.
+     *
+     * @param entries the posted journal entries
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyEntries(List<JournalEntry> entries) {
+        // Net lines per (entity, account, period) first - entries may touch the same account more than once
+        Map<BalanceKey, AccountActivity> activityByKey = new TreeMap<>();
+        for (JournalEntry entry : entries) {
+            if (entry.getEntityId() == null) {
+                log.debug("Journal entry {} has no entity, skipping period balances", entry.getEntryNumber());
+                continue;
+            }
+            LocalDate periodStart = periodStart(entry.getEntryDate());
+            for (JournalEntryLine line : entry.getLines()) {
+                BalanceKey key = new BalanceKey(line.getAccount().getAccountId(), entry.getEntityId(), periodStart);
+                activityByKey.computeIfAbsent(key, k -> new AccountActivity(entry.getTenantId(), line.getAccount()))
+                        .add(line.getDebit(), line.getCredit());
+            }
+        }
+
+        activityByKey.forEach((key, activity) ->
+                applyActivity(activity.tenantId, key.entityId(), key.periodStart(), activity));
+    }
+
+    /**
+     * Debit/credit totals per account over periods that ended before the given date.
+     *
+     * @param tenantId    the tenant ID
+     * @param entityId    filer or municipality ID
+     * @param periodStart first day of the open period
+     * @return closed-period totals per account
+     */
+    public List<AccountTotals> getClosedPeriodTotals(String tenantId, String entityId, LocalDate periodStart) {
+        return accountBalanceRepository.sumByAccountBefore(tenantId, entityId, periodStart);
+    }
+
+    /**
+     * @return first day of the balance period (calendar month) containing the date
+     */
+    public static LocalDate periodStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    /**
+     * Net change of an account in its normal-balance direction.
+     */
+    public static BigDecimal netChange(ChartOfAccounts account, BigDecimal debits, BigDecimal credits) {
+        return account.getNormalBalance() == NormalBalance.CREDIT
+                ? credits.subtract(debits)
+                : debits.subtract(credits);
+    }
+
+    private void applyActivity(String tenantId, String entityId, LocalDate periodStart, AccountActivity activity) {
+        UUID accountId = activity.account.getAccountId();
+        BigDecimal net = netChange(activity.account, activity.debits, activity.credits);
+
+        // Serialize with other postings to this account and entity, make sure the period row
+        // exists (opened from the prior period's ending balance), then lock it and later periods
+        accountBalanceRepository.lockAccountEntity(accountId + "|" + entityId);
+        accountBalanceRepository.insertIfAbsent(accountId, entityId, tenantId, periodStart,
+                periodStart.plusMonths(1).minusDays(1));
+        List<AccountBalance> balances = accountBalanceRepository.lockFromPeriod(accountId, entityId, periodStart);
+        if (balances.isEmpty() || !balances.get(0).getPeriodStartDate().equals(periodStart)) {
+            throw new IllegalStateException(String.format("Balance row for account %s, entity %s, period %s missing",
+                    activity.account.getAccountNumber(), entityId, periodStart));
+        }
+
+        AccountBalance current = balances.get(0);
+        current.setTotalDebits(current.getTotalDebits().add(activity.debits));
+        current.setTotalCredits(current.getTotalCredits().add(activity.credits));
+        current.setEndingBalance(current.getEndingBalance().add(net));
+        accountBalanceRepository.save(current);
+
+        // Back-dated posting: carry the change forward into later periods
+        if (net.signum() != 0) {
+            for (AccountBalance later : balances) {
+                if (later.getPeriodStartDate().isAfter(periodStart)) {
+                    later.setBeginningBalance(later.getBeginningBalance().add(net));
+                    later.setEndingBalance(later.getEndingBalance().add(net));
+                    accountBalanceRepository.save(later);
+                }
+            }
+        }
+    }
+
+    private record BalanceKey(UUID accountId, String entityId, LocalDate periodStart)
+            implements Comparable<BalanceKey> {
+
+        private static final Comparator<BalanceKey> ORDER = Comparator.comparing(BalanceKey::accountId)
+                .thenComparing(BalanceKey::entityId)
+                .thenComparing(BalanceKey::periodStart);
+
+        @Override
+        public int compareTo(BalanceKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static final class AccountActivity {
+        private final String tenantId;
+        private final ChartOfAccounts account;
+        private BigDecimal debits = BigDecimal.ZERO;
+        private BigDecimal credits = BigDecimal.ZERO;
+
+        private AccountActivity(String tenantId, ChartOfAccounts account) {
+            this.tenantId = tenantId;
+            this.account = account;
+        }
+
+        private void add(BigDecimal debit, BigDecimal credit) {
+            debits = debits.add(debit != null ? debit : BigDecimal.ZERO);
+            credits = credits.add(credit != null ? credit : BigDecimal.ZERO);
+        }
+    }
+}
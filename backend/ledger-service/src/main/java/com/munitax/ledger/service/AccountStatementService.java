@@ -4,17 +4,14 @@ import com.munitax.ledger.dto.AccountStatementResponse;
 import com.munitax.ledger.dto.AgingAnalysis;
 import com.munitax.ledger.dto.StatementTransaction;
 import com.munitax.ledger.enums.SourceType;
-import com.munitax.ledger.model.ChartOfAccounts;
 import com.munitax.ledger.model.JournalEntry;
 import com.munitax.ledger.model.JournalEntryLine;
-import com.munitax.ledger.repository.ChartOfAccountsRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -26,7 +23,8 @@ import java.util.stream.Collectors;
 public class AccountStatementService {
     
     private final JournalEntryService journalEntryService;
-    private final ChartOfAccountsRepository chartOfAccountsRepository;
+    private final ChartOfAccountsCache chartOfAccountsCache;
+    private final ReceivableSubledgerService receivableSubledgerService;
     
     /**
      * Generate comprehensive filer account statement.
@@ -56,9 +54,8 @@ public class AccountStatementService {
     public AccountStatementResponse generateFilerStatement(String tenantId, String filerId, 
                                                            LocalDate startDate, LocalDate endDate,
                                                            SourceType transactionType, String taxYear) {
-        // Get tax liability account
-        ChartOfAccounts taxLiabilityAccount = chartOfAccountsRepository
-                .findByAccountNumber("2100")
+        // Tax liability account must exist
+        chartOfAccountsCache.findAccount("2100")
                 .orElseThrow(() -> new IllegalArgumentException("Tax liability account not found"));
         
         // Get all journal entries for filer
@@ -136,105 +133,23 @@ public class AccountStatementService {
     
     /**
      * T037: Calculate aging analysis for outstanding balance.
+     * Read from the filer's aging summary in the receivables subledger.
      * 
      * @param tenantId The tenant identifier
      * @param filerId The filer identifier
      * @return AgingAnalysis with breakdown by age buckets
      */
     public AgingAnalysis calculateAgingAnalysis(String tenantId, String filerId) {
-        // Get all journal entries for filer
-        List<JournalEntry> entries = journalEntryService.getEntriesForEntity(tenantId, filerId);
-        
-        // Buckets: 0-30, 31-60, 61-90, 90+ days
-        BigDecimal current = BigDecimal.ZERO;        // 0-30 days
-        BigDecimal thirtyDays = BigDecimal.ZERO;     // 31-60 days
-        BigDecimal sixtyDays = BigDecimal.ZERO;      // 61-90 days
-        BigDecimal ninetyPlus = BigDecimal.ZERO;     // 90+ days
-        
-        LocalDate today = LocalDate.now();
-        
-        for (JournalEntry entry : entries) {
-            // Calculate days old
-            long daysOld = Period.between(entry.getEntryDate(), today).getDays();
-            
-            // Sum up outstanding amounts from liability accounts
-            for (JournalEntryLine line : entry.getLines()) {
-                String accountNumber = line.getAccount().getAccountNumber();
-                if (accountNumber.startsWith("2")) { // Liability accounts
-                    BigDecimal amount = line.getCredit().subtract(line.getDebit());
-                    
-                    if (amount.compareTo(BigDecimal.ZERO) > 0) {
-                        // Outstanding liability - categorize by age
-                        if (daysOld <= 30) {
-                            current = current.add(amount);
-                        } else if (daysOld <= 60) {
-                            thirtyDays = thirtyDays.add(amount);
-                        } else if (daysOld <= 90) {
-                            sixtyDays = sixtyDays.add(amount);
-                        } else {
-                            ninetyPlus = ninetyPlus.add(amount);
-                        }
-                    }
-                }
-            }
-        }
-        
-        BigDecimal totalOutstanding = current.add(thirtyDays).add(sixtyDays).add(ninetyPlus);
-        
-        return AgingAnalysis.builder()
-                .current(current)
-                .thirtyDays(thirtyDays)
-                .sixtyDays(sixtyDays)
-                .ninetyPlus(ninetyPlus)
-                .totalOutstanding(totalOutstanding)
-                .analysisDate(today)
-                .build();
-    }
-    
-    /**
-     * T035: Export statement to PDF format.
-     * TODO: Implement PDF generation using a library like iText or Apache PDFBox
-     * 
-     * @param tenantId The tenant identifier
-     * @param filerId The filer identifier
-     * @return byte[] PDF content
-     */
-    public byte[] exportStatementToPdf(String tenantId, String filerId) {
-        AccountStatementResponse statement = generateFilerStatement(tenantId, filerId, null, null);
-        
-        // TODO: Implement PDF generation
-        // For now, return placeholder
-        log.warn("PDF export not yet implemented - returning placeholder");
-        String placeholder = "Account Statement PDF for Filer: " + filerId;
-        return placeholder.getBytes();
+        return receivableSubledgerService.getFilerAging(tenantId, filerId);
     }
     
     /**
-     * T036: Export statement to CSV format.
+     * T037: Aging analysis of all filers' outstanding balances for a municipality.
      * 
      * @param tenantId The tenant identifier
-     * @param filerId The filer identifier
-     * @return String CSV content
+     * @return AgingAnalysis with breakdown by age buckets
      */
-    public String exportStatementToCsv(String tenantId, String filerId) {
-        AccountStatementResponse statement = generateFilerStatement(tenantId, filerId, null, null);
-        
-        StringBuilder csv = new StringBuilder();
-        
-        // CSV Header
-        csv.append("Date,Transaction Type,Description,Debit,Credit,Balance,Entry Number\n");
-        
-        // CSV Rows
-        for (StatementTransaction transaction : statement.getTransactions()) {
-            csv.append(transaction.getTransactionDate()).append(",");
-            csv.append(transaction.getTransactionType()).append(",");
-            csv.append("\"").append(transaction.getDescription()).append("\",");
-            csv.append(transaction.getDebitAmount()).append(",");
-            csv.append(transaction.getCreditAmount()).append(",");
-            csv.append(transaction.getRunningBalance()).append(",");
-            csv.append(transaction.getEntryNumber()).append("\n");
-        }
-        
-        return csv.toString();
+    public AgingAnalysis calculateMunicipalityAgingAnalysis(String tenantId) {
+        return receivableSubledgerService.getMunicipalityAging(tenantId);
     }
 }
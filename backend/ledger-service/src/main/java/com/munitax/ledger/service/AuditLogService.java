@@ -1,15 +1,29 @@
 package com.munitax.ledger.service;
 
+import com.munitax.ledger.dto.AuditLogFilter;
+import com.munitax.ledger.dto.AuditLogPage;
 import com.munitax.ledger.model.AuditLog;
 import com.munitax.ledger.repository.AuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -17,6 +31,10 @@ import java.util.UUID;
 public class AuditLogService {
     
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+    
+    @Value("${ledger.audit.query.max-page-size:500}")
+    private int maxPageSize = 500;
     
     @Transactional
     public void logAction(UUID entityId, String entityType, String action, 
@@ -31,7 +49,7 @@ public class AuditLogService {
                 .tenantId(tenantId)
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
         log.debug("Audit log created: {} {} by user {}", action, entityType, userId);
     }
     
@@ -51,10 +69,18 @@ public class AuditLogService {
                 .tenantId(tenantId)
                 .build();
         
-        auditLogRepository.save(auditLog);
+        auditLogWriter.write(auditLog);
         log.debug("Audit log created: {} {} by user {}", action, entityType, userId);
     }
     
+    /**
+     * Record many audit rows at once (batch journal posting).
+     */
+    public void logActions(List<AuditLog> auditLogs) {
+        auditLogWriter.writeAll(auditLogs);
+        log.debug("Audit logs created: {}", auditLogs.size());
+    }
+    
     public List<AuditLog> getAuditTrail(UUID entityId) {
         return auditLogRepository.findByEntityIdOrderByTimestampDesc(entityId);
     }
@@ -79,7 +105,7 @@ public class AuditLogService {
                 .tenantId(tenantId)
                 .build();
         
-        auditLogRepository.save(accessLog);
+        auditLogWriter.write(accessLog);
         log.debug("Audit access logged: {} viewed by user {}", entityType, userId);
     }
     
@@ -93,17 +119,122 @@ public class AuditLogService {
     
     /**
      * T072 - Query audit trail with filters
-     * Supports filtering by action type, date range, and user
+     * Supports filtering by entity type, action, user and time range.
+     * Pages are read by seeking past the cursor on (timestamp, logId), so each page costs
+     * the same regardless of how deep it is or how much history the tenant has.
+     *
+     * @param filter tenant and optional filters
+     * @param cursor cursor from the previous page (null for the first page)
+     * @param limit page size (1 to ledger.audit.query.max-page-size)
+     * @return page of audit logs, newest first
+     */
+    @Transactional(readOnly = true)
+    public AuditLogPage getFilteredAuditTrail(AuditLogFilter filter, String cursor, int limit) {
+        validateFilter(filter);
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxPageSize);
+        }
+        
+        LocalDateTime afterTimestamp = null;
+        UUID afterLogId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterTimestamp = LocalDateTime.parse(position[0]);
+            afterLogId = UUID.fromString(position[1]);
+        }
+        
+        // One extra row tells whether another page follows
+        List<AuditLog> logs = auditLogRepository.findFilteredPage(filter, afterTimestamp, afterLogId, limit + 1);
+        boolean hasMore = logs.size() > limit;
+        List<AuditLog> items = hasMore ? logs.subList(0, limit) : logs;
+        
+        String nextCursor = null;
+        if (hasMore) {
+            AuditLog last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getLogId());
+        }
+        
+        return AuditLogPage.builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    /**
+     * Export the filtered audit trail as CSV, newest first.
+     * Rows are streamed from a database cursor to the output, so memory use does not grow
+     * with the number of rows exported.
+     *
+     * @param filter tenant and optional filters
+     * @param output destination of the CSV
+     * @return number of rows written
      */
-    public List<AuditLog> getFilteredAuditTrail(String tenantId, String entityType, 
-                                                String action, UUID userId) {
-        // For now, return all tenant logs - repository method can be enhanced for filtering
-        List<AuditLog> allLogs = auditLogRepository.findByTenantIdOrderByTimestampDesc(tenantId);
+    @Transactional(readOnly = true)
+    public long exportFilteredAuditTrail(AuditLogFilter filter, OutputStream output) throws IOException {
+        validateFilter(filter);
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("Log ID,Timestamp,Entity Type,Entity ID,Action,User ID,Details,Old Value,New Value,Reason\n");
         
-        return allLogs.stream()
-                .filter(log -> entityType == null || entityType.equals(log.getEntityType()))
-                .filter(log -> action == null || action.equals(log.getAction()))
-                .filter(log -> userId == null || userId.equals(log.getUserId()))
-                .toList();
+        long rows = 0;
+        try (Stream<AuditLog> logs = auditLogRepository.streamFiltered(filter)) {
+            Iterator<AuditLog> iterator = logs.iterator();
+            while (iterator.hasNext()) {
+                AuditLog auditLog = iterator.next();
+                writer.write(String.join(",",
+                        String.valueOf(auditLog.getLogId()),
+                        String.valueOf(auditLog.getTimestamp()),
+                        csv(auditLog.getEntityType()),
+                        String.valueOf(auditLog.getEntityId()),
+                        csv(auditLog.getAction()),
+                        String.valueOf(auditLog.getUserId()),
+                        csv(auditLog.getDetails()),
+                        csv(auditLog.getOldValue()),
+                        csv(auditLog.getNewValue()),
+                        csv(auditLog.getReason())));
+                writer.write("\n");
+                rows++;
+            }
+        }
+        writer.flush();
+        
+        log.info("Exported {} audit log entries for tenant {}", rows, filter.getTenantId());
+        return rows;
+    }
+    
+    private void validateFilter(AuditLogFilter filter) {
+        if (filter == null || filter.getTenantId() == null || filter.getTenantId().isBlank()) {
+            throw new IllegalArgumentException("Tenant ID is required");
+        }
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new IllegalArgumentException("From must be before to");
+        }
+    }
+    
+    static String encodeCursor(LocalDateTime timestamp, UUID logId) {
+        String position = timestamp + "|" + logId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            LocalDateTime.parse(position[0]);
+            UUID.fromString(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
     }
 }
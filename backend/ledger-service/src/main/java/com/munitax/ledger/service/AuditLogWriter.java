@@ -0,0 +1,501 @@
+package com.munitax.ledger.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munitax.ledger.model.AuditLog;
+import com.munitax.ledger.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asynchronous, batched writer for ledger audit logs.
+ *
+ * Audit rows are append-only and never read back by the request that creates them, so the
+ * posting path only hands them to a bounded queue:
+ * 1. Rows get their log ID on the caller thread. Inside a transaction they are appended to the
+ *    write-ahead log (see AuditWriteAheadLog) just before it commits, so a failed append fails the
+ *    posting, and queued once it has committed; rows of rolled-back postings are marked discarded.
+ *    Outside a transaction they are appended and queued at once
+ * 2. Write-ahead segments left over from a crash are replayed on startup; the write-ahead log is on
+ *    by default and is only skipped when {@code wal-dir} is set empty. Each instance locks its
+ *    {@code wal-dir}, so instances sharing a working directory need their own setting
+ * 3. A background thread writes queued rows as multi-row INSERTs of up to {@code batch-size} rows,
+ *    every {@code flush-interval-ms} or as soon as the queue reaches the batch size
+ * 4. Inserts skip rows whose log ID already exists, so retries and replays are at-least-once
+ *    without duplicates; a failed batch is retried on the next flush. After {@code max-attempts}
+ *    failures it is split and written row by row, and rows that still fail are moved to the
+ *    audit_log_dead_letters table so one bad row cannot block the queue
+ * 5. On graceful shutdown the queue is drained before the datasource is closed
+ *
+ * Backpressure: when the queue is full the row is written on the caller thread. That write runs
+ * after the posting committed, so a failure is logged and the row is handed to the flusher instead of
+ * being thrown to the caller. When disabled, or once shutdown began before the commit, rows are saved
+ * synchronously in the caller's transaction as before.
+ *
+ * Metrics (tagged with {@code buffer=audit_logs}):
+ * - audit.write_behind.queue.depth / queue.remaining: queued rows and free capacity
+ * - audit.write_behind.flush: latency per batch insert
+ * - audit.write_behind.written: rows written
+ * - audit.write_behind.failures: failed batch inserts
+ * - audit.write_behind.sync_fallback: rows written on the caller thread because the queue was full
+ * - audit.write_behind.dead_lettered: rows moved to audit_log_dead_letters
+ * - audit.write_behind.wal.replayed: rows replayed from the write-ahead log on startup
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final String BUFFER = "audit_logs";
+    private static final String INSERT_COLUMNS = "INSERT INTO audit_logs (log_id, entity_id, entity_type, action, "
+            + "user_id, timestamp, details, old_value, new_value, reason, tenant_id) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ON_CONFLICT = " ON CONFLICT (log_id) DO NOTHING";
+    private static final String INSERT_DEAD_LETTER = "INSERT INTO audit_log_dead_letters (log_id, payload, error, "
+            + "failed_at) VALUES (?, ?, ?, ?) ON CONFLICT (log_id) DO NOTHING";
+
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Whether audit rows are queued. When false they are saved synchronously.
+     */
+    @Value("${ledger.audit.writer.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum queued rows.
+     */
+    @Value("${ledger.audit.writer.capacity:10000}")
+    private int capacity;
+
+    /**
+     * Rows per multi-row INSERT.
+     */
+    @Value("${ledger.audit.writer.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Maximum time a row waits in the queue before being written.
+     */
+    @Value("${ledger.audit.writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * Failed attempts of a batch before it is split and failing rows are dead-lettered.
+     */
+    @Value("${ledger.audit.writer.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Directory for the write-ahead log; empty disables it. Locked by this instance while running.
+     */
+    @Value("${ledger.audit.writer.wal-dir:data/audit-wal}")
+    private String walDir;
+
+    /**
+     * Force every write-ahead append to disk (protects against power loss, at a latency cost).
+     */
+    @Value("${ledger.audit.writer.wal-fsync:false}")
+    private boolean walFsync;
+
+    private BlockingQueue<AuditLog> queue;
+    private AuditWriteAheadLog writeAheadLog;
+    private ScheduledExecutorService scheduler;
+    private final AtomicBoolean flushPending = new AtomicBoolean(false);
+    private volatile boolean running;
+
+    // Flusher thread state (guarded by flush())
+    private final List<AuditLog> retryBatch = new ArrayList<>();
+    private int retryAttempts;
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    // Committed rows whose caller-thread write failed; written by the flusher
+    private final Queue<AuditLog> overflow = new ConcurrentLinkedQueue<>();
+
+    private Timer flushTimer;
+    private Counter writtenCounter;
+    private Counter failureCounter;
+    private Counter syncFallbackCounter;
+    private Counter deadLetterCounter;
+
+    /**
+     * Record an audit row.
+     *
+     * @param auditLog row to write
+     */
+    public void write(AuditLog auditLog) {
+        if (!running) {
+            auditLogRepository.save(auditLog);
+            return;
+        }
+        prepare(auditLog);
+        submit(List.of(auditLog));
+    }
+
+    /**
+     * Record several audit rows (batch posting).
+     *
+     * @param auditLogs rows to write
+     */
+    public void writeAll(List<AuditLog> auditLogs) {
+        if (!running) {
+            auditLogRepository.saveAll(auditLogs);
+            return;
+        }
+        auditLogs.forEach(this::prepare);
+        submit(List.copyOf(auditLogs));
+    }
+
+    /**
+     * Write everything currently queued.
+     *
+     * @return number of rows written
+     */
+    public synchronized int flush() {
+        if (queue == null) {
+            return 0;
+        }
+        flushPending.set(false);
+        if (writeAheadLog != null) {
+            Path sealed = writeAheadLog.seal();
+            if (sealed != null) {
+                sealedSegments.add(sealed);
+            }
+        }
+
+        int written = 0;
+        try {
+            AuditLog failed;
+            while (retryBatch.size() < batchSize && (failed = overflow.poll()) != null) {
+                retryBatch.add(failed);
+            }
+            if (!retryBatch.isEmpty()) {
+                insertBatch(retryBatch);
+                written += retryBatch.size();
+                retryBatch.clear();
+                retryAttempts = 0;
+            }
+            while (queue.drainTo(retryBatch, batchSize) > 0) {
+                insertBatch(retryBatch);
+                written += retryBatch.size();
+                retryBatch.clear();
+            }
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            if (++retryAttempts < maxAttempts) {
+                log.error("Failed to write {} audit logs, will retry: {}", retryBatch.size(), e.getMessage());
+                return written;
+            }
+            retryAttempts = 0;
+            return written + writeRowByRow();
+        }
+
+        // Everything queued before the seal is in the database
+        if (!sealedSegments.isEmpty()) {
+            writeAheadLog.delete(sealedSegments);
+            sealedSegments.clear();
+        }
+        return written;
+    }
+
+    /**
+     * @return number of rows waiting to be written
+     */
+    public int queued() {
+        return queue == null ? 0 : queue.size() + retryBatch.size() + overflow.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Asynchronous audit writer disabled, audit logs will be written synchronously");
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(capacity);
+        registerMetrics();
+
+        if (!walDir.isBlank()) {
+            writeAheadLog = new AuditWriteAheadLog(Path.of(walDir), objectMapper, walFsync);
+            replayWriteAheadLog();
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-audit-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+
+        log.info("Asynchronous audit writer started (capacity {}, batch size {}, flush interval {} ms, write-ahead log {})",
+                capacity, batchSize, flushIntervalMs, writeAheadLog != null ? walDir : "off");
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Audit writer flush still running after 30s, draining on shutdown thread");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int drained = 0;
+        while (queued() > 0) {
+            int written = flush();
+            if (written == 0) {
+                log.error("Audit writer could not drain on shutdown, {} audit logs unwritten{}", queued(),
+                        writeAheadLog != null ? " (kept in the write-ahead log)" : "");
+                break;
+            }
+            drained += written;
+        }
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+        log.info("Asynchronous audit writer stopped, drained {} audit logs", drained);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop before other lifecycle beans so the datasource is still open while draining.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+
+    private void prepare(AuditLog auditLog) {
+        // IDs are assigned here so retried and replayed inserts are idempotent
+        if (auditLog.getLogId() == null) {
+            auditLog.setLogId(UUID.randomUUID());
+        }
+        if (auditLog.getTimestamp() == null) {
+            auditLog.setTimestamp(LocalDateTime.now());
+        }
+    }
+
+    private void submit(List<AuditLog> auditLogs) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            auditLogs.forEach(this::enqueue);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean appended;
+            private boolean inserted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!running) {
+                    // Shutdown began; write in the posting transaction instead
+                    insertBatch(auditLogs);
+                    inserted = true;
+                } else if (writeAheadLog != null) {
+                    writeAheadLog.appendPending(auditLogs);
+                    appended = true;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                if (appended) {
+                    writeAheadLog.complete(auditLogs, committed, () -> auditLogs.forEach(AuditLogWriter.this::offer));
+                } else if (committed && !inserted) {
+                    auditLogs.forEach(AuditLogWriter.this::offer);
+                }
+            }
+        });
+    }
+
+    private void enqueue(AuditLog auditLog) {
+        if (!running) {
+            insertBatch(List.of(auditLog));
+            return;
+        }
+        if (writeAheadLog != null) {
+            writeAheadLog.append(auditLog, () -> offer(auditLog));
+        } else {
+            offer(auditLog);
+        }
+    }
+
+    private void offer(AuditLog auditLog) {
+        if (!running || !queue.offer(auditLog)) {
+            if (running) {
+                log.warn("Audit writer queue full, writing audit log synchronously");
+                syncFallbackCounter.increment();
+            }
+            try {
+                insertBatch(List.of(auditLog));
+            } catch (RuntimeException e) {
+                // The posting has committed: never fail the caller, leave the row to the flusher
+                failureCounter.increment();
+                overflow.add(auditLog);
+                log.error("Failed to write audit log {} synchronously, will retry: {}",
+                        auditLog.getLogId(), e.getMessage());
+            }
+            return;
+        }
+        if (queue.size() >= batchSize && flushPending.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; stop() drains the queue
+                flushPending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Write a repeatedly failing batch one row at a time; rows that fail on their own are moved to
+     * the dead-letter table. Rows that cannot be dead-lettered either (database unavailable) stay
+     * in the retry batch.
+     */
+    private int writeRowByRow() {
+        int written = 0;
+        List<AuditLog> remaining = new ArrayList<>();
+        for (AuditLog auditLog : retryBatch) {
+            try {
+                insertBatch(List.of(auditLog));
+                written++;
+            } catch (RuntimeException rowError) {
+                if (!deadLetter(auditLog, rowError)) {
+                    remaining.add(auditLog);
+                }
+            }
+        }
+        retryBatch.clear();
+        retryBatch.addAll(remaining);
+        if (!remaining.isEmpty()) {
+            log.error("Failed to write {} audit logs row by row, will retry", remaining.size());
+        }
+        return written;
+    }
+
+    private boolean deadLetter(AuditLog auditLog, RuntimeException rowError) {
+        try {
+            jdbcTemplate.update(INSERT_DEAD_LETTER, auditLog.getLogId(), objectMapper.writeValueAsString(auditLog),
+                    String.valueOf(rowError.getMessage()), LocalDateTime.now());
+        } catch (JsonProcessingException | RuntimeException e) {
+            return false;
+        }
+        deadLetterCounter.increment();
+        log.error("Moved audit log {} to audit_log_dead_letters: {}", auditLog.getLogId(), rowError.getMessage());
+        return true;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Audit writer flush failed: {}", e.getMessage());
+        }
+    }
+
+    private void replayWriteAheadLog() {
+        List<Path> segments = writeAheadLog.recoverableSegments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        int replayed = 0;
+        try {
+            for (Path segment : segments) {
+                List<AuditLog> rows = writeAheadLog.read(segment);
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    insertBatch(rows.subList(from, Math.min(from + batchSize, rows.size())));
+                }
+                replayed += rows.size();
+                writeAheadLog.delete(List.of(segment));
+            }
+        } catch (RuntimeException e) {
+            // Segments stay on disk and are replayed again on the next start
+            log.error("Failed to replay audit write-ahead log after {} rows: {}", replayed, e.getMessage());
+        }
+        meterRegistry.counter("audit.write_behind.wal.replayed", "buffer", BUFFER).increment(replayed);
+        log.info("Replayed {} audit logs from {} write-ahead segments", replayed, segments.size());
+    }
+
+    /**
+     * One multi-row INSERT; rows already present (by log ID) are skipped.
+     */
+    private void insertBatch(List<AuditLog> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_COLUMNS.length() + batch.size() * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_COLUMNS);
+        Object[] args = new Object[batch.size() * 11];
+        int i = 0;
+        for (AuditLog auditLog : batch) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+            args[i++] = auditLog.getLogId();
+            args[i++] = auditLog.getEntityId();
+            args[i++] = auditLog.getEntityType();
+            args[i++] = auditLog.getAction();
+            args[i++] = auditLog.getUserId();
+            args[i++] = auditLog.getTimestamp();
+            args[i++] = auditLog.getDetails();
+            args[i++] = auditLog.getOldValue();
+            args[i++] = auditLog.getNewValue();
+            args[i++] = auditLog.getReason();
+            args[i++] = auditLog.getTenantId();
+        }
+        sql.append(ON_CONFLICT);
+
+        flushTimer.record(() -> jdbcTemplate.update(sql.toString(), args));
+        writtenCounter.increment(batch.size());
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("audit.write_behind.queue.depth", queue, BlockingQueue::size)
+                .tag("buffer", BUFFER)
+                .register(meterRegistry);
+        Gauge.builder("audit.write_behind.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .tag("buffer", BUFFER)
+                .register(meterRegistry);
+        flushTimer = Timer.builder("audit.write_behind.flush").tag("buffer", BUFFER).register(meterRegistry);
+        writtenCounter = meterRegistry.counter("audit.write_behind.written", "buffer", BUFFER);
+        failureCounter = meterRegistry.counter("audit.write_behind.failures", "buffer", BUFFER);
+        syncFallbackCounter = meterRegistry.counter("audit.write_behind.sync_fallback", "buffer", BUFFER);
+        deadLetterCounter = meterRegistry.counter("audit.write_behind.dead_lettered", "buffer", BUFFER);
+    }
+}
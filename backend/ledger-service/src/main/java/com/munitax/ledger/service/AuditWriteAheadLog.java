@@ -0,0 +1,321 @@
+package com.munitax.ledger.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.munitax.ledger.model.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only file of queued audit rows, so rows accepted by AuditLogWriter survive a crash
+ * before they reach the database.
+ *
+ * Rows are appended as JSON lines to the active segment (audit-&lt;n&gt;.wal). Before each flush the
+ * writer seals the active segment and starts a new one; a sealed segment is deleted once every row
+ * queued up to that point has been written. Segments left over from a previous run are replayed on
+ * startup. Rows carry their log ID, so a replayed row that was already written is skipped.
+ *
+ * Appending and queueing happen under the shared lock and sealing under the exclusive lock, so every
+ * row in a sealed segment is already on the queue. Rows of a posting transaction are appended before
+ * it commits and the shared lock is held until its outcome is known: committed rows are then queued,
+ * rolled-back rows are followed by a discard record so they are not replayed.
+ *
+ * The directory is held with an exclusive lock on its wal.lock file for the life of the log, so a
+ * second instance pointed at the same directory fails on startup instead of replaying and deleting
+ * the first instance's segments.
+ */
+@Slf4j
+public class AuditWriteAheadLog implements AutoCloseable {
+
+    private static final String SUFFIX = ".wal";
+    private static final String DISCARDED = "discardedLogIds";
+    private static final String LOCK_FILE = "wal.lock";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final boolean fsync;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel lockChannel;
+    private FileChannel channel;
+    private Path activeSegment;
+    private long nextSequence;
+    private volatile boolean dirty;
+
+    /**
+     * @param directory directory holding the segments (created if missing)
+     * @param objectMapper mapper for serializing rows
+     * @param fsync force each append to disk (survives power loss, not only process crashes)
+     * @throws IllegalStateException if another instance holds the directory
+     */
+    public AuditWriteAheadLog(Path directory, ObjectMapper objectMapper, boolean fsync) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            lockDirectory();
+            nextSequence = segments().stream().mapToLong(AuditWriteAheadLog::sequence).max().orElse(0) + 1;
+            openSegment();
+        } catch (IOException e) {
+            releaseDirectory();
+            throw new UncheckedIOException("Cannot open audit write-ahead log in " + directory, e);
+        }
+    }
+
+    /**
+     * Append a row and run the follow-up action (queueing) before the segment can be sealed.
+     *
+     * @param auditLog row with its log ID assigned
+     * @param afterAppend action run while the segment is still active
+     */
+    public void append(AuditLog auditLog, Runnable afterAppend) {
+        byte[] line = serialize(List.of(auditLog));
+
+        lock.readLock().lock();
+        try {
+            writeLine(line);
+            afterAppend.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Append the rows of a transaction that is about to commit. The segment cannot be sealed until
+     * {@link #complete} is called on the same thread with the transaction outcome.
+     *
+     * @param auditLogs rows with their log IDs assigned
+     */
+    public void appendPending(List<AuditLog> auditLogs) {
+        byte[] lines = serialize(auditLogs);
+
+        lock.readLock().lock();
+        try {
+            writeLine(lines);
+        } catch (RuntimeException e) {
+            lock.readLock().unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Finish rows added with {@link #appendPending}: queue committed rows, mark rolled-back rows as
+     * discarded.
+     *
+     * @param auditLogs the rows passed to appendPending
+     * @param committed whether the transaction committed
+     * @param afterCommit action run for committed rows while the segment is still active
+     */
+    public void complete(List<AuditLog> auditLogs, boolean committed, Runnable afterCommit) {
+        try {
+            if (committed) {
+                afterCommit.run();
+            } else {
+                writeLine(serializeDiscard(auditLogs));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Close the active segment and start a new one, unless nothing was appended since the last seal.
+     *
+     * @return the sealed segment, or null if the active segment is empty
+     */
+    public Path seal() {
+        lock.writeLock().lock();
+        try {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            Path sealed = activeSegment;
+            channel.close();
+            openSegment();
+            return sealed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate audit write-ahead log " + activeSegment, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete sealed segments whose rows have all been written.
+     */
+    public void delete(List<Path> sealedSegments) {
+        for (Path segment : sealedSegments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Failed to delete audit write-ahead segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Segments other than the active one, oldest first (left over from a previous run).
+     */
+    public List<Path> recoverableSegments() {
+        try {
+            return segments().stream().filter(segment -> !segment.equals(activeSegment)).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list audit write-ahead log " + directory, e);
+        }
+    }
+
+    /**
+     * Read the rows of a segment, leaving out rows of rolled-back transactions. A torn last line
+     * from a crash mid-append is skipped.
+     */
+    public List<AuditLog> read(Path segment) {
+        List<AuditLog> rows = new ArrayList<>();
+        Set<UUID> discarded = new HashSet<>();
+        try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode record = objectMapper.readTree(line);
+                    if (record.has(DISCARDED)) {
+                        record.get(DISCARDED).forEach(logId -> discarded.add(UUID.fromString(logId.asText())));
+                    } else {
+                        rows.add(objectMapper.treeToValue(record, AuditLog.class));
+                    }
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable audit write-ahead record in {}: {}", segment, e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit write-ahead segment " + segment, e);
+        }
+        rows.removeIf(row -> discarded.contains(row.getLogId()));
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit write-ahead segment {}: {}", activeSegment, e.getMessage());
+        } finally {
+            releaseDirectory();
+            lock.writeLock().unlock();
+        }
+    }
+
+    private byte[] serialize(List<AuditLog> auditLogs) {
+        StringBuilder lines = new StringBuilder();
+        for (AuditLog auditLog : auditLogs) {
+            try {
+                lines.append(objectMapper.writeValueAsString(auditLog)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize audit log " + auditLog.getLogId(), e);
+            }
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] serializeDiscard(List<AuditLog> auditLogs) {
+        ObjectNode record = objectMapper.createObjectNode();
+        ArrayNode logIds = record.putArray(DISCARDED);
+        auditLogs.forEach(auditLog -> logIds.add(auditLog.getLogId().toString()));
+        return (record + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Callers hold the shared lock
+    private void writeLine(byte[] line) {
+        try {
+            dirty = true;
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to audit write-ahead log " + activeSegment, e);
+        }
+    }
+
+    private void lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock directoryLock;
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            releaseDirectory();
+            throw new IllegalStateException("Audit write-ahead log directory " + directory
+                    + " is in use by another instance; give each instance its own wal-dir");
+        }
+    }
+
+    private void releaseDirectory() {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            // Closing the channel releases the lock
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to release audit write-ahead log directory {}: {}", directory, e.getMessage());
+        }
+        lockChannel = null;
+    }
+
+    private void openSegment() throws IOException {
+        activeSegment = directory.resolve(String.format("audit-%019d%s", nextSequence++, SUFFIX));
+        channel = FileChannel.open(activeSegment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("audit-".length(), name.length() - SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.model.AccountDescriptor;
+import com.munitax.ledger.repository.ChartOfAccountsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory chart of accounts for the posting and statement hot paths.
+ *
+ * Process:
+ * 1. The whole chart is loaded once into an immutable snapshot, indexed by account number
+ *    (account numbers are unique across tenants) and grouped per tenant
+ * 2. Lookups read the snapshot without touching the database
+ * 3. The snapshot is dropped when an account is saved or deleted on this node (and again
+ *    after that transaction commits), and reloaded after the TTL so changes made on other
+ *    nodes are picked up
+ * 4. An unknown account number triggers one database check; if the account exists the
+ *    snapshot is reloaded
+ */
+@Service
+@Slf4j
+public class ChartOfAccountsCache {
+
+    private final ChartOfAccountsRepository chartOfAccountsRepository;
+
+    private volatile Snapshot snapshot;
+
+    // Bumped on every invalidation so a load racing with a chart change is not published
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${ledger.chart-of-accounts.cache-ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    public ChartOfAccountsCache(ChartOfAccountsRepository chartOfAccountsRepository) {
+        this.chartOfAccountsRepository = chartOfAccountsRepository;
+    }
+
+    /**
+     * Find an account by number.
+     *
+     * @param accountNumber the account number, e.g. 2100
+     * @return the account, or empty if it does not exist
+     */
+    public Optional<AccountDescriptor> findAccount(String accountNumber) {
+        AccountDescriptor account = current().byNumber().get(accountNumber);
+        if (account != null || accountNumber == null) {
+            return Optional.ofNullable(account);
+        }
+
+        // Possibly created after the snapshot was taken
+        if (chartOfAccountsRepository.findByAccountNumber(accountNumber).isEmpty()) {
+            return Optional.empty();
+        }
+        invalidate();
+        return Optional.ofNullable(current().byNumber().get(accountNumber));
+    }
+
+    /**
+     * Get an account by number.
+     *
+     * @param accountNumber the account number
+     * @return the account
+     * @throws IllegalArgumentException if the account does not exist
+     */
+    public AccountDescriptor getAccount(String accountNumber) {
+        return findAccount(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountNumber));
+    }
+
+    /**
+     * All accounts of a tenant's chart, ordered by account number.
+     *
+     * @param tenantId the tenant ID
+     * @return the tenant's accounts (empty if none)
+     */
+    public List<AccountDescriptor> getAccounts(String tenantId) {
+        return current().byTenant().getOrDefault(tenantId, List.of());
+    }
+
+    /**
+     * Drop the snapshot now and, inside a transaction, again after commit so a reload
+     * in between cannot keep uncommitted or stale rows.
+     */
+    public void invalidate() {
+        drop();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop();
+                }
+            });
+        }
+    }
+
+    private void drop() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(ttlSeconds)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isExpired(ttlSeconds)) {
+                long loadingGeneration = generation.get();
+                current = load();
+                if (generation.get() == loadingGeneration) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        List<AccountDescriptor> accounts = chartOfAccountsRepository.findAll().stream()
+                .map(AccountDescriptor::from)
+                .sorted(Comparator.comparing(AccountDescriptor::accountNumber))
+                .toList();
+
+        Map<String, AccountDescriptor> byNumber = accounts.stream()
+                .collect(Collectors.toUnmodifiableMap(AccountDescriptor::accountNumber, Function.identity()));
+        Map<String, List<AccountDescriptor>> byTenant = accounts.stream()
+                .collect(Collectors.groupingBy(AccountDescriptor::tenantId,
+                        Collectors.collectingAndThen(Collectors.toList(), List::copyOf)));
+
+        log.info("Loaded chart of accounts cache: {} accounts across {} tenants", accounts.size(), byTenant.size());
+        return new Snapshot(byNumber, Map.copyOf(byTenant), System.nanoTime());
+    }
+
+    private record Snapshot(Map<String, AccountDescriptor> byNumber,
+                            Map<String, List<AccountDescriptor>> byTenant,
+                            long loadedAtNanos) {
+
+        boolean isExpired(long ttlSeconds) {
+            return System.nanoTime() - loadedAtNanos > ttlSeconds * 1_000_000_000L;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.munitax.ledger.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * JPA listener on ChartOfAccounts that invalidates the chart of accounts cache on any change.
+ * Instantiated by Hibernate through the Spring bean container; the cache is injected lazily
+ * because the listener is created while the entity manager factory is being built.
+ */
+public class ChartOfAccountsCacheListener {
+
+    @Autowired
+    @Lazy
+    private ChartOfAccountsCache chartOfAccountsCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object account) {
+        if (chartOfAccountsCache != null) {
+            chartOfAccountsCache.invalidate();
+        }
+    }
+}
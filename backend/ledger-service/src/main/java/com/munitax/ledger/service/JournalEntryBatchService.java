@@ -0,0 +1,315 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.dto.BatchJournalEntryRequest;
+import com.munitax.ledger.dto.BatchJournalEntryResponse;
+import com.munitax.ledger.dto.JournalEntryLineRequest;
+import com.munitax.ledger.dto.JournalEntryRequest;
+import com.munitax.ledger.enums.EntryStatus;
+import com.munitax.ledger.model.AuditLog;
+import com.munitax.ledger.model.ChartOfAccounts;
+import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.model.JournalEntryLine;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import com.munitax.ledger.repository.PostedBatchEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Posts many journal entries at once for assessment runs and lockbox imports.
+ *
+ * Process:
+ * 1. Validate every entry (required fields, balance, accounts) before anything is written
+ * 2. Resolve all referenced accounts from the chart of accounts cache
+ * 3. Split into chunks; each chunk is persisted in its own transaction:
+ *    - entry numbers leased as one block per (tenant, year)
+ *    - entries and lines saved with JDBC batching (hibernate.jdbc.batch_size)
+ *    - period balances updated once per (entity, account, period)
+ *    - receivable open items and aging updated once per filer
+ *    - audit rows inserted as a batch
+ *
+ * Chunks that committed stay posted if a later chunk fails; the exception reports how many were posted.
+ * When the request carries a batchId, each entry records the batch ID and its position, and
+ * resubmitting the batch with the same ID posts only the entries that are not posted yet.
+ * Batch IDs are scoped by tenant, so such a batch must be single-tenant, and a resubmitted entry
+ * must match the one posted at its position (entity, date, source and amount).
+ */
+@Service
+@Slf4j
+public class JournalEntryBatchService {
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final ChartOfAccountsCache chartOfAccountsCache;
+    private final JournalEntryNumberAllocator entryNumberAllocator;
+    private final AccountBalanceService accountBalanceService;
+    private final ReceivableSubledgerService receivableSubledgerService;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate chunkTransaction;
+
+    @Value("${ledger.journal.batch-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${ledger.journal.batch-max-entries:50000}")
+    private int maxEntries;
+
+    public JournalEntryBatchService(JournalEntryRepository journalEntryRepository,
+                                    ChartOfAccountsCache chartOfAccountsCache,
+                                    JournalEntryNumberAllocator entryNumberAllocator,
+                                    AccountBalanceService accountBalanceService,
+                                    ReceivableSubledgerService receivableSubledgerService,
+                                    AuditLogService auditLogService,
+                                    PlatformTransactionManager transactionManager) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.chartOfAccountsCache = chartOfAccountsCache;
+        this.entryNumberAllocator = entryNumberAllocator;
+        this.accountBalanceService = accountBalanceService;
+        this.receivableSubledgerService = receivableSubledgerService;
+        this.auditLogService = auditLogService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Validate and post a batch of journal entries.
+     *
+     * @param batch entries to post
+     * @return IDs and numbers of the posted entries, in request order
+     * @throws IllegalArgumentException if any entry is invalid (nothing is posted)
+     */
+    public BatchJournalEntryResponse postBatch(BatchJournalEntryRequest batch) {
+        List<JournalEntryRequest> requests = batch.getEntries();
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one journal entry");
+        }
+        if (requests.size() > maxEntries) {
+            throw new IllegalArgumentException(String.format(
+                    "Batch contains %d entries; maximum is %d", requests.size(), maxEntries));
+        }
+
+        Map<String, ChartOfAccounts> accounts = resolveAccounts(requests);
+        for (int i = 0; i < requests.size(); i++) {
+            validate(i, requests.get(i), accounts);
+        }
+
+        // Entries posted by an earlier submission of the same batch
+        UUID[] entryIds = new UUID[requests.size()];
+        String[] entryNumbers = new String[requests.size()];
+        int skipped = 0;
+        if (batch.getBatchId() != null) {
+            String tenantId = batchTenant(batch);
+            for (PostedBatchEntry posted : journalEntryRepository.findPostedBatchEntries(tenantId, batch.getBatchId())) {
+                if (posted.getBatchIndex() >= requests.size()) {
+                    throw new IllegalArgumentException(String.format(
+                            "Batch %s was posted with more than %d entries", batch.getBatchId(), requests.size()));
+                }
+                if (!matches(posted, requests.get(posted.getBatchIndex()))) {
+                    throw new IllegalArgumentException(String.format(
+                            "Entry %d does not match entry %s already posted under batch %s",
+                            posted.getBatchIndex(), posted.getEntryNumber(), batch.getBatchId()));
+                }
+                entryIds[posted.getBatchIndex()] = posted.getEntryId();
+                entryNumbers[posted.getBatchIndex()] = posted.getEntryNumber();
+                skipped++;
+            }
+        }
+        List<Integer> pending = new ArrayList<>(requests.size() - skipped);
+        for (int i = 0; i < requests.size(); i++) {
+            if (entryIds[i] == null) {
+                pending.add(i);
+            }
+        }
+
+        int postedCount = 0;
+        int chunks = 0;
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            List<JournalEntry> posted;
+            try {
+                posted = chunkTransaction.execute(status -> postChunk(batch.getBatchId(), chunk, requests, accounts));
+            } catch (RuntimeException e) {
+                log.error("Batch posting failed after {} of {} entries", skipped + postedCount, requests.size(), e);
+                throw new IllegalStateException(String.format(
+                        "Batch posting failed after %d of %d entries were posted%s: %s",
+                        skipped + postedCount, requests.size(),
+                        batch.getBatchId() != null ? "; resubmit with the same batchId to post the rest" : "",
+                        e.getMessage()), e);
+            }
+            chunks++;
+            for (int i = 0; i < posted.size(); i++) {
+                entryIds[chunk.get(i)] = posted.get(i).getEntryId();
+                entryNumbers[chunk.get(i)] = posted.get(i).getEntryNumber();
+            }
+            postedCount += posted.size();
+        }
+
+        BatchJournalEntryResponse response = BatchJournalEntryResponse.builder()
+                .entriesPosted(postedCount)
+                .entriesSkipped(skipped)
+                .chunks(chunks)
+                .entryIds(new ArrayList<>(Arrays.asList(entryIds)))
+                .entryNumbers(new ArrayList<>(Arrays.asList(entryNumbers)))
+                .build();
+
+        log.info("Posted batch of {} journal entries in {} chunks ({} already posted)", postedCount, chunks, skipped);
+        return response;
+    }
+
+    private List<JournalEntry> postChunk(String batchId, List<Integer> indexes, List<JournalEntryRequest> requests,
+                                         Map<String, ChartOfAccounts> accounts) {
+        List<JournalEntryRequest> chunk = indexes.stream().map(requests::get).toList();
+        Map<String, Iterator<String>> entryNumbers = allocateEntryNumbers(chunk);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<JournalEntry> entries = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            JournalEntryRequest request = chunk.get(i);
+            JournalEntry entry = JournalEntry.builder()
+                    .entryNumber(entryNumbers.get(numberKey(request)).next())
+                    .entryDate(request.getEntryDate())
+                    .description(request.getDescription())
+                    .sourceType(request.getSourceType())
+                    .sourceId(request.getSourceId())
+                    .status(EntryStatus.POSTED)
+                    .tenantId(request.getTenantId())
+                    .entityId(request.getEntityId())
+                    .createdBy(request.getCreatedBy())
+                    .createdAt(now)
+                    .postedBy(request.getCreatedBy())
+                    .postedAt(now)
+                    .batchId(batchId)
+                    .batchIndex(batchId != null ? indexes.get(i) : null)
+                    .lines(new ArrayList<>(request.getLines().size()))
+                    .build();
+
+            int lineNumber = 1;
+            for (JournalEntryLineRequest lineRequest : request.getLines()) {
+                entry.getLines().add(JournalEntryLine.builder()
+                        .journalEntry(entry)
+                        .account(accounts.get(lineRequest.getAccountNumber()))
+                        .lineNumber(lineNumber++)
+                        .debit(amount(lineRequest.getDebit()))
+                        .credit(amount(lineRequest.getCredit()))
+                        .description(lineRequest.getDescription())
+                        .build());
+            }
+            entries.add(entry);
+        }
+
+        List<JournalEntry> saved = journalEntryRepository.saveAll(entries);
+        journalEntryRepository.flush();
+
+        accountBalanceService.applyEntries(saved);
+        receivableSubledgerService.applyEntries(saved);
+
+        List<AuditLog> auditLogs = new ArrayList<>(saved.size());
+        for (JournalEntry entry : saved) {
+            auditLogs.add(AuditLog.builder()
+                    .entityId(entry.getEntryId())
+                    .entityType("JOURNAL_ENTRY")
+                    .action("CREATE")
+                    .userId(entry.getCreatedBy())
+                    .timestamp(now)
+                    .details(String.format("Created journal entry %s: %s", entry.getEntryNumber(), entry.getDescription()))
+                    .tenantId(entry.getTenantId())
+                    .build());
+        }
+        auditLogService.logActions(auditLogs);
+
+        return saved;
+    }
+
+    private String batchTenant(BatchJournalEntryRequest batch) {
+        Set<String> tenants = batch.getEntries().stream()
+                .map(JournalEntryRequest::getTenantId)
+                .collect(Collectors.toSet());
+        if (tenants.size() != 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Entries of batch %s must all belong to one tenant", batch.getBatchId()));
+        }
+        return tenants.iterator().next();
+    }
+
+    private boolean matches(PostedBatchEntry posted, JournalEntryRequest request) {
+        BigDecimal totalDebits = request.getLines().stream()
+                .map(line -> amount(line.getDebit()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return Objects.equals(posted.getEntityId(), request.getEntityId())
+                && Objects.equals(posted.getEntryDate(), request.getEntryDate())
+                && posted.getSourceType() == request.getSourceType()
+                && Objects.equals(posted.getSourceId(), request.getSourceId())
+                && amount(posted.getTotalDebits()).compareTo(totalDebits) == 0;
+    }
+
+    /**
+     * Lease one block of entry numbers per (tenant, year) in the chunk.
+     */
+    private Map<String, Iterator<String>> allocateEntryNumbers(List<JournalEntryRequest> chunk) {
+        Map<String, List<JournalEntryRequest>> byKey = chunk.stream()
+                .collect(Collectors.groupingBy(this::numberKey, LinkedHashMap::new, Collectors.toList()));
+
+        Map<String, Iterator<String>> numbers = new HashMap<>();
+        byKey.forEach((key, requests) -> {
+            JournalEntryRequest first = requests.get(0);
+            numbers.put(key, entryNumberAllocator.allocateBlock(
+                    first.getTenantId(), first.getEntryDate().getYear(), requests.size()).iterator());
+        });
+        return numbers;
+    }
+
+    private String numberKey(JournalEntryRequest request) {
+        return request.getTenantId() + "|" + request.getEntryDate().getYear();
+    }
+
+    private Map<String, ChartOfAccounts> resolveAccounts(List<JournalEntryRequest> requests) {
+        Map<String, ChartOfAccounts> accounts = new HashMap<>();
+        requests.stream()
+                .filter(request -> request.getLines() != null)
+                .flatMap(request -> request.getLines().stream())
+                .map(JournalEntryLineRequest::getAccountNumber)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(accountNumber -> chartOfAccountsCache.findAccount(accountNumber)
+                        .ifPresent(account -> accounts.put(accountNumber, account.toAccount())));
+        return accounts;
+    }
+
+    private void validate(int index, JournalEntryRequest request, Map<String, ChartOfAccounts> accounts) {
+        if (request.getTenantId() == null || request.getEntryDate() == null || request.getCreatedBy() == null
+                || request.getSourceType() == null || request.getDescription() == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Entry %d: tenantId, entryDate, description, sourceType and createdBy are required", index));
+        }
+        if (request.getLines() == null || request.getLines().isEmpty()) {
+            throw new IllegalArgumentException(String.format("Entry %d: at least one line is required", index));
+        }
+
+        BigDecimal totalDebits = BigDecimal.ZERO;
+        BigDecimal totalCredits = BigDecimal.ZERO;
+        for (JournalEntryLineRequest line : request.getLines()) {
+            if (!accounts.containsKey(line.getAccountNumber())) {
+                throw new IllegalArgumentException(String.format(
+                        "Entry %d: Account not found: %s", index, line.getAccountNumber()));
+            }
+            totalDebits = totalDebits.add(amount(line.getDebit()));
+            totalCredits = totalCredits.add(amount(line.getCredit()));
+        }
+
+        if (totalDebits.compareTo(totalCredits) != 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Entry %d: Journal entry is not balanced. Debits: %s, Credits: %s",
+                    index, totalDebits, totalCredits));
+        }
+    }
+
+    private static BigDecimal amount(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
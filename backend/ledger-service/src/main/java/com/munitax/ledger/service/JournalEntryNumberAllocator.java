@@ -0,0 +1,182 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.model.JournalEntryNumberCounter;
+import com.munitax.ledger.repository.JournalEntryNumberCounterRepository;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allocates journal entry numbers (JE-yyyy-nnnnn) per tenant and year.
+ *
+ * Process:
+ * 1. Each node leases a block of numbers by advancing the (tenant, year) counter row under a
+ *    row lock in its own short transaction, so no two nodes ever receive the same number
+ * 2. Numbers within a leased block are handed out in memory with an atomic increment
+ * 3. A new block is leased only when the current one is exhausted
+ *
+ * Numbers are unique per tenant (UNIQUE(tenant_id, entry_number)) but not gap-free: unused
+ * numbers of a block are lost when a node stops.
+ */
+@Service
+@Slf4j
+public class JournalEntryNumberAllocator {
+
+    private final JournalEntryNumberCounterRepository counterRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final TransactionTemplate leaseTransaction;
+
+    private final ConcurrentMap<String, NumberBlock> blocks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ReentrantLock> leaseLocks = new ConcurrentHashMap<>();
+
+    @Value("${ledger.journal.entry-number-block-size:50}")
+    private int blockSize;
+
+    public JournalEntryNumberAllocator(JournalEntryNumberCounterRepository counterRepository,
+                                       JournalEntryRepository journalEntryRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.counterRepository = counterRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Next entry number for the tenant and the year of the entry date.
+     *
+     * @param tenantId  the tenant ID
+     * @param entryDate the journal entry date
+     * @return unique entry number, e.g. JE-2024-00042
+     */
+    public String nextEntryNumber(String tenantId, LocalDate entryDate) {
+        int year = entryDate.getYear();
+        String key = tenantId + "|" + year;
+
+        while (true) {
+            NumberBlock block = blocks.get(key);
+            if (block != null) {
+                long number = block.next();
+                if (number >= 0) {
+                    return format(year, number);
+                }
+            }
+            // Exhausted or missing: only one thread per key leases the replacement block. The lease
+            // runs outside the map's bin lock, so other keys sharing the bin are not blocked on it
+            ReentrantLock lock = leaseLocks.computeIfAbsent(key, k -> new ReentrantLock());
+            lock.lock();
+            try {
+                NumberBlock current = blocks.get(key);
+                if (current == null || !current.hasRemaining()) {
+                    blocks.put(key, lease(tenantId, year, blockSize));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Lease a dedicated contiguous block for a batch of entries, bypassing the shared block.
+     *
+     * @param tenantId the tenant ID
+     * @param year     entry year
+     * @param count    number of entry numbers needed
+     * @return entry numbers in ascending order
+     */
+    public List<String> allocateBlock(String tenantId, int year, int count) {
+        NumberBlock block = lease(tenantId, year, count);
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            numbers.add(format(year, block.next()));
+        }
+        return numbers;
+    }
+
+    static String format(int year, long number) {
+        return String.format("JE-%d-%05d", year, number);
+    }
+
+    /**
+     * Lease a block of numbers from the counter row, creating the row on first use.
+     */
+    NumberBlock lease(String tenantId, int year, int size) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = leaseTransaction.execute(status -> {
+                    JournalEntryNumberCounter counter = counterRepository
+                            .findByTenantIdAndEntryYear(tenantId, year)
+                            .orElseGet(() -> JournalEntryNumberCounter.builder()
+                                    .tenantId(tenantId)
+                                    .entryYear(year)
+                                    .nextValue(firstUnusedNumber(tenantId, year))
+                                    .build());
+                    long first = counter.getNextValue();
+                    counter.setNextValue(first + size);
+                    counterRepository.saveAndFlush(counter);
+                    return first;
+                });
+                log.debug("Leased entry numbers {}-{} for tenant {} year {}", start, start + size - 1, tenantId, year);
+                return new NumberBlock(start, start + size);
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the counter row first; lock it on the next attempt
+                if (attempt >= 3) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Continue after entries numbered before counters existed (one-time per tenant and year).
+     */
+    private long firstUnusedNumber(String tenantId, int year) {
+        String maxNumber = journalEntryRepository.findMaxEntryNumberByPrefix(tenantId, "JE-" + year);
+        if (maxNumber == null) {
+            return 1;
+        }
+        try {
+            return Long.parseLong(maxNumber.substring(maxNumber.lastIndexOf('-') + 1)) + 1;
+        } catch (NumberFormatException e) {
+            log.warn("Failed to parse entry number from {}, starting counter at 1", maxNumber, e);
+            return 1;
+        }
+    }
+
+    /**
+     * Leased range [next, end) handed out lock-free.
+     */
+    static final class NumberBlock {
+        private final AtomicLong next;
+        private final long end;
+
+        NumberBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+
+        /**
+         * @return next number, or -1 if the block is exhausted
+         */
+        long next() {
+            long number = next.getAndIncrement();
+            return number < end ? number : -1;
+        }
+
+        boolean hasRemaining() {
+            return next.get() < end;
+        }
+    }
+}
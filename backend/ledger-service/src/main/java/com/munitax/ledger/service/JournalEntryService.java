@@ -3,10 +3,8 @@ package com.munitax.ledger.service;
 import com.munitax.ledger.dto.JournalEntryLineRequest;
 import com.munitax.ledger.dto.JournalEntryRequest;
 import com.munitax.ledger.enums.EntryStatus;
-import com.munitax.ledger.model.ChartOfAccounts;
 import com.munitax.ledger.model.JournalEntry;
 import com.munitax.ledger.model.JournalEntryLine;
-import com.munitax.ledger.repository.ChartOfAccountsRepository;
 import com.munitax.ledger.repository.JournalEntryRepository;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +14,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -30,8 +27,11 @@ import java.util.UUID;
 public class JournalEntryService {
     
     private final JournalEntryRepository journalEntryRepository;
-    private final ChartOfAccountsRepository chartOfAccountsRepository;
+    private final ChartOfAccountsCache chartOfAccountsCache;
     private final AuditLogService auditLogService;
+    private final AccountBalanceService accountBalanceService;
+    private final JournalEntryNumberAllocator entryNumberAllocator;
+    private final ReceivableSubledgerService receivableSubledgerService;
     
     /**
      * T096: Retry logic added for database operations
@@ -57,8 +57,8 @@ public class JournalEntryService {
                             totalDebits, totalCredits));
         }
         
-        // Generate entry number
-        String entryNumber = generateEntryNumber(request.getTenantId(), request.getEntryDate());
+        // Generate entry number from the leased per-(tenant, year) block
+        String entryNumber = entryNumberAllocator.nextEntryNumber(request.getTenantId(), request.getEntryDate());
         
         // Create journal entry
         JournalEntry entry = JournalEntry.builder()
@@ -80,14 +80,9 @@ public class JournalEntryService {
         // Create journal entry lines
         int lineNumber = 1;
         for (JournalEntryLineRequest lineRequest : request.getLines()) {
-            ChartOfAccounts account = chartOfAccountsRepository
-                    .findByAccountNumber(lineRequest.getAccountNumber())
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Account not found: " + lineRequest.getAccountNumber()));
-            
             JournalEntryLine line = JournalEntryLine.builder()
                     .journalEntry(entry)
-                    .account(account)
+                    .account(chartOfAccountsCache.getAccount(lineRequest.getAccountNumber()).toAccount())
                     .lineNumber(lineNumber++)
                     .debit(lineRequest.getDebit() != null ? lineRequest.getDebit() : BigDecimal.ZERO)
                     .credit(lineRequest.getCredit() != null ? lineRequest.getCredit() : BigDecimal.ZERO)
@@ -100,6 +95,10 @@ public class JournalEntryService {
         // Save entry with retry on transient database errors
         JournalEntry savedEntry = journalEntryRepository.save(entry);
         
+        // Maintain materialized period balances in the same transaction
+        accountBalanceService.applyEntry(savedEntry);
+        receivableSubledgerService.applyEntries(List.of(savedEntry));
+        
         log.info("Journal entry created successfully: {}", savedEntry.getEntryNumber());
         
         // Audit log
@@ -156,7 +155,7 @@ public class JournalEntryService {
             );
         }
         
-        // Create reversing entry
+        // Create reversing entry (also offsets the period balances)
         JournalEntry reversingEntry = createJournalEntry(reversingRequest);
         
         // Update original entry
@@ -220,22 +219,4 @@ public class JournalEntryService {
         return journalEntryRepository.findById(entryId)
                 .orElseThrow(() -> new IllegalArgumentException("Journal entry not found"));
     }
-    
-    private String generateEntryNumber(String tenantId, java.time.LocalDate entryDate) {
-        String prefix = "JE-" + entryDate.format(DateTimeFormatter.ofPattern("yyyy"));
-        String maxNumber = journalEntryRepository.findMaxEntryNumberByPrefix(tenantId, prefix);
-        
-        int nextNumber = 1;
-        if (maxNumber != null) {
-            try {
-                String numberPart = maxNumber.substring(maxNumber.lastIndexOf('-') + 1);
-                nextNumber = Integer.parseInt(numberPart) + 1;
-            } catch (NumberFormatException e) {
-                log.warn("Failed to parse entry number from {}, using 1 as next number", maxNumber, e);
-                nextNumber = 1;
-            }
-        }
-        
-        return String.format("%s-%05d", prefix, nextNumber);
-    }
 }
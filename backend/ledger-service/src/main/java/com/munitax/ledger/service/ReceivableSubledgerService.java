@@ -0,0 +1,297 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.dto.AgingAnalysis;
+import com.munitax.ledger.model.FilerAgingSummary;
+import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.model.JournalEntryLine;
+import com.munitax.ledger.model.ReceivableOpenItem;
+import com.munitax.ledger.repository.AgingTotals;
+import com.munitax.ledger.repository.FilerAgingSummaryRepository;
+import com.munitax.ledger.repository.ReceivableOpenItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * T037: Open-item receivables subledger and aging.
+ *
+ * Process:
+ * 1. Each credit to a filer's tax liability accounts (21xx) opens an item dated on the entry,
+ *    after first absorbing any unapplied credit the filer holds
+ * 2. Each debit to those accounts (payment, credit, reversal) clears open items oldest first;
+ *    anything left over is kept as unapplied credit
+ * 3. The filer's aging summary is adjusted by the same amounts in the same transaction, so
+ *    filer aging is a single-row read
+ * 4. When the date has moved on since the summary was aged, its buckets are rebuilt from the
+ *    filer's open items (not from the entry history)
+ *
+ * Buckets by days since the open date: 0-30, 31-60, 61-90, 90+.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReceivableSubledgerService {
+
+    private static final Comparator<ReceivableOpenItem> FIFO = Comparator
+            .comparing(ReceivableOpenItem::getOpenDate)
+            .thenComparing(ReceivableOpenItem::getEntryNumber)
+            .thenComparing(ReceivableOpenItem::getLineNumber);
+
+    private final ReceivableOpenItemRepository openItemRepository;
+    private final FilerAgingSummaryRepository agingSummaryRepository;
+
+    /**
+     * Apply posted journal entries to the filers' open items and aging summaries.
+     * Must run in the posting transaction so the entries and the subledger commit together.
+     *
+     * @param entries the posted journal entries
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyEntries(List<JournalEntry> entries) {
+        // Collect tax liability lines per filer; filers are locked in a fixed order so concurrent batches cannot deadlock
+        Map<FilerKey, List<JournalEntry>> entriesByFiler = new TreeMap<>();
+        for (JournalEntry entry : entries) {
+            if (entry.getEntityId() == null) {
+                continue;
+            }
+            boolean touchesReceivable = entry.getLines().stream().anyMatch(ReceivableSubledgerService::isReceivableLine);
+            if (touchesReceivable) {
+                entriesByFiler.computeIfAbsent(new FilerKey(entry.getTenantId(), entry.getEntityId()),
+                        key -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        entriesByFiler.forEach(this::applyFilerEntries);
+    }
+
+    /**
+     * Aging of a filer's open items as of today.
+     *
+     * @param tenantId The tenant identifier
+     * @param filerId The filer identifier
+     * @return AgingAnalysis with breakdown by age buckets
+     */
+    @Transactional
+    public AgingAnalysis getFilerAging(String tenantId, String filerId) {
+        LocalDate today = LocalDate.now();
+        FilerAgingSummary summary = agingSummaryRepository.findByTenantIdAndFilerId(tenantId, filerId).orElse(null);
+        if (summary == null) {
+            return toAnalysis(emptySummary(tenantId, filerId, today));
+        }
+
+        if (!summary.getAsOfDate().equals(today)) {
+            // First read since the date changed: move amounts between buckets
+            summary = agingSummaryRepository.lockByTenantIdAndFilerId(tenantId, filerId).orElseThrow();
+            reage(summary, openItemRepository.lockOpenItems(tenantId, filerId), today);
+            agingSummaryRepository.save(summary);
+        }
+        return toAnalysis(summary);
+    }
+
+    /**
+     * Aging of all filers' open items of a tenant as of today, in one aggregate query.
+     *
+     * @param tenantId The tenant identifier
+     * @return AgingAnalysis with breakdown by age buckets
+     */
+    @Transactional(readOnly = true)
+    public AgingAnalysis getMunicipalityAging(String tenantId) {
+        LocalDate today = LocalDate.now();
+        AgingTotals totals = openItemRepository.sumOpenItemsByAge(tenantId,
+                today.minusDays(30), today.minusDays(60), today.minusDays(90));
+
+        return AgingAnalysis.builder()
+                .current(totals.getCurrentAmount())
+                .thirtyDays(totals.getThirtyDays())
+                .sixtyDays(totals.getSixtyDays())
+                .ninetyPlus(totals.getNinetyPlus())
+                .totalOutstanding(totals.getCurrentAmount().add(totals.getThirtyDays())
+                        .add(totals.getSixtyDays()).add(totals.getNinetyPlus()))
+                .analysisDate(today)
+                .build();
+    }
+
+    private void applyFilerEntries(FilerKey filer, List<JournalEntry> entries) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+
+        agingSummaryRepository.insertIfAbsent(filer.tenantId(), filer.filerId());
+        FilerAgingSummary summary = agingSummaryRepository
+                .lockByTenantIdAndFilerId(filer.tenantId(), filer.filerId())
+                .orElseThrow(() -> new IllegalStateException("Aging summary missing for filer " + filer.filerId()));
+        List<ReceivableOpenItem> openItems = new ArrayList<>(
+                openItemRepository.lockOpenItems(filer.tenantId(), filer.filerId()));
+
+        if (!summary.getAsOfDate().equals(today)) {
+            reage(summary, openItems, today);
+        }
+
+        Set<ReceivableOpenItem> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        entries.sort(Comparator.comparing(JournalEntry::getEntryDate).thenComparing(JournalEntry::getEntryNumber));
+        for (JournalEntry entry : entries) {
+            for (JournalEntryLine line : entry.getLines()) {
+                if (!isReceivableLine(line)) {
+                    continue;
+                }
+                BigDecimal debit = line.getDebit() != null ? line.getDebit() : BigDecimal.ZERO;
+                BigDecimal credit = line.getCredit() != null ? line.getCredit() : BigDecimal.ZERO;
+                if (credit.signum() > 0) {
+                    open(summary, openItems, changed, entry, line, credit);
+                }
+                if (debit.signum() > 0) {
+                    clear(summary, openItems, changed, debit, now);
+                }
+            }
+        }
+
+        openItemRepository.saveAll(changed);
+        summary.setUpdatedAt(now);
+        agingSummaryRepository.save(summary);
+        log.debug("Applied {} entries to receivables of filer {}: outstanding={}, unapplied={}",
+                entries.size(), filer.filerId(), totalOutstanding(summary), summary.getUnappliedCredit());
+    }
+
+    /**
+     * Open an item for a new charge, after absorbing unapplied credit.
+     */
+    private void open(FilerAgingSummary summary, List<ReceivableOpenItem> openItems, Set<ReceivableOpenItem> changed,
+                      JournalEntry entry, JournalEntryLine line, BigDecimal amount) {
+        BigDecimal absorbed = amount.min(summary.getUnappliedCredit());
+        summary.setUnappliedCredit(summary.getUnappliedCredit().subtract(absorbed));
+        BigDecimal remaining = amount.subtract(absorbed);
+
+        ReceivableOpenItem item = ReceivableOpenItem.builder()
+                .tenantId(entry.getTenantId())
+                .filerId(entry.getEntityId())
+                .entryId(entry.getEntryId())
+                .entryNumber(entry.getEntryNumber())
+                .lineNumber(line.getLineNumber())
+                .accountNumber(line.getAccount().getAccountNumber())
+                .openDate(entry.getEntryDate())
+                .originalAmount(amount)
+                .remainingAmount(remaining)
+                .clearedAt(remaining.signum() == 0 ? LocalDateTime.now() : null)
+                .build();
+        changed.add(item);
+
+        if (remaining.signum() > 0) {
+            addToBucket(summary, item.getOpenDate(), remaining);
+            // Back-dated charges sort ahead of newer open items
+            int position = 0;
+            while (position < openItems.size() && FIFO.compare(openItems.get(position), item) <= 0) {
+                position++;
+            }
+            openItems.add(position, item);
+        }
+    }
+
+    /**
+     * Clear open items oldest first; the rest becomes unapplied credit.
+     */
+    private void clear(FilerAgingSummary summary, List<ReceivableOpenItem> openItems, Set<ReceivableOpenItem> changed,
+                       BigDecimal amount, LocalDateTime now) {
+        BigDecimal left = amount;
+        while (left.signum() > 0 && !openItems.isEmpty()) {
+            ReceivableOpenItem oldest = openItems.get(0);
+            BigDecimal applied = left.min(oldest.getRemainingAmount());
+            oldest.setRemainingAmount(oldest.getRemainingAmount().subtract(applied));
+            addToBucket(summary, oldest.getOpenDate(), applied.negate());
+            left = left.subtract(applied);
+            changed.add(oldest);
+
+            if (oldest.getRemainingAmount().signum() == 0) {
+                oldest.setClearedAt(now);
+                openItems.remove(0);
+            }
+        }
+        summary.setUnappliedCredit(summary.getUnappliedCredit().add(left));
+    }
+
+    private void reage(FilerAgingSummary summary, List<ReceivableOpenItem> openItems, LocalDate asOfDate) {
+        summary.setAsOfDate(asOfDate);
+        summary.setCurrentAmount(BigDecimal.ZERO);
+        summary.setThirtyDays(BigDecimal.ZERO);
+        summary.setSixtyDays(BigDecimal.ZERO);
+        summary.setNinetyPlus(BigDecimal.ZERO);
+        for (ReceivableOpenItem item : openItems) {
+            addToBucket(summary, item.getOpenDate(), item.getRemainingAmount());
+        }
+    }
+
+    private static void addToBucket(FilerAgingSummary summary, LocalDate openDate, BigDecimal amount) {
+        long daysOld = ChronoUnit.DAYS.between(openDate, summary.getAsOfDate());
+        if (daysOld <= 30) {
+            summary.setCurrentAmount(summary.getCurrentAmount().add(amount));
+        } else if (daysOld <= 60) {
+            summary.setThirtyDays(summary.getThirtyDays().add(amount));
+        } else if (daysOld <= 90) {
+            summary.setSixtyDays(summary.getSixtyDays().add(amount));
+        } else {
+            summary.setNinetyPlus(summary.getNinetyPlus().add(amount));
+        }
+    }
+
+    private static BigDecimal totalOutstanding(FilerAgingSummary summary) {
+        return summary.getCurrentAmount().add(summary.getThirtyDays())
+                .add(summary.getSixtyDays()).add(summary.getNinetyPlus());
+    }
+
+    private static AgingAnalysis toAnalysis(FilerAgingSummary summary) {
+        return AgingAnalysis.builder()
+                .current(summary.getCurrentAmount())
+                .thirtyDays(summary.getThirtyDays())
+                .sixtyDays(summary.getSixtyDays())
+                .ninetyPlus(summary.getNinetyPlus())
+                .totalOutstanding(totalOutstanding(summary))
+                .unappliedCredit(summary.getUnappliedCredit())
+                .analysisDate(summary.getAsOfDate())
+                .build();
+    }
+
+    private static FilerAgingSummary emptySummary(String tenantId, String filerId, LocalDate asOfDate) {
+        return FilerAgingSummary.builder()
+                .tenantId(tenantId)
+                .filerId(filerId)
+                .asOfDate(asOfDate)
+                .currentAmount(BigDecimal.ZERO)
+                .thirtyDays(BigDecimal.ZERO)
+                .sixtyDays(BigDecimal.ZERO)
+                .ninetyPlus(BigDecimal.ZERO)
+                .unappliedCredit(BigDecimal.ZERO)
+                .build();
+    }
+
+    /**
+     * Tax, penalty and interest liability accounts of a filer (2100-2199).
+     */
+    private static boolean isReceivableLine(JournalEntryLine line) {
+        return line.getAccount() != null && line.getAccount().getAccountNumber() != null
+                && line.getAccount().getAccountNumber().startsWith("21");
+    }
+
+    private record FilerKey(String tenantId, String filerId) implements Comparable<FilerKey> {
+
+        private static final Comparator<FilerKey> ORDER = Comparator.comparing(FilerKey::tenantId)
+                .thenComparing(FilerKey::filerId);
+
+        @Override
+        public int compareTo(FilerKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -3,28 +3,28 @@ package com.munitax.ledger.service;
 import com.munitax.ledger.dto.DiscrepancyDetail;
 import com.munitax.ledger.dto.ReconciliationResponse;
 import com.munitax.ledger.enums.ReconciliationStatus;
-import com.munitax.ledger.model.JournalEntry;
-import com.munitax.ledger.model.JournalEntryLine;
+import com.munitax.ledger.repository.AccountTotals;
+import com.munitax.ledger.repository.EntityAccountTotals;
 import com.munitax.ledger.repository.JournalEntryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReconciliationService {
     
-    private final JournalEntryService journalEntryService;
     private final JournalEntryRepository journalEntryRepository;
     
     // Tax liability accounts for filers
-    private static final String[] FILER_LIABILITY_ACCOUNTS = {"2100", "2110", "2120", "2130"};
+    private static final Set<String> FILER_LIABILITY_ACCOUNTS = Set.of("2100", "2110", "2120", "2130");
     
     // Municipality accounts receivable
     private static final String MUNICIPALITY_AR_ACCOUNT = "1201";
@@ -32,6 +32,9 @@ public class ReconciliationService {
     // Cash accounts
     private static final String CASH_ACCOUNT = "1001";
     
+    // Non-liability accounts the report needs per entity
+    private static final List<String> REPORT_ASSET_ACCOUNTS = List.of(MUNICIPALITY_AR_ACCOUNT, CASH_ACCOUNT);
+    
     /**
      * Generate comprehensive reconciliation report comparing municipality books to all filers.
      * 
@@ -39,29 +42,20 @@ public class ReconciliationService {
      * @param municipalityId The municipality identifier
      * @return ReconciliationResponse with reconciliation results
      */
+    @Transactional(readOnly = true)
     public ReconciliationResponse generateReconciliationReport(String tenantId, String municipalityId) {
         log.info("Generating production reconciliation report for tenant {}", tenantId);
         
-        // Calculate municipality AR (account 1201)
-        BigDecimal municipalityAR = calculateAccountBalance(tenantId, municipalityId, MUNICIPALITY_AR_ACCOUNT);
-        log.debug("Municipality AR: {}", municipalityAR);
-        
-        // Calculate municipality cash receipts (account 1001 credits)
-        BigDecimal municipalityCash = calculateAccountBalance(tenantId, municipalityId, CASH_ACCOUNT);
-        log.debug("Municipality Cash: {}", municipalityCash);
-        
-        // PRODUCTION IMPLEMENTATION: Aggregate all filer balances
-        // T022: Query all filer entities
-        Set<String> allFilerIds = queryAllFilerEntities(tenantId);
-        log.debug("Found {} filers for tenant {}", allFilerIds.size(), tenantId);
+        // T022-T024: One grouped pass over (entity, account) totals for the whole tenant
+        ReportTotals totals = aggregateReportTotals(tenantId, municipalityId);
         
-        // T023: Sum all filer tax liability accounts
-        BigDecimal filerLiabilities = sumFilerTaxLiabilities(tenantId, allFilerIds);
-        log.debug("Total filer liabilities: {}", filerLiabilities);
-        
-        // T024: Sum all filer payment entries
-        BigDecimal filerPayments = sumFilerPayments(tenantId, allFilerIds);
-        log.debug("Total filer payments: {}", filerPayments);
+        BigDecimal municipalityAR = totals.municipalityAR;
+        BigDecimal municipalityCash = totals.municipalityCash;
+        BigDecimal filerLiabilities = totals.filerLiabilities;
+        BigDecimal filerPayments = totals.filerPayments;
+        log.debug("Municipality AR: {}, Municipality Cash: {}", municipalityAR, municipalityCash);
+        log.debug("Found {} filers for tenant {}: liabilities={}, payments={}",
+                totals.filerCount, tenantId, filerLiabilities, filerPayments);
         
         // Calculate variances
         BigDecimal arVariance = municipalityAR.subtract(filerLiabilities);
@@ -77,7 +71,7 @@ public class ReconciliationService {
         
         // Build discrepancies list
         List<DiscrepancyDetail> discrepancies = buildDiscrepanciesList(
-                arVariance, cashVariance, allFilerIds, tenantId, municipalityId,
+                arVariance, cashVariance, totals.filerCount,
                 municipalityAR, filerLiabilities, municipalityCash, filerPayments);
         
         return ReconciliationResponse.builder()
@@ -104,11 +98,18 @@ public class ReconciliationService {
     public ReconciliationResponse generateFilerReconciliation(String tenantId, String filerId, String municipalityId) {
         log.info("Generating filer reconciliation for filer {} in tenant {}", filerId, tenantId);
         
-        // Calculate filer's tax liabilities
-        BigDecimal filerLiabilities = sumFilerTaxLiabilities(tenantId, Set.of(filerId));
-        
-        // Calculate filer's payments
-        BigDecimal filerPayments = sumFilerPayments(tenantId, Set.of(filerId));
+        // Calculate filer's tax liabilities and payments from one grouped query
+        BigDecimal filerLiabilities = BigDecimal.ZERO;
+        BigDecimal filerPayments = BigDecimal.ZERO;
+        for (AccountTotals accountTotals : journalEntryRepository.sumLinesByAccount(
+                tenantId, filerId, JournalEntryRepository.POSTED_STATUSES, LocalDate.now())) {
+            if (FILER_LIABILITY_ACCOUNTS.contains(accountTotals.getAccountNumber())) {
+                filerLiabilities = filerLiabilities.add(
+                        accountTotals.getTotalCredits().subtract(accountTotals.getTotalDebits()));
+            } else if (CASH_ACCOUNT.equals(accountTotals.getAccountNumber())) {
+                filerPayments = filerPayments.add(accountTotals.getTotalDebits());
+            }
+        }
         
         // For municipality side, we need to calculate entries related to this filer
         // This would require linking mechanism in production (e.g., entries tagged with filerId)
@@ -151,134 +152,35 @@ public class ReconciliationService {
     }
     
     /**
-     * T022: Query all filer entities for the tenant.
-     * 
-     * @param tenantId The tenant identifier
-     * @return Set of filer IDs
-     */
-    private Set<String> queryAllFilerEntities(String tenantId) {
-        // Get all journal entries for the tenant
-        List<JournalEntry> allEntries = journalEntryRepository.findByTenantId(tenantId);
-        
-        // Extract unique entity IDs (excluding municipality)
-        // A filer is identified by having liability accounts (2xxx accounts)
-        Set<String> filerIds = new HashSet<>();
-        
-        for (JournalEntry entry : allEntries) {
-            String entityId = entry.getEntityId();
-            
-            // Check if this entry has any filer liability accounts
-            boolean hasFilerAccounts = entry.getLines().stream()
-                    .anyMatch(line -> {
-                        String accountNum = line.getAccount().getAccountNumber();
-                        return accountNum.startsWith("2"); // Liability accounts
-                    });
-            
-            if (hasFilerAccounts && entityId != null) {
-                filerIds.add(entityId);
-            }
-        }
-        
-        log.debug("Identified {} unique filer entities", filerIds.size());
-        return filerIds;
-    }
-    
-    /**
-     * T023: Sum all filer tax liability accounts (2100, 2110, 2120, 2130).
-     * 
-     * @param tenantId The tenant identifier
-     * @param filerIds Set of filer IDs to aggregate
-     * @return Total filer liabilities
-     */
-    private BigDecimal sumFilerTaxLiabilities(String tenantId, Set<String> filerIds) {
-        BigDecimal totalLiabilities = BigDecimal.ZERO;
-        
-        for (String filerId : filerIds) {
-            for (String accountNumber : FILER_LIABILITY_ACCOUNTS) {
-                BigDecimal balance = calculateAccountBalance(tenantId, filerId, accountNumber);
-                totalLiabilities = totalLiabilities.add(balance);
-            }
-        }
-        
-        log.debug("Summed liabilities for {} filers: {}", filerIds.size(), totalLiabilities);
-        return totalLiabilities;
-    }
-    
-    /**
-     * T024: Sum all filer payment entries across all filers.
-     * 
-     * @param tenantId The tenant identifier
-     * @param filerIds Set of filer IDs to aggregate
-     * @return Total filer payments
-     */
-    private BigDecimal sumFilerPayments(String tenantId, Set<String> filerIds) {
-        BigDecimal totalPayments = BigDecimal.ZERO;
-        
-        for (String filerId : filerIds) {
-            // Payments are recorded as credits to liability accounts or debits to cash
-            // We'll calculate by looking at cash account debits for filers
-            BigDecimal filerCashDebits = calculateAccountDebits(tenantId, filerId, CASH_ACCOUNT);
-            totalPayments = totalPayments.add(filerCashDebits);
-        }
-        
-        log.debug("Summed payments for {} filers: {}", filerIds.size(), totalPayments);
-        return totalPayments;
-    }
-    
-    /**
-     * Calculate account balance for specific entity and account.
+     * T022-T024: Aggregate municipality balances and all filer balances in a single pass.
      * 
-     * @param tenantId The tenant identifier
-     * @param entityId The entity identifier (filer or municipality)
-     * @param accountNumber The account number
-     * @return Account balance
-     */
-    private BigDecimal calculateAccountBalance(String tenantId, String entityId, String accountNumber) {
-        List<JournalEntry> entries = journalEntryService.getEntriesForEntity(tenantId, entityId);
-        
-        BigDecimal balance = BigDecimal.ZERO;
-        
-        for (JournalEntry entry : entries) {
-            for (JournalEntryLine line : entry.getLines()) {
-                if (line.getAccount().getAccountNumber().equals(accountNumber)) {
-                    // For asset accounts: debit increases, credit decreases
-                    // For liability/revenue accounts: credit increases, debit decreases
-                    if (accountNumber.startsWith("1")) {
-                        // Asset account
-                        balance = balance.add(line.getDebit()).subtract(line.getCredit());
-                    } else if (accountNumber.startsWith("2") || accountNumber.startsWith("4")) {
-                        // Liability or revenue account
-                        balance = balance.add(line.getCredit()).subtract(line.getDebit());
-                    }
-                }
-            }
-        }
-        
-        return balance;
-    }
-    
-    /**
-     * Calculate total debits for a specific account.
+     * The database groups posted lines by (entity, account) and streams the rows in entity order;
+     * each entity is folded as soon as its rows are complete, so memory does not grow with the
+     * number of filers. A filer is any entity other than the municipality with a liability (2xxx) account.
      * 
      * @param tenantId The tenant identifier
-     * @param entityId The entity identifier
-     * @param accountNumber The account number
-     * @return Total debits
+     * @param municipalityId The municipality identifier
+     * @return Municipality and filer totals
      */
-    private BigDecimal calculateAccountDebits(String tenantId, String entityId, String accountNumber) {
-        List<JournalEntry> entries = journalEntryService.getEntriesForEntity(tenantId, entityId);
-        
-        BigDecimal totalDebits = BigDecimal.ZERO;
-        
-        for (JournalEntry entry : entries) {
-            for (JournalEntryLine line : entry.getLines()) {
-                if (line.getAccount().getAccountNumber().equals(accountNumber)) {
-                    totalDebits = totalDebits.add(line.getDebit());
+    private ReportTotals aggregateReportTotals(String tenantId, String municipalityId) {
+        ReportTotals totals = new ReportTotals();
+        EntityTotals current = null;
+        
+        try (Stream<EntityAccountTotals> rows = journalEntryRepository.streamLiabilityAndAccountTotalsByEntity(
+                tenantId, REPORT_ASSET_ACCOUNTS, JournalEntryRepository.POSTED_STATUSES, LocalDate.now())) {
+            Iterator<EntityAccountTotals> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                EntityAccountTotals row = iterator.next();
+                if (current == null || !current.entityId.equals(row.getEntityId())) {
+                    totals.add(current, municipalityId);
+                    current = new EntityTotals(row.getEntityId());
                 }
+                current.add(row);
             }
         }
+        totals.add(current, municipalityId);
         
-        return totalDebits;
+        return totals;
     }
     
     /**
@@ -287,8 +189,7 @@ public class ReconciliationService {
      * @return List of discrepancy details
      */
     private List<DiscrepancyDetail> buildDiscrepanciesList(
-            BigDecimal arVariance, BigDecimal cashVariance,
-            Set<String> allFilerIds, String tenantId, String municipalityId,
+            BigDecimal arVariance, BigDecimal cashVariance, int filerCount,
             BigDecimal municipalityAR, BigDecimal filerLiabilities,
             BigDecimal municipalityCash, BigDecimal filerPayments) {
         
@@ -301,7 +202,7 @@ public class ReconciliationService {
                     .filerAmount(filerLiabilities)
                     .municipalityAmount(municipalityAR)
                     .variance(arVariance)
-                    .description(String.format("AR variance detected across %d filers", allFilerIds.size()))
+                    .description(String.format("AR variance detected across %d filers", filerCount))
                     .build());
         }
         
@@ -312,10 +213,71 @@ public class ReconciliationService {
                     .filerAmount(filerPayments)
                     .municipalityAmount(municipalityCash)
                     .variance(cashVariance)
-                    .description(String.format("Cash variance detected across %d filers", allFilerIds.size()))
+                    .description(String.format("Cash variance detected across %d filers", filerCount))
                     .build());
         }
         
         return discrepancies;
     }
+    
+    /**
+     * Running report totals, folded one entity at a time.
+     */
+    private static final class ReportTotals {
+        private BigDecimal municipalityAR = BigDecimal.ZERO;
+        private BigDecimal municipalityCash = BigDecimal.ZERO;
+        private BigDecimal filerLiabilities = BigDecimal.ZERO;
+        private BigDecimal filerPayments = BigDecimal.ZERO;
+        private int filerCount;
+        
+        private void add(EntityTotals entity, String municipalityId) {
+            if (entity == null) {
+                return;
+            }
+            if (entity.entityId.equals(municipalityId)) {
+                municipalityAR = municipalityAR.add(entity.arBalance);
+                municipalityCash = municipalityCash.add(entity.cashBalance);
+            } else if (entity.hasLiabilityAccounts) {
+                filerCount++;
+                filerLiabilities = filerLiabilities.add(entity.taxLiabilities);
+                filerPayments = filerPayments.add(entity.cashDebits);
+            }
+        }
+    }
+    
+    /**
+     * Balances of one entity built from its grouped (entity, account) rows.
+     */
+    private static final class EntityTotals {
+        private final String entityId;
+        private boolean hasLiabilityAccounts;
+        private BigDecimal taxLiabilities = BigDecimal.ZERO;
+        private BigDecimal arBalance = BigDecimal.ZERO;
+        private BigDecimal cashBalance = BigDecimal.ZERO;
+        private BigDecimal cashDebits = BigDecimal.ZERO;
+        
+        private EntityTotals(String entityId) {
+            this.entityId = entityId;
+        }
+        
+        private void add(EntityAccountTotals row) {
+            String accountNumber = row.getAccountNumber();
+            BigDecimal debits = row.getTotalDebits();
+            BigDecimal credits = row.getTotalCredits();
+            
+            if (accountNumber.startsWith("2")) {
+                hasLiabilityAccounts = true;
+                if (FILER_LIABILITY_ACCOUNTS.contains(accountNumber)) {
+                    // Liability account: credit increases, debit decreases
+                    taxLiabilities = taxLiabilities.add(credits.subtract(debits));
+                }
+            } else if (MUNICIPALITY_AR_ACCOUNT.equals(accountNumber)) {
+                // Asset account: debit increases, credit decreases
+                arBalance = arBalance.add(debits.subtract(credits));
+            } else if (CASH_ACCOUNT.equals(accountNumber)) {
+                cashBalance = cashBalance.add(debits.subtract(credits));
+                cashDebits = cashDebits.add(debits);
+            }
+        }
+    }
 }
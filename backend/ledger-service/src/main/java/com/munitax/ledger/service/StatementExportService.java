@@ -0,0 +1,321 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.dto.StatementTransaction;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import com.munitax.ledger.repository.StatementLine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * T035/T036: Filer account statement export (CSV and PDF).
+ *
+ * Process:
+ * 1. Statement lines (liability and cash accounts) are streamed from the database in
+ *    chronological order, one row at a time
+ * 2. The running balance is carried forward row by row (liability credits increase the
+ *    balance owed, debits decrease it)
+ * 3. Each row is written to the output as soon as it is read: CSV rows straight to the
+ *    response, PDF rows onto the current page, which is closed and a new one started when full
+ *
+ * Memory use does not depend on the number of transactions. PDF page content is kept in a
+ * temporary file until the document is written out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatementExportService {
+
+    static final String CSV_HEADER = "Date,Transaction Type,Description,Debit,Credit,Balance,Entry Number\n";
+
+    private final JournalEntryRepository journalEntryRepository;
+
+    /**
+     * Write the filer's statement as CSV.
+     *
+     * @param tenantId The tenant identifier
+     * @param filerId The filer identifier
+     * @param output destination of the CSV
+     * @return number of transactions written
+     */
+    @Transactional(readOnly = true)
+    public long writeCsv(String tenantId, String filerId, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+
+        StatementTotals totals = forEachTransaction(tenantId, filerId, transaction -> {
+            writer.write(String.valueOf(transaction.getTransactionDate()));
+            writer.write(',');
+            writer.write(String.valueOf(transaction.getTransactionType()));
+            writer.write(',');
+            writer.write(csv(transaction.getDescription()));
+            writer.write(',');
+            writer.write(transaction.getDebitAmount().toPlainString());
+            writer.write(',');
+            writer.write(transaction.getCreditAmount().toPlainString());
+            writer.write(',');
+            writer.write(transaction.getRunningBalance().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(transaction.getEntryNumber()));
+            writer.write('\n');
+        });
+        writer.flush();
+
+        log.info("Exported {} statement transactions to CSV for filer {}", totals.transactions, filerId);
+        return totals.transactions;
+    }
+
+    /**
+     * Write the filer's statement as PDF.
+     *
+     * @param tenantId The tenant identifier
+     * @param filerId The filer identifier
+     * @param output destination of the PDF
+     * @return number of transactions written
+     */
+    @Transactional(readOnly = true)
+    public long writePdf(String tenantId, String filerId, OutputStream output) throws IOException {
+        try (PdfStatementWriter pdf = new PdfStatementWriter(filerId)) {
+            StatementTotals totals = forEachTransaction(tenantId, filerId, pdf::row);
+            pdf.summary(totals);
+            pdf.save(output);
+
+            log.info("Exported {} statement transactions to PDF ({} pages) for filer {}",
+                    totals.transactions, pdf.pageNumber, filerId);
+            return totals.transactions;
+        }
+    }
+
+    private StatementTotals forEachTransaction(String tenantId, String filerId,
+                                               TransactionWriter writer) throws IOException {
+        StatementTotals totals = new StatementTotals();
+        try (Stream<StatementLine> lines = journalEntryRepository.streamStatementLines(tenantId, filerId)) {
+            Iterator<StatementLine> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                StatementLine line = iterator.next();
+                BigDecimal debit = line.getDebit() != null ? line.getDebit() : BigDecimal.ZERO;
+                BigDecimal credit = line.getCredit() != null ? line.getCredit() : BigDecimal.ZERO;
+
+                // Only liability lines move the balance owed; cash lines are shown for reference
+                if (line.getAccountNumber().startsWith("2")) {
+                    totals.balance = totals.balance.add(credit).subtract(debit);
+                    totals.totalDebits = totals.totalDebits.add(debit);
+                    totals.totalCredits = totals.totalCredits.add(credit);
+                }
+
+                writer.write(StatementTransaction.builder()
+                        .transactionDate(line.getEntryDate())
+                        .transactionType(line.getSourceType())
+                        .description(line.getLineDescription() != null
+                                ? line.getLineDescription() : line.getEntryDescription())
+                        .debitAmount(debit)
+                        .creditAmount(credit)
+                        .runningBalance(totals.balance)
+                        .entryNumber(line.getEntryNumber())
+                        .build());
+                totals.transactions++;
+            }
+        }
+        return totals;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    @FunctionalInterface
+    private interface TransactionWriter {
+        void write(StatementTransaction transaction) throws IOException;
+    }
+
+    private static final class StatementTotals {
+        private long transactions;
+        private BigDecimal balance = BigDecimal.ZERO;
+        private BigDecimal totalDebits = BigDecimal.ZERO;
+        private BigDecimal totalCredits = BigDecimal.ZERO;
+    }
+
+    /**
+     * Lays out statement rows on letter-size pages, starting a new page when the current one is full.
+     */
+    private static final class PdfStatementWriter implements AutoCloseable {
+
+        private static final float MARGIN = 40;
+        private static final float FONT_SIZE = 8;
+        private static final float ROW_HEIGHT = 12;
+        private static final float DESCRIPTION_WIDTH = 165;
+
+        // Left edges of the text columns, right edges of the amount columns
+        private static final float DATE_X = MARGIN;
+        private static final float TYPE_X = 92;
+        private static final float DESCRIPTION_X = 172;
+        private static final float ENTRY_X = 342;
+        private static final float DEBIT_RIGHT = 450;
+        private static final float CREDIT_RIGHT = 511;
+        private static final float BALANCE_RIGHT = 572;
+
+        private final PDDocument document = new PDDocument(IOUtils.createTempFileOnlyStreamCache());
+        private final PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        private final PDType1Font boldFont = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        private final String filerId;
+
+        private PDPageContentStream content;
+        private float y;
+        private int pageNumber;
+
+        PdfStatementWriter(String filerId) {
+            this.filerId = filerId;
+        }
+
+        void row(StatementTransaction transaction) throws IOException {
+            ensureRoom(1);
+            text(font, DATE_X, String.valueOf(transaction.getTransactionDate()));
+            text(font, TYPE_X, String.valueOf(transaction.getTransactionType()));
+            text(font, DESCRIPTION_X, truncate(transaction.getDescription(), DESCRIPTION_WIDTH));
+            text(font, ENTRY_X, String.valueOf(transaction.getEntryNumber()));
+            rightAligned(font, DEBIT_RIGHT, transaction.getDebitAmount().toPlainString());
+            rightAligned(font, CREDIT_RIGHT, transaction.getCreditAmount().toPlainString());
+            rightAligned(font, BALANCE_RIGHT, transaction.getRunningBalance().toPlainString());
+            y -= ROW_HEIGHT;
+        }
+
+        void summary(StatementTotals totals) throws IOException {
+            ensureRoom(3);
+            y -= ROW_HEIGHT / 2;
+            text(boldFont, DESCRIPTION_X, "Totals (" + totals.transactions + " transactions)");
+            rightAligned(boldFont, DEBIT_RIGHT, totals.totalDebits.toPlainString());
+            rightAligned(boldFont, CREDIT_RIGHT, totals.totalCredits.toPlainString());
+            y -= ROW_HEIGHT;
+            text(boldFont, DESCRIPTION_X, "Ending balance");
+            rightAligned(boldFont, BALANCE_RIGHT, totals.balance.toPlainString());
+        }
+
+        void save(OutputStream output) throws IOException {
+            closePage();
+            document.save(output);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closePage();
+            document.close();
+        }
+
+        private void ensureRoom(int rows) throws IOException {
+            if (content == null || y - rows * ROW_HEIGHT < MARGIN + ROW_HEIGHT) {
+                newPage();
+            }
+        }
+
+        private void newPage() throws IOException {
+            // Closing the previous page's stream moves its content out of the heap
+            closePage();
+            PDPage page = new PDPage(PDRectangle.LETTER);
+            document.addPage(page);
+            content = new PDPageContentStream(document, page);
+            pageNumber++;
+
+            y = page.getMediaBox().getHeight() - MARGIN;
+            if (pageNumber == 1) {
+                text(boldFont, DATE_X, "Account Statement - Tax Liability Account");
+                y -= ROW_HEIGHT;
+                text(font, DATE_X, "Filer: " + filerId + "    Statement date: " + LocalDate.now());
+                y -= ROW_HEIGHT * 1.5f;
+            }
+            text(boldFont, DATE_X, "Date");
+            text(boldFont, TYPE_X, "Type");
+            text(boldFont, DESCRIPTION_X, "Description");
+            text(boldFont, ENTRY_X, "Entry Number");
+            rightAligned(boldFont, DEBIT_RIGHT, "Debit");
+            rightAligned(boldFont, CREDIT_RIGHT, "Credit");
+            rightAligned(boldFont, BALANCE_RIGHT, "Balance");
+            rightAligned(font, BALANCE_RIGHT, "Page " + pageNumber, MARGIN / 2);
+            y -= ROW_HEIGHT;
+        }
+
+        private void closePage() throws IOException {
+            if (content != null) {
+                content.close();
+                content = null;
+            }
+        }
+
+        private void text(PDType1Font textFont, float x, String value) throws IOException {
+            textAt(textFont, x, y, value);
+        }
+
+        private void rightAligned(PDType1Font textFont, float right, String value) throws IOException {
+            rightAligned(textFont, right, value, y);
+        }
+
+        private void rightAligned(PDType1Font textFont, float right, String value, float atY) throws IOException {
+            String safe = printable(value);
+            textAt(textFont, right - width(textFont, safe), atY, safe);
+        }
+
+        private void textAt(PDType1Font textFont, float x, float atY, String value) throws IOException {
+            content.beginText();
+            content.setFont(textFont, FONT_SIZE);
+            content.newLineAtOffset(x, atY);
+            content.showText(printable(value));
+            content.endText();
+        }
+
+        private String truncate(String value, float maxWidth) throws IOException {
+            String safe = printable(value);
+            if (width(font, safe) <= maxWidth) {
+                return safe;
+            }
+            int end = safe.length();
+            while (end > 0 && width(font, safe.substring(0, end) + "...") > maxWidth) {
+                end--;
+            }
+            return safe.substring(0, end) + "...";
+        }
+
+        private float width(PDType1Font textFont, String value) throws IOException {
+            return textFont.getStringWidth(value) / 1000 * FONT_SIZE;
+        }
+
+        // Standard 14 fonts only encode Latin-1 text
+        private static String printable(String value) {
+            if (value == null) {
+                return "";
+            }
+            StringBuilder safe = new StringBuilder(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isISOControl(c)) {
+                    safe.append(' ');
+                } else if (c > 0xFF) {
+                    safe.append('?');
+                } else {
+                    safe.append(c);
+                }
+            }
+            return safe.toString();
+        }
+    }
+}
@@ -4,10 +4,8 @@ import com.munitax.ledger.dto.AccountBalanceSummary;
 import com.munitax.ledger.dto.TrialBalanceResponse;
 import com.munitax.ledger.enums.AccountType;
 import com.munitax.ledger.enums.NormalBalance;
-import com.munitax.ledger.model.ChartOfAccounts;
-import com.munitax.ledger.model.JournalEntry;
-import com.munitax.ledger.model.JournalEntryLine;
-import com.munitax.ledger.repository.ChartOfAccountsRepository;
+import com.munitax.ledger.model.AccountDescriptor;
+import com.munitax.ledger.repository.AccountTotals;
 import com.munitax.ledger.repository.JournalEntryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +24,7 @@ import java.util.stream.Collectors;
  * T047: Implement account balance calculation from journal entries
  * T048: Add account hierarchy grouping (assets, liabilities, revenue, expense)
  * T049: Add date range filtering for trial balance (month-end, quarter-end, year-end) per FR-035
+ * Closed periods are read from materialized monthly balances (see AccountBalanceService)
  */
 @Service
 @RequiredArgsConstructor
@@ -33,7 +32,8 @@ import java.util.stream.Collectors;
 public class TrialBalanceService {
     
     private final JournalEntryRepository journalEntryRepository;
-    private final ChartOfAccountsRepository chartOfAccountsRepository;
+    private final ChartOfAccountsCache chartOfAccountsCache;
+    private final AccountBalanceService accountBalanceService;
     
     /**
      * T044: Generate trial balance for municipality
@@ -104,7 +104,8 @@ public class TrialBalanceService {
     
     /**
      * T047: Calculate account balances from journal entries
-     * For each account, sum all debits and credits from journal entry lines
+     * Closed periods come from the materialized account_balances rows; only the lines
+     * of the period containing asOfDate are aggregated from journal entries.
      * 
      * @param tenantId The tenant ID
      * @param entityId The municipality entity ID
@@ -115,57 +116,57 @@ public class TrialBalanceService {
             String tenantId, String entityId, LocalDate asOfDate) {
         
         // Get all chart of accounts for municipality
-        List<ChartOfAccounts> accounts = chartOfAccountsRepository.findByTenantId(tenantId);
+        List<AccountDescriptor> accounts = chartOfAccountsCache.getAccounts(tenantId);
         
         // Initialize balance map
         Map<String, AccountBalanceSummary> balances = new HashMap<>();
-        for (ChartOfAccounts account : accounts) {
-            balances.put(account.getAccountNumber(), AccountBalanceSummary.builder()
-                    .accountNumber(account.getAccountNumber())
-                    .accountName(account.getAccountName())
-                    .accountType(account.getAccountType().name())
-                    .normalBalance(account.getNormalBalance().name())
+        for (AccountDescriptor account : accounts) {
+            balances.put(account.accountNumber(), AccountBalanceSummary.builder()
+                    .accountNumber(account.accountNumber())
+                    .accountName(account.accountName())
+                    .accountType(account.accountType().name())
+                    .normalBalance(account.normalBalance().name())
                     .debitBalance(BigDecimal.ZERO)
                     .creditBalance(BigDecimal.ZERO)
                     .netBalance(BigDecimal.ZERO)
                     .build());
         }
         
-        // Get all journal entries for municipality up to asOfDate
-        List<JournalEntry> entries = journalEntryRepository.findByTenantIdAndEntityIdOrderByEntryDateDesc(tenantId, entityId);
+        // Closed periods: summed from the materialized monthly rows
+        LocalDate periodStart = AccountBalanceService.periodStart(asOfDate);
+        for (AccountTotals totals : accountBalanceService.getClosedPeriodTotals(tenantId, entityId, periodStart)) {
+            addToBalance(balances.get(totals.getAccountNumber()), totals.getTotalDebits(), totals.getTotalCredits());
+        }
         
-        // Sum debits and credits for each account
-        for (JournalEntry entry : entries) {
-            // T049: Filter by date
-            if (entry.getEntryDate().isAfter(asOfDate)) {
-                continue;  // Skip entries after asOfDate
-            }
-            
-            for (JournalEntryLine line : entry.getLines()) {
-                String accountNumber = line.getAccount().getAccountNumber();
-                AccountBalanceSummary balance = balances.get(accountNumber);
-                
-                if (balance != null) {
-                    // Add to debit or credit balance
-                    balance.setDebitBalance(balance.getDebitBalance().add(line.getDebit()));
-                    balance.setCreditBalance(balance.getCreditBalance().add(line.getCredit()));
-                    
-                    // Calculate net balance based on account type
-                    // ASSET and EXPENSE: net = debits - credits
-                    // LIABILITY and REVENUE: net = credits - debits
-                    if (balance.getAccountType().equals("ASSET") || balance.getAccountType().equals("EXPENSE")) {
-                        balance.setNetBalance(balance.getDebitBalance().subtract(balance.getCreditBalance()));
-                    } else {
-                        balance.setNetBalance(balance.getCreditBalance().subtract(balance.getDebitBalance()));
-                    }
-                }
-            }
+        // T049: Current period up to asOfDate, summed from journal entry lines in the database
+        for (AccountTotals totals : journalEntryRepository.sumLinesByAccountBetween(
+                tenantId, entityId, JournalEntryRepository.POSTED_STATUSES, periodStart, asOfDate)) {
+            addToBalance(balances.get(totals.getAccountNumber()), totals.getTotalDebits(), totals.getTotalCredits());
         }
         
         // Filter out accounts with zero balance (optional - keep all for completeness)
         return balances;
     }
     
+    private void addToBalance(AccountBalanceSummary balance, BigDecimal debits, BigDecimal credits) {
+        if (balance == null) {
+            return;
+        }
+        
+        // Add to debit or credit balance
+        balance.setDebitBalance(balance.getDebitBalance().add(debits));
+        balance.setCreditBalance(balance.getCreditBalance().add(credits));
+        
+        // Calculate net balance based on account type
+        // ASSET and EXPENSE: net = debits - credits
+        // LIABILITY and REVENUE: net = credits - debits
+        if (balance.getAccountType().equals("ASSET") || balance.getAccountType().equals("EXPENSE")) {
+            balance.setNetBalance(balance.getDebitBalance().subtract(balance.getCreditBalance()));
+        } else {
+            balance.setNetBalance(balance.getCreditBalance().subtract(balance.getDebitBalance()));
+        }
+    }
+    
     /**
      * T048: Group accounts by type for hierarchy display
      * 
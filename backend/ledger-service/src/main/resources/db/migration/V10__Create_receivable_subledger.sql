@@ -0,0 +1,106 @@
+-- V10: Open-item receivables subledger
+-- Each credit to a filer's tax liability accounts (21xx) opens an item; debits (payments,
+-- credits, reversals) clear open items oldest first. A per-filer aging summary is kept
+-- alongside so filer aging is a single-row read.
+
+CREATE TABLE IF NOT EXISTS receivable_open_items (
+    item_id UUID PRIMARY KEY,
+    tenant_id VARCHAR(50) NOT NULL,
+    filer_id VARCHAR(50) NOT NULL,
+    entry_id UUID NOT NULL,
+    entry_number VARCHAR(50) NOT NULL,
+    line_number INTEGER NOT NULL,
+    account_number VARCHAR(20) NOT NULL,
+    open_date DATE NOT NULL,
+    original_amount NUMERIC(19, 2) NOT NULL,
+    remaining_amount NUMERIC(19, 2) NOT NULL,
+    cleared_at TIMESTAMP
+);
+
+-- FIFO clearing reads a filer's open items oldest first
+CREATE INDEX IF NOT EXISTS idx_receivable_open_items_filer_open
+    ON receivable_open_items(tenant_id, filer_id, open_date, entry_number, line_number)
+    WHERE remaining_amount > 0;
+
+-- Municipality aging sums open items per age bucket
+CREATE INDEX IF NOT EXISTS idx_receivable_open_items_tenant_open
+    ON receivable_open_items(tenant_id, open_date) INCLUDE (remaining_amount)
+    WHERE remaining_amount > 0;
+
+CREATE TABLE IF NOT EXISTS filer_aging_summaries (
+    summary_id UUID PRIMARY KEY,
+    tenant_id VARCHAR(50) NOT NULL,
+    filer_id VARCHAR(50) NOT NULL,
+    as_of_date DATE NOT NULL,
+    current_amount NUMERIC(19, 2) NOT NULL,
+    thirty_days NUMERIC(19, 2) NOT NULL,
+    sixty_days NUMERIC(19, 2) NOT NULL,
+    ninety_plus NUMERIC(19, 2) NOT NULL,
+    unapplied_credit NUMERIC(19, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_filer_aging_summary_tenant_filer UNIQUE (tenant_id, filer_id)
+);
+
+-- Backfill from posted history. Clearing oldest first means a filer's total debits consume
+-- credits in date order, so an item's remaining amount is its share of the credits left
+-- after the running credit total passes the filer's total debits.
+WITH lines AS (
+    SELECT e.tenant_id, e.entity_id AS filer_id, e.entry_id, e.entry_number, l.line_number,
+           c.account_number, e.entry_date, l.debit, l.credit
+    FROM journal_entry_lines l
+    JOIN journal_entries e ON e.entry_id = l.entry_id
+    JOIN chart_of_accounts c ON c.account_id = l.account_id
+    WHERE e.entity_id IS NOT NULL
+      AND e.status <> 'DRAFT'
+      AND c.account_number LIKE '21%'
+),
+debits AS (
+    SELECT tenant_id, filer_id, SUM(debit) AS total_debits
+    FROM lines
+    GROUP BY tenant_id, filer_id
+),
+credits AS (
+    SELECT l.*,
+           SUM(l.credit) OVER (PARTITION BY l.tenant_id, l.filer_id
+                               ORDER BY l.entry_date, l.entry_number, l.line_number) AS running_credits,
+           d.total_debits
+    FROM lines l
+    JOIN debits d ON d.tenant_id = l.tenant_id AND d.filer_id = l.filer_id
+    WHERE l.credit > 0
+)
+INSERT INTO receivable_open_items (item_id, tenant_id, filer_id, entry_id, entry_number, line_number,
+                                   account_number, open_date, original_amount, remaining_amount, cleared_at)
+SELECT gen_random_uuid(), tenant_id, filer_id, entry_id, entry_number, line_number,
+       account_number, entry_date, credit,
+       LEAST(credit, GREATEST(running_credits - total_debits, 0)),
+       CASE WHEN running_credits - total_debits <= 0 THEN CURRENT_TIMESTAMP END
+FROM credits;
+
+INSERT INTO filer_aging_summaries (summary_id, tenant_id, filer_id, as_of_date, current_amount, thirty_days,
+                                   sixty_days, ninety_plus, unapplied_credit, updated_at)
+SELECT gen_random_uuid(), f.tenant_id, f.filer_id, CURRENT_DATE,
+       COALESCE(SUM(i.remaining_amount) FILTER (WHERE i.open_date >= CURRENT_DATE - 30), 0),
+       COALESCE(SUM(i.remaining_amount) FILTER (WHERE i.open_date < CURRENT_DATE - 30
+                                                  AND i.open_date >= CURRENT_DATE - 60), 0),
+       COALESCE(SUM(i.remaining_amount) FILTER (WHERE i.open_date < CURRENT_DATE - 60
+                                                  AND i.open_date >= CURRENT_DATE - 90), 0),
+       COALESCE(SUM(i.remaining_amount) FILTER (WHERE i.open_date < CURRENT_DATE - 90), 0),
+       GREATEST(f.total_debits - f.total_credits, 0),
+       CURRENT_TIMESTAMP
+FROM (
+    SELECT e.tenant_id, e.entity_id AS filer_id, SUM(l.debit) AS total_debits, SUM(l.credit) AS total_credits
+    FROM journal_entry_lines l
+    JOIN journal_entries e ON e.entry_id = l.entry_id
+    JOIN chart_of_accounts c ON c.account_id = l.account_id
+    WHERE e.entity_id IS NOT NULL
+      AND e.status <> 'DRAFT'
+      AND c.account_number LIKE '21%'
+    GROUP BY e.tenant_id, e.entity_id
+) f
+LEFT JOIN receivable_open_items i
+       ON i.tenant_id = f.tenant_id AND i.filer_id = f.filer_id AND i.remaining_amount > 0
+GROUP BY f.tenant_id, f.filer_id, f.total_debits, f.total_credits
+ON CONFLICT (tenant_id, filer_id) DO NOTHING;
+
+ANALYZE receivable_open_items;
+ANALYZE filer_aging_summaries;
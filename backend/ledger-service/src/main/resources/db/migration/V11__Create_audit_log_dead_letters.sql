@@ -0,0 +1,13 @@
+-- V11: Dead-letter table for audit rows the asynchronous writer cannot insert
+-- A batch that keeps failing is written row by row; rows that still fail are kept here with
+-- the error so they can be inspected and re-inserted instead of blocking the queue.
+
+CREATE TABLE IF NOT EXISTS audit_log_dead_letters (
+    log_id UUID PRIMARY KEY,
+    payload TEXT NOT NULL,
+    error TEXT,
+    failed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_log_dead_letters_failed_at
+    ON audit_log_dead_letters(failed_at);
@@ -0,0 +1,13 @@
+-- V12: Client batch IDs on batch-posted journal entries
+-- A batch posted in several chunk transactions can fail part way; resubmitting it with the
+-- same batch ID skips entries already posted. The unique index also stops two concurrent
+-- submissions of the same batch from posting an entry twice. Batch IDs are chosen by the
+-- client, so two tenants can use the same one: resubmission lookups filter on tenant_id,
+-- and the unique index leads with it.
+
+ALTER TABLE journal_entries ADD COLUMN IF NOT EXISTS batch_id VARCHAR(100);
+ALTER TABLE journal_entries ADD COLUMN IF NOT EXISTS batch_index INTEGER;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_journal_entries_batch_index
+    ON journal_entries(tenant_id, batch_id, batch_index)
+    WHERE batch_id IS NOT NULL;
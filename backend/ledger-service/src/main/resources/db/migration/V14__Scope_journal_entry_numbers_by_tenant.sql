@@ -0,0 +1,23 @@
+-- V14: Scope journal entry numbers by tenant
+-- Numbers are allocated per (tenant, year) counter (V8), so two tenants both receive JE-2024-00001.
+-- Replace the global UNIQUE(entry_number) from V1 with UNIQUE(tenant_id, entry_number).
+
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT con.conname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'journal_entries'::regclass
+          AND con.contype = 'u'
+          AND array_length(con.conkey, 1) = 1
+          AND att.attname = 'entry_number'
+    LOOP
+        EXECUTE format('ALTER TABLE journal_entries DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE journal_entries
+    ADD CONSTRAINT uk_journal_entries_tenant_entry_number UNIQUE (tenant_id, entry_number);
@@ -0,0 +1,42 @@
+-- V6: Materialized monthly account balances
+-- account_balances was never written; it is now maintained on journal entry posting.
+-- Align its identifier columns with journal_entries (V4/V5) and backfill existing history.
+
+ALTER TABLE account_balances ALTER COLUMN tenant_id TYPE VARCHAR(50);
+ALTER TABLE account_balances ALTER COLUMN entity_id TYPE VARCHAR(50);
+
+-- Trial balance reads all periods for an entity up to a date
+CREATE INDEX IF NOT EXISTS idx_account_balances_tenant_entity_period
+    ON account_balances(tenant_id, entity_id, period_start_date);
+
+-- Backfill one row per (account, entity, month) from existing journal entry lines.
+-- Net activity follows the account's normal balance; beginning/ending balances are running totals.
+INSERT INTO account_balances (balance_id, account_id, entity_id, tenant_id, period_start_date, period_end_date,
+                              beginning_balance, total_debits, total_credits, ending_balance)
+SELECT gen_random_uuid(),
+       p.account_id,
+       p.entity_id,
+       p.tenant_id,
+       p.period_start,
+       (p.period_start + INTERVAL '1 month' - INTERVAL '1 day')::date,
+       SUM(p.net) OVER w - p.net,
+       p.debits,
+       p.credits,
+       SUM(p.net) OVER w
+FROM (
+    SELECT l.account_id,
+           e.entity_id,
+           e.tenant_id,
+           date_trunc('month', e.entry_date)::date AS period_start,
+           SUM(l.debit) AS debits,
+           SUM(l.credit) AS credits,
+           SUM(CASE WHEN c.normal_balance = 'CREDIT' THEN l.credit - l.debit ELSE l.debit - l.credit END) AS net
+    FROM journal_entry_lines l
+    JOIN journal_entries e ON e.entry_id = l.entry_id
+    JOIN chart_of_accounts c ON c.account_id = l.account_id
+    WHERE e.entity_id IS NOT NULL
+      AND e.status <> 'DRAFT'
+    GROUP BY l.account_id, e.entity_id, e.tenant_id, date_trunc('month', e.entry_date)
+) p
+WINDOW w AS (PARTITION BY p.account_id, p.entity_id ORDER BY p.period_start)
+ON CONFLICT (account_id, entity_id, period_start_date, period_end_date) DO NOTHING;
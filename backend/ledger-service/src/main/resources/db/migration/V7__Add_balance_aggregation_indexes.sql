@@ -0,0 +1,13 @@
+-- V7: Indexes for database-side balance aggregation
+-- Trial balance, reconciliation and statements filter entries by tenant, entity and date,
+-- then sum line debits/credits per account.
+
+CREATE INDEX IF NOT EXISTS idx_journal_entries_tenant_entity_date
+    ON journal_entries(tenant_id, entity_id, entry_date, status);
+
+-- Covering index: per-entry line sums read debit/credit without visiting the heap
+CREATE INDEX IF NOT EXISTS idx_journal_entry_lines_entry_account
+    ON journal_entry_lines(entry_id, account_id) INCLUDE (debit, credit);
+
+ANALYZE journal_entries;
+ANALYZE journal_entry_lines;
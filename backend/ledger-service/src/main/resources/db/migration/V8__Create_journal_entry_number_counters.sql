@@ -0,0 +1,19 @@
+-- V8: Per-(tenant, year) journal entry number counters
+-- Entry numbers are leased in blocks from these rows instead of scanning MAX(entry_number).
+
+CREATE TABLE IF NOT EXISTS journal_entry_number_counters (
+    counter_id UUID PRIMARY KEY,
+    tenant_id VARCHAR(50) NOT NULL,
+    entry_year INTEGER NOT NULL,
+    next_value BIGINT NOT NULL,
+    CONSTRAINT uk_entry_number_counter_tenant_year UNIQUE (tenant_id, entry_year)
+);
+
+-- Continue numbering after existing JE-yyyy-nnnnn entries
+INSERT INTO journal_entry_number_counters (counter_id, tenant_id, entry_year, next_value)
+SELECT gen_random_uuid(), tenant_id, CAST(substring(entry_number FROM 4 FOR 4) AS INTEGER),
+       MAX(CAST(substring(entry_number FROM 9) AS BIGINT)) + 1
+FROM journal_entries
+WHERE entry_number ~ '^JE-[0-9]{4}-[0-9]+$'
+GROUP BY tenant_id, substring(entry_number FROM 4 FOR 4)
+ON CONFLICT (tenant_id, entry_year) DO NOTHING;
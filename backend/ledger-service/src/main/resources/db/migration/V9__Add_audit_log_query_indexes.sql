@@ -0,0 +1,22 @@
+-- V9: Indexes for filtered, keyset-paginated audit trail queries
+-- Audit queries filter by tenant (plus optionally entity type, action or user) and page
+-- newest first by (timestamp, log_id), so each index ends with those two columns.
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_tenant_timestamp
+    ON audit_logs(tenant_id, timestamp DESC, log_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_tenant_entity_type_timestamp
+    ON audit_logs(tenant_id, entity_type, timestamp DESC, log_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_tenant_action_timestamp
+    ON audit_logs(tenant_id, action, timestamp DESC, log_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_tenant_user_timestamp
+    ON audit_logs(tenant_id, user_id, timestamp DESC, log_id DESC);
+
+-- Entity audit trail is read ordered by timestamp
+DROP INDEX IF EXISTS idx_audit_logs_entity;
+CREATE INDEX IF NOT EXISTS idx_audit_logs_entity_timestamp
+    ON audit_logs(entity_id, timestamp DESC);
+
+ANALYZE audit_logs;
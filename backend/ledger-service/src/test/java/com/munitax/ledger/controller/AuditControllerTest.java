@@ -1,5 +1,7 @@
 package com.munitax.ledger.controller;
 
+import com.munitax.ledger.dto.AuditLogFilter;
+import com.munitax.ledger.dto.AuditLogPage;
 import com.munitax.ledger.model.AuditLog;
 import com.munitax.ledger.service.AuditLogService;
 import org.junit.jupiter.api.DisplayName;
@@ -138,6 +140,32 @@ class AuditControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("T072 - GET /api/v1/audit/filtered should return a page with the next cursor")
+    void shouldGetFilteredAuditTrailPage() throws Exception {
+        // Given
+        String tenantId = UUID.randomUUID().toString();
+        UUID userId = UUID.randomUUID();
+        AuditLog log1 = createAuditLog(UUID.randomUUID(), userId, tenantId, "REVERSE", LocalDateTime.now());
+        AuditLogFilter filter = AuditLogFilter.builder().tenantId(tenantId).action("REVERSE").build();
+        when(auditLogService.getFilteredAuditTrail(filter, "abc", 1)).thenReturn(AuditLogPage.builder()
+                .items(List.of(log1))
+                .nextCursor("def")
+                .hasMore(true)
+                .build());
+
+        // When/Then
+        mockMvc.perform(get("/api/v1/audit/filtered")
+                        .param("tenantId", tenantId)
+                        .param("action", "REVERSE")
+                        .param("cursor", "abc")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].action").value("REVERSE"))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
     private AuditLog createAuditLog(UUID entityId, UUID userId, String tenantId, 
                                    String action, LocalDateTime timestamp) {
         return AuditLog.builder()
@@ -0,0 +1,184 @@
+package com.munitax.ledger.performance;
+
+import com.munitax.ledger.dto.TrialBalanceResponse;
+import com.munitax.ledger.repository.AccountTotals;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import com.munitax.ledger.service.TrialBalanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark for database-side trial balance aggregation over a large ledger (10M lines by default).
+ *
+ * Runs against a real PostgreSQL database (migrated by Flyway on startup), not H2. The dataset is
+ * generated server-side with generate_series on first run and reused afterwards, so repeated runs
+ * measure the same data. Disabled by default. To run it:
+ *
+ * mvn test -Dtest=TrialBalanceAggregationBenchmarkTest -Dperformance.tests.enabled=true \
+ *     -Dspring.datasource.url=jdbc:postgresql://localhost:5432/ledger_bench \
+ *     -Dspring.datasource.username=postgres -Dspring.datasource.password=postgres
+ *
+ * Optional: -Dbenchmark.lines=10000000 -Dbenchmark.iterations=10 -Dbenchmark.max-millis=1000
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "eureka.client.enabled=false"})
+@EnabledIfSystemProperty(named = "performance.tests.enabled", matches = "true")
+class TrialBalanceAggregationBenchmarkTest {
+
+    // Shared default chart of accounts (V1 seed)
+    private static final String TENANT_ID = "00000000-0000-0000-0000-000000000000";
+    private static final LocalDate FIRST_ENTRY_DATE = LocalDate.of(2015, 1, 1);
+    private static final int DAYS_OF_HISTORY = 3650;
+
+    private static final long LINES = Long.getLong("benchmark.lines", 10_000_000L);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+    private static final long MAX_MILLIS = Long.getLong("benchmark.max-millis", 1000L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private TrialBalanceService trialBalanceService;
+
+    private String entityId;
+
+    @BeforeEach
+    void setUp() {
+        // Same municipality entity the trial balance reads
+        entityId = UUID.nameUUIDFromBytes(
+                ("MUNICIPALITY-" + TENANT_ID).getBytes(StandardCharsets.UTF_8)).toString();
+        seedIfMissing();
+    }
+
+    @Test
+    void benchmarkLineAggregation_FullHistory() {
+        LocalDate asOfDate = FIRST_ENTRY_DATE.plusDays(DAYS_OF_HISTORY);
+
+        // Warm up connection pool, plan cache and buffers
+        journalEntryRepository.sumLinesByAccount(TENANT_ID, entityId, JournalEntryRepository.POSTED_STATUSES, asOfDate);
+
+        List<Long> timings = new ArrayList<>();
+        List<AccountTotals> totals = List.of();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            totals = journalEntryRepository.sumLinesByAccount(
+                    TENANT_ID, entityId, JournalEntryRepository.POSTED_STATUSES, asOfDate);
+            timings.add((System.nanoTime() - start) / 1_000_000);
+        }
+
+        long median = median(timings);
+        System.out.println("=== Trial Balance Line Aggregation Benchmark ===");
+        System.out.println("Lines: " + LINES + ", iterations: " + ITERATIONS);
+        System.out.println("Timings (ms): " + timings);
+        System.out.println("Median: " + median + "ms (limit " + MAX_MILLIS + "ms)");
+
+        assertFalse(totals.isEmpty(), "Benchmark data should be aggregated");
+        BigDecimal debits = totals.stream().map(AccountTotals::getTotalDebits).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal credits = totals.stream().map(AccountTotals::getTotalCredits).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, debits.compareTo(credits), "Aggregated debits should equal credits");
+        assertTrue(median < MAX_MILLIS, "Median aggregation time " + median + "ms exceeds " + MAX_MILLIS + "ms");
+    }
+
+    @Test
+    void benchmarkTrialBalance_MidPeriod() {
+        LocalDate asOfDate = FIRST_ENTRY_DATE.plusDays(DAYS_OF_HISTORY / 2);
+
+        trialBalanceService.generateTrialBalance(TENANT_ID, asOfDate);
+
+        List<Long> timings = new ArrayList<>();
+        TrialBalanceResponse response = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            response = trialBalanceService.generateTrialBalance(TENANT_ID, asOfDate);
+            timings.add((System.nanoTime() - start) / 1_000_000);
+        }
+
+        System.out.println("=== Trial Balance Benchmark ===");
+        System.out.println("Timings (ms): " + timings + ", median: " + median(timings) + "ms");
+
+        assertNotNull(response);
+        assertTrue(response.isBalanced(), "Trial balance should be balanced");
+    }
+
+    /**
+     * Generate LINES / 2 balanced two-line entries spread over ten years, unless already present.
+     */
+    private void seedIfMissing() {
+        Long existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM journal_entry_lines l JOIN journal_entries e ON e.entry_id = l.entry_id " +
+                "WHERE e.tenant_id = ? AND e.entity_id = ?", Long.class, TENANT_ID, entityId);
+        if (existing != null && existing == LINES) {
+            return;
+        }
+
+        System.out.println("Seeding " + LINES + " benchmark journal entry lines...");
+        jdbcTemplate.update("DELETE FROM journal_entries WHERE tenant_id = ? AND entity_id = ?", TENANT_ID, entityId);
+        jdbcTemplate.update("DELETE FROM account_balances WHERE tenant_id = ? AND entity_id = ?", TENANT_ID, entityId);
+
+        jdbcTemplate.update("""
+                INSERT INTO journal_entries (entry_id, entry_number, entry_date, description, source_type,
+                                             status, tenant_id, entity_id, created_by, created_at)
+                SELECT gen_random_uuid(), 'BENCH-' || g, ?::date + (g % ?), 'Benchmark entry', 'TAX_ASSESSMENT',
+                       'POSTED', ?, ?, '00000000-0000-0000-0000-000000000000', now()
+                FROM generate_series(1, ?) g
+                """, FIRST_ENTRY_DATE, DAYS_OF_HISTORY, TENANT_ID, entityId, LINES / 2);
+
+        // Alternate assessments (Dr AR / Cr Revenue) and payments (Dr Cash / Cr AR)
+        jdbcTemplate.update("""
+                INSERT INTO journal_entry_lines (line_id, entry_id, account_id, line_number, debit, credit)
+                SELECT gen_random_uuid(), e.entry_id,
+                       (SELECT account_id FROM chart_of_accounts
+                        WHERE account_number = CASE WHEN n.line_number = 1
+                              THEN (CASE WHEN right(e.entry_number, 1) IN ('0','2','4','6','8') THEN '1201' ELSE '1001' END)
+                              ELSE (CASE WHEN right(e.entry_number, 1) IN ('0','2','4','6','8') THEN '4100' ELSE '1201' END) END),
+                       n.line_number,
+                       CASE WHEN n.line_number = 1 THEN 100.00 ELSE 0 END,
+                       CASE WHEN n.line_number = 2 THEN 100.00 ELSE 0 END
+                FROM journal_entries e
+                CROSS JOIN (VALUES (1), (2)) AS n(line_number)
+                WHERE e.tenant_id = ? AND e.entity_id = ?
+                """, TENANT_ID, entityId);
+
+        // Closed-period snapshots the trial balance reads
+        jdbcTemplate.update("""
+                INSERT INTO account_balances (balance_id, account_id, entity_id, tenant_id, period_start_date,
+                                              period_end_date, beginning_balance, total_debits, total_credits, ending_balance)
+                SELECT gen_random_uuid(), p.account_id, ?, ?, p.period_start,
+                       (p.period_start + INTERVAL '1 month' - INTERVAL '1 day')::date,
+                       0, p.debits, p.credits, 0
+                FROM (
+                    SELECT l.account_id, date_trunc('month', e.entry_date)::date AS period_start,
+                           SUM(l.debit) AS debits, SUM(l.credit) AS credits
+                    FROM journal_entry_lines l JOIN journal_entries e ON e.entry_id = l.entry_id
+                    WHERE e.tenant_id = ? AND e.entity_id = ?
+                    GROUP BY l.account_id, date_trunc('month', e.entry_date)
+                ) p
+                """, entityId, TENANT_ID, TENANT_ID, entityId);
+
+        jdbcTemplate.execute("ANALYZE journal_entries");
+        jdbcTemplate.execute("ANALYZE journal_entry_lines");
+        jdbcTemplate.execute("ANALYZE account_balances");
+    }
+
+    private static long median(List<Long> timings) {
+        List<Long> sorted = new ArrayList<>(timings);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,212 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.enums.AccountType;
+import com.munitax.ledger.enums.EntryStatus;
+import com.munitax.ledger.enums.NormalBalance;
+import com.munitax.ledger.model.AccountBalance;
+import com.munitax.ledger.model.ChartOfAccounts;
+import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.model.JournalEntryLine;
+import com.munitax.ledger.repository.AccountBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountBalanceService Tests")
+class AccountBalanceServiceTest {
+
+    @Mock
+    private AccountBalanceRepository accountBalanceRepository;
+
+    @InjectMocks
+    private AccountBalanceService accountBalanceService;
+
+    private final String tenantId = UUID.randomUUID().toString();
+    private final String entityId = UUID.randomUUID().toString();
+
+    private ChartOfAccounts cash;
+    private ChartOfAccounts revenue;
+
+    @BeforeEach
+    void setUp() {
+        cash = ChartOfAccounts.builder()
+                .accountId(UUID.randomUUID())
+                .accountNumber("1001")
+                .accountType(AccountType.ASSET)
+                .normalBalance(NormalBalance.DEBIT)
+                .build();
+        revenue = ChartOfAccounts.builder()
+                .accountId(UUID.randomUUID())
+                .accountNumber("4100")
+                .accountType(AccountType.REVENUE)
+                .normalBalance(NormalBalance.CREDIT)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should open a new period row carrying forward the prior period's ending balance")
+    void shouldOpenPeriodFromPriorEndingBalance() {
+        // Given - nothing yet in April; the insert opens cash from March's ending balance of 500
+        LocalDate april = LocalDate.of(2024, 4, 1);
+        AccountBalance cashOpened = balance(cash, april, "500.00", "500.00");
+        AccountBalance revenueOpened = balance(revenue, april, "0.00", "0.00");
+        when(accountBalanceRepository.lockFromPeriod(cash.getAccountId(), entityId, april))
+                .thenReturn(List.of(cashOpened));
+        when(accountBalanceRepository.lockFromPeriod(revenue.getAccountId(), entityId, april))
+                .thenReturn(List.of(revenueOpened));
+
+        // When - Dr Cash 200 / Cr Revenue 200 on April 15
+        accountBalanceService.applyEntry(entry(LocalDate.of(2024, 4, 15), "200.00"));
+
+        // Then - the row is serialized, inserted if absent, then locked before it is updated
+        InOrder inOrder = inOrder(accountBalanceRepository);
+        inOrder.verify(accountBalanceRepository).lockAccountEntity(cash.getAccountId() + "|" + entityId);
+        inOrder.verify(accountBalanceRepository).insertIfAbsent(cash.getAccountId(), entityId, tenantId,
+                april, LocalDate.of(2024, 4, 30));
+        inOrder.verify(accountBalanceRepository).lockFromPeriod(cash.getAccountId(), entityId, april);
+        inOrder.verify(accountBalanceRepository).save(cashOpened);
+
+        assertThat(cashOpened.getBeginningBalance()).isEqualByComparingTo("500.00");
+        assertThat(cashOpened.getTotalDebits()).isEqualByComparingTo("200.00");
+        assertThat(cashOpened.getEndingBalance()).isEqualByComparingTo("700.00");
+        assertThat(revenueOpened.getTotalCredits()).isEqualByComparingTo("200.00");
+        assertThat(revenueOpened.getEndingBalance()).isEqualByComparingTo("200.00");
+        verify(accountBalanceRepository).save(revenueOpened);
+    }
+
+    @Test
+    @DisplayName("Should fail when the period row cannot be locked after the insert")
+    void shouldFailWhenPeriodRowMissing() {
+        // Given
+        when(accountBalanceRepository.lockFromPeriod(any(), eq(entityId), eq(LocalDate.of(2024, 4, 1))))
+                .thenReturn(List.of());
+
+        // When / Then
+        assertThatThrownBy(() -> accountBalanceService.applyEntry(entry(LocalDate.of(2024, 4, 15), "200.00")))
+                .isInstanceOf(IllegalStateException.class);
+        verify(accountBalanceRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should add to an existing period and shift later periods for back-dated entries")
+    void shouldUpdateExistingPeriodAndCarryForward() {
+        // Given - cash has January and February rows; revenue has none
+        AccountBalance january = balance(cash, LocalDate.of(2024, 1, 1), "0.00", "100.00");
+        AccountBalance february = balance(cash, LocalDate.of(2024, 2, 1), "100.00", "150.00");
+        when(accountBalanceRepository.lockFromPeriod(cash.getAccountId(), entityId, LocalDate.of(2024, 1, 1)))
+                .thenReturn(List.of(january, february));
+        when(accountBalanceRepository.lockFromPeriod(revenue.getAccountId(), entityId, LocalDate.of(2024, 1, 1)))
+                .thenReturn(List.of(balance(revenue, LocalDate.of(2024, 1, 1), "0.00", "0.00")));
+
+        // When - back-dated January posting
+        accountBalanceService.applyEntry(entry(LocalDate.of(2024, 1, 20), "25.00"));
+
+        // Then
+        assertThat(january.getTotalDebits()).isEqualByComparingTo("125.00");
+        assertThat(january.getEndingBalance()).isEqualByComparingTo("125.00");
+        assertThat(february.getBeginningBalance()).isEqualByComparingTo("125.00");
+        assertThat(february.getEndingBalance()).isEqualByComparingTo("175.00");
+        verify(accountBalanceRepository).save(january);
+        verify(accountBalanceRepository).save(february);
+    }
+
+    @Test
+    @DisplayName("Should skip entries without an entity")
+    void shouldSkipEntriesWithoutEntity() {
+        // Given
+        JournalEntry entry = entry(LocalDate.of(2024, 4, 15), "200.00");
+        entry.setEntityId(null);
+
+        // When
+        accountBalanceService.applyEntry(entry);
+
+        // Then
+        verifyNoInteractions(accountBalanceRepository);
+    }
+
+    @Test
+    @DisplayName("Should net a batch of entries into one update per account and period")
+    void shouldNetBatchPerAccountAndPeriod() {
+        // Given - no existing balances, so each account's May row is opened empty
+        LocalDate may = LocalDate.of(2024, 5, 1);
+        when(accountBalanceRepository.lockFromPeriod(cash.getAccountId(), entityId, may))
+                .thenReturn(List.of(balance(cash, may, "0.00", "0.00")));
+        when(accountBalanceRepository.lockFromPeriod(revenue.getAccountId(), entityId, may))
+                .thenReturn(List.of(balance(revenue, may, "0.00", "0.00")));
+
+        // When - three May entries posted together
+        accountBalanceService.applyEntries(List.of(
+                entry(LocalDate.of(2024, 5, 2), "100.00"),
+                entry(LocalDate.of(2024, 5, 10), "50.00"),
+                entry(LocalDate.of(2024, 5, 31), "25.00")));
+
+        // Then - one row per account, each locked once
+        ArgumentCaptor<AccountBalance> captor = ArgumentCaptor.forClass(AccountBalance.class);
+        verify(accountBalanceRepository, times(2)).save(captor.capture());
+        verify(accountBalanceRepository, times(2)).insertIfAbsent(any(), eq(entityId), eq(tenantId), eq(may), any());
+        verify(accountBalanceRepository, times(2)).lockFromPeriod(any(), eq(entityId), eq(may));
+        assertThat(savedFor(captor, cash).getEndingBalance()).isEqualByComparingTo("175.00");
+        assertThat(savedFor(captor, revenue).getEndingBalance()).isEqualByComparingTo("175.00");
+    }
+
+    private static AccountBalance savedFor(ArgumentCaptor<AccountBalance> captor, ChartOfAccounts account) {
+        return captor.getAllValues().stream()
+                .filter(balance -> balance.getAccount().equals(account))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private JournalEntry entry(LocalDate entryDate, String amount) {
+        JournalEntry entry = JournalEntry.builder()
+                .entryNumber("JE-2024-00001")
+                .entryDate(entryDate)
+                .status(EntryStatus.POSTED)
+                .tenantId(tenantId)
+                .entityId(entityId)
+                .lines(new ArrayList<>())
+                .build();
+        entry.getLines().add(JournalEntryLine.builder()
+                .journalEntry(entry).account(cash).lineNumber(1)
+                .debit(new BigDecimal(amount)).credit(BigDecimal.ZERO).build());
+        entry.getLines().add(JournalEntryLine.builder()
+                .journalEntry(entry).account(revenue).lineNumber(2)
+                .debit(BigDecimal.ZERO).credit(new BigDecimal(amount)).build());
+        return entry;
+    }
+
+    private AccountBalance balance(ChartOfAccounts account, LocalDate periodStart,
+                                   String beginning, String ending) {
+        BigDecimal beginningBalance = new BigDecimal(beginning);
+        BigDecimal endingBalance = new BigDecimal(ending);
+        return AccountBalance.builder()
+                .balanceId(UUID.randomUUID())
+                .account(account)
+                .entityId(entityId)
+                .tenantId(tenantId)
+                .periodStartDate(periodStart)
+                .periodEndDate(periodStart.plusMonths(1).minusDays(1))
+                .beginningBalance(beginningBalance)
+                .totalDebits(endingBalance.subtract(beginningBalance))
+                .totalCredits(BigDecimal.ZERO)
+                .endingBalance(endingBalance)
+                .build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.munitax.ledger.service;
 
+import com.munitax.ledger.dto.AuditLogFilter;
+import com.munitax.ledger.dto.AuditLogPage;
 import com.munitax.ledger.model.AuditLog;
 import com.munitax.ledger.repository.AuditLogRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,12 +13,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +33,9 @@ class AuditLogServiceTest {
     @Mock
     private AuditLogRepository auditLogRepository;
 
+    @Mock
+    private AuditLogWriter auditLogWriter;
+
     @InjectMocks
     private AuditLogService auditLogService;
 
@@ -49,14 +58,12 @@ class AuditLogServiceTest {
         String action = "CREATE";
         String details = "Created journal entry for tax assessment";
 
-        when(auditLogRepository.save(any(AuditLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         auditLogService.logAction(entityId, entityType, action, userId, tenantId, details);
 
         // Then
         ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(captor.capture());
+        verify(auditLogWriter).write(captor.capture());
 
         AuditLog savedLog = captor.getValue();
         assertThat(savedLog.getEntityId()).isEqualTo(entityId);
@@ -79,15 +86,13 @@ class AuditLogServiceTest {
         String newValue = "POSTED";
         String reason = "Posted by finance officer";
 
-        when(auditLogRepository.save(any(AuditLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         auditLogService.logModification(entityId, entityType, action, userId, tenantId, 
                                        oldValue, newValue, reason);
 
         // Then
         ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository).save(captor.capture());
+        verify(auditLogWriter).write(captor.capture());
 
         AuditLog savedLog = captor.getValue();
         assertThat(savedLog.getEntityId()).isEqualTo(entityId);
@@ -189,8 +194,6 @@ class AuditLogServiceTest {
     @DisplayName("T066 - Should handle multiple consecutive log entries")
     void shouldHandleMultipleConsecutiveLogs() {
         // Given
-        when(auditLogRepository.save(any(AuditLog.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
         auditLogService.logAction(entityId, "JOURNAL_ENTRY", "CREATE", userId, tenantId, "Created");
         auditLogService.logModification(entityId, "JOURNAL_ENTRY", "UPDATE", userId, tenantId, 
@@ -198,7 +201,7 @@ class AuditLogServiceTest {
         auditLogService.logAction(entityId, "JOURNAL_ENTRY", "VIEW", userId, tenantId, "Viewed by auditor");
 
         // Then
-        verify(auditLogRepository, times(3)).save(any(AuditLog.class));
+        verify(auditLogWriter, times(3)).write(any(AuditLog.class));
     }
 
     @Test
@@ -217,6 +220,69 @@ class AuditLogServiceTest {
         verify(auditLogRepository).findByEntityIdOrderByTimestampDesc(entityWithNoLogs);
     }
 
+    @Test
+    @DisplayName("T072 - Should return a filtered page with a cursor that seeks past its last row")
+    void shouldPageFilteredAuditTrailWithCursor() {
+        // Given - three matching rows, page size two
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+        AuditLog newest = createAuditLog(entityId, "CREATE", now);
+        AuditLog middle = createAuditLog(entityId, "CREATE", now.minusMinutes(1));
+        AuditLog oldest = createAuditLog(entityId, "CREATE", now.minusMinutes(2));
+        AuditLogFilter filter = AuditLogFilter.builder().tenantId(tenantId).action("CREATE").build();
+        when(auditLogRepository.findFilteredPage(filter, null, null, 3))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(auditLogRepository.findFilteredPage(filter, middle.getTimestamp(), middle.getLogId(), 3))
+                .thenReturn(List.of(oldest));
+
+        // When
+        AuditLogPage firstPage = auditLogService.getFilteredAuditTrail(filter, null, 2);
+        AuditLogPage secondPage = auditLogService.getFilteredAuditTrail(filter, firstPage.getNextCursor(), 2);
+
+        // Then
+        assertThat(firstPage.getItems()).containsExactly(newest, middle);
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(secondPage.getItems()).containsExactly(oldest);
+        assertThat(secondPage.isHasMore()).isFalse();
+        assertThat(secondPage.getNextCursor()).isNull();
+        verify(auditLogRepository, never()).findByTenantIdOrderByTimestampDesc(any());
+    }
+
+    @Test
+    @DisplayName("T072 - Should reject a malformed cursor or page size")
+    void shouldRejectInvalidCursorAndLimit() {
+        AuditLogFilter filter = AuditLogFilter.builder().tenantId(tenantId).build();
+
+        assertThatThrownBy(() -> auditLogService.getFilteredAuditTrail(filter, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> auditLogService.getFilteredAuditTrail(filter, null, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Limit must be between 1 and");
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    @DisplayName("Should stream the filtered audit trail as CSV")
+    void shouldExportFilteredAuditTrailAsCsv() throws Exception {
+        // Given
+        AuditLog withQuotes = createAuditLog(entityId, "UPDATE", LocalDateTime.of(2024, 5, 1, 12, 0));
+        withQuotes.setDetails("Changed \"memo\", amount");
+        AuditLogFilter filter = AuditLogFilter.builder().tenantId(tenantId).build();
+        when(auditLogRepository.streamFiltered(filter)).thenReturn(Stream.of(withQuotes));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long rows = auditLogService.exportFilteredAuditTrail(filter, output);
+
+        // Then
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(rows).isEqualTo(1);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("Log ID,Timestamp,Entity Type");
+        assertThat(lines[1]).startsWith(withQuotes.getLogId() + ",2024-05-01T12:00,\"JOURNAL_ENTRY\"")
+                .contains("\"Changed \"\"memo\"\", amount\"");
+    }
+
     private AuditLog createAuditLog(UUID entityId, String action, LocalDateTime timestamp) {
         return AuditLog.builder()
                 .logId(UUID.randomUUID())
@@ -0,0 +1,369 @@
+package com.munitax.ledger.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munitax.ledger.model.AuditLog;
+import com.munitax.ledger.repository.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditLogWriter and AuditWriteAheadLog.
+ * Tests multi-row batching, retry, full-queue fallback and write-ahead replay.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogWriter Tests")
+class AuditLogWriterTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path walDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = createWriter(100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    @DisplayName("Should write queued audit logs as multi-row inserts and drain on shutdown")
+    void shouldBatchAndDrainOnShutdown() {
+        // Given
+        List<Integer> rowsPerInsert = Collections.synchronizedList(new ArrayList<>());
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            int rows = (invocation.getArguments().length - 1) / 11;
+            rowsPerInsert.add(rows);
+            return rows;
+        });
+        writer.start();
+
+        // When - 7 rows with batch size 3; the rest is drained on shutdown
+        for (int i = 0; i < 7; i++) {
+            writer.write(auditLog());
+        }
+        writer.stop();
+
+        // Then - no row is written on the caller thread, every insert carries several rows
+        assertThat(rowsPerInsert).hasSizeGreaterThanOrEqualTo(3).allMatch(rows -> rows <= 3);
+        assertThat(rowsPerInsert.stream().mapToInt(Integer::intValue).sum()).isEqualTo(7);
+        verify(jdbcTemplate, atLeast(3)).update(contains("ON CONFLICT (log_id) DO NOTHING"), any(Object[].class));
+        verifyNoInteractions(auditLogRepository);
+        assertThat(meterRegistry.get("audit.write_behind.written").tag("buffer", "audit_logs")
+                .counter().count()).isEqualTo(7.0);
+        assertThat(meterRegistry.get("audit.write_behind.sync_fallback").tag("buffer", "audit_logs")
+                .counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep a failed batch and write it on the next flush")
+    void shouldRetryFailedBatch() {
+        // Given
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(1);
+        writer.start();
+        writer.write(auditLog());
+
+        // When
+        int firstFlush = writer.flush();
+        int secondFlush = writer.flush();
+
+        // Then
+        assertThat(firstFlush).isZero();
+        assertThat(secondFlush).isEqualTo(1);
+        assertThat(writer.queued()).isZero();
+        assertThat(meterRegistry.get("audit.write_behind.failures").tag("buffer", "audit_logs")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should split a repeatedly failing batch and dead-letter the rows that still fail")
+    void shouldDeadLetterPoisonRowsAfterMaxAttempts() {
+        // Given - one row the database always rejects, one it accepts on its own
+        AuditLog poison = auditLog();
+        AuditLog good = auditLog();
+        when(jdbcTemplate.update(startsWith("INSERT INTO audit_logs"), any(Object[].class))).thenAnswer(invocation ->
+                Arrays.asList(invocation.getArguments()).contains(poison.getLogId()) ? fail(poison) : 1);
+        when(jdbcTemplate.update(startsWith("INSERT INTO audit_log_dead_letters"), any(Object[].class)))
+                .thenReturn(1);
+        ReflectionTestUtils.setField(writer, "maxAttempts", 2);
+        writer.start();
+        writer.writeAll(List.of(poison, good));
+
+        // When
+        int firstFlush = writer.flush();
+        int secondFlush = writer.flush();
+
+        // Then
+        assertThat(firstFlush).isZero();
+        assertThat(secondFlush).isEqualTo(1);
+        assertThat(writer.queued()).isZero();
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_log_dead_letters"), eq(poison.getLogId()),
+                anyString(), eq("value too long"), any(LocalDateTime.class));
+        assertThat(meterRegistry.get("audit.write_behind.dead_lettered").tag("buffer", "audit_logs")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should keep retrying when the dead-letter table is unavailable too")
+    void shouldKeepBatchWhenDeadLetterFails() {
+        // Given - database down
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenThrow(new RuntimeException("connection refused"));
+        ReflectionTestUtils.setField(writer, "maxAttempts", 1);
+        writer.start();
+        writer.write(auditLog());
+
+        // When
+        int written = writer.flush();
+
+        // Then
+        assertThat(written).isZero();
+        assertThat(writer.queued()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write on the caller thread when the queue is full")
+    void shouldFallBackToSynchronousWriteWhenFull() {
+        // Given - queue holds 2 rows
+        writer = createWriter(2);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        writer.start();
+
+        // When
+        writer.write(auditLog());
+        writer.write(auditLog());
+        writer.write(auditLog());
+
+        // Then - third row bypassed the queue
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+        assertThat(writer.queued()).isEqualTo(2);
+        assertThat(meterRegistry.get("audit.write_behind.sync_fallback").tag("buffer", "audit_logs")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not fail the caller when the synchronous fallback write fails")
+    void shouldKeepRowWhenFallbackWriteFails() {
+        // Given - queue holds 1 row and the database is briefly unavailable
+        writer = createWriter(1);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(2);
+        writer.start();
+        writer.write(auditLog());
+
+        // When
+        writer.write(auditLog());
+
+        // Then - the second row waits for the flusher
+        assertThat(writer.queued()).isEqualTo(2);
+        assertThat(writer.flush()).isEqualTo(2);
+        assertThat(writer.queued()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should append to the write-ahead log before commit and queue only after it")
+    void shouldAppendBeforeCommitAndQueueAfterCommit() {
+        // Given
+        ReflectionTestUtils.setField(writer, "walDir", walDir.toString());
+        writer.start();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.write(auditLog());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // When
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // Then - durable but not yet queued
+            assertThat(writer.queued()).isZero();
+            assertThat(walRows()).hasSize(1);
+
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            assertThat(writer.queued()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should mark rows of a rolled-back transaction as discarded in the write-ahead log")
+    void shouldDiscardRowsOfRolledBackTransaction() {
+        // Given
+        ReflectionTestUtils.setField(writer, "walDir", walDir.toString());
+        writer.start();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.writeAll(List.of(auditLog(), auditLog()));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+            // When - the commit fails after the rows were appended
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            assertThat(writer.queued()).isZero();
+            assertThat(walRows()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay write-ahead segments left by a crash and delete them once written")
+    void shouldReplayWriteAheadLogOnStartup() throws Exception {
+        // Given - a previous run queued two rows and died before flushing
+        AuditWriteAheadLog previousRun = new AuditWriteAheadLog(walDir, objectMapper, false);
+        AuditLog first = auditLog();
+        AuditLog second = auditLog();
+        first.setLogId(UUID.randomUUID());
+        second.setLogId(UUID.randomUUID());
+        previousRun.append(first, () -> { });
+        previousRun.append(second, () -> { });
+        previousRun.close();
+
+        List<Object> insertedValues = new ArrayList<>();
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Object[] arguments = invocation.getArguments();
+            insertedValues.addAll(Arrays.asList(arguments).subList(1, arguments.length));
+            return 2;
+        });
+        ReflectionTestUtils.setField(writer, "walDir", walDir.toString());
+
+        // When
+        writer.start();
+
+        // Then - both rows inserted with their original IDs, old segment removed
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+        assertThat(insertedValues).hasSize(22);
+        assertThat(insertedValues.get(0)).isEqualTo(first.getLogId());
+        assertThat(insertedValues.get(11)).isEqualTo(second.getLogId());
+        assertThat(meterRegistry.get("audit.write_behind.wal.replayed").tag("buffer", "audit_logs")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should delete write-ahead segments after their rows are written")
+    void shouldDeleteSealedSegmentsAfterFlush() throws Exception {
+        // Given
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        ReflectionTestUtils.setField(writer, "walDir", walDir.toString());
+        writer.start();
+        writer.write(auditLog());
+
+        // When
+        writer.flush();
+
+        // Then - only the new, empty active segment remains
+        assertThat(segments()).singleElement().satisfies(segment -> assertThat(Files.size(segment)).isZero());
+    }
+
+    @Test
+    @DisplayName("Should refuse a write-ahead directory already held by another instance")
+    void shouldLockWriteAheadDirectory() {
+        // Given
+        ReflectionTestUtils.setField(writer, "walDir", walDir.toString());
+        writer.start();
+
+        // When / Then
+        assertThatThrownBy(() -> new AuditWriteAheadLog(walDir, objectMapper, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("in use by another instance");
+
+        // Released once the owner stops
+        writer.stop();
+        new AuditWriteAheadLog(walDir, objectMapper, false).close();
+    }
+
+    private static int fail(AuditLog auditLog) {
+        throw new RuntimeException("value too long");
+    }
+
+    private List<Path> segments() throws Exception {
+        try (var files = Files.list(walDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".wal")).toList();
+        }
+    }
+
+    private List<AuditLog> walRows() {
+        AuditWriteAheadLog reader = new AuditWriteAheadLog(walDir.resolve("copy"), objectMapper, false);
+        try (var segments = Files.list(walDir)) {
+            List<AuditLog> rows = new ArrayList<>();
+            segments.filter(Files::isRegularFile).forEach(segment -> rows.addAll(reader.read(segment)));
+            return rows;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private AuditLogWriter createWriter(int capacity) {
+        AuditLogWriter auditLogWriter = new AuditLogWriter(auditLogRepository, jdbcTemplate, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(auditLogWriter, "enabled", true);
+        ReflectionTestUtils.setField(auditLogWriter, "capacity", capacity);
+        ReflectionTestUtils.setField(auditLogWriter, "batchSize", 3);
+        ReflectionTestUtils.setField(auditLogWriter, "maxAttempts", 5);
+        ReflectionTestUtils.setField(auditLogWriter, "walDir", "");
+        // Long interval so only explicit/size-triggered flushes run during the test
+        ReflectionTestUtils.setField(auditLogWriter, "flushIntervalMs", 60_000L);
+        return auditLogWriter;
+    }
+
+    private AuditLog auditLog() {
+        return AuditLog.builder()
+                .entityId(UUID.randomUUID())
+                .entityType("JOURNAL_ENTRY")
+                .action("CREATE")
+                .userId(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .details("Created journal entry")
+                .tenantId("tenant-1")
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.enums.AccountType;
+import com.munitax.ledger.enums.NormalBalance;
+import com.munitax.ledger.model.AccountDescriptor;
+import com.munitax.ledger.model.ChartOfAccounts;
+import com.munitax.ledger.repository.ChartOfAccountsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChartOfAccountsCache Tests")
+class ChartOfAccountsCacheTest {
+
+    @Mock
+    private ChartOfAccountsRepository chartOfAccountsRepository;
+
+    @InjectMocks
+    private ChartOfAccountsCache chartOfAccountsCache;
+
+    private ChartOfAccounts cash;
+    private ChartOfAccounts liability;
+    private ChartOfAccounts otherTenantRevenue;
+
+    @BeforeEach
+    void setUp() {
+        cash = account("1001", "Cash", AccountType.ASSET, NormalBalance.DEBIT, "tenant-1");
+        liability = account("2100", "Tax Liability", AccountType.LIABILITY, NormalBalance.CREDIT, "tenant-1");
+        otherTenantRevenue = account("4100", "Tax Revenue", AccountType.REVENUE, NormalBalance.CREDIT, "tenant-2");
+    }
+
+    @Test
+    @DisplayName("Should load the chart once and serve lookups from memory")
+    void shouldServeLookupsFromSnapshot() {
+        // Given
+        when(chartOfAccountsRepository.findAll()).thenReturn(List.of(liability, cash, otherTenantRevenue));
+
+        // When
+        AccountDescriptor first = chartOfAccountsCache.getAccount("2100");
+        AccountDescriptor second = chartOfAccountsCache.getAccount("2100");
+        List<AccountDescriptor> tenantAccounts = chartOfAccountsCache.getAccounts("tenant-1");
+
+        // Then
+        assertThat(first).isSameAs(second);
+        assertThat(first.accountId()).isEqualTo(liability.getAccountId());
+        assertThat(first.normalBalance()).isEqualTo(NormalBalance.CREDIT);
+        assertThat(tenantAccounts).extracting(AccountDescriptor::accountNumber).containsExactly("1001", "2100");
+        assertThat(chartOfAccountsCache.getAccounts("unknown-tenant")).isEmpty();
+        verify(chartOfAccountsRepository, times(1)).findAll();
+        verifyNoMoreInteractions(chartOfAccountsRepository);
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void shouldReloadAfterInvalidate() {
+        // Given
+        ChartOfAccounts renamed = account("2100", "Municipal Tax Liability", AccountType.LIABILITY,
+                NormalBalance.CREDIT, "tenant-1");
+        when(chartOfAccountsRepository.findAll())
+                .thenReturn(List.of(liability))
+                .thenReturn(List.of(renamed));
+
+        // When
+        String before = chartOfAccountsCache.getAccount("2100").accountName();
+        chartOfAccountsCache.invalidate();
+        String after = chartOfAccountsCache.getAccount("2100").accountName();
+
+        // Then
+        assertThat(before).isEqualTo("Tax Liability");
+        assertThat(after).isEqualTo("Municipal Tax Liability");
+        verify(chartOfAccountsRepository, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Should check the database once for an unknown account and reload if it was added")
+    void shouldReloadWhenMissingAccountExists() {
+        // Given - 1001 added after the first load
+        when(chartOfAccountsRepository.findAll())
+                .thenReturn(List.of(liability))
+                .thenReturn(List.of(liability, cash));
+        when(chartOfAccountsRepository.findByAccountNumber("1001")).thenReturn(Optional.of(cash));
+        when(chartOfAccountsRepository.findByAccountNumber("9999")).thenReturn(Optional.empty());
+        chartOfAccountsCache.getAccount("2100");
+
+        // When
+        Optional<AccountDescriptor> added = chartOfAccountsCache.findAccount("1001");
+
+        // Then
+        assertThat(added).map(AccountDescriptor::accountId).contains(cash.getAccountId());
+        assertThatThrownBy(() -> chartOfAccountsCache.getAccount("9999"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Account not found: 9999");
+        verify(chartOfAccountsRepository, times(2)).findAll();
+    }
+
+    private static ChartOfAccounts account(String number, String name, AccountType type,
+                                           NormalBalance normalBalance, String tenantId) {
+        return ChartOfAccounts.builder()
+                .accountId(UUID.randomUUID())
+                .accountNumber(number)
+                .accountName(name)
+                .accountType(type)
+                .normalBalance(normalBalance)
+                .tenantId(tenantId)
+                .active(true)
+                .build();
+    }
+}
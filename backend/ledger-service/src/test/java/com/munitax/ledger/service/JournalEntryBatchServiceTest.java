@@ -0,0 +1,282 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.dto.BatchJournalEntryRequest;
+import com.munitax.ledger.dto.BatchJournalEntryResponse;
+import com.munitax.ledger.dto.JournalEntryLineRequest;
+import com.munitax.ledger.dto.JournalEntryRequest;
+import com.munitax.ledger.enums.AccountType;
+import com.munitax.ledger.enums.NormalBalance;
+import com.munitax.ledger.enums.SourceType;
+import com.munitax.ledger.model.AccountDescriptor;
+import com.munitax.ledger.model.ChartOfAccounts;
+import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import com.munitax.ledger.repository.PostedBatchEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JournalEntryBatchService Tests")
+class JournalEntryBatchServiceTest {
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private ChartOfAccountsCache chartOfAccountsCache;
+
+    @Mock
+    private JournalEntryNumberAllocator entryNumberAllocator;
+
+    @Mock
+    private AccountBalanceService accountBalanceService;
+
+    @Mock
+    private ReceivableSubledgerService receivableSubledgerService;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JournalEntryBatchService batchService;
+
+    private final String tenantId = "tenant-1";
+    private final UUID userId = UUID.randomUUID();
+
+    private ChartOfAccounts receivable;
+    private ChartOfAccounts revenue;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new JournalEntryBatchService(journalEntryRepository, chartOfAccountsCache,
+                entryNumberAllocator, accountBalanceService, receivableSubledgerService, auditLogService, transactionManager);
+        ReflectionTestUtils.setField(batchService, "chunkSize", 2);
+        ReflectionTestUtils.setField(batchService, "maxEntries", 100);
+
+        receivable = ChartOfAccounts.builder()
+                .accountId(UUID.randomUUID())
+                .accountNumber("1201")
+                .accountType(AccountType.ASSET)
+                .normalBalance(NormalBalance.DEBIT)
+                .build();
+        revenue = ChartOfAccounts.builder()
+                .accountId(UUID.randomUUID())
+                .accountNumber("4100")
+                .accountType(AccountType.REVENUE)
+                .normalBalance(NormalBalance.CREDIT)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should post entries in chunks with one lookup per account and one number block per chunk")
+    void shouldPostBatchInChunks() {
+        // Given - five assessments, chunk size 2
+        stubAccounts(receivable, revenue);
+        when(entryNumberAllocator.allocateBlock(eq(tenantId), eq(2024), anyInt()))
+                .thenReturn(List.of("JE-2024-00001", "JE-2024-00002"))
+                .thenReturn(List.of("JE-2024-00003", "JE-2024-00004"))
+                .thenReturn(List.of("JE-2024-00005"));
+        when(journalEntryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<JournalEntry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> entry.setEntryId(UUID.randomUUID()));
+            return entries;
+        });
+
+        List<JournalEntryRequest> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(assessment("filer-" + i, "100.00", "100.00"));
+        }
+
+        // When
+        BatchJournalEntryResponse response = batchService.postBatch(
+                BatchJournalEntryRequest.builder().entries(entries).build());
+
+        // Then
+        assertThat(response.getEntriesPosted()).isEqualTo(5);
+        assertThat(response.getChunks()).isEqualTo(3);
+        assertThat(response.getEntryIds()).hasSize(5).doesNotContainNull();
+        assertThat(response.getEntryNumbers())
+                .containsExactly("JE-2024-00001", "JE-2024-00002", "JE-2024-00003", "JE-2024-00004", "JE-2024-00005");
+        verify(chartOfAccountsCache, times(1)).findAccount("1201");
+        verify(chartOfAccountsCache, times(1)).findAccount("4100");
+        verify(journalEntryRepository, times(3)).saveAll(anyList());
+        verify(accountBalanceService, times(3)).applyEntries(anyList());
+        verify(receivableSubledgerService, times(3)).applyEntries(anyList());
+        verify(auditLogService, times(3)).logActions(anyList());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should post only the entries not yet posted when a batch is resubmitted")
+    void shouldSkipEntriesPostedByEarlierSubmission() {
+        // Given - the first submission of batch-7 posted entries 0 and 1 before failing
+        stubAccounts(receivable, revenue);
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+        when(journalEntryRepository.findPostedBatchEntries(tenantId, "batch-7")).thenReturn(List.of(
+                posted(0, firstId, "JE-2024-00001", "filer-a"), posted(1, secondId, "JE-2024-00002", "filer-b")));
+        when(entryNumberAllocator.allocateBlock(tenantId, 2024, 1)).thenReturn(List.of("JE-2024-00003"));
+        List<JournalEntry> saved = new ArrayList<>();
+        when(journalEntryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<JournalEntry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> entry.setEntryId(UUID.randomUUID()));
+            saved.addAll(entries);
+            return entries;
+        });
+
+        // When
+        BatchJournalEntryResponse response = batchService.postBatch(BatchJournalEntryRequest.builder()
+                .batchId("batch-7")
+                .entries(List.of(
+                        assessment("filer-a", "100.00", "100.00"),
+                        assessment("filer-b", "100.00", "100.00"),
+                        assessment("filer-c", "100.00", "100.00")))
+                .build());
+
+        // Then - only the third entry is posted, the response still covers the whole batch
+        assertThat(saved).singleElement().satisfies(entry -> {
+            assertThat(entry.getEntityId()).isEqualTo("filer-c");
+            assertThat(entry.getBatchId()).isEqualTo("batch-7");
+            assertThat(entry.getBatchIndex()).isEqualTo(2);
+        });
+        assertThat(response.getEntriesPosted()).isEqualTo(1);
+        assertThat(response.getEntriesSkipped()).isEqualTo(2);
+        assertThat(response.getEntryIds()).containsExactly(firstId, secondId, saved.get(0).getEntryId());
+        assertThat(response.getEntryNumbers()).containsExactly("JE-2024-00001", "JE-2024-00002", "JE-2024-00003");
+    }
+
+    @Test
+    @DisplayName("Should reject a resubmitted batch whose entry differs from the one already posted")
+    void shouldRejectResubmittedEntryThatDoesNotMatch() {
+        // Given - entry 0 of batch-7 was posted for filer-a, the resubmission has filer-x there
+        stubAccounts(receivable, revenue);
+        when(journalEntryRepository.findPostedBatchEntries(tenantId, "batch-7")).thenReturn(List.of(
+                posted(0, UUID.randomUUID(), "JE-2024-00001", "filer-a")));
+        BatchJournalEntryRequest request = BatchJournalEntryRequest.builder()
+                .batchId("batch-7")
+                .entries(List.of(
+                        assessment("filer-x", "100.00", "100.00"),
+                        assessment("filer-b", "100.00", "100.00")))
+                .build();
+
+        // When / Then
+        assertThatThrownBy(() -> batchService.postBatch(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Entry 0 does not match entry JE-2024-00001 already posted under batch batch-7");
+        verify(journalEntryRepository, never()).saveAll(anyList());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should reject a batch with a batchId whose entries belong to several tenants")
+    void shouldRejectMultiTenantBatchWithBatchId() {
+        // Given
+        stubAccounts(receivable, revenue);
+        JournalEntryRequest otherTenant = assessment("filer-b", "100.00", "100.00");
+        otherTenant.setTenantId("tenant-2");
+        BatchJournalEntryRequest request = BatchJournalEntryRequest.builder()
+                .batchId("batch-7")
+                .entries(List.of(assessment("filer-a", "100.00", "100.00"), otherTenant))
+                .build();
+
+        // When / Then
+        assertThatThrownBy(() -> batchService.postBatch(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Entries of batch batch-7 must all belong to one tenant");
+        verifyNoInteractions(journalEntryRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should reject the whole batch before writing when any entry is unbalanced")
+    void shouldRejectUnbalancedEntryBeforeWriting() {
+        // Given - second entry is off by one cent
+        stubAccounts(receivable, revenue);
+        BatchJournalEntryRequest request = BatchJournalEntryRequest.builder()
+                .entries(List.of(
+                        assessment("filer-a", "100.00", "100.00"),
+                        assessment("filer-b", "100.00", "99.99")))
+                .build();
+
+        // When / Then
+        assertThatThrownBy(() -> batchService.postBatch(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Entry 1: Journal entry is not balanced");
+        verifyNoInteractions(journalEntryRepository, entryNumberAllocator, accountBalanceService,
+                receivableSubledgerService, auditLogService, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should reject the batch when an account does not exist")
+    void shouldRejectUnknownAccount() {
+        // Given - revenue account missing from the chart
+        stubAccounts(receivable);
+        when(chartOfAccountsCache.findAccount("4100")).thenReturn(Optional.empty());
+        BatchJournalEntryRequest request = BatchJournalEntryRequest.builder()
+                .entries(List.of(assessment("filer-a", "100.00", "100.00")))
+                .build();
+
+        // When / Then
+        assertThatThrownBy(() -> batchService.postBatch(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Entry 0: Account not found: 4100");
+        verifyNoInteractions(journalEntryRepository, transactionManager);
+    }
+
+    private static PostedBatchEntry posted(int batchIndex, UUID entryId, String entryNumber, String entityId) {
+        return new PostedBatchEntry() {
+            @Override public Integer getBatchIndex() { return batchIndex; }
+            @Override public UUID getEntryId() { return entryId; }
+            @Override public String getEntryNumber() { return entryNumber; }
+            @Override public String getEntityId() { return entityId; }
+            @Override public LocalDate getEntryDate() { return LocalDate.of(2024, 4, 15); }
+            @Override public SourceType getSourceType() { return SourceType.TAX_ASSESSMENT; }
+            @Override public UUID getSourceId() { return null; }
+            @Override public BigDecimal getTotalDebits() { return new BigDecimal("100.00"); }
+        };
+    }
+
+    private void stubAccounts(ChartOfAccounts... accounts) {
+        for (ChartOfAccounts account : accounts) {
+            when(chartOfAccountsCache.findAccount(account.getAccountNumber()))
+                    .thenReturn(Optional.of(AccountDescriptor.from(account)));
+        }
+    }
+
+    private JournalEntryRequest assessment(String entityId, String debit, String credit) {
+        List<JournalEntryLineRequest> lines = new ArrayList<>();
+        lines.add(JournalEntryLineRequest.builder()
+                .accountNumber("1201").debit(new BigDecimal(debit)).credit(BigDecimal.ZERO).build());
+        lines.add(JournalEntryLineRequest.builder()
+                .accountNumber("4100").debit(BigDecimal.ZERO).credit(new BigDecimal(credit)).build());
+        return JournalEntryRequest.builder()
+                .entryDate(LocalDate.of(2024, 4, 15))
+                .description("Tax assessment")
+                .sourceType(SourceType.TAX_ASSESSMENT)
+                .tenantId(tenantId)
+                .entityId(entityId)
+                .createdBy(userId)
+                .lines(lines)
+                .build();
+    }
+}
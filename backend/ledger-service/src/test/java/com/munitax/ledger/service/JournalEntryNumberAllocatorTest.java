@@ -0,0 +1,105 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.model.JournalEntryNumberCounter;
+import com.munitax.ledger.repository.JournalEntryNumberCounterRepository;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JournalEntryNumberAllocator Tests")
+class JournalEntryNumberAllocatorTest {
+
+    @Mock
+    private JournalEntryNumberCounterRepository counterRepository;
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JournalEntryNumberAllocator allocator;
+
+    private final String tenantId = "tenant-1";
+
+    @BeforeEach
+    void setUp() {
+        allocator = new JournalEntryNumberAllocator(counterRepository, journalEntryRepository, transactionManager);
+        ReflectionTestUtils.setField(allocator, "blockSize", 10);
+    }
+
+    @Test
+    @DisplayName("Should start a new counter after the highest existing entry number")
+    void shouldSeedCounterFromExistingEntries() {
+        // Given - no counter yet, entries up to JE-2024-00041 exist
+        when(counterRepository.findByTenantIdAndEntryYear(tenantId, 2024)).thenReturn(Optional.empty());
+        when(journalEntryRepository.findMaxEntryNumberByPrefix(tenantId, "JE-2024")).thenReturn("JE-2024-00041");
+        when(counterRepository.saveAndFlush(any(JournalEntryNumberCounter.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        String first = allocator.nextEntryNumber(tenantId, LocalDate.of(2024, 6, 30));
+        String second = allocator.nextEntryNumber(tenantId, LocalDate.of(2024, 1, 2));
+
+        // Then - both come from one leased block; the counter now points past it
+        assertThat(first).isEqualTo("JE-2024-00042");
+        assertThat(second).isEqualTo("JE-2024-00043");
+        verify(counterRepository, times(1)).saveAndFlush(argThat(counter -> counter.getNextValue() == 52L));
+    }
+
+    @Test
+    @DisplayName("Should hand out unique numbers to concurrent callers, leasing a new block when one is exhausted")
+    void shouldAllocateUniqueNumbersConcurrently() throws Exception {
+        // Given - counter row shared by all leases
+        JournalEntryNumberCounter counter = JournalEntryNumberCounter.builder()
+                .tenantId(tenantId).entryYear(2025).nextValue(1L).build();
+        when(counterRepository.findByTenantIdAndEntryYear(tenantId, 2025)).thenReturn(Optional.of(counter));
+        when(counterRepository.saveAndFlush(counter)).thenReturn(counter);
+
+        // When - 8 threads take 25 numbers each
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> numbers = new ArrayList<>();
+                for (int i = 0; i < 25; i++) {
+                    numbers.add(allocator.nextEntryNumber(tenantId, LocalDate.of(2025, 3, 1)));
+                }
+                return numbers;
+            }));
+        }
+        Set<String> allocated = Collections.synchronizedSet(new HashSet<>());
+        for (Future<List<String>> future : futures) {
+            allocated.addAll(future.get());
+        }
+        executor.shutdown();
+
+        // Then - 200 distinct numbers from exactly 20 blocks of 10
+        assertThat(allocated).hasSize(200).contains("JE-2025-00001", "JE-2025-00200");
+        assertThat(counter.getNextValue()).isEqualTo(201L);
+        verify(counterRepository, times(20)).saveAndFlush(counter);
+        verifyNoInteractions(journalEntryRepository);
+    }
+}
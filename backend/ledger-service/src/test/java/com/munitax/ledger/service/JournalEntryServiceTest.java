@@ -3,9 +3,9 @@ package com.munitax.ledger.service;
 import com.munitax.ledger.dto.JournalEntryLineRequest;
 import com.munitax.ledger.dto.JournalEntryRequest;
 import com.munitax.ledger.enums.SourceType;
+import com.munitax.ledger.model.AccountDescriptor;
 import com.munitax.ledger.model.ChartOfAccounts;
 import com.munitax.ledger.model.JournalEntry;
-import com.munitax.ledger.repository.ChartOfAccountsRepository;
 import com.munitax.ledger.repository.JournalEntryRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,7 +18,6 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,11 +31,20 @@ class JournalEntryServiceTest {
     private JournalEntryRepository journalEntryRepository;
     
     @Mock
-    private ChartOfAccountsRepository chartOfAccountsRepository;
+    private ChartOfAccountsCache chartOfAccountsCache;
     
     @Mock
     private AuditLogService auditLogService;
     
+    @Mock
+    private AccountBalanceService accountBalanceService;
+    
+    @Mock
+    private JournalEntryNumberAllocator entryNumberAllocator;
+
+    @Mock
+    private ReceivableSubledgerService receivableSubledgerService;
+    
     @InjectMocks
     private JournalEntryService journalEntryService;
     
@@ -85,25 +93,28 @@ class JournalEntryServiceTest {
                 .build();
         
         // Mock repositories
-        when(chartOfAccountsRepository.findByAccountNumber("2100"))
-                .thenReturn(Optional.of(taxLiabilityAccount));
-        when(chartOfAccountsRepository.findByAccountNumber("1000"))
-                .thenReturn(Optional.of(cashAccount));
+        when(chartOfAccountsCache.getAccount("2100"))
+                .thenReturn(AccountDescriptor.from(taxLiabilityAccount));
+        when(chartOfAccountsCache.getAccount("1000"))
+                .thenReturn(AccountDescriptor.from(cashAccount));
         when(journalEntryRepository.save(any(JournalEntry.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(journalEntryRepository.findMaxEntryNumberByPrefix(any(), any()))
-                .thenReturn(null);
+        when(entryNumberAllocator.nextEntryNumber(any(), any()))
+                .thenReturn("JE-2024-00001");
         
         // Execute
         JournalEntry result = journalEntryService.createJournalEntry(request);
         
         // Verify
         assertNotNull(result);
+        assertEquals("JE-2024-00001", result.getEntryNumber());
         assertTrue(result.isBalanced());
         assertEquals(new BigDecimal("1000.00"), result.getTotalDebits());
         assertEquals(new BigDecimal("1000.00"), result.getTotalCredits());
         verify(journalEntryRepository, times(1)).save(any(JournalEntry.class));
         verify(auditLogService, times(1)).logAction(any(), any(), any(), any(), any(), any());
+        verify(accountBalanceService, times(1)).applyEntry(result);
+        verify(receivableSubledgerService, times(1)).applyEntries(List.of(result));
     }
     
     @Test
@@ -139,5 +150,6 @@ class JournalEntryServiceTest {
         
         assertTrue(exception.getMessage().contains("not balanced"));
         verify(journalEntryRepository, never()).save(any());
+        verifyNoInteractions(accountBalanceService, receivableSubledgerService);
     }
 }
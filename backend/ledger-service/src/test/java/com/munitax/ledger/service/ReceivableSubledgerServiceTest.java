@@ -0,0 +1,260 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.dto.AgingAnalysis;
+import com.munitax.ledger.model.ChartOfAccounts;
+import com.munitax.ledger.model.FilerAgingSummary;
+import com.munitax.ledger.model.JournalEntry;
+import com.munitax.ledger.model.JournalEntryLine;
+import com.munitax.ledger.model.ReceivableOpenItem;
+import com.munitax.ledger.repository.AgingTotals;
+import com.munitax.ledger.repository.FilerAgingSummaryRepository;
+import com.munitax.ledger.repository.ReceivableOpenItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReceivableSubledgerService.
+ * Tests open item creation, FIFO clearing, unapplied credit and incremental aging.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReceivableSubledgerService Tests")
+class ReceivableSubledgerServiceTest {
+
+    @Mock
+    private ReceivableOpenItemRepository openItemRepository;
+
+    @Mock
+    private FilerAgingSummaryRepository agingSummaryRepository;
+
+    @InjectMocks
+    private ReceivableSubledgerService subledgerService;
+
+    private final String tenantId = "tenant-1";
+    private final String filerId = UUID.randomUUID().toString();
+    private final LocalDate today = LocalDate.now();
+
+    private FilerAgingSummary summary;
+
+    @BeforeEach
+    void setUp() {
+        summary = summary(today);
+    }
+
+    @Test
+    @DisplayName("T037 - Should open an item per liability credit and add it to the current bucket")
+    void shouldOpenItemsForAssessment() {
+        // Given
+        stubLocks(new ArrayList<>());
+        JournalEntry assessment = entry("JE-2024-00001", today,
+                line(1, "2100", "0.00", "1000.00"),
+                line(2, "6100", "1250.00", "0.00"),
+                line(3, "2120", "0.00", "250.00"));
+
+        // When
+        subledgerService.applyEntries(List.of(assessment));
+
+        // Then
+        List<ReceivableOpenItem> saved = savedItems();
+        assertThat(saved).extracting(ReceivableOpenItem::getAccountNumber).containsExactlyInAnyOrder("2100", "2120");
+        assertThat(saved).allSatisfy(item -> {
+            assertThat(item.getOpenDate()).isEqualTo(today);
+            assertThat(item.getRemainingAmount()).isEqualByComparingTo(item.getOriginalAmount());
+        });
+        assertThat(summary.getCurrentAmount()).isEqualByComparingTo("1250.00");
+        assertThat(summary.getUnappliedCredit()).isEqualByComparingTo("0");
+        verify(agingSummaryRepository).insertIfAbsent(tenantId, filerId);
+    }
+
+    @Test
+    @DisplayName("T037 - Should clear the oldest open item first and keep the overpayment as unapplied credit")
+    void shouldClearOldestItemsFirst() {
+        // Given - one charge 75 days old, one 10 days old
+        ReceivableOpenItem older = openItem("JE-2024-00001", today.minusDays(75), "300.00");
+        ReceivableOpenItem newer = openItem("JE-2024-00002", today.minusDays(10), "500.00");
+        summary.setSixtyDays(new BigDecimal("300.00"));
+        summary.setCurrentAmount(new BigDecimal("500.00"));
+        stubLocks(new ArrayList<>(List.of(older, newer)));
+
+        // When - payment of 400, then 500 more
+        subledgerService.applyEntries(List.of(
+                entry("JE-2024-00003", today, line(1, "2100", "400.00", "0.00"), line(2, "1000", "0.00", "400.00")),
+                entry("JE-2024-00004", today, line(1, "2100", "500.00", "0.00"), line(2, "1000", "0.00", "500.00"))));
+
+        // Then
+        assertThat(older.getRemainingAmount()).isEqualByComparingTo("0");
+        assertThat(older.getClearedAt()).isNotNull();
+        assertThat(newer.getRemainingAmount()).isEqualByComparingTo("0");
+        assertThat(summary.getSixtyDays()).isEqualByComparingTo("0");
+        assertThat(summary.getCurrentAmount()).isEqualByComparingTo("0");
+        assertThat(summary.getUnappliedCredit()).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    @DisplayName("T037 - Should apply unapplied credit to the next assessment")
+    void shouldAbsorbUnappliedCreditOnNextAssessment() {
+        // Given - filer overpaid by 100
+        summary.setUnappliedCredit(new BigDecimal("100.00"));
+        stubLocks(new ArrayList<>());
+
+        // When
+        subledgerService.applyEntries(List.of(entry("JE-2024-00005", today, line(1, "2100", "0.00", "250.00"))));
+
+        // Then
+        assertThat(savedItems()).singleElement().satisfies(item -> {
+            assertThat(item.getOriginalAmount()).isEqualByComparingTo("250.00");
+            assertThat(item.getRemainingAmount()).isEqualByComparingTo("150.00");
+        });
+        assertThat(summary.getUnappliedCredit()).isEqualByComparingTo("0");
+        assertThat(summary.getCurrentAmount()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    @DisplayName("T037 - Should ignore entries that do not touch tax liability accounts")
+    void shouldIgnoreEntriesWithoutLiabilityLines() {
+        // When - municipality entry (receivable/revenue)
+        subledgerService.applyEntries(List.of(entry("JE-2024-00006", today,
+                line(1, "1201", "1000.00", "0.00"), line(2, "4100", "0.00", "1000.00"))));
+
+        // Then
+        verifyNoInteractions(openItemRepository, agingSummaryRepository);
+    }
+
+    @Test
+    @DisplayName("T037 - Should read filer aging from the summary row when it is current")
+    void shouldReadCurrentSummaryWithoutOpenItems() {
+        // Given
+        summary.setCurrentAmount(new BigDecimal("100.00"));
+        summary.setNinetyPlus(new BigDecimal("50.00"));
+        when(agingSummaryRepository.findByTenantIdAndFilerId(tenantId, filerId)).thenReturn(Optional.of(summary));
+
+        // When
+        AgingAnalysis aging = subledgerService.getFilerAging(tenantId, filerId);
+
+        // Then
+        assertThat(aging.getTotalOutstanding()).isEqualByComparingTo("150.00");
+        assertThat(aging.getAnalysisDate()).isEqualTo(today);
+        verifyNoInteractions(openItemRepository);
+    }
+
+    @Test
+    @DisplayName("T037 - Should re-age a stale summary from open items using whole days")
+    void shouldReageStaleSummary() {
+        // Given - aged 40 days ago, when the item was 25 days old
+        FilerAgingSummary stale = summary(today.minusDays(40));
+        stale.setCurrentAmount(new BigDecimal("700.00"));
+        ReceivableOpenItem item = openItem("JE-2024-00001", today.minusDays(65), "700.00");
+        when(agingSummaryRepository.findByTenantIdAndFilerId(tenantId, filerId)).thenReturn(Optional.of(stale));
+        when(agingSummaryRepository.lockByTenantIdAndFilerId(tenantId, filerId)).thenReturn(Optional.of(stale));
+        when(openItemRepository.lockOpenItems(tenantId, filerId)).thenReturn(List.of(item));
+
+        // When
+        AgingAnalysis aging = subledgerService.getFilerAging(tenantId, filerId);
+
+        // Then - 65 days old falls in 61-90
+        assertThat(aging.getCurrent()).isEqualByComparingTo("0");
+        assertThat(aging.getSixtyDays()).isEqualByComparingTo("700.00");
+        assertThat(aging.getAnalysisDate()).isEqualTo(today);
+        verify(agingSummaryRepository).save(stale);
+    }
+
+    @Test
+    @DisplayName("T037 - Should build municipality aging from one aggregate query")
+    void shouldAggregateMunicipalityAging() {
+        // Given
+        AgingTotals totals = mock(AgingTotals.class);
+        when(totals.getCurrentAmount()).thenReturn(new BigDecimal("100.00"));
+        when(totals.getThirtyDays()).thenReturn(new BigDecimal("200.00"));
+        when(totals.getSixtyDays()).thenReturn(BigDecimal.ZERO);
+        when(totals.getNinetyPlus()).thenReturn(new BigDecimal("50.00"));
+        when(openItemRepository.sumOpenItemsByAge(tenantId, today.minusDays(30), today.minusDays(60),
+                today.minusDays(90))).thenReturn(totals);
+
+        // When
+        AgingAnalysis aging = subledgerService.getMunicipalityAging(tenantId);
+
+        // Then
+        assertThat(aging.getTotalOutstanding()).isEqualByComparingTo("350.00");
+        verifyNoInteractions(agingSummaryRepository);
+    }
+
+    private void stubLocks(List<ReceivableOpenItem> openItems) {
+        when(agingSummaryRepository.lockByTenantIdAndFilerId(tenantId, filerId)).thenReturn(Optional.of(summary));
+        when(openItemRepository.lockOpenItems(tenantId, filerId)).thenReturn(openItems);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ReceivableOpenItem> savedItems() {
+        ArgumentCaptor<Iterable<ReceivableOpenItem>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(openItemRepository).saveAll(captor.capture());
+        List<ReceivableOpenItem> items = new ArrayList<>();
+        captor.getValue().forEach(items::add);
+        return items;
+    }
+
+    private FilerAgingSummary summary(LocalDate asOfDate) {
+        return FilerAgingSummary.builder()
+                .tenantId(tenantId)
+                .filerId(filerId)
+                .asOfDate(asOfDate)
+                .currentAmount(BigDecimal.ZERO)
+                .thirtyDays(BigDecimal.ZERO)
+                .sixtyDays(BigDecimal.ZERO)
+                .ninetyPlus(BigDecimal.ZERO)
+                .unappliedCredit(BigDecimal.ZERO)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private ReceivableOpenItem openItem(String entryNumber, LocalDate openDate, String amount) {
+        return ReceivableOpenItem.builder()
+                .itemId(UUID.randomUUID())
+                .tenantId(tenantId)
+                .filerId(filerId)
+                .entryId(UUID.randomUUID())
+                .entryNumber(entryNumber)
+                .lineNumber(1)
+                .accountNumber("2100")
+                .openDate(openDate)
+                .originalAmount(new BigDecimal(amount))
+                .remainingAmount(new BigDecimal(amount))
+                .build();
+    }
+
+    private JournalEntry entry(String entryNumber, LocalDate entryDate, JournalEntryLine... lines) {
+        return JournalEntry.builder()
+                .entryId(UUID.randomUUID())
+                .entryNumber(entryNumber)
+                .entryDate(entryDate)
+                .tenantId(tenantId)
+                .entityId(filerId)
+                .lines(new ArrayList<>(List.of(lines)))
+                .build();
+    }
+
+    private JournalEntryLine line(int lineNumber, String accountNumber, String debit, String credit) {
+        return JournalEntryLine.builder()
+                .account(ChartOfAccounts.builder().accountId(UUID.randomUUID()).accountNumber(accountNumber).build())
+                .lineNumber(lineNumber)
+                .debit(new BigDecimal(debit))
+                .credit(new BigDecimal(credit))
+                .build();
+    }
+}
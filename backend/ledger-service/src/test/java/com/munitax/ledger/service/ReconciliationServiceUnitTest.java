@@ -0,0 +1,118 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.dto.ReconciliationResponse;
+import com.munitax.ledger.enums.ReconciliationStatus;
+import com.munitax.ledger.repository.EntityAccountTotals;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the single-pass reconciliation report.
+ * Spring context tests for the same service live in ReconciliationServiceTest.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReconciliationService Report Aggregation Tests")
+class ReconciliationServiceUnitTest {
+
+    private static final String TENANT_ID = "tenant-1";
+    private static final String MUNICIPALITY_ID = "municipality";
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @InjectMocks
+    private ReconciliationService reconciliationService;
+
+    @Test
+    @DisplayName("Should reconcile municipality AR and cash against all filers from one grouped query")
+    void shouldReconcileFromGroupedTotals() {
+        // Given - two filers assessed 1000 and 500; filer A paid 400
+        when(journalEntryRepository.streamLiabilityAndAccountTotalsByEntity(
+                eq(TENANT_ID), anyCollection(), anyCollection(), any()))
+                .thenReturn(Stream.of(
+                        row("filer-a", "1001", "400.00", "0.00"),
+                        row("filer-a", "2100", "400.00", "1000.00"),
+                        row("filer-b", "2100", "0.00", "400.00"),
+                        row("filer-b", "2120", "0.00", "100.00"),
+                        row(MUNICIPALITY_ID, "1001", "400.00", "0.00"),
+                        row(MUNICIPALITY_ID, "1201", "1500.00", "400.00"),
+                        row(MUNICIPALITY_ID, "2200", "0.00", "50.00")));
+
+        // When
+        ReconciliationResponse response = reconciliationService.generateReconciliationReport(TENANT_ID, MUNICIPALITY_ID);
+
+        // Then
+        assertThat(response.getMunicipalityAR()).isEqualByComparingTo("1100.00");
+        assertThat(response.getFilerLiabilities()).isEqualByComparingTo("1100.00");
+        assertThat(response.getMunicipalityCash()).isEqualByComparingTo("400.00");
+        assertThat(response.getFilerPayments()).isEqualByComparingTo("400.00");
+        assertThat(response.getStatus()).isEqualTo(ReconciliationStatus.RECONCILED);
+        assertThat(response.getDiscrepancies()).isEmpty();
+        verify(journalEntryRepository, times(1))
+                .streamLiabilityAndAccountTotalsByEntity(eq(TENANT_ID), anyCollection(), anyCollection(), any());
+        verifyNoMoreInteractions(journalEntryRepository);
+    }
+
+    @Test
+    @DisplayName("Should report an AR discrepancy with the number of filers")
+    void shouldReportDiscrepancy() {
+        // Given - municipality AR is 200 higher than filer liabilities
+        when(journalEntryRepository.streamLiabilityAndAccountTotalsByEntity(
+                eq(TENANT_ID), anyCollection(), anyCollection(), any()))
+                .thenReturn(Stream.of(
+                        row("filer-a", "2100", "0.00", "300.00"),
+                        row("filer-b", "2110", "0.00", "500.00"),
+                        row(MUNICIPALITY_ID, "1201", "1000.00", "0.00")));
+
+        // When
+        ReconciliationResponse response = reconciliationService.generateReconciliationReport(TENANT_ID, MUNICIPALITY_ID);
+
+        // Then
+        assertThat(response.getArVariance()).isEqualByComparingTo("200.00");
+        assertThat(response.getStatus()).isEqualTo(ReconciliationStatus.DISCREPANCY);
+        assertThat(response.getDiscrepancies()).singleElement().satisfies(discrepancy ->
+                assertThat(discrepancy.getDescription()).isEqualTo("AR variance detected across 2 filers"));
+    }
+
+    private static EntityAccountTotals row(String entityId, String accountNumber, String debits, String credits) {
+        return new Row(entityId, accountNumber, new BigDecimal(debits), new BigDecimal(credits));
+    }
+
+    private record Row(String entityId, String accountNumber, BigDecimal totalDebits, BigDecimal totalCredits)
+            implements EntityAccountTotals {
+
+        @Override
+        public String getEntityId() {
+            return entityId;
+        }
+
+        @Override
+        public String getAccountNumber() {
+            return accountNumber;
+        }
+
+        @Override
+        public BigDecimal getTotalDebits() {
+            return totalDebits;
+        }
+
+        @Override
+        public BigDecimal getTotalCredits() {
+            return totalCredits;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.munitax.ledger.service;
+
+import com.munitax.ledger.enums.SourceType;
+import com.munitax.ledger.repository.JournalEntryRepository;
+import com.munitax.ledger.repository.StatementLine;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StatementExportService.
+ * Tests the running balance carried across streamed rows and CSV/PDF output.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StatementExportService Tests")
+class StatementExportServiceTest {
+
+    @Mock
+    private JournalEntryRepository journalEntryRepository;
+
+    @InjectMocks
+    private StatementExportService statementExportService;
+
+    private final String tenantId = "tenant-1";
+    private final String filerId = "filer-1";
+
+    @Test
+    @DisplayName("T036 - Should stream CSV rows with a running balance from liability lines only")
+    void shouldWriteCsvWithRunningBalance() throws Exception {
+        // Given - assessment, then a payment that debits the liability and credits cash
+        when(journalEntryRepository.streamStatementLines(tenantId, filerId)).thenReturn(Stream.of(
+                line(LocalDate.of(2024, 4, 15), SourceType.TAX_ASSESSMENT, "JE-2024-00001",
+                        "Q1 2024 \"tax\", assessed", "2100", "0.00", "1000.00"),
+                line(LocalDate.of(2024, 5, 1), SourceType.PAYMENT, "JE-2024-00002",
+                        "Payment", "2100", "400.00", "0.00"),
+                line(LocalDate.of(2024, 5, 1), SourceType.PAYMENT, "JE-2024-00002",
+                        "Payment", "1000", "0.00", "400.00")));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long rows = statementExportService.writeCsv(tenantId, filerId, output);
+
+        // Then
+        assertThat(rows).isEqualTo(3);
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n")).containsExactly(
+                StatementExportService.CSV_HEADER.trim(),
+                "2024-04-15,TAX_ASSESSMENT,\"Q1 2024 \"\"tax\"\", assessed\",0.00,1000.00,1000.00,JE-2024-00001",
+                "2024-05-01,PAYMENT,\"Payment\",400.00,0.00,600.00,JE-2024-00002",
+                "2024-05-01,PAYMENT,\"Payment\",0.00,400.00,600.00,JE-2024-00002");
+    }
+
+    @Test
+    @DisplayName("T035 - Should render a multi-page PDF with totals and the ending balance")
+    void shouldWritePdfAcrossPages() throws Exception {
+        // Given - enough rows to fill several pages
+        when(journalEntryRepository.streamStatementLines(tenantId, filerId)).thenReturn(
+                IntStream.rangeClosed(1, 150).mapToObj(i -> line(LocalDate.of(2024, 1, 1).plusDays(i),
+                        SourceType.TAX_ASSESSMENT, String.format("JE-2024-%05d", i),
+                        "Assessment " + i, "2100", "0.00", "10.00")));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long rows = statementExportService.writePdf(tenantId, filerId, output);
+
+        // Then
+        assertThat(rows).isEqualTo(150);
+        try (PDDocument document = Loader.loadPDF(output.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isGreaterThan(1);
+            String text = new PDFTextStripper().getText(document);
+            assertThat(text).contains("Account Statement", "Filer: filer-1", "JE-2024-00001",
+                    "JE-2024-00150", "Totals (150 transactions)", "Ending balance", "1500.00");
+        }
+    }
+
+    @Test
+    @DisplayName("T035 - Should render an empty statement as a single page")
+    void shouldWriteEmptyPdf() throws Exception {
+        // Given
+        when(journalEntryRepository.streamStatementLines(tenantId, filerId)).thenReturn(Stream.empty());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long rows = statementExportService.writePdf(tenantId, filerId, output);
+
+        // Then
+        assertThat(rows).isZero();
+        try (PDDocument document = Loader.loadPDF(output.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            assertThat(new PDFTextStripper().getText(document)).contains("Totals (0 transactions)");
+        }
+    }
+
+    private StatementLine line(LocalDate date, SourceType sourceType, String entryNumber,
+                               String description, String accountNumber, String debit, String credit) {
+        return new StatementLine() {
+            @Override public LocalDate getEntryDate() { return date; }
+            @Override public SourceType getSourceType() { return sourceType; }
+            @Override public String getEntryNumber() { return entryNumber; }
+            @Override public String getEntryDescription() { return description; }
+            @Override public String getLineDescription() { return null; }
+            @Override public String getAccountNumber() { return accountNumber; }
+            @Override public BigDecimal getDebit() { return new BigDecimal(debit); }
+            @Override public BigDecimal getCredit() { return new BigDecimal(credit); }
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.munitax.taxengine.config;
 
+import com.munitax.taxengine.service.NexusService;
+import com.munitax.taxengine.service.PayrollSummaryProvider;
+import com.munitax.taxengine.service.penalty.PriorYearLiabilityCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
@@ -17,6 +20,12 @@ import java.time.Duration;
 
 /**
  * Redis cache configuration for tax rule caching.
+ * Prior-year liabilities change only through amendments (which evict them), so they use a longer TTL.
+ * Nexus snapshots use a short TTL as a backstop for nexus records changed outside NexusService.
+ * Payroll summaries use a short TTL so W-1 filings evicted on another instance's event are picked up.
+ *
+ * Every entry carries a TTL, so the caches' size is bounded by the Redis server's maxmemory with the
+ * volatile-lru eviction policy (see docker-compose.yml) rather than by the JVM heap.
  */
 @Configuration
 @EnableCaching
@@ -26,6 +35,15 @@ public class RedisCacheConfig {
     @Value("${app.cache.rule-ttl:3600}")
     private long ruleTtlSeconds;
     
+    @Value("${app.cache.prior-year-liability-ttl:86400}")
+    private long priorYearLiabilityTtlSeconds;
+    
+    @Value("${app.apportionment.nexus-snapshot.cache-ttl-seconds:300}")
+    private long nexusSnapshotTtlSeconds;
+    
+    @Value("${app.withholding.payroll-summary.cache-ttl-seconds:300}")
+    private long payrollSummaryTtlSeconds;
+    
     @Bean
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
         log.info("Configuring Redis cache manager with TTL: {} seconds", ruleTtlSeconds);
@@ -40,6 +58,12 @@ public class RedisCacheConfig {
         
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration(PriorYearLiabilityCache.CACHE_NAME,
+                        config.entryTtl(Duration.ofSeconds(priorYearLiabilityTtlSeconds)))
+                .withCacheConfiguration(NexusService.SNAPSHOT_CACHE,
+                        config.entryTtl(Duration.ofSeconds(nexusSnapshotTtlSeconds)))
+                .withCacheConfiguration(PayrollSummaryProvider.CACHE_NAME,
+                        config.entryTtl(Duration.ofSeconds(payrollSummaryTtlSeconds)))
                 .build();
     }
 }
@@ -91,6 +91,52 @@ public class EstimatedTaxController {
         }
     }
     
+    /**
+     * Preload prior-year liabilities for safe harbor evaluation.
+     * 
+     * POST /api/estimated-tax/safe-harbor/preload?taxYear=2024[&tenantId=...]
+     * 
+     * FR-018: Prior year tax liability lookups are served from memory once preloaded.
+     * Without a tenant ID, every tenant's liability for taxYear - 1 is loaded.
+     * 
+     * @param taxYear  the tax year about to be evaluated
+     * @param tenantId optional tenant ID
+     * @return number of liabilities loaded
+     */
+    @PostMapping("/safe-harbor/preload")
+    public ResponseEntity<Map<String, Object>> preloadPriorYearLiabilities(
+            @RequestParam int taxYear,
+            @RequestParam(required = false) UUID tenantId) {
+        
+        log.info("Preloading prior-year liabilities for tax year: {}, tenant: {}", taxYear, tenantId);
+        
+        int loaded = safeHarborEvaluationService.preloadPriorYearLiabilities(tenantId, taxYear);
+        
+        return ResponseEntity.ok(Map.of("taxYear", taxYear, "liabilitiesLoaded", loaded));
+    }
+    
+    /**
+     * Invalidate a cached prior-year liability after an amended return.
+     * 
+     * DELETE /api/estimated-tax/safe-harbor/prior-year-liability/{taxYear}?tenantId=...
+     * 
+     * @param taxYear  the tax year of the amended return
+     * @param tenantId the tenant ID
+     * @return no content
+     */
+    @DeleteMapping("/safe-harbor/prior-year-liability/{taxYear}")
+    public ResponseEntity<Void> invalidatePriorYearLiability(
+            @PathVariable int taxYear,
+            @RequestParam(required = false) UUID tenantId) {
+        
+        UUID effectiveTenantId = tenantId != null ? tenantId : MOCK_TENANT_ID;
+        log.info("Invalidating prior-year liability for tenant: {}, tax year: {}", effectiveTenantId, taxYear);
+        
+        safeHarborEvaluationService.invalidatePriorYearLiability(effectiveTenantId, taxYear);
+        
+        return ResponseEntity.noContent().build();
+    }
+    
     /**
      * Calculate estimated tax penalty for a tax return.
      * 
@@ -7,10 +7,12 @@ import com.munitax.taxengine.service.*;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,11 +24,13 @@ import java.util.stream.Collectors;
  * - GET /api/nol/{businessId} - Get NOLs for business
  * - GET /api/nol/{businessId}/available - Get available NOL balance
  * - POST /api/nol/apply - Apply NOL deduction to return
+ * - POST /api/nol/simulate - Simulate NOL utilization over projected years
  * - GET /api/nol/schedule/{returnId} - Get NOL schedule for return
  * - GET /api/nol/schedule/{businessId}/vintages/{taxYear} - Get vintage breakdown
- * - POST /api/nol/carryback - Elect NOL carryback
+ * - POST /api/nol/carryback - Elect NOL carryback (or preview with dryRun)
  * - GET /api/nol/carryback/{nolId} - Get carryback summary
  * - GET /api/nol/alerts/{businessId} - Get expiration alerts
+ * - POST /api/nol/alerts/generate - Generate missing expiration alerts for all businesses
  * 
  * @see NOLService
  * @see NOLCarrybackService
@@ -41,6 +45,7 @@ public class NOLController {
     private final NOLService nolService;
     private final NOLCarrybackService nolCarrybackService;
     private final NOLScheduleService nolScheduleService;
+    private final NOLExpirationAlertService nolExpirationAlertService;
     private final NOLRepository nolRepository;
     private final NOLExpirationAlertRepository nolExpirationAlertRepository;
     
@@ -171,6 +176,49 @@ public class NOLController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Simulate NOL utilization over projected future years.
+     * Read-only: runs every scenario against the in-memory vintage ledger.
+     * 
+     * POST /api/nol/simulate
+     * 
+     * @param request Simulation request with one or more scenarios
+     * @return Projected NOL schedule per scenario
+     */
+    @PostMapping("/simulate")
+    public ResponseEntity<NOLSimulationResponse> simulateNOLUtilization(
+            @Valid @RequestBody NOLSimulationRequest request) {
+        
+        log.info("Simulating {} NOL scenarios for business {}", 
+                 request.getScenarios().size(), request.getBusinessId());
+        
+        List<NOLService.SimulationScenario> scenarios = request.getScenarios().stream()
+            .map(s -> new NOLService.SimulationScenario(
+                s.getProjectedYears().stream()
+                    .map(y -> new NOLVintageLedger.ProjectedYear(y.getTaxYear(), y.getTaxableIncome(), y.getTaxRate()))
+                    .collect(Collectors.toList()),
+                s.getOrderingMethod(),
+                s.getManualVintageOrder()))
+            .collect(Collectors.toList());
+        
+        List<NOLVintageLedger.SimulationResult> results = nolService.simulateNOLUtilization(
+            request.getBusinessId(), request.getJurisdiction(), scenarios);
+        
+        List<NOLSimulationResponse.ScenarioResult> scenarioResults = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            NOLSimulationRequest.ScenarioDTO scenario = request.getScenarios().get(i);
+            scenarioResults.add(mapSimulationToResponse(scenario, results.get(i)));
+        }
+        
+        NOLSimulationResponse response = NOLSimulationResponse.builder()
+            .businessId(request.getBusinessId())
+            .jurisdiction(request.getJurisdiction() != null ? request.getJurisdiction().name() : null)
+            .scenarios(scenarioResults)
+            .build();
+        
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Get NOL schedule for a tax return.
      * 
@@ -235,12 +283,13 @@ public class NOLController {
     
     /**
      * Elect NOL carryback (CARES Act provision).
+     * With dryRun=true the refund schedule is computed and returned without persisting.
      * 
      * POST /api/nol/carryback
      * 
      * @param request Carryback election request
      * @param tenantId Tenant ID from JWT
-     * @return Carryback election response
+     * @return Carryback election response (201 when persisted, 200 for dry run)
      */
     @PostMapping("/carryback")
     public ResponseEntity<CarrybackElectionResponse> electCarryback(
@@ -260,9 +309,40 @@ public class NOLController {
             ));
         });
         
+        // Dry run: return the computed refund schedule without persisting
+        if (Boolean.TRUE.equals(request.getDryRun())) {
+            NOLCarrybackService.CarrybackPlan plan = nolCarrybackService.previewCarrybackElection(
+                request.getNolId(),
+                priorYearData,
+                request.getAllocationStrategy()
+            );
+            
+            CarrybackElectionResponse preview = CarrybackElectionResponse.builder()
+                .nolId(plan.nolId())
+                .nolTaxYear(plan.nolTaxYear())
+                .totalNOLCarriedBack(plan.totalCarriedBack())
+                .totalRefund(plan.totalRefund())
+                .remainingNOL(plan.remainingNOL())
+                .allocationStrategy(plan.strategy().name())
+                .dryRun(true)
+                .carrybackDetails(plan.allocations().stream()
+                    .map(a -> CarrybackElectionResponse.CarrybackYearDetail.builder()
+                        .carrybackYear(a.carrybackYear())
+                        .priorYearTaxableIncome(a.priorYearTaxableIncome())
+                        .nolApplied(a.nolApplied())
+                        .priorYearTaxRate(a.priorYearTaxRate())
+                        .refundAmount(a.refundAmount())
+                        .build())
+                    .collect(Collectors.toList()))
+                .build();
+            
+            return ResponseEntity.ok(preview);
+        }
+        
         List<NOLCarryback> carrybacks = nolCarrybackService.processCarrybackElection(
             request.getNolId(),
             priorYearData,
+            request.getAllocationStrategy(),
             tenantId
         );
         
@@ -276,6 +356,9 @@ public class NOLController {
             .totalNOLCarriedBack(nol.getCarrybackAmount())
             .totalRefund(nol.getCarrybackRefund())
             .remainingNOL(nol.getCurrentNOLBalance())
+            .allocationStrategy(request.getAllocationStrategy() != null ?
+                request.getAllocationStrategy().name() : CarrybackAllocationStrategy.FIFO.name())
+            .dryRun(false)
             .carrybackDetails(carrybacks.stream()
                 .map(cb -> CarrybackElectionResponse.CarrybackYearDetail.builder()
                     .carrybackId(cb.getId())
@@ -336,6 +419,25 @@ public class NOLController {
         return ResponseEntity.ok(alerts);
     }
     
+    /**
+     * Generate missing expiration alerts for NOLs across all businesses.
+     * Normally runs on a schedule; exposed for on-demand runs ahead of year-end.
+     * 
+     * POST /api/nol/alerts/generate
+     * 
+     * @param asOfDate Optional date horizons are measured from (defaults to today)
+     * @return Number of alerts created per severity level
+     */
+    @PostMapping("/alerts/generate")
+    public ResponseEntity<Map<AlertSeverityLevel, Integer>> generateExpirationAlerts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOfDate) {
+        
+        LocalDate effectiveDate = asOfDate != null ? asOfDate : LocalDate.now();
+        log.info("Generating NOL expiration alerts as of {}", effectiveDate);
+        
+        return ResponseEntity.ok(nolExpirationAlertService.generateExpirationAlerts(effectiveDate));
+    }
+    
     /**
      * Map NOL entity to response DTO.
      */
@@ -364,6 +466,45 @@ public class NOLController {
             .build();
     }
     
+    /**
+     * Map simulation result to response DTO.
+     */
+    private NOLSimulationResponse.ScenarioResult mapSimulationToResponse(NOLSimulationRequest.ScenarioDTO scenario,
+                                                                         NOLVintageLedger.SimulationResult result) {
+        NOLOrderingMethod method = scenario.getOrderingMethod() != null ?
+            scenario.getOrderingMethod() : NOLOrderingMethod.FIFO;
+        
+        return NOLSimulationResponse.ScenarioResult.builder()
+            .name(scenario.getName())
+            .orderingMethod(method.name())
+            .totalNOLDeduction(result.totalNOLDeduction())
+            .totalTaxSavings(result.totalTaxSavings())
+            .totalExpired(result.totalExpired())
+            .endingBalance(result.endingBalance())
+            .years(result.years().stream()
+                .map(y -> NOLSimulationResponse.YearResult.builder()
+                    .taxYear(y.taxYear())
+                    .taxableIncomeBeforeNOL(y.taxableIncomeBeforeNOL())
+                    .beginningBalance(y.beginningBalance())
+                    .newNOLGenerated(y.newNOLGenerated())
+                    .expiredNOL(y.expiredNOL())
+                    .limitationPercentage(y.limitationPercentage())
+                    .nolDeduction(y.nolDeduction())
+                    .taxableIncomeAfterNOL(y.taxableIncomeAfterNOL())
+                    .taxSavings(y.taxSavings())
+                    .endingBalance(y.endingBalance())
+                    .vintageUsages(y.vintageUsages().stream()
+                        .map(u -> NOLSimulationResponse.VintageUsage.builder()
+                            .vintageYear(u.vintageYear())
+                            .amountUsed(u.amountUsed())
+                            .remainingBalance(u.remainingBalance())
+                            .build())
+                        .collect(Collectors.toList()))
+                    .build())
+                .collect(Collectors.toList()))
+            .build();
+    }
+    
     /**
      * Map NOL schedule entity to response DTO.
      */
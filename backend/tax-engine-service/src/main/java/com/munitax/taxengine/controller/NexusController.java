@@ -2,7 +2,9 @@ package com.munitax.taxengine.controller;
 
 import com.munitax.taxengine.domain.apportionment.NexusReason;
 import com.munitax.taxengine.domain.apportionment.NexusTracking;
+import com.munitax.taxengine.dto.EconomicNexusRefreshResult;
 import com.munitax.taxengine.dto.NexusStatusDto;
+import com.munitax.taxengine.service.EconomicNexusRefreshService;
 import com.munitax.taxengine.service.NexusService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,6 +30,7 @@ import java.util.stream.Collectors;
 public class NexusController {
 
     private final NexusService nexusService;
+    private final EconomicNexusRefreshService economicNexusRefreshService;
 
     /**
      * Get nexus status for a business across all states.
@@ -183,6 +186,27 @@ public class NexusController {
         return ResponseEntity.ok(statusDto);
     }
 
+    /**
+     * Re-determine economic nexus for all businesses from their sale transactions in a tax year.
+     * Intended to run after a sales-data load; only changed nexus records are written.
+     *
+     * @param taxYear the tax year
+     * @param userId  user recorded on nexus change audit entries
+     * @return counts of records evaluated, created, updated and nexus changes, and of sale
+     *         transactions left out because they have no business
+     */
+    @PostMapping("/economic-nexus/refresh")
+    public ResponseEntity<EconomicNexusRefreshResult> refreshEconomicNexus(
+            @RequestParam Integer taxYear,
+            @RequestHeader("X-User-Id") UUID userId) {
+
+        log.info("Refreshing economic nexus for all businesses, tax year: {}", taxYear);
+
+        EconomicNexusRefreshResult result = economicNexusRefreshService.refreshEconomicNexus(taxYear, userId);
+
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Get economic nexus thresholds for a state.
      * Task: T078 [US2]
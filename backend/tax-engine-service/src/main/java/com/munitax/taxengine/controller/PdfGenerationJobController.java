@@ -0,0 +1,109 @@
+package com.munitax.taxengine.controller;
+
+import com.munitax.taxengine.domain.document.PdfDocumentType;
+import com.munitax.taxengine.dto.PdfGenerationJobResponse;
+import com.munitax.taxengine.service.PdfGenerationQueueService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST Controller for queued pdf-service document generation.
+ *
+ * Documents are rendered asynchronously: requests return 202 Accepted with a job ID,
+ * and clients poll the job until it is COMPLETED (pdf path set) or FAILED.
+ * Form 27-PA is requested through GET /api/abatements/{id}/form-27pa.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/pdf-jobs")
+@RequiredArgsConstructor
+public class PdfGenerationJobController {
+
+    private final PdfGenerationQueueService pdfGenerationQueueService;
+
+    /**
+     * Queue a return-level document (penalty summary, interest breakdown or payment receipt).
+     *
+     * POST /api/pdf-jobs
+     *
+     * @param request  document request
+     * @param tenantId the tenant ID
+     * @return queued (or deduplicated) job
+     */
+    @PostMapping
+    public ResponseEntity<PdfGenerationJobResponse> enqueue(
+            @Valid @RequestBody PdfGenerationRequest request,
+            @RequestHeader("X-Tenant-Id") UUID tenantId) {
+
+        log.info("Queueing {} generation for return: {}", request.getDocumentType(), request.getReturnId());
+
+        PdfGenerationJobResponse job = switch (request.getDocumentType()) {
+            case PENALTY_SUMMARY -> pdfGenerationQueueService.enqueuePenaltyCalculationSummary(
+                    request.getReturnId(), tenantId, request.getTaxpayerName(), request.getData());
+            case INTEREST_BREAKDOWN -> pdfGenerationQueueService.enqueueInterestCalculationBreakdown(
+                    request.getReturnId(), tenantId, request.getTaxpayerName(), request.getData());
+            case PAYMENT_RECEIPT -> pdfGenerationQueueService.enqueuePaymentAllocationReceipt(
+                    request.getReturnId(), tenantId, request.getTaxpayerName(), request.getData());
+            case FORM_27_PA -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Form 27-PA is generated via GET /api/abatements/{id}/form-27pa");
+        };
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * Get the status of a PDF generation job.
+     *
+     * GET /api/pdf-jobs/{jobId}
+     *
+     * @param jobId    the job ID
+     * @param tenantId the tenant ID
+     * @return job status, including the pdf path once COMPLETED
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PdfGenerationJobResponse> getJob(
+            @PathVariable UUID jobId,
+            @RequestHeader("X-Tenant-Id") UUID tenantId) {
+
+        return pdfGenerationQueueService.getJob(jobId, tenantId)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "PDF generation job not found: " + jobId));
+    }
+
+    /**
+     * Request DTO for queueing a return-level document.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PdfGenerationRequest {
+
+        @NotNull(message = "Document type is required")
+        private PdfDocumentType documentType;
+
+        @NotNull(message = "Return ID is required")
+        private UUID returnId;
+
+        private String taxpayerName;
+
+        /**
+         * Calculation, interest or allocation data rendered into the document.
+         */
+        private Map<String, Object> data;
+    }
+}
@@ -1,10 +1,13 @@
 package com.munitax.taxengine.controller;
 
+import com.munitax.taxengine.domain.document.PdfJobStatus;
 import com.munitax.taxengine.domain.penalty.*;
+import com.munitax.taxengine.dto.PdfGenerationJobResponse;
 import com.munitax.taxengine.repository.PenaltyAbatementRepository;
 import com.munitax.taxengine.service.penalty.PenaltyAbatementService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -259,26 +262,37 @@ public class PenaltyAbatementController {
     /**
      * Generate Form 27-PA (Penalty Abatement Request) PDF.
      * 
-     * GET /api/abatements/{id}/form-27pa
+     * POST /api/abatements/{id}/form-27pa
      * 
      * FR-036: Generate Form 27-PA PDF
      * 
-     * @param id abatement request ID
-     * @return URL of generated PDF
+     * Rendering is queued: returns 202 Accepted with the generation job until the PDF is ready,
+     * then 200 OK with the form URL. Repeat the request or poll GET /api/pdf-jobs/{jobId}.
+     * The taxpayer ID travels in the request body so it stays out of URLs and access logs.
+     * 
+     * @param id      abatement request ID
+     * @param request taxpayer name and ID (SSN/FEIN) for the form
+     * @return URL of generated PDF, or the pending generation job
      */
-    @GetMapping("/{id}/form-27pa")
-    public ResponseEntity<FormUrlResponse> generateForm27PA(@PathVariable UUID id) {
+    @PostMapping("/{id}/form-27pa")
+    public ResponseEntity<FormUrlResponse> generateForm27PA(
+            @PathVariable UUID id,
+            @Valid @RequestBody Form27PARequest request) {
         log.info("Generating Form 27-PA for abatement request: {}", id);
         
         try {
-            String pdfUrl = abatementService.generateForm27PA(id);
+            PdfGenerationJobResponse job = abatementService.generateForm27PA(
+                    id, request.getTaxpayerName(), request.getTaxpayerId());
             
             FormUrlResponse response = FormUrlResponse.builder()
-                    .formUrl(pdfUrl)
+                    .formUrl(job.getPdfPath())
                     .formName("Form 27-PA - Penalty Abatement Request")
+                    .jobId(job.getJobId())
+                    .status(job.getStatus())
                     .build();
             
-            return ResponseEntity.ok(response);
+            HttpStatus status = job.getStatus() == PdfJobStatus.COMPLETED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(response);
             
         } catch (IllegalArgumentException e) {
             log.error("Cannot generate form: {}", e.getMessage());
@@ -356,6 +370,22 @@ public class PenaltyAbatementController {
         private String documentType;
     }
     
+    /**
+     * Request DTO for generating Form 27-PA.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Form27PARequest {
+        
+        @NotBlank(message = "Taxpayer name is required")
+        private String taxpayerName;
+        
+        @NotBlank(message = "Taxpayer ID is required")
+        private String taxpayerId;
+    }
+    
     /**
      * Response DTO for form URL.
      */
@@ -368,5 +398,9 @@ public class PenaltyAbatementController {
         private String formUrl;
         
         private String formName;
+        
+        private UUID jobId;
+        
+        private PdfJobStatus status;
     }
 }
@@ -4,6 +4,7 @@ import com.munitax.taxengine.domain.apportionment.*;
 import com.munitax.taxengine.dto.*;
 import com.munitax.taxengine.repository.*;
 import com.munitax.taxengine.service.*;
+import com.munitax.taxengine.service.audit.AuditLogWriteBehindService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,11 +12,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -37,9 +40,12 @@ public class ScheduleYController {
     private final PayrollFactorRepository payrollFactorRepository;
     private final SalesFactorRepository salesFactorRepository;
     private final ApportionmentAuditLogRepository auditLogRepository;
+    private final AuditLogWriteBehindService auditLogWriteBehindService;
     
     private final ApportionmentService apportionmentService;
     private final SalesFactorService salesFactorService;
+    private final SaleTransactionImportService saleTransactionImportService;
+    private final ScheduleYFactorPipeline factorPipeline;
     private final NexusService nexusService;
 
     // TODO: Replace with actual authentication service
@@ -87,26 +93,12 @@ public class ScheduleYController {
                 scheduleY.setAmendsScheduleYId(request.getOriginalScheduleYId());
             }
 
-            // Calculate sales factor with sourcing election
-            BigDecimal salesFactorPercentage = calculateSalesFactor(request.getSalesFactor(), 
-                    request.getSourcingMethodElection());
-            scheduleY.setSalesFactorPercentage(salesFactorPercentage);
-
-            // Calculate property and payroll factors
-            BigDecimal propertyFactorPercentage = calculatePropertyFactor(request.getPropertyFactor());
-            scheduleY.setPropertyFactorPercentage(propertyFactorPercentage);
-
-            BigDecimal payrollFactorPercentage = calculatePayrollFactor(request.getPayrollFactor());
-            scheduleY.setPayrollFactorPercentage(payrollFactorPercentage);
-
-            // Calculate final apportionment percentage
-            BigDecimal finalApportionment = apportionmentService.calculateApportionmentPercentage(
-                    propertyFactorPercentage != null ? propertyFactorPercentage : BigDecimal.ZERO,
-                    payrollFactorPercentage != null ? payrollFactorPercentage : BigDecimal.ZERO,
-                    salesFactorPercentage,
-                    request.getApportionmentFormula()
-            );
-            scheduleY.setFinalApportionmentPercentage(finalApportionment);
+            // Calculate property, payroll and sales factors concurrently, then the final apportionment
+            ScheduleYFactorPipeline.FactorResult factors = factorPipeline.calculate(request, MOCK_TENANT_ID);
+            scheduleY.setPropertyFactorPercentage(factors.propertyFactorPercentage());
+            scheduleY.setPayrollFactorPercentage(factors.payrollFactorPercentage());
+            scheduleY.setSalesFactorPercentage(factors.salesFactorPercentage());
+            scheduleY.setFinalApportionmentPercentage(factors.finalApportionmentPercentage());
 
             // Save Schedule Y
             ScheduleY savedScheduleY = scheduleYRepository.save(scheduleY);
@@ -310,48 +302,58 @@ public class ScheduleYController {
         }
     }
 
-    // ==================== Private Helper Methods ====================
-
-    private BigDecimal calculateSalesFactor(SalesFactorDto salesFactor, 
-                                           SourcingMethodElection sourcingMethod) {
-        if (salesFactor == null || salesFactor.getTotalSalesEverywhere() == null 
-                || salesFactor.getTotalSalesEverywhere().compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal numerator = salesFactor.getSalesInOhio() != null 
-                ? salesFactor.getSalesInOhio() : BigDecimal.ZERO;
-        BigDecimal denominator = salesFactor.getTotalSalesEverywhere();
+    /**
+     * Import sale transactions into the Schedule Y sales factor.
+     * POST /api/schedule-y/{id}/sales-transactions/import
+     *
+     * Rows are sourced and throwback-adjusted per the Schedule Y throwback election
+     * and streamed into the database in chunks.
+     *
+     * @param id          Schedule Y ID
+     * @param businessId  business whose nexus determines throwback
+     * @param body        CSV (header row with SaleTransactionDto field names) or NDJSON body
+     * @param contentType text/csv or application/x-ndjson
+     * @return Counts, amounts added and per-row errors
+     */
+    @PostMapping(value = "/{id}/sales-transactions/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<SaleTransactionImportResponse> importSaleTransactions(
+            @PathVariable UUID id,
+            @RequestParam UUID businessId,
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
 
-        return apportionmentService.calculateFactorPercentage(numerator, denominator);
-    }
+        log.info("Importing sale transactions for Schedule Y: {}", id);
 
-    private BigDecimal calculatePropertyFactor(PropertyFactorDto propertyFactor) {
-        if (propertyFactor == null || propertyFactor.getTotalPropertyEverywhere() == null 
-                || propertyFactor.getTotalPropertyEverywhere().compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
+        try {
+            ScheduleY scheduleY = scheduleYRepository.findById(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, 
+                            "Schedule Y not found with ID: " + id));
 
-        BigDecimal numerator = propertyFactor.getPropertyInOhio() != null 
-                ? propertyFactor.getPropertyInOhio() : BigDecimal.ZERO;
-        BigDecimal denominator = propertyFactor.getTotalPropertyEverywhere();
+            // Verify tenant access
+            if (!MOCK_TENANT_ID.equals(scheduleY.getTenantId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, 
+                        "Access denied to Schedule Y: " + id);
+            }
 
-        return apportionmentService.calculateFactorPercentage(numerator, denominator);
-    }
+            String format = contentType.startsWith("text/csv")
+                    ? SaleTransactionImportService.FORMAT_CSV : SaleTransactionImportService.FORMAT_NDJSON;
+            SaleTransactionImportResponse response = saleTransactionImportService.importTransactions(
+                    scheduleY, businessId, body, format, MOCK_TENANT_ID);
+            return ResponseEntity.ok(response);
 
-    private BigDecimal calculatePayrollFactor(PayrollFactorDto payrollFactor) {
-        if (payrollFactor == null || payrollFactor.getTotalPayrollEverywhere() == null 
-                || payrollFactor.getTotalPayrollEverywhere().compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
+        } catch (ResponseStatusException e) {
+            throw e;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("Error importing sale transactions", e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
+                    "Error importing sale transactions: " + e.getMessage(), e);
         }
-
-        BigDecimal numerator = payrollFactor.getPayrollInOhio() != null 
-                ? payrollFactor.getPayrollInOhio() : BigDecimal.ZERO;
-        BigDecimal denominator = payrollFactor.getTotalPayrollEverywhere();
-
-        return apportionmentService.calculateFactorPercentage(numerator, denominator);
     }
 
+    // ==================== Private Helper Methods ====================
+
     private void saveFactorDetails(ScheduleY scheduleY, ScheduleYRequest request) {
         // Save Property Factor
         if (request.getPropertyFactor() != null) {
@@ -400,7 +402,7 @@ public class ScheduleYController {
         auditLog.setEntityType(fieldName);
         auditLog.setChangeReason(description);
         auditLog.setChangedBy(MOCK_USER_ID);
-        auditLogRepository.save(auditLog);
+        auditLogWriteBehindService.logApportionmentChange(auditLog);
         log.debug("Audit log created: {}", description);
     }
 
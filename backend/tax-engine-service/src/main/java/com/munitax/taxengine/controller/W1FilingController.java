@@ -1,10 +1,19 @@
 package com.munitax.taxengine.controller;
 
+import com.munitax.taxengine.domain.withholding.CumulativeWithholdingTotals;
+import com.munitax.taxengine.dto.AmendW1Request;
+import com.munitax.taxengine.dto.CumulativeTotalsResponse;
+import com.munitax.taxengine.dto.PortfolioReconciliationResult;
+import com.munitax.taxengine.dto.W1BulkFilingResponse;
 import com.munitax.taxengine.dto.ReconciliationIssue;
 import com.munitax.taxengine.dto.W1FilingRequest;
 import com.munitax.taxengine.dto.W1FilingResponse;
+import com.munitax.taxengine.dto.W2EmployerTotals;
 import com.munitax.taxengine.model.W2Form;
+import com.munitax.taxengine.service.CumulativeWithholdingTotalsService;
+import com.munitax.taxengine.service.W1BulkFilingService;
 import com.munitax.taxengine.service.W1FilingService;
+import com.munitax.taxengine.service.WithholdingReconciliationBatchService;
 import com.munitax.taxengine.service.WithholdingReconciliationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,6 +26,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,6 +43,8 @@ import java.util.UUID;
  * 
  * Endpoints:
  * - POST /api/v1/w1-filings - File new W-1 return
+ * - POST /api/v1/w1-filings/amend - File amended W-1 return
+ * - GET /api/v1/w1-filings/cumulative/{businessId} - Get YTD cumulative totals
  * - POST /api/v1/w1-filings/reconcile - Run reconciliation for an employer
  * - GET /api/v1/w1-filings/reconciliation/{employerId} - Get reconciliation issues
  * 
@@ -47,6 +60,9 @@ public class W1FilingController {
     
     private final W1FilingService w1FilingService;
     private final WithholdingReconciliationService reconciliationService;
+    private final CumulativeWithholdingTotalsService cumulativeTotalsService;
+    private final W1BulkFilingService w1BulkFilingService;
+    private final WithholdingReconciliationBatchService reconciliationBatchService;
     
     /**
      * File a new W-1 withholding return.
@@ -78,6 +94,90 @@ public class W1FilingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    /**
+     * File an amended W-1 return superseding an existing filing.
+     * 
+     * @param request Amendment request (original filing ID, reason and corrected amounts)
+     * @return Amended W-1 filing response
+     */
+    @PostMapping("/amend")
+    @Operation(summary = "Amend W-1 return", description = "Submit an amended W-1 superseding an existing filing")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Amended W-1 filing created successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or filing already amended")
+    })
+    public ResponseEntity<W1FilingResponse> amendW1Return(
+            @Valid @RequestBody AmendW1Request request,
+            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantIdHeader) {
+        
+        UUID userId = userIdHeader != null ? UUID.fromString(userIdHeader) : UUID.randomUUID();
+        UUID tenantId = tenantIdHeader != null ? UUID.fromString(tenantIdHeader) : UUID.randomUUID();
+        
+        log.info("Amending W-1 filing {}", request.getOriginalFilingId());
+        
+        W1FilingResponse response = w1FilingService.amendW1Return(request, userId, tenantId);
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    /**
+     * File many W-1 returns in one upload (payroll service bureaus).
+     * Rows that fail validation or duplicate an existing period are reported and skipped.
+     * 
+     * @param body CSV (header row with W1FilingRequest field names) or NDJSON body
+     * @param contentType text/csv or application/x-ndjson
+     * @return Counts and per-row errors
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(summary = "Bulk file W-1 returns", description = "Submit many W-1 returns as CSV or NDJSON")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Upload processed; see per-row errors"),
+        @ApiResponse(responseCode = "400", description = "Unreadable input or missing CSV columns")
+    })
+    public ResponseEntity<W1BulkFilingResponse> bulkFileW1Returns(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantIdHeader) {
+        
+        UUID userId = userIdHeader != null ? UUID.fromString(userIdHeader) : UUID.randomUUID();
+        UUID tenantId = tenantIdHeader != null ? UUID.fromString(tenantIdHeader) : UUID.randomUUID();
+        String format = contentType.startsWith("text/csv")
+            ? W1BulkFilingService.FORMAT_CSV : W1BulkFilingService.FORMAT_NDJSON;
+        
+        W1BulkFilingResponse response = w1BulkFilingService.ingest(body, format, userId, tenantId);
+        
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Get year-to-date cumulative withholding totals for a business.
+     * 
+     * @param businessId Business profile ID
+     * @param taxYear Tax year (optional, defaults to current year)
+     * @return Cumulative totals, or 404 if no W-1 has been filed for the year
+     */
+    @GetMapping("/cumulative/{businessId}")
+    @Operation(summary = "Get cumulative totals", description = "Retrieve YTD cumulative W-1 totals for a business")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cumulative totals retrieved successfully"),
+        @ApiResponse(responseCode = "404", description = "No W-1 filings for this business and tax year")
+    })
+    public ResponseEntity<CumulativeTotalsResponse> getCumulativeTotals(
+            @Parameter(description = "Business profile ID")
+            @PathVariable UUID businessId,
+            @Parameter(description = "Tax year (optional)")
+            @RequestParam(required = false) Integer taxYear) {
+        
+        Integer year = taxYear != null ? taxYear : java.time.Year.now().getValue();
+        
+        return cumulativeTotalsService.getCumulativeTotals(businessId, year)
+            .map(this::mapToCumulativeResponse)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
     /**
      * Run comprehensive reconciliation for an employer's W-1 filings.
      * 
@@ -149,6 +249,53 @@ public class W1FilingController {
         return ResponseEntity.ok(issues);
     }
     
+    /**
+     * Reconcile every employer in the jurisdiction for a tax year (run after the W-2 deadline).
+     * Results are written to withholding_reconciliations; the response summarizes the run.
+     * 
+     * @param request Tax year and W-2 totals per employer
+     * @return Run summary (counts by status and issue type)
+     */
+    @PostMapping("/reconciliation/batch")
+    @Operation(
+        summary = "Run portfolio reconciliation", 
+        description = "Reconcile W-1 filings against W-2 totals for all employers in a tax year"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Portfolio reconciliation completed"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data or duplicate W-2 totals")
+    })
+    public ResponseEntity<PortfolioReconciliationResult> reconcilePortfolio(
+            @Valid @RequestBody PortfolioReconciliationRequest request,
+            @RequestHeader(value = "X-User-Id", required = false) String userIdHeader,
+            @RequestHeader(value = "X-Tenant-Id", required = false) String tenantIdHeader) {
+        
+        UUID userId = userIdHeader != null ? UUID.fromString(userIdHeader) : UUID.randomUUID();
+        UUID tenantId = tenantIdHeader != null ? UUID.fromString(tenantIdHeader) : UUID.randomUUID();
+        
+        log.info("Running portfolio reconciliation for tax year {}", request.getTaxYear());
+        
+        PortfolioReconciliationResult result = reconciliationBatchService.reconcilePortfolio(
+            request.getTaxYear(), request.getW2Totals(), userId, tenantId);
+        
+        return ResponseEntity.ok(result);
+    }
+    
+    private CumulativeTotalsResponse mapToCumulativeResponse(CumulativeWithholdingTotals totals) {
+        return CumulativeTotalsResponse.builder()
+            .taxYear(totals.getTaxYear())
+            .periodsFiled(totals.getPeriodsFiled())
+            .cumulativeWagesYtd(totals.getCumulativeWagesYtd())
+            .cumulativeTaxYtd(totals.getCumulativeTaxYtd())
+            .cumulativeAdjustmentsYtd(totals.getCumulativeAdjustmentsYtd())
+            .lastFilingDate(totals.getLastFilingDate())
+            .estimatedAnnualWages(totals.getEstimatedAnnualWages())
+            .projectedAnnualWages(totals.getProjectedAnnualWages())
+            .onTrackIndicator(totals.getOnTrackIndicator())
+            .updatedAt(totals.getUpdatedAt())
+            .build();
+    }
+    
     /**
      * Request DTO for reconciliation endpoint.
      */
@@ -177,4 +324,27 @@ public class W1FilingController {
          */
         private List<W2Form> w2Forms;
     }
+    
+    /**
+     * Request DTO for portfolio reconciliation endpoint.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PortfolioReconciliationRequest {
+        
+        /**
+         * Tax year to reconcile.
+         */
+        @NotNull(message = "Tax year is required")
+        @Min(value = 2020, message = "Tax year must be 2020 or later")
+        private Integer taxYear;
+        
+        /**
+         * W-2 totals per employer (one entry per business).
+         */
+        @Valid
+        private List<W2EmployerTotals> w2Totals;
+    }
 }
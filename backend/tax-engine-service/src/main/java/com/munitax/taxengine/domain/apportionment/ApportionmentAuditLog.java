@@ -72,7 +72,9 @@ public class ApportionmentAuditLog {
 
     @PrePersist
     protected void onCreate() {
-        changeDate = LocalDateTime.now();
+        if (changeDate == null) {
+            changeDate = LocalDateTime.now();
+        }
     }
 
     /**
@@ -0,0 +1,115 @@
+package com.munitax.taxengine.domain.apportionment;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Immutable point-in-time view of the states where a business has nexus in one tax year.
+ *
+ * Two-letter state codes map to a slot in a 676-bit set (26 x 26), so a snapshot is ~100 bytes
+ * and a nexus check is a single bit test. States without a state-level nexus_tracking record for the
+ * tax year, or with hasNexus = false, read as no nexus.
+ *
+ * Loaded once per sourcing run via {@code NexusService.getNexusSnapshot}. Snapshots are stored in
+ * the Redis cache as JSON, with the bit set written as its {@code long[]} words.
+ */
+public final class NexusSnapshot {
+
+    private static final int LETTERS = 26;
+
+    private final UUID businessId;
+    private final UUID tenantId;
+    private final Integer taxYear;
+    private final BitSet nexusStates;
+
+    private NexusSnapshot(UUID businessId, UUID tenantId, Integer taxYear, BitSet nexusStates) {
+        this.businessId = businessId;
+        this.tenantId = tenantId;
+        this.taxYear = taxYear;
+        this.nexusStates = nexusStates;
+    }
+
+    /**
+     * Build a snapshot from a business's nexus tracking records for a tax year.
+     *
+     * @param businessId the business ID
+     * @param tenantId   the tenant ID
+     * @param taxYear    the tax year
+     * @param records    the business's state-level nexus tracking records for the tax year
+     * @return the snapshot
+     */
+    public static NexusSnapshot of(UUID businessId, UUID tenantId, Integer taxYear,
+                                   Collection<NexusTracking> records) {
+        BitSet nexusStates = new BitSet(LETTERS * LETTERS);
+        for (NexusTracking record : records) {
+            int slot = slot(record.getState());
+            if (slot >= 0 && Boolean.TRUE.equals(record.getHasNexus())) {
+                nexusStates.set(slot);
+            }
+        }
+        return new NexusSnapshot(businessId, tenantId, taxYear, nexusStates);
+    }
+
+    @JsonCreator
+    static NexusSnapshot fromJson(@JsonProperty("businessId") UUID businessId,
+                                  @JsonProperty("tenantId") UUID tenantId,
+                                  @JsonProperty("taxYear") Integer taxYear,
+                                  @JsonProperty("nexusStates") long[] nexusStates) {
+        return new NexusSnapshot(businessId, tenantId, taxYear,
+                nexusStates == null ? new BitSet(LETTERS * LETTERS) : BitSet.valueOf(nexusStates));
+    }
+
+    /**
+     * Check whether the business had nexus in a state when the snapshot was taken.
+     *
+     * @param state the state code (e.g., "OH", "CA")
+     * @return true if the business has nexus in the state
+     */
+    public boolean hasNexus(String state) {
+        int slot = slot(state);
+        return slot >= 0 && nexusStates.get(slot);
+    }
+
+    /**
+     * Number of states with nexus.
+     */
+    public int nexusStateCount() {
+        return nexusStates.cardinality();
+    }
+
+    public UUID getBusinessId() {
+        return businessId;
+    }
+
+    public UUID getTenantId() {
+        return tenantId;
+    }
+
+    public Integer getTaxYear() {
+        return taxYear;
+    }
+
+    @JsonProperty("nexusStates")
+    long[] getNexusStateWords() {
+        return nexusStates.toLongArray();
+    }
+
+    /**
+     * Bit index for a two-letter state code, or -1 if the code is malformed.
+     */
+    private static int slot(String state) {
+        if (state == null || state.length() != 2) {
+            return -1;
+        }
+        int first = Character.toUpperCase(state.charAt(0)) - 'A';
+        int second = Character.toUpperCase(state.charAt(1)) - 'A';
+        if (first < 0 || first >= LETTERS || second < 0 || second >= LETTERS) {
+            return -1;
+        }
+        return first * LETTERS + second;
+    }
+}
@@ -103,6 +103,12 @@ public class SaleTransaction {
     @Column(name = "schedule_y_id")
     private UUID scheduleYId;
 
+    /**
+     * Business that made the sale; used to aggregate sales per business and state for economic nexus.
+     */
+    @Column(name = "business_id")
+    private UUID businessId;
+
     @Column(name = "tenant_id", nullable = false)
     private UUID tenantId;
 
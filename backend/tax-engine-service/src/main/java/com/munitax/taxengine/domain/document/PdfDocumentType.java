@@ -0,0 +1,26 @@
+package com.munitax.taxengine.domain.document;
+
+/**
+ * Documents rendered by pdf-service through the PDF generation queue.
+ */
+public enum PdfDocumentType {
+    /**
+     * Form 27-PA - Penalty Abatement Request (FR-036).
+     */
+    FORM_27_PA,
+
+    /**
+     * Penalty calculation summary.
+     */
+    PENALTY_SUMMARY,
+
+    /**
+     * Interest calculation breakdown with quarterly detail.
+     */
+    INTEREST_BREAKDOWN,
+
+    /**
+     * Payment allocation receipt.
+     */
+    PAYMENT_RECEIPT
+}
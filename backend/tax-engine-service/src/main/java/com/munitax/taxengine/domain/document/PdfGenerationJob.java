@@ -0,0 +1,92 @@
+package com.munitax.taxengine.domain.document;
+
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Type;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPA Entity for a queued pdf-service document generation.
+ *
+ * Jobs are persisted before any pdf-service call, so queued work survives restarts.
+ * Identical requests (same tenant, document type and payload) share one live (queued or running)
+ * job via dedupe_key.
+ *
+ * Multi-tenant Isolation: Constitution II
+ * - All queries MUST filter by tenant_id
+ */
+@Entity
+@Table(name = "pdf_generation_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PdfGenerationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "job_id")
+    private UUID jobId;
+
+    /**
+     * Tenant ID for multi-tenant data isolation (Constitution II).
+     */
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 40)
+    private PdfDocumentType documentType;
+
+    /**
+     * Source entity the document is generated for (e.g. abatement ID for Form 27-PA).
+     */
+    @Column(name = "reference_id")
+    private UUID referenceId;
+
+    /**
+     * SHA-256 of document type + canonical payload, used to deduplicate identical requests.
+     */
+    @Column(name = "dedupe_key", nullable = false, length = 64)
+    private String dedupeKey;
+
+    /**
+     * Arguments for the pdf-service call.
+     */
+    @Type(JsonType.class)
+    @Column(name = "payload", nullable = false, columnDefinition = "jsonb")
+    private Map<String, Object> payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private PdfJobStatus status = PdfJobStatus.QUEUED;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * Path to the generated PDF (set when COMPLETED).
+     */
+    @Column(name = "pdf_path", length = 500)
+    private String pdfPath;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,26 @@
+package com.munitax.taxengine.domain.document;
+
+/**
+ * Lifecycle of a PDF generation job.
+ */
+public enum PdfJobStatus {
+    /**
+     * Waiting for a free worker.
+     */
+    QUEUED,
+
+    /**
+     * Claimed by a worker; pdf-service call in progress.
+     */
+    RUNNING,
+
+    /**
+     * PDF generated; pdf path available.
+     */
+    COMPLETED,
+
+    /**
+     * All attempts failed. An identical request creates a new job.
+     */
+    FAILED
+}
@@ -0,0 +1,24 @@
+package com.munitax.taxengine.domain.nol;
+
+/**
+ * Carryback Allocation Strategy Enum - Determines how a carried-back NOL is spread across prior years.
+ * 
+ * Functional Requirements:
+ * - FR-016: Calculate carryback using FIFO ordering
+ * - FR-017: Calculate refund amount for each carryback year
+ * 
+ * @see NOLCarryback
+ */
+public enum CarrybackAllocationStrategy {
+    /**
+     * Apply NOL to the earliest prior year first, absorbing all of its taxable income
+     * before moving to the next year (statutory CARES Act ordering, default).
+     */
+    FIFO,
+    
+    /**
+     * Apply NOL only where it produces a refund, highest prior-year tax rate first,
+     * leaving the rest of the NOL for carryforward (planning comparison).
+     */
+    MAXIMIZE_REFUND
+}
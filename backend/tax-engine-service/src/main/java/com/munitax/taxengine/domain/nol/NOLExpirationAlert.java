@@ -152,4 +152,30 @@ public class NOLExpirationAlert {
             return AlertSeverityLevel.INFO;
         }
     }
+    
+    /**
+     * Helper method to build an alert for an NOL at a given severity.
+     * 
+     * @param nol the expiring NOL (must have an expiration date)
+     * @param yearsUntilExpiration years until expiration
+     * @param severityLevel alert severity
+     * @return unsaved alert
+     */
+    public static NOLExpirationAlert forNOL(NOL nol, BigDecimal yearsUntilExpiration, AlertSeverityLevel severityLevel) {
+        String message = String.format("⚠️ $%s NOL from %d expiring %s - Use before expiration or lose!",
+                                       nol.getCurrentNOLBalance(), nol.getTaxYear(), nol.getExpirationDate());
+        
+        return NOLExpirationAlert.builder()
+            .tenantId(nol.getTenantId())
+            .businessId(nol.getBusinessId())
+            .nolId(nol.getId())
+            .taxYear(nol.getTaxYear())
+            .nolBalance(nol.getCurrentNOLBalance())
+            .expirationDate(nol.getExpirationDate())
+            .yearsUntilExpiration(yearsUntilExpiration)
+            .severityLevel(severityLevel)
+            .alertMessage(message)
+            .dismissed(false)
+            .build();
+    }
 }
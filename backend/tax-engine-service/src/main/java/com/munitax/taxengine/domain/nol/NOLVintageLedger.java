@@ -0,0 +1,312 @@
+package com.munitax.taxengine.domain.nol;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * NOLVintageLedger - In-memory snapshot of every NOL vintage for a business.
+ *
+ * Holds each NOL together with its usage and carryback history so that vintage
+ * breakdowns and multi-year utilization scenarios can be answered without further
+ * database access. The ledger is read-only; simulations work on copies of the
+ * vintage balances and never modify the underlying entities.
+ *
+ * Functional Requirements:
+ * - FR-002: Track NOL usage across years
+ * - FR-008: Calculate maximum NOL deduction (80% limitation)
+ * - FR-022: Apply FIFO ordering by default
+ * - FR-023: Expire NOLs at end of carryforward period
+ * - FR-025: Allow manual NOL utilization ordering override
+ *
+ * @see NOL
+ * @see NOLUsage
+ * @see NOLCarryback
+ */
+public class NOLVintageLedger {
+
+    private static final int TCJA_EFFECTIVE_YEAR = 2018;
+    private static final int PRE_TCJA_CARRYFORWARD_YEARS = 20;
+    private static final BigDecimal POST_TCJA_LIMITATION = new BigDecimal("80.00");
+    private static final BigDecimal PRE_TCJA_LIMITATION = new BigDecimal("100.00");
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final UUID businessId;
+    private final List<Vintage> vintages;
+
+    private NOLVintageLedger(UUID businessId, List<Vintage> vintages) {
+        this.businessId = businessId;
+        this.vintages = Collections.unmodifiableList(vintages);
+    }
+
+    /**
+     * Build a ledger from joined {@code [NOL, NOLUsage]} rows and the business's carrybacks.
+     *
+     * @param businessId Business profile ID
+     * @param vintageRows Rows ordered by NOL tax year (usage may be null)
+     * @param carrybacks All carryback records for the business's NOLs
+     * @return Ledger with vintages ordered by tax year (oldest first)
+     */
+    public static NOLVintageLedger of(UUID businessId, List<Object[]> vintageRows, List<NOLCarryback> carrybacks) {
+        Map<UUID, Vintage> byNolId = new LinkedHashMap<>();
+        for (Object[] row : vintageRows) {
+            NOL nol = (NOL) row[0];
+            Vintage vintage = byNolId.computeIfAbsent(nol.getId(), id -> new Vintage(nol));
+            if (row.length > 1 && row[1] != null) {
+                vintage.usages.add((NOLUsage) row[1]);
+            }
+        }
+        for (NOLCarryback carryback : carrybacks) {
+            Vintage vintage = byNolId.get(carryback.getNolId());
+            if (vintage != null) {
+                vintage.carrybacks.add(carryback);
+            }
+        }
+        List<Vintage> ordered = new ArrayList<>(byNolId.values());
+        ordered.sort(Comparator.comparing(v -> v.getNol().getTaxYear()));
+        return new NOLVintageLedger(businessId, ordered);
+    }
+
+    public UUID getBusinessId() {
+        return businessId;
+    }
+
+    /**
+     * @return All vintages ordered by tax year (oldest first)
+     */
+    public List<Vintage> getVintages() {
+        return vintages;
+    }
+
+    /**
+     * @param jurisdiction Jurisdiction filter (null for all)
+     * @return Vintages for jurisdiction ordered by tax year (oldest first)
+     */
+    public List<Vintage> getVintages(Jurisdiction jurisdiction) {
+        if (jurisdiction == null) {
+            return vintages;
+        }
+        return vintages.stream()
+            .filter(v -> v.getNol().getJurisdiction() == jurisdiction)
+            .toList();
+    }
+
+    /**
+     * Calculate NOL balance available as of a date (unexpired vintages with balance > 0).
+     *
+     * @param asOf Date for the expiration check
+     * @param jurisdiction Jurisdiction filter (null for all)
+     * @return Total available NOL balance
+     */
+    public BigDecimal getAvailableBalance(LocalDate asOf, Jurisdiction jurisdiction) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Vintage vintage : getVintages(jurisdiction)) {
+            NOL nol = vintage.getNol();
+            boolean expired = nol.getExpirationDate() != null && !nol.getExpirationDate().isAfter(asOf);
+            if (!expired && nol.getCurrentNOLBalance().signum() > 0) {
+                total = total.add(nol.getCurrentNOLBalance());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Simulate applying NOLs over a series of projected tax years without persisting anything.
+     *
+     * Rules (matching {@code NOLService}):
+     * - Vintages whose expiration date falls before the projected year expire unused
+     * - Projected losses (negative income) generate a new vintage (20-year life pre-2018, indefinite after)
+     * - Deduction = min(available, limitation% × income) with 80% limitation from 2018 on
+     * - Vintages consumed FIFO, or in the given vintage-year order for MANUAL_OVERRIDE
+     *
+     * @param projections Projected tax years (any order; sorted by year internally)
+     * @param jurisdiction Jurisdiction filter (null for all)
+     * @param orderingMethod FIFO or MANUAL_OVERRIDE (null defaults to FIFO)
+     * @param manualVintageOrder Vintage tax years to consume first when MANUAL_OVERRIDE
+     * @return Year-by-year simulation result
+     */
+    public SimulationResult simulate(List<ProjectedYear> projections, Jurisdiction jurisdiction,
+                                     NOLOrderingMethod orderingMethod, List<Integer> manualVintageOrder) {
+
+        List<Vintage> source = getVintages(jurisdiction);
+
+        // Working copy of vintage balances; simulated vintages are appended as losses occur
+        List<Integer> vintageYears = new ArrayList<>(source.size() + projections.size());
+        List<LocalDate> expirations = new ArrayList<>(source.size() + projections.size());
+        List<BigDecimal> balances = new ArrayList<>(source.size() + projections.size());
+        for (Vintage vintage : source) {
+            NOL nol = vintage.getNol();
+            vintageYears.add(nol.getTaxYear());
+            expirations.add(nol.getExpirationDate());
+            balances.add(nol.getCurrentNOLBalance().max(BigDecimal.ZERO));
+        }
+
+        boolean manual = orderingMethod == NOLOrderingMethod.MANUAL_OVERRIDE
+            && manualVintageOrder != null && !manualVintageOrder.isEmpty();
+        int[] order = consumptionOrder(vintageYears, manual ? manualVintageOrder : List.of());
+
+        List<ProjectedYear> sorted = new ArrayList<>(projections);
+        sorted.sort(Comparator.comparing(ProjectedYear::taxYear));
+
+        List<SimulatedYear> years = new ArrayList<>(sorted.size());
+        BigDecimal totalDeduction = BigDecimal.ZERO;
+        BigDecimal totalTaxSavings = BigDecimal.ZERO;
+        BigDecimal totalExpired = BigDecimal.ZERO;
+
+        for (ProjectedYear projection : sorted) {
+            int year = projection.taxYear();
+            BigDecimal income = projection.taxableIncome();
+
+            // Expire vintages that ran out before this year
+            BigDecimal expired = BigDecimal.ZERO;
+            for (int i = 0; i < balances.size(); i++) {
+                LocalDate expiration = expirations.get(i);
+                if (expiration != null && expiration.getYear() < year && balances.get(i).signum() > 0) {
+                    expired = expired.add(balances.get(i));
+                    balances.set(i, BigDecimal.ZERO);
+                }
+            }
+
+            BigDecimal beginning = sum(balances);
+            BigDecimal newNOL = BigDecimal.ZERO;
+            BigDecimal deduction = BigDecimal.ZERO;
+            BigDecimal limitation = year >= TCJA_EFFECTIVE_YEAR ? POST_TCJA_LIMITATION : PRE_TCJA_LIMITATION;
+            List<SimulatedVintageUsage> usages = new ArrayList<>();
+
+            if (income.signum() < 0) {
+                newNOL = income.negate();
+                vintageYears.add(year);
+                expirations.add(year >= TCJA_EFFECTIVE_YEAR ? null
+                    : LocalDate.of(year + PRE_TCJA_CARRYFORWARD_YEARS, 12, 31));
+                balances.add(newNOL);
+                order = consumptionOrder(vintageYears, manual ? manualVintageOrder : List.of());
+            } else if (beginning.signum() > 0) {
+                BigDecimal remaining = income.multiply(limitation)
+                    .divide(HUNDRED, 2, RoundingMode.HALF_UP)
+                    .min(beginning);
+                for (int idx : order) {
+                    if (remaining.signum() <= 0) {
+                        break;
+                    }
+                    BigDecimal balance = balances.get(idx);
+                    if (balance.signum() <= 0) {
+                        continue;
+                    }
+                    BigDecimal used = remaining.min(balance);
+                    balances.set(idx, balance.subtract(used));
+                    remaining = remaining.subtract(used);
+                    deduction = deduction.add(used);
+                    usages.add(new SimulatedVintageUsage(vintageYears.get(idx), used, balances.get(idx)));
+                }
+            }
+
+            BigDecimal taxableIncomeAfterNOL = income.max(BigDecimal.ZERO).subtract(deduction);
+            BigDecimal rate = projection.taxRate() != null ? projection.taxRate() : BigDecimal.ZERO;
+            BigDecimal taxSavings = deduction.multiply(rate).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+
+            years.add(new SimulatedYear(year, income, beginning, newNOL, expired, limitation, deduction,
+                taxableIncomeAfterNOL, taxSavings, sum(balances), usages));
+
+            totalDeduction = totalDeduction.add(deduction);
+            totalTaxSavings = totalTaxSavings.add(taxSavings);
+            totalExpired = totalExpired.add(expired);
+        }
+
+        return new SimulationResult(years, totalDeduction, totalTaxSavings, totalExpired, sum(balances));
+    }
+
+    /**
+     * Determine the index order in which vintages are consumed.
+     * Manually ordered vintage years come first, the rest follow oldest first.
+     */
+    private static int[] consumptionOrder(List<Integer> vintageYears, List<Integer> manualOrder) {
+        Integer[] indexes = new Integer[vintageYears.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, Comparator
+            .comparingInt((Integer i) -> {
+                int rank = manualOrder.indexOf(vintageYears.get(i));
+                return rank >= 0 ? rank : manualOrder.size();
+            })
+            .thenComparingInt(vintageYears::get));
+        int[] order = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            order[i] = indexes[i];
+        }
+        return order;
+    }
+
+    private static BigDecimal sum(List<BigDecimal> values) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal value : values) {
+            total = total.add(value);
+        }
+        return total;
+    }
+
+    /**
+     * A single NOL vintage with its usage and carryback history.
+     */
+    public static class Vintage {
+        private final NOL nol;
+        private final List<NOLUsage> usages = new ArrayList<>();
+        private final List<NOLCarryback> carrybacks = new ArrayList<>();
+
+        private Vintage(NOL nol) {
+            this.nol = nol;
+        }
+
+        public NOL getNol() { return nol; }
+        public List<NOLUsage> getUsages() { return Collections.unmodifiableList(usages); }
+        public List<NOLCarryback> getCarrybacks() { return Collections.unmodifiableList(carrybacks); }
+
+        /**
+         * @param usageYear Tax year of usage
+         * @return Total NOL deduction taken from this vintage in the year
+         */
+        public BigDecimal getUsedInYear(Integer usageYear) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (NOLUsage usage : usages) {
+                if (usage.getUsageYear().equals(usageYear)) {
+                    total = total.add(usage.getActualNOLDeduction());
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Projected income for one future tax year.
+     * Negative taxable income represents a projected loss.
+     *
+     * @param taxYear Projected tax year
+     * @param taxableIncome Taxable income before NOL
+     * @param taxRate Tax rate percentage for savings (null for none)
+     */
+    public record ProjectedYear(Integer taxYear, BigDecimal taxableIncome, BigDecimal taxRate) {
+    }
+
+    /**
+     * Amount drawn from one vintage in a simulated year.
+     */
+    public record SimulatedVintageUsage(Integer vintageYear, BigDecimal amountUsed, BigDecimal remainingBalance) {
+    }
+
+    /**
+     * Simulated NOL schedule line for one projected year.
+     */
+    public record SimulatedYear(Integer taxYear, BigDecimal taxableIncomeBeforeNOL, BigDecimal beginningBalance,
+                                BigDecimal newNOLGenerated, BigDecimal expiredNOL, BigDecimal limitationPercentage,
+                                BigDecimal nolDeduction, BigDecimal taxableIncomeAfterNOL, BigDecimal taxSavings,
+                                BigDecimal endingBalance, List<SimulatedVintageUsage> vintageUsages) {
+    }
+
+    /**
+     * Outcome of a multi-year simulation.
+     */
+    public record SimulationResult(List<SimulatedYear> years, BigDecimal totalNOLDeduction,
+                                   BigDecimal totalTaxSavings, BigDecimal totalExpired, BigDecimal endingBalance) {
+    }
+}
@@ -18,6 +18,11 @@ public enum PenaltyAuditAction {
      */
     CALCULATED,
     
+    /**
+     * Penalty abatement requested by the taxpayer (pending review; nothing abated yet).
+     */
+    ABATEMENT_REQUESTED,
+    
     /**
      * Penalty abated (removed for reasonable cause).
      */
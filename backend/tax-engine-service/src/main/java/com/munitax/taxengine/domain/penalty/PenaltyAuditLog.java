@@ -53,7 +53,7 @@ public class PenaltyAuditLog {
     
     /**
      * Action performed on the entity.
-     * FR-045: ASSESSED, CALCULATED, ABATED, PAYMENT_APPLIED, RECALCULATED
+     * FR-045: ASSESSED, CALCULATED, ABATEMENT_REQUESTED, ABATED, PAYMENT_APPLIED, RECALCULATED
      */
     @Enumerated(EnumType.STRING)
     @Column(name = "action", nullable = false, length = 50)
@@ -136,6 +136,15 @@ public class CumulativeWithholdingTotals {
     @Builder.Default
     private Boolean onTrackIndicator = true;
     
+    /**
+     * Row version, incremented on every update.
+     * W-1 filings take a pessimistic row lock (findByBusinessIdAndTaxYearForUpdate), so concurrent filings
+     * for the same business + tax year wait for each other; the version only rejects writes made without it.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+    
     /**
      * Record creation timestamp.
      */
@@ -0,0 +1,79 @@
+package com.munitax.taxengine.domain.withholding;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * W1FiledEvent - Published when a W-1 is filed or amended.
+ *
+ * Carries the change to apply to {@link CumulativeWithholdingTotals} for the business + tax year:
+ * - New filing: +1 period and the filing's wages, tax and adjustments
+ * - Amendment: 0 periods and the difference between the amended and the superseded filing
+ *
+ * The filing ID identifies the event, so redelivery never double-counts a filing.
+ *
+ * @param filingId ID of the filing that was saved (the amendment, for amendments)
+ * @param tenantId Multi-tenant isolation
+ * @param businessId Business profile
+ * @param taxYear Tax year of the filing
+ * @param filingFrequency Filing frequency (for annual projections)
+ * @param periodsDelta Change in periods filed (1 for new filings, 0 for amendments)
+ * @param wagesDelta Change in gross wages
+ * @param taxDelta Change in tax due
+ * @param adjustmentsDelta Change in adjustments
+ * @param filingDate Filing timestamp
+ */
+public record W1FiledEvent(
+    UUID filingId,
+    UUID tenantId,
+    UUID businessId,
+    Integer taxYear,
+    FilingFrequency filingFrequency,
+    int periodsDelta,
+    BigDecimal wagesDelta,
+    BigDecimal taxDelta,
+    BigDecimal adjustmentsDelta,
+    LocalDateTime filingDate
+) {
+
+    /**
+     * Event for a newly filed W-1.
+     */
+    public static W1FiledEvent filed(W1Filing filing) {
+        return new W1FiledEvent(
+            filing.getId(),
+            filing.getTenantId(),
+            filing.getBusinessId(),
+            filing.getTaxYear(),
+            filing.getFilingFrequency(),
+            1,
+            filing.getGrossWages(),
+            filing.getTaxDue(),
+            orZero(filing.getAdjustments()),
+            filing.getFilingDate()
+        );
+    }
+
+    /**
+     * Event for an amended W-1 superseding an earlier filing for the same period.
+     */
+    public static W1FiledEvent amended(W1Filing amendment, W1Filing superseded) {
+        return new W1FiledEvent(
+            amendment.getId(),
+            amendment.getTenantId(),
+            amendment.getBusinessId(),
+            amendment.getTaxYear(),
+            amendment.getFilingFrequency(),
+            0,
+            amendment.getGrossWages().subtract(superseded.getGrossWages()),
+            amendment.getTaxDue().subtract(superseded.getTaxDue()),
+            orZero(amendment.getAdjustments()).subtract(orZero(superseded.getAdjustments())),
+            amendment.getFilingDate()
+        );
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
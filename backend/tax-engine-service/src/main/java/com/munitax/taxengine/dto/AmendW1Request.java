@@ -84,10 +84,10 @@ public class AmendW1Request {
     private Integer employeeCount;
     
     /**
-     * Whether to automatically recalculate cumulative totals for subsequent periods.
-     * Default: TRUE (recommended per FR-003).
-     * Set to FALSE only if manual review needed before cascade update.
+     * Ignored: cumulative totals are always adjusted by the amendment (FR-003).
+     * Kept so existing clients that send it are still accepted.
      */
+    @Deprecated
     @Builder.Default
     private Boolean autoRecalculateCumulative = true;
 }
@@ -1,5 +1,6 @@
 package com.munitax.taxengine.dto;
 
+import com.munitax.taxengine.domain.nol.CarrybackAllocationStrategy;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -34,6 +35,16 @@ public class CarrybackElectionRequest {
     @Size(min = 1, max = 5, message = "Must provide 1-5 prior years of data")
     private Map<Integer, PriorYearDataDTO> priorYearData;
     
+    /**
+     * How the NOL is spread across prior years (defaults to FIFO).
+     */
+    private CarrybackAllocationStrategy allocationStrategy;
+    
+    /**
+     * When true, return the refund schedule without persisting the election.
+     */
+    private Boolean dryRun;
+    
     /**
      * Prior year tax data DTO.
      */
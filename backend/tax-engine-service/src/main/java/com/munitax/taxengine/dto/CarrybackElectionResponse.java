@@ -28,6 +28,8 @@ public class CarrybackElectionResponse {
     private BigDecimal totalNOLCarriedBack;
     private BigDecimal totalRefund;
     private BigDecimal remainingNOL;
+    private String allocationStrategy;
+    private Boolean dryRun;
     
     private List<CarrybackYearDetail> carrybackDetails;
     
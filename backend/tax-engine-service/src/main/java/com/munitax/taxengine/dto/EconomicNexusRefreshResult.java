@@ -0,0 +1,64 @@
+package com.munitax.taxengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO summarizing a bulk economic nexus refresh over all businesses' sale transactions.
+ *
+ * Only nexus tracking rows whose status, reasons or in-state sales/transaction totals changed
+ * are written; a NEXUS_CHANGED audit entry is written for every row whose nexus status flipped.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EconomicNexusRefreshResult {
+
+    /**
+     * Tax year refreshed.
+     */
+    private Integer taxYear;
+
+    /**
+     * Number of businesses with sale transactions in the tax year.
+     */
+    private int businessesEvaluated;
+
+    /**
+     * Number of business/state pairs evaluated against the economic nexus thresholds.
+     */
+    private int statesEvaluated;
+
+    /**
+     * Number of nexus tracking rows created.
+     */
+    private int rowsCreated;
+
+    /**
+     * Number of existing nexus tracking rows updated.
+     */
+    private int rowsUpdated;
+
+    /**
+     * Number of business/state pairs that gained nexus.
+     */
+    private int nexusEstablished;
+
+    /**
+     * Number of business/state pairs that lost nexus.
+     */
+    private int nexusTerminated;
+
+    /**
+     * Number of sale transactions in the tax year with no business, left out of the refresh.
+     */
+    private long unattributedTransactions;
+
+    /**
+     * Wall-clock duration of the refresh in milliseconds.
+     */
+    private long durationMs;
+}
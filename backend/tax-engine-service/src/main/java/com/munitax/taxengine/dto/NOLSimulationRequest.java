@@ -0,0 +1,87 @@
+package com.munitax.taxengine.dto;
+
+import com.munitax.taxengine.domain.nol.Jurisdiction;
+import com.munitax.taxengine.domain.nol.NOLOrderingMethod;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request DTO for simulating NOL utilization over projected future years.
+ * 
+ * Multiple scenarios can be submitted in one request; the NOL vintage ledger is
+ * loaded once and every scenario is evaluated in memory without database writes.
+ * 
+ * @see com.munitax.taxengine.domain.nol.NOLVintageLedger
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NOLSimulationRequest {
+    
+    @NotNull(message = "Business ID is required")
+    private UUID businessId;
+    
+    private Jurisdiction jurisdiction;
+    
+    @NotEmpty(message = "At least one scenario is required")
+    @Size(max = 500, message = "At most 500 scenarios per request")
+    @Valid
+    private List<ScenarioDTO> scenarios;
+    
+    /**
+     * A single what-if scenario.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ScenarioDTO {
+        
+        private String name;
+        
+        /**
+         * Vintage ordering method (defaults to FIFO).
+         */
+        private NOLOrderingMethod orderingMethod;
+        
+        /**
+         * Vintage tax years to consume first when orderingMethod = MANUAL_OVERRIDE.
+         */
+        private List<Integer> manualVintageOrder;
+        
+        @NotEmpty(message = "At least one projected year is required")
+        @Size(max = 50, message = "At most 50 projected years per scenario")
+        @Valid
+        private List<ProjectedYearDTO> projectedYears;
+    }
+    
+    /**
+     * Projected taxable income for one year (negative for a projected loss).
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ProjectedYearDTO {
+        
+        @NotNull(message = "Tax year is required")
+        @Min(value = 2000, message = "Tax year must be >= 2000")
+        private Integer taxYear;
+        
+        @NotNull(message = "Taxable income is required")
+        private BigDecimal taxableIncome;
+        
+        @DecimalMin(value = "0.00", message = "Tax rate must be >= 0")
+        @DecimalMax(value = "100.00", message = "Tax rate must be <= 100")
+        private BigDecimal taxRate;
+    }
+}
@@ -0,0 +1,80 @@
+package com.munitax.taxengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for NOL utilization simulation.
+ * 
+ * Contains a projected NOL schedule per scenario. Nothing is persisted.
+ * 
+ * @see com.munitax.taxengine.domain.nol.NOLVintageLedger
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NOLSimulationResponse {
+    
+    private UUID businessId;
+    private String jurisdiction;
+    
+    private List<ScenarioResult> scenarios;
+    
+    /**
+     * Simulation outcome for one scenario.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ScenarioResult {
+        private String name;
+        private String orderingMethod;
+        private BigDecimal totalNOLDeduction;
+        private BigDecimal totalTaxSavings;
+        private BigDecimal totalExpired;
+        private BigDecimal endingBalance;
+        private List<YearResult> years;
+    }
+    
+    /**
+     * Projected NOL schedule line for one year.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class YearResult {
+        private Integer taxYear;
+        private BigDecimal taxableIncomeBeforeNOL;
+        private BigDecimal beginningBalance;
+        private BigDecimal newNOLGenerated;
+        private BigDecimal expiredNOL;
+        private BigDecimal limitationPercentage;
+        private BigDecimal nolDeduction;
+        private BigDecimal taxableIncomeAfterNOL;
+        private BigDecimal taxSavings;
+        private BigDecimal endingBalance;
+        private List<VintageUsage> vintageUsages;
+    }
+    
+    /**
+     * Amount drawn from one vintage in a projected year.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class VintageUsage {
+        private Integer vintageYear;
+        private BigDecimal amountUsed;
+        private BigDecimal remainingBalance;
+    }
+}
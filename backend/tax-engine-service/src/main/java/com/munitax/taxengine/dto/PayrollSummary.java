@@ -0,0 +1,40 @@
+package com.munitax.taxengine.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * PayrollSummary - Annual payroll for one business derived from its W-1 filings.
+ *
+ * Amounts exclude filings superseded by an amended W-1.
+ *
+ * @param businessId Business profile ID
+ * @param taxYear Tax year
+ * @param ohioPayroll Wages subject to municipal withholding (sum of W-1 taxable wages)
+ * @param totalPayroll Wages paid to all employees (sum of W-1 gross wages)
+ * @param employeeCount Highest employee count reported on a W-1 for the year
+ * @param filingCount Number of W-1 filings summarized (0 if none)
+ */
+public record PayrollSummary(
+    UUID businessId,
+    Integer taxYear,
+    BigDecimal ohioPayroll,
+    BigDecimal totalPayroll,
+    int employeeCount,
+    long filingCount
+) {
+
+    /**
+     * Summary for a business with no W-1 filings in the tax year.
+     */
+    public static PayrollSummary empty(UUID businessId, Integer taxYear) {
+        return new PayrollSummary(businessId, taxYear, BigDecimal.ZERO, BigDecimal.ZERO, 0, 0);
+    }
+
+    /**
+     * @return true if at least one W-1 filing was summarized
+     */
+    public boolean hasData() {
+        return filingCount > 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.munitax.taxengine.dto;
+
+import com.munitax.taxengine.domain.document.PdfDocumentType;
+import com.munitax.taxengine.domain.document.PdfJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO describing a queued PDF generation job.
+ *
+ * Returned immediately when a document is requested; poll GET /api/pdf-jobs/{jobId}
+ * until status is COMPLETED (pdfPath set) or FAILED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PdfGenerationJobResponse {
+
+    /**
+     * Job ID used to poll for status.
+     */
+    private UUID jobId;
+
+    private PdfDocumentType documentType;
+
+    /**
+     * Source entity the document is generated for (e.g. abatement ID).
+     */
+    private UUID referenceId;
+
+    private PdfJobStatus status;
+
+    /**
+     * True if an identical request was already queued, running or completed and its job was returned.
+     */
+    private boolean deduplicated;
+
+    /**
+     * Path to the generated PDF (COMPLETED only).
+     */
+    private String pdfPath;
+
+    /**
+     * Last failure reason (FAILED, or QUEUED awaiting retry).
+     */
+    private String errorMessage;
+
+    private int attempts;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime completedAt;
+}
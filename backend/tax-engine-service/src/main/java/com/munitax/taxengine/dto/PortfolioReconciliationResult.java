@@ -0,0 +1,71 @@
+package com.munitax.taxengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * DTO summarizing a portfolio-wide (all employers) withholding reconciliation run.
+ *
+ * Individual issues are not returned; per-employer results are persisted to
+ * withholding_reconciliations and can be re-run per employer via the reconciliation endpoint.
+ *
+ * @see ReconciliationIssue
+ * @see com.munitax.taxengine.domain.withholding.WithholdingReconciliation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioReconciliationResult {
+
+    /**
+     * Tax year reconciled.
+     */
+    private Integer taxYear;
+
+    /**
+     * Number of partitions (business ID ranges) processed in parallel.
+     */
+    private int partitions;
+
+    /**
+     * Number of partitions that failed (their employers were not reconciled).
+     */
+    private int failedPartitions;
+
+    /**
+     * Number of employers reconciled (W-1 filings and/or W-2 totals).
+     */
+    private int employersReconciled;
+
+    /**
+     * Number of WithholdingReconciliation rows created or updated.
+     */
+    private int reconciliationsWritten;
+
+    /**
+     * Number of employers whose W-1 vs W-2 variance exceeds the threshold.
+     */
+    private int discrepancyCount;
+
+    /**
+     * Total reconciliation issues found.
+     */
+    private int issueCount;
+
+    /**
+     * Issue counts by type.
+     */
+    @Builder.Default
+    private Map<ReconciliationIssue.IssueType, Integer> issuesByType = new EnumMap<>(ReconciliationIssue.IssueType.class);
+
+    /**
+     * Wall-clock duration of the run in milliseconds.
+     */
+    private long durationMs;
+}
@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -27,6 +28,17 @@ public class SaleTransactionDto {
      */
     private UUID id;
 
+    /**
+     * Date of the sale (required for imported transactions).
+     */
+    private LocalDate transactionDate;
+
+    /**
+     * Customer name, if known.
+     */
+    @Size(max = 255, message = "Customer name cannot exceed 255 characters")
+    private String customerName;
+
     /**
      * Type of sale (tangible goods, service, rental, interest, royalty).
      */
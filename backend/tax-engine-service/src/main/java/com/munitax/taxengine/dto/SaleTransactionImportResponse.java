@@ -0,0 +1,103 @@
+package com.munitax.taxengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for streaming sale transaction import results.
+ *
+ * Rows are processed independently: a rejected row is reported in {@code errors}
+ * and does not prevent the remaining rows from being imported.
+ *
+ * @see SaleTransactionDto
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaleTransactionImportResponse {
+
+    /**
+     * Sales factor the transactions were imported into.
+     */
+    private UUID salesFactorId;
+
+    /**
+     * Number of data rows read (excluding CSV header and blank lines).
+     */
+    private int totalRows;
+
+    /**
+     * Number of sale transactions created.
+     */
+    private int importedCount;
+
+    /**
+     * Number of rows rejected.
+     */
+    private int errorCount;
+
+    /**
+     * Number of imported sales thrown back to Ohio (destination state without nexus).
+     */
+    private int throwbackCount;
+
+    /**
+     * Number of imported sales thrown out (excluded from numerator and denominator).
+     */
+    private int throwoutCount;
+
+    /**
+     * Ohio-sourced amount added by this import (destination Ohio plus throwback).
+     */
+    @Builder.Default
+    private BigDecimal ohioSourcedAmount = BigDecimal.ZERO;
+
+    /**
+     * Throwback amount added by this import.
+     */
+    @Builder.Default
+    private BigDecimal throwbackAmount = BigDecimal.ZERO;
+
+    /**
+     * Sales factor percentage after the import.
+     */
+    private BigDecimal salesFactorPercentage;
+
+    /**
+     * Per-row errors, in input order.
+     */
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Error for a single input row.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        /**
+         * 1-based data row number (CSV header not counted).
+         */
+        private int rowNumber;
+
+        /**
+         * Transaction reference from the row, if present.
+         */
+        private String transactionReference;
+
+        /**
+         * Reason the row was rejected.
+         */
+        private String message;
+    }
+}
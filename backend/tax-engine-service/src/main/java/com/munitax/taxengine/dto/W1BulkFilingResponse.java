@@ -0,0 +1,75 @@
+package com.munitax.taxengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for bulk W-1 ingestion results.
+ * 
+ * Rows are processed independently: a rejected row (invalid data, duplicate period)
+ * is reported in {@code errors} and does not prevent the remaining rows from being filed.
+ * 
+ * @see W1FilingRequest
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class W1BulkFilingResponse {
+    
+    /**
+     * Number of data rows read (excluding CSV header and blank lines).
+     */
+    private int totalRows;
+    
+    /**
+     * Number of W-1 filings created.
+     */
+    private int filedCount;
+    
+    /**
+     * Number of rows rejected.
+     */
+    private int errorCount;
+    
+    /**
+     * Per-row errors, in input order.
+     */
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+    
+    /**
+     * Error for a single input row.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        /**
+         * 1-based data row number (CSV header not counted).
+         */
+        private int rowNumber;
+        
+        /**
+         * Business ID from the row, if it could be parsed.
+         */
+        private UUID businessId;
+        
+        /**
+         * Period from the row, if present.
+         */
+        private String period;
+        
+        /**
+         * Reason the row was rejected.
+         */
+        private String message;
+    }
+}
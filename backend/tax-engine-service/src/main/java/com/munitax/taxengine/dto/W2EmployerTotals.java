@@ -0,0 +1,96 @@
+package com.munitax.taxengine.dto;
+
+import com.munitax.taxengine.model.W2Form;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * DTO carrying the W-2 totals reported for one employer and tax year.
+ *
+ * Used to reconcile W-1 filings against W-2s without passing every W-2 form:
+ * - federalWages: sum of W-2 Box 1
+ * - localWages: sum of W-2 Box 18
+ * - localTaxWithheld: sum of W-2 Box 19
+ *
+ * @see ReconciliationIssue
+ * @see com.munitax.taxengine.domain.withholding.WithholdingReconciliation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class W2EmployerTotals {
+
+    /**
+     * Employer/Business ID the W-2s were issued by.
+     */
+    @NotNull(message = "Business ID is required")
+    private UUID businessId;
+
+    /**
+     * Tenant ID (optional; used when the employer has no W-1 filings for the year).
+     */
+    private UUID tenantId;
+
+    /**
+     * Sum of W-2 Box 1 (federal wages).
+     */
+    @Builder.Default
+    private BigDecimal federalWages = BigDecimal.ZERO;
+
+    /**
+     * Sum of W-2 Box 18 (local wages).
+     */
+    @Builder.Default
+    private BigDecimal localWages = BigDecimal.ZERO;
+
+    /**
+     * Sum of W-2 Box 19 (local tax withheld).
+     */
+    @Builder.Default
+    private BigDecimal localTaxWithheld = BigDecimal.ZERO;
+
+    /**
+     * Number of W-2 forms.
+     */
+    @Builder.Default
+    private Integer w2Count = 0;
+
+    /**
+     * Number of distinct employees on the W-2 forms.
+     */
+    @Builder.Default
+    private Integer employeeCount = 0;
+
+    /**
+     * Total the W-2 forms for one employer.
+     *
+     * @param businessId Employer/Business ID
+     * @param w2Forms W-2 forms issued by the employer
+     * @return W-2 totals
+     */
+    public static W2EmployerTotals fromForms(UUID businessId, List<W2Form> w2Forms) {
+        return W2EmployerTotals.builder()
+            .businessId(businessId)
+            .federalWages(sum(w2Forms.stream().map(W2Form::federalWages).toList()))
+            .localWages(sum(w2Forms.stream().map(W2Form::localWages).toList()))
+            .localTaxWithheld(sum(w2Forms.stream().map(W2Form::localWithheld).toList()))
+            .w2Count(w2Forms.size())
+            .employeeCount((int) w2Forms.stream().map(W2Form::employee).filter(Objects::nonNull).distinct().count())
+            .build();
+    }
+
+    private static BigDecimal sum(List<Double> values) {
+        return values.stream()
+            .map(value -> value != null ? BigDecimal.valueOf(value) : BigDecimal.ZERO)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
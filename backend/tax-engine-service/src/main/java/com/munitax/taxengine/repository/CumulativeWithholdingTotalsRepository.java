@@ -2,8 +2,14 @@ package com.munitax.taxengine.repository;
 
 import com.munitax.taxengine.domain.withholding.CumulativeWithholdingTotals;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,7 +24,7 @@ import java.util.UUID;
  * 
  * Update Strategy:
  * - INSERT when first W-1 filed for business + tax year
- * - UPDATE on W1FiledEvent (event-driven architecture)
+ * - UPDATE on W1FiledEvent, in the filing transaction (row locked)
  * - CASCADE UPDATE when W-1 amended (Research R3)
  * 
  * @see CumulativeWithholdingTotals
@@ -51,4 +57,57 @@ public interface CumulativeWithholdingTotalsRepository extends JpaRepository<Cum
      * @return true if record exists
      */
     boolean existsByBusinessIdAndTaxYear(UUID businessId, Integer taxYear);
+    
+    /**
+     * Find cumulative totals for business + tax year, locking the row for the rest of the transaction.
+     * 
+     * Used for:
+     * - Applying W-1 filings in the filing transaction; concurrent filings for the same
+     *   business + year wait for each other instead of failing on the optimistic lock
+     * 
+     * @param businessId Business profile ID
+     * @param taxYear Tax year
+     * @return Optional locked cumulative totals
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CumulativeWithholdingTotals t WHERE t.businessId = :businessId AND t.taxYear = :taxYear")
+    Optional<CumulativeWithholdingTotals> findByBusinessIdAndTaxYearForUpdate(@Param("businessId") UUID businessId,
+                                                                             @Param("taxYear") Integer taxYear);
+    
+    /**
+     * Create the empty totals row for business + tax year unless it exists.
+     * A concurrent insert of the same row does not fail (and abort) the filing transaction.
+     * 
+     * @param tenantId Tenant ID
+     * @param businessId Business profile ID
+     * @param taxYear Tax year
+     * @return 1 if created, 0 if the row already existed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dublin.cumulative_withholding_totals (tenant_id, business_id, tax_year) " +
+                   "VALUES (:tenantId, :businessId, :taxYear) ON CONFLICT (business_id, tax_year) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("tenantId") UUID tenantId,
+                       @Param("businessId") UUID businessId,
+                       @Param("taxYear") Integer taxYear);
+    
+    /**
+     * Record that a W-1 filing has been applied to the cumulative totals.
+     * Runs in the same transaction as the totals update, so a filing is counted exactly once.
+     * 
+     * Used for:
+     * - Idempotent W1FiledEvent handling (redelivery, retries of a rolled-back filing transaction)
+     * 
+     * @param filingId W-1 filing ID (event ID)
+     * @param businessId Business profile ID
+     * @param taxYear Tax year
+     * @return 1 if recorded, 0 if the filing was already applied
+     */
+    @Modifying
+    @Query(value = "INSERT INTO dublin.cumulative_withholding_applied_filings (filing_id, business_id, tax_year) " +
+                   "VALUES (:filingId, :businessId, :taxYear) ON CONFLICT (filing_id) DO NOTHING",
+           nativeQuery = true)
+    int markFilingApplied(@Param("filingId") UUID filingId,
+                          @Param("businessId") UUID businessId,
+                          @Param("taxYear") Integer taxYear);
 }
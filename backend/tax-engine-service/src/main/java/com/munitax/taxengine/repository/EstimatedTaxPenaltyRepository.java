@@ -159,4 +159,18 @@ public interface EstimatedTaxPenaltyRepository extends JpaRepository<EstimatedTa
      * @return List of estimated tax penalties for the tax year
      */
     List<EstimatedTaxPenalty> findByTenantIdAndTaxYear(UUID tenantId, int taxYear);
+
+    /**
+     * Find the annual tax liability recorded for every tenant in a tax year.
+     * Rows are ordered oldest first; the first row per tenant is the recorded liability.
+     *
+     * Used for:
+     * - Bulk preload of prior-year liabilities for safe harbor evaluation
+     *
+     * @param taxYear the tax year
+     * @return rows of [tenantId (UUID), annualTaxLiability (BigDecimal)]
+     */
+    @Query("SELECT e.tenantId, e.annualTaxLiability FROM EstimatedTaxPenalty e " +
+           "WHERE e.taxYear = :taxYear ORDER BY e.createdAt ASC")
+    List<Object[]> findAnnualTaxLiabilitiesByTaxYear(@Param("taxYear") int taxYear);
 }
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -89,4 +90,34 @@ public interface NOLCarrybackRepository extends JpaRepository<NOLCarryback, UUID
      */
     @Query("SELECT c FROM NOLCarryback c JOIN NOL n ON c.nolId = n.id WHERE n.businessId = :businessId AND c.carrybackYear = :carrybackYear")
     List<NOLCarryback> findByBusinessIdAndCarrybackYear(@Param("businessId") UUID businessId, @Param("carrybackYear") Integer carrybackYear);
+    
+    /**
+     * Find all carryback records for every NOL of a business.
+     * Ordered by carryback year (oldest first).
+     * 
+     * Used for:
+     * - In-memory NOL vintage ledger
+     * - Carryback history display without per-NOL lookups
+     * 
+     * @param businessId Business profile ID (via join)
+     * @return List of carryback records
+     */
+    @Query("SELECT c FROM NOLCarryback c JOIN NOL n ON c.nolId = n.id WHERE n.businessId = :businessId ORDER BY c.carrybackYear ASC")
+    List<NOLCarryback> findByBusinessIdOrderByCarrybackYearAsc(@Param("businessId") UUID businessId);
+    
+    /**
+     * Find non-denied carryback records for a business across several carryback years.
+     * Shows how much prior-year income and tax paid are already absorbed by other NOLs.
+     * 
+     * Used for:
+     * - Batch prior-year lookup during carryback evaluation (FR-015, FR-016)
+     * 
+     * @param businessId Business profile ID (via join)
+     * @param carrybackYears Years to which NOLs may be carried back
+     * @return List of carryback records
+     */
+    @Query("SELECT c FROM NOLCarryback c JOIN NOL n ON c.nolId = n.id WHERE n.businessId = :businessId " +
+           "AND c.carrybackYear IN :carrybackYears AND c.refundStatus <> com.munitax.taxengine.domain.nol.RefundStatus.DENIED")
+    List<NOLCarryback> findActiveByBusinessIdAndCarrybackYearIn(@Param("businessId") UUID businessId,
+                                                                @Param("carrybackYears") Collection<Integer> carrybackYears);
 }
@@ -1,5 +1,6 @@
 package com.munitax.taxengine.repository;
 
+import com.munitax.taxengine.domain.nol.AlertSeverityLevel;
 import com.munitax.taxengine.domain.nol.EntityType;
 import com.munitax.taxengine.domain.nol.Jurisdiction;
 import com.munitax.taxengine.domain.nol.NOL;
@@ -158,4 +159,25 @@ public interface NOLRepository extends JpaRepository<NOL, UUID> {
      */
     @Query("SELECT n FROM NOL n WHERE n.businessId = :businessId AND n.expirationDate IS NOT NULL AND n.expirationDate < CURRENT_DATE ORDER BY n.taxYear ASC")
     List<NOL> findExpiredNOLs(@Param("businessId") UUID businessId);
+    
+    /**
+     * Find NOLs with remaining balance expiring within a date window that have no
+     * expiration alert at the given severity yet (anti-join on nol_expiration_alerts).
+     * Served by the partial index idx_nol_expiring_balance.
+     * 
+     * Used for:
+     * - Scheduled expiration alert generation across all businesses (FR-024)
+     * 
+     * @param fromDate Window start (exclusive)
+     * @param toDate Window end (inclusive)
+     * @param severityLevel Severity that alerts in this window are raised at
+     * @return NOLs needing a new alert, ordered by expiration date
+     */
+    @Query("SELECT n FROM NOL n WHERE n.expirationDate > :fromDate AND n.expirationDate <= :toDate " +
+           "AND n.currentNOLBalance > 0 " +
+           "AND NOT EXISTS (SELECT 1 FROM NOLExpirationAlert a WHERE a.nolId = n.id AND a.severityLevel = :severityLevel) " +
+           "ORDER BY n.expirationDate ASC")
+    List<NOL> findExpiringNOLsWithoutAlert(@Param("fromDate") LocalDate fromDate,
+                                           @Param("toDate") LocalDate toDate,
+                                           @Param("severityLevel") AlertSeverityLevel severityLevel);
 }
@@ -75,4 +75,19 @@ public interface NOLUsageRepository extends JpaRepository<NOLUsage, UUID> {
      */
     @Query("SELECT u FROM NOLUsage u JOIN NOL n ON u.nolId = n.id WHERE n.businessId = :businessId AND u.usageYear = :usageYear")
     List<NOLUsage> findByBusinessIdAndUsageYear(@Param("businessId") UUID businessId, @Param("usageYear") Integer usageYear);
+    
+    /**
+     * Load every NOL vintage for a business together with its usage history in a single query.
+     * Each row is {@code [NOL, NOLUsage]}; the usage is null for vintages that were never used.
+     * Rows are ordered by vintage tax year then usage year.
+     * 
+     * Used for:
+     * - In-memory NOL vintage ledger (FR-002, FR-022)
+     * - Vintage breakdown without per-NOL usage lookups (FR-004)
+     * 
+     * @param businessId Business profile ID
+     * @return List of {@code [NOL, NOLUsage]} rows
+     */
+    @Query("SELECT n, u FROM NOL n LEFT JOIN NOLUsage u ON u.nolId = n.id WHERE n.businessId = :businessId ORDER BY n.taxYear ASC, u.usageYear ASC")
+    List<Object[]> findVintagesWithUsagesByBusinessId(@Param("businessId") UUID businessId);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,16 +29,30 @@ public interface NexusTrackingRepository extends JpaRepository<NexusTracking, UU
     List<NexusTracking> findByBusinessIdAndTenantId(UUID businessId, UUID tenantId);
 
     /**
-     * Find nexus record for a business in a specific state.
+     * Find the state-level nexus record for a business in a specific state for the latest tax year
+     * it was determined. A business has one record per state and tax year.
      *
      * @param businessId the business ID
      * @param state      the state code (e.g., "OH", "CA", "NY")
      * @param tenantId   the tenant ID for multi-tenant isolation
-     * @return Optional containing the nexus record if found
+     * @return Optional containing the latest nexus record if found
      */
-    Optional<NexusTracking> findByBusinessIdAndStateAndTenantId(
+    Optional<NexusTracking> findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(
             UUID businessId, String state, UUID tenantId);
 
+    /**
+     * Find the state-level nexus records (no municipality) of a business for one tax year.
+     *
+     * Used for: nexus snapshots taken for a Schedule Y sourcing run
+     *
+     * @param businessId the business ID
+     * @param tenantId   the tenant ID for multi-tenant isolation
+     * @param taxYear    the tax year
+     * @return List of nexus tracking records for the year
+     */
+    List<NexusTracking> findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(
+            UUID businessId, UUID tenantId, Integer taxYear);
+
     /**
      * Find all states where a business has nexus.
      *
@@ -115,4 +130,35 @@ public interface NexusTrackingRepository extends JpaRepository<NexusTracking, UU
     long countNexusStates(
             @Param("businessId") UUID businessId,
             @Param("tenantId") UUID tenantId);
+
+    /**
+     * Find state-level nexus records (no municipality) for many businesses in one tax year,
+     * with their nexus reasons fetched in the same query.
+     *
+     * Used for: bulk economic nexus refresh (compare against transaction aggregates, write only changes)
+     *
+     * @param taxYear     the tax year
+     * @param businessIds the business IDs
+     * @return List of nexus tracking records
+     */
+    @Query("SELECT DISTINCT n FROM NexusTracking n LEFT JOIN FETCH n.nexusReasons " +
+           "WHERE n.taxYear = :taxYear AND n.municipality IS NULL AND n.businessId IN :businessIds")
+    List<NexusTracking> findStateRecordsByTaxYearAndBusinessIdIn(
+            @Param("taxYear") Integer taxYear,
+            @Param("businessIds") Collection<UUID> businessIds);
+
+    /**
+     * Find the businesses with state-level economic nexus in a tax year.
+     *
+     * Used for: bulk economic nexus refresh, so economic nexus is re-evaluated even for a
+     * business with no sales in the year
+     *
+     * @param taxYear the tax year
+     * @return List of distinct business IDs
+     */
+    @Query("SELECT DISTINCT n.businessId FROM NexusTracking n WHERE n.taxYear = :taxYear " +
+           "AND n.municipality IS NULL AND :nexusReason MEMBER OF n.nexusReasons")
+    List<UUID> findBusinessIdsByTaxYearAndNexusReason(
+            @Param("taxYear") Integer taxYear,
+            @Param("nexusReason") NexusReason nexusReason);
 }
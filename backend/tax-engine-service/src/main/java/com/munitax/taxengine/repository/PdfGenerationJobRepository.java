@@ -0,0 +1,64 @@
+package com.munitax.taxengine.repository;
+
+import com.munitax.taxengine.domain.document.PdfGenerationJob;
+import com.munitax.taxengine.domain.document.PdfJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for the durable PDF generation job queue.
+ */
+@Repository
+public interface PdfGenerationJobRepository extends JpaRepository<PdfGenerationJob, UUID> {
+
+    /**
+     * Find the live (QUEUED or RUNNING) job for an identical request.
+     *
+     * @param tenantId  the tenant ID
+     * @param dedupeKey hash of document type + payload
+     * @return live job, if any
+     */
+    @Query("SELECT j FROM PdfGenerationJob j WHERE j.tenantId = :tenantId AND j.dedupeKey = :dedupeKey " +
+           "AND j.status IN (com.munitax.taxengine.domain.document.PdfJobStatus.QUEUED, " +
+           "com.munitax.taxengine.domain.document.PdfJobStatus.RUNNING)")
+    Optional<PdfGenerationJob> findLiveJob(@Param("tenantId") UUID tenantId, @Param("dedupeKey") String dedupeKey);
+
+    Optional<PdfGenerationJob> findByJobIdAndTenantId(UUID jobId, UUID tenantId);
+
+    /**
+     * Lock the oldest queued jobs for claiming. Rows locked by another instance are skipped,
+     * so concurrent dispatchers never claim the same job.
+     *
+     * @param limit maximum number of jobs to claim
+     * @return IDs of the locked jobs (must be called inside a transaction)
+     */
+    @Query(value = """
+        SELECT job_id FROM pdf_generation_jobs
+        WHERE status = 'QUEUED'
+        ORDER BY created_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<UUID> lockQueuedJobIds(@Param("limit") int limit);
+
+    /**
+     * Return jobs left RUNNING by a stopped instance to the queue.
+     *
+     * @param startedBefore jobs started before this time are considered abandoned
+     * @return number of jobs re-queued
+     */
+    @Modifying
+    @Query("UPDATE PdfGenerationJob j SET j.status = com.munitax.taxengine.domain.document.PdfJobStatus.QUEUED " +
+           "WHERE j.status = com.munitax.taxengine.domain.document.PdfJobStatus.RUNNING AND j.startedAt < :startedBefore")
+    int requeueAbandoned(@Param("startedBefore") LocalDateTime startedBefore);
+
+    long countByStatus(PdfJobStatus status);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -109,4 +110,54 @@ public interface SaleTransactionRepository extends JpaRepository<SaleTransaction
     @Query("SELECT st FROM SaleTransaction st WHERE st.salesFactor.salesFactorId = :salesFactorId " +
            "AND st.saleType = 'SERVICE' AND st.customerState IS NOT NULL")
     List<SaleTransaction> findServiceTransactions(@Param("salesFactorId") UUID salesFactorId);
+
+    /**
+     * Find the businesses with attributed sale transactions in a tax year, on Schedule Ys that no
+     * amendment supersedes.
+     *
+     * Used for: selecting the businesses covered by a bulk economic nexus refresh
+     *
+     * @param taxYear the tax year (Schedule Y tax year)
+     * @return List of distinct business IDs
+     */
+    @Query("SELECT DISTINCT st.businessId FROM SaleTransaction st JOIN st.salesFactor sf JOIN sf.scheduleY sy " +
+           "WHERE sy.taxYear = :taxYear AND st.businessId IS NOT NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM ScheduleY newer WHERE newer.amendsScheduleYId = sy.scheduleYId)")
+    List<UUID> findDistinctBusinessIdsByTaxYear(@Param("taxYear") Integer taxYear);
+
+    /**
+     * Count sale transactions in a tax year, on Schedule Ys that no amendment supersedes, that are
+     * not attributed to a business.
+     *
+     * Used for: reporting the sales a bulk economic nexus refresh cannot cover
+     *
+     * @param taxYear the tax year (Schedule Y tax year)
+     * @return Count of transactions with no business ID
+     */
+    @Query("SELECT COUNT(st) FROM SaleTransaction st JOIN st.salesFactor sf JOIN sf.scheduleY sy " +
+           "WHERE sy.taxYear = :taxYear AND st.businessId IS NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM ScheduleY newer WHERE newer.amendsScheduleYId = sy.scheduleYId)")
+    long countUnattributedByTaxYear(@Param("taxYear") Integer taxYear);
+
+    /**
+     * Aggregate sales and transaction counts per business, tenant and destination state for a tax year,
+     * leaving out Schedule Ys superseded by an amendment (amendsScheduleYId). Grouped by Schedule Y as
+     * well, with its creation date, so callers can keep only a business's latest Schedule Y and
+     * attribute audit entries to it; a business with several Schedule Ys for the year yields one row
+     * per Schedule Y and state.
+     *
+     * Used for: set-based economic nexus determination, one batch of businesses at a time
+     *
+     * @param taxYear     the tax year (Schedule Y tax year)
+     * @param businessIds the business IDs
+     * @return List of [businessId, tenantId, destinationState, scheduleYId, SUM(saleAmount), COUNT, createdDate]
+     */
+    @Query("SELECT st.businessId, sy.tenantId, st.destinationState, sy.scheduleYId, SUM(st.saleAmount), COUNT(st), " +
+           "sy.createdDate " +
+           "FROM SaleTransaction st JOIN st.salesFactor sf JOIN sf.scheduleY sy " +
+           "WHERE sy.taxYear = :taxYear AND st.businessId IN :businessIds AND st.destinationState IS NOT NULL " +
+           "AND NOT EXISTS (SELECT 1 FROM ScheduleY newer WHERE newer.amendsScheduleYId = sy.scheduleYId) " +
+           "GROUP BY st.businessId, sy.tenantId, st.destinationState, sy.scheduleYId, sy.createdDate")
+    List<Object[]> findEconomicNexusAggregates(@Param("taxYear") Integer taxYear,
+                                               @Param("businessIds") Collection<UUID> businessIds);
 }
@@ -1,7 +1,9 @@
 package com.munitax.taxengine.repository;
 
 import com.munitax.taxengine.domain.apportionment.SalesFactor;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -27,6 +29,18 @@ public interface SalesFactorRepository extends JpaRepository<SalesFactor, UUID>
        @Query("SELECT sf FROM SalesFactor sf WHERE sf.scheduleY.scheduleYId = :scheduleYId")
        Optional<SalesFactor> findByScheduleY_ScheduleYId(@Param("scheduleYId") UUID scheduleYId);
 
+    /**
+     * Find sales factor by ID, locking the row for the rest of the transaction.
+     * Used for: incremental aggregate updates during sale transaction imports,
+     * so concurrent import chunks do not overwrite each other's totals.
+     *
+     * @param salesFactorId the sales factor ID
+     * @return Optional containing the locked sales factor if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sf FROM SalesFactor sf WHERE sf.salesFactorId = :salesFactorId")
+    Optional<SalesFactor> findByIdForUpdate(@Param("salesFactorId") UUID salesFactorId);
+
     /**
      * Find all sales factors for a tenant.
      *
@@ -3,11 +3,15 @@ package com.munitax.taxengine.repository;
 import com.munitax.taxengine.domain.withholding.W1Filing;
 import com.munitax.taxengine.domain.withholding.W1FilingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +31,18 @@ import java.util.UUID;
 @Repository
 public interface W1FilingRepository extends JpaRepository<W1Filing, UUID> {
     
+    /**
+     * Find a W-1 filing by ID, locking the row for the rest of the transaction.
+     * Used for: amendments, so two concurrent amendments of the same filing cannot both
+     * supersede it.
+     * 
+     * @param id W-1 filing ID
+     * @return Optional containing the locked filing if found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM W1Filing f WHERE f.id = :id")
+    Optional<W1Filing> findByIdForUpdate(@Param("id") UUID id);
+    
     /**
      * Find all W-1 filings for a business in a specific tax year.
      * Ordered by period end date ascending (Q1 → Q2 → Q3 → Q4).
@@ -119,4 +135,73 @@ public interface W1FilingRepository extends JpaRepository<W1Filing, UUID> {
      * @return Count of filings
      */
     long countByBusinessIdAndTaxYearAndIsAmended(UUID businessId, Integer taxYear, Boolean isAmended);
+    
+    /**
+     * Find the (business, tax year, period) keys already filed for a set of businesses.
+     * Over-fetches across the business × year cross product; callers match exact keys in memory.
+     * 
+     * Used for:
+     * - Bulk W-1 ingestion: duplicate detection for a whole chunk in one query
+     * 
+     * @param businessIds Business profile IDs in the batch
+     * @param taxYears Tax years in the batch
+     * @return Rows of [businessId (UUID), taxYear (Integer), period (String)] for original (non-amended) filings
+     */
+    @Query("SELECT w.businessId, w.taxYear, w.period FROM W1Filing w " +
+           "WHERE w.isAmended = false AND w.businessId IN :businessIds AND w.taxYear IN :taxYears")
+    List<Object[]> findFiledPeriodKeys(@Param("businessIds") Collection<UUID> businessIds,
+                                       @Param("taxYears") Collection<Integer> taxYears);
+    
+    /**
+     * Find a tenant's distinct businesses with W-1 filings for a tax year, in business ID order.
+     * 
+     * Used for:
+     * - Portfolio reconciliation: splitting the tax year into business ID ranges (partitions)
+     * 
+     * @param tenantId Tenant ID
+     * @param taxYear Tax year
+     * @return Business profile IDs ordered ascending
+     */
+    @Query("SELECT DISTINCT w.businessId FROM W1Filing w WHERE w.tenantId = :tenantId AND w.taxYear = :taxYear " +
+           "ORDER BY w.businessId")
+    List<UUID> findDistinctBusinessIdsByTenantIdAndTaxYear(@Param("tenantId") UUID tenantId,
+                                                           @Param("taxYear") Integer taxYear);
+    
+    /**
+     * Find a tenant's W-1 filings for a tax year and a page of businesses, ordered by business then period.
+     * 
+     * Used for:
+     * - Portfolio reconciliation: one page of a partition's filers per transaction
+     * 
+     * @param tenantId Tenant ID
+     * @param taxYear Tax year
+     * @param businessIds Business profile IDs in the page
+     * @return Filings ordered by business ID, period
+     */
+    @Query("SELECT w FROM W1Filing w WHERE w.tenantId = :tenantId AND w.taxYear = :taxYear " +
+           "AND w.businessId IN :businessIds ORDER BY w.businessId, w.period")
+    List<W1Filing> findByTenantIdAndTaxYearAndBusinessIdIn(@Param("tenantId") UUID tenantId,
+                                                           @Param("taxYear") Integer taxYear,
+                                                           @Param("businessIds") Collection<UUID> businessIds);
+    
+    /**
+     * Summarize payroll per business for a tax year, excluding filings superseded by an amendment.
+     * 
+     * Used for:
+     * - Payroll factor auto-population (Schedule Y) without calling the withholding API over HTTP
+     * - Batch payroll lookups for many businesses in one query
+     * 
+     * @param tenantId Tenant ID
+     * @param businessIds Business profile IDs
+     * @param taxYear Tax year
+     * @return Rows of [businessId (UUID), taxable wages (BigDecimal), gross wages (BigDecimal),
+     *         max employee count (Integer), filing count (Long)]
+     */
+    @Query("SELECT w.businessId, SUM(w.taxableWages), SUM(w.grossWages), MAX(w.employeeCount), COUNT(w) " +
+           "FROM W1Filing w WHERE w.tenantId = :tenantId AND w.taxYear = :taxYear AND w.businessId IN :businessIds " +
+           "AND w.status <> com.munitax.taxengine.domain.withholding.W1FilingStatus.AMENDED " +
+           "GROUP BY w.businessId")
+    List<Object[]> summarizePayrollByBusiness(@Param("tenantId") UUID tenantId,
+                                              @Param("businessIds") Collection<UUID> businessIds,
+                                              @Param("taxYear") Integer taxYear);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -85,4 +86,18 @@ public interface WithholdingReconciliationRepository extends JpaRepository<Withh
      */
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM WithholdingReconciliation r WHERE r.businessId = :businessId AND r.taxYear = :taxYear AND r.status = :status")
     boolean hasUnresolvedReconciliation(@Param("businessId") UUID businessId, @Param("taxYear") Integer taxYear, @Param("status") ReconciliationStatus status);
+    
+    /**
+     * Find a tenant's existing reconciliations for a set of businesses in one tax year.
+     * 
+     * Used for:
+     * - Portfolio reconciliation: bulk upsert of a partition's results
+     * 
+     * @param tenantId Tenant ID
+     * @param taxYear Tax year
+     * @param businessIds Business profile IDs
+     * @return Existing reconciliations (at most one per business)
+     */
+    List<WithholdingReconciliation> findByTenantIdAndTaxYearAndBusinessIdIn(UUID tenantId, Integer taxYear,
+                                                                           Collection<UUID> businessIds);
 }
@@ -1,7 +1,7 @@
 package com.munitax.taxengine.service;
 
 import com.munitax.taxengine.domain.apportionment.ApportionmentFormula;
-import com.munitax.taxengine.repository.ApportionmentAuditLogRepository;
+import com.munitax.taxengine.service.audit.AuditLogWriteBehindService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,7 +22,7 @@ import java.util.UUID;
 public class ApportionmentService {
 
     private final FormulaConfigService formulaConfigService;
-    private final ApportionmentAuditLogRepository auditLogRepository;
+    private final AuditLogWriteBehindService auditLogWriteBehindService;
 
     private static final int SCALE = 4; // 4 decimal places for percentages
     private static final BigDecimal HUNDRED = new BigDecimal("100");
@@ -259,7 +259,7 @@ public class ApportionmentService {
         auditLog.setChangeReason(description);
         auditLog.setChangedBy(MOCK_USER_ID);
 
-        auditLogRepository.save(auditLog);
+        auditLogWriteBehindService.logApportionmentChange(auditLog);
         log.info("Audit log entry created: {} - {}", changeType, description);
     }
 
@@ -287,7 +287,7 @@ public class ApportionmentService {
         auditLog.setChangeReason(String.format("Election changed from %s to %s", oldValue, newValue));
         auditLog.setChangedBy(MOCK_USER_ID);
 
-        auditLogRepository.save(auditLog);
+        auditLogWriteBehindService.logApportionmentChange(auditLog);
         log.info("Election change logged: {} changed from {} to {}", fieldName, oldValue, newValue);
     }
 
@@ -0,0 +1,108 @@
+package com.munitax.taxengine.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader for CSV upload bodies (W-1 bulk filing, sale transaction import).
+ *
+ * The first record is the header; required columns are checked when the reader is created.
+ * Quoted fields may contain commas, doubled quotes and line breaks. Blank lines are skipped.
+ *
+ * A record with the wrong number of columns fails only that record. Malformed quoting ends the
+ * input: the failing record is reported and {@link #hasNext()} returns false afterwards, since the
+ * record boundaries after it cannot be trusted.
+ */
+final class CsvRecordReader {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .build();
+
+    private final MappingIterator<String[]> records;
+    private final String[] header;
+    private RuntimeException pendingError;
+    private boolean failed;
+
+    /**
+     * @param reader CSV input, read lazily
+     * @param requiredColumns columns the header must contain
+     * @throws IOException if the input cannot be read
+     * @throws IllegalArgumentException if the header is missing, malformed or lacks required columns
+     */
+    CsvRecordReader(Reader reader, List<String> requiredColumns) throws IOException {
+        this.records = CSV_MAPPER.readerFor(String[].class).readValues(reader);
+        String[] columns;
+        try {
+            columns = records.hasNextValue() ? records.nextValue() : null;
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Malformed CSV header: " + e.getMessage(), e);
+        }
+        if (columns == null || Arrays.stream(columns).allMatch(String::isBlank)) {
+            throw new IllegalArgumentException("CSV input must start with a header row");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].trim();
+        }
+        List<String> missing = requiredColumns.stream().filter(c -> !Arrays.asList(columns).contains(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing required columns: " + missing);
+        }
+        this.header = columns;
+    }
+
+    /**
+     * @return Header columns, trimmed
+     */
+    String[] getHeader() {
+        return header;
+    }
+
+    /**
+     * @return true if another record (or a record error) is available
+     */
+    boolean hasNext() {
+        if (failed) {
+            return false;
+        }
+        try {
+            return records.hasNextValue();
+        } catch (IOException | RuntimeException e) {
+            pendingError = new IllegalArgumentException("Malformed CSV: " + e.getMessage(), e);
+            return true;
+        }
+    }
+
+    /**
+     * Read the next record, one value per header column, untrimmed.
+     *
+     * @throws IllegalArgumentException if the record has the wrong number of columns or the
+     *         input is malformed (then nothing more is read)
+     */
+    String[] next() {
+        try {
+            if (pendingError != null) {
+                throw pendingError;
+            }
+            String[] values = records.nextValue();
+            if (values.length != header.length) {
+                throw new IllegalArgumentException(
+                    String.format("expected %d columns but found %d", header.length, values.length));
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            failed |= e == pendingError;
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw new IllegalArgumentException("Malformed CSV: " + e.getMessage(), e);
+        }
+    }
+}
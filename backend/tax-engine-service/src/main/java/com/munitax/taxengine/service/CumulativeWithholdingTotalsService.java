@@ -0,0 +1,151 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.withholding.CumulativeWithholdingTotals;
+import com.munitax.taxengine.domain.withholding.FilingFrequency;
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
+import com.munitax.taxengine.repository.CumulativeWithholdingTotalsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Service maintaining the cumulative withholding totals projection.
+ *
+ * Core Functions:
+ * - FR-002: Calculate cumulative YTD totals automatically on new W-1 filing
+ * - FR-003: Cascade amended W-1 changes into cumulative totals
+ * - FR-005: Project annual wages and maintain the on-track indicator
+ *
+ * Each {@link W1FiledEvent} is applied in the filing transaction, just before it commits, so the
+ * totals cannot drift from the filings: if the update fails, the filing is rolled back with it.
+ * 1. Record the filing ID as applied (no-op if already applied, making handling idempotent)
+ * 2. Create the business + tax year row if missing (insert-if-absent), then lock it
+ * 3. Add the event deltas to periods filed, wages, tax and adjustments
+ * 4. Recompute projected annual wages and the on-track indicator
+ * 5. Save; concurrent filings for the same business + year wait on the row lock
+ *
+ * YTD reads are a single-row lookup on (business_id, tax_year) instead of summing W-1 filings.
+ * Filings made before the projection existed were applied by the V65 backfill migration, which
+ * rebuilds the totals from w1_filings with the same rules and marks those filings applied.
+ *
+ * @see CumulativeWithholdingTotals
+ * @see W1FiledEvent
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CumulativeWithholdingTotalsService {
+
+    private static final BigDecimal ON_TRACK_TOLERANCE = new BigDecimal("0.15");
+
+    private final CumulativeWithholdingTotalsRepository totalsRepository;
+
+    /**
+     * Apply a W-1 filing or amendment to the cumulative totals before the filing commits.
+     * Runs in the filing transaction, so a failure here rolls back the filing instead of leaving
+     * the totals behind. W-1 filings are always saved in a transaction.
+     *
+     * @param event W-1 filed/amended event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onW1Filed(W1FiledEvent event) {
+        applyEvent(event);
+    }
+
+    /**
+     * Apply an event in the current transaction (or a new one when called outside a transaction).
+     *
+     * @param event W-1 filed/amended event
+     * @return true if applied, false if the filing had already been applied
+     */
+    @Transactional
+    public boolean applyEvent(W1FiledEvent event) {
+        if (totalsRepository.markFilingApplied(event.filingId(), event.businessId(), event.taxYear()) == 0) {
+            log.debug("W-1 filing {} already applied to cumulative totals", event.filingId());
+            return false;
+        }
+
+        totalsRepository.insertIfAbsent(event.tenantId(), event.businessId(), event.taxYear());
+        CumulativeWithholdingTotals totals = totalsRepository
+            .findByBusinessIdAndTaxYearForUpdate(event.businessId(), event.taxYear())
+            .orElseThrow(() -> new IllegalStateException(String.format(
+                "Cumulative totals missing for business %s tax year %d", event.businessId(), event.taxYear())));
+
+        totals.setPeriodsFiled(totals.getPeriodsFiled() + event.periodsDelta());
+        totals.setCumulativeWagesYtd(totals.getCumulativeWagesYtd().add(event.wagesDelta()));
+        totals.setCumulativeTaxYtd(totals.getCumulativeTaxYtd().add(event.taxDelta()));
+        totals.setCumulativeAdjustmentsYtd(totals.getCumulativeAdjustmentsYtd().add(event.adjustmentsDelta()));
+        if (event.filingDate() != null
+                && (totals.getLastFilingDate() == null || event.filingDate().isAfter(totals.getLastFilingDate()))) {
+            totals.setLastFilingDate(event.filingDate());
+        }
+        updateProjections(totals, event.filingFrequency());
+
+        totalsRepository.save(totals);
+
+        log.info("Applied W-1 filing {} to cumulative totals for business {} tax year {}: {} periods, wages YTD {}",
+                 event.filingId(), event.businessId(), event.taxYear(),
+                 totals.getPeriodsFiled(), totals.getCumulativeWagesYtd());
+        return true;
+    }
+
+    /**
+     * Get YTD cumulative totals for a business and tax year.
+     *
+     * @param businessId Business profile ID
+     * @param taxYear Tax year
+     * @return Cumulative totals (empty if no W-1 filed yet)
+     */
+    @Transactional(readOnly = true)
+    public Optional<CumulativeWithholdingTotals> getCumulativeTotals(UUID businessId, Integer taxYear) {
+        return totalsRepository.findByBusinessIdAndTaxYear(businessId, taxYear);
+    }
+
+    /**
+     * Recompute projected annual wages and the on-track indicator (FR-005).
+     * Projection: (cumulative wages / periods filed) × expected periods for the frequency.
+     * On track: projection within 15% of the estimated annual wages (true when no estimate).
+     */
+    private void updateProjections(CumulativeWithholdingTotals totals, FilingFrequency frequency) {
+        if (totals.getPeriodsFiled() <= 0 || frequency == null) {
+            totals.setProjectedAnnualWages(null);
+            totals.setOnTrackIndicator(true);
+            return;
+        }
+
+        BigDecimal projected = totals.getCumulativeWagesYtd()
+            .divide(BigDecimal.valueOf(totals.getPeriodsFiled()), 10, RoundingMode.HALF_UP)
+            .multiply(BigDecimal.valueOf(expectedPeriods(frequency)))
+            .setScale(2, RoundingMode.HALF_UP);
+        totals.setProjectedAnnualWages(projected);
+
+        BigDecimal estimated = totals.getEstimatedAnnualWages();
+        if (estimated == null || estimated.signum() == 0) {
+            totals.setOnTrackIndicator(true);
+            return;
+        }
+        BigDecimal deviation = projected.subtract(estimated).abs()
+            .divide(estimated, 4, RoundingMode.HALF_UP);
+        totals.setOnTrackIndicator(deviation.compareTo(ON_TRACK_TOLERANCE) <= 0);
+    }
+
+    /**
+     * Expected number of W-1 periods in a year for a filing frequency.
+     */
+    private int expectedPeriods(FilingFrequency frequency) {
+        return switch (frequency) {
+            case QUARTERLY -> 4;
+            case MONTHLY -> 12;
+            case SEMI_MONTHLY -> 24;
+            case DAILY -> 260; // business days
+        };
+    }
+}
@@ -0,0 +1,327 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.apportionment.ApportionmentAuditLog;
+import com.munitax.taxengine.domain.apportionment.AuditChangeType;
+import com.munitax.taxengine.domain.apportionment.NexusReason;
+import com.munitax.taxengine.domain.apportionment.NexusTracking;
+import com.munitax.taxengine.dto.EconomicNexusRefreshResult;
+import com.munitax.taxengine.repository.NexusTrackingRepository;
+import com.munitax.taxengine.repository.SaleTransactionRepository;
+import com.munitax.taxengine.service.audit.AuditLogWriteBehindService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Set-based economic nexus determination for all businesses, e.g. after a sales-data load.
+ * Task: T075 [US2] - bulk counterpart of {@link NexusService#determineAndUpdateEconomicNexus}
+ *
+ * Process:
+ * 1. Count sale transactions of the year not attributed to a business; they cannot be assigned
+ *    to a nexus row, so they are left out and reported (WARN and in the result)
+ * 2. Select the businesses with sales in the year plus those with existing economic nexus
+ * 3. Per batch of businesses, in one transaction: aggregate sales and transaction counts per
+ *    (business, state) in SQL over sale_transaction and load existing state-level NexusTracking
+ *    rows, one query each. Schedule Ys superseded by an amendment are left out, and of the rest
+ *    only each business's latest Schedule Y counts, so re-imported sales are not counted twice
+ * 4. Compare each aggregate with the state's threshold, looked up once per state into an
+ *    in-memory table ({@link NexusService#getEconomicNexusThresholds}), and apply the same rules
+ *    as the single-state path: meeting the threshold adds ECONOMIC_NEXUS; falling below it removes
+ *    ECONOMIC_NEXUS but keeps nexus established for other reasons
+ * 5. Write only rows that changed, plus a NEXUS_CHANGED audit entry per nexus status flip
+ *    (through {@link AuditLogWriteBehindService}), and invalidate the affected nexus snapshots
+ *
+ * Existing economic nexus in a state with no sales this year is re-evaluated as zero sales. A
+ * business with no sales at all has no Schedule Y to attribute an audit entry to, so its nexus
+ * changes are written without one (as on the single-state path).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EconomicNexusRefreshService {
+
+    private static final String ENTITY_TYPE = "NexusTracking";
+
+    private final SaleTransactionRepository saleTransactionRepository;
+    private final NexusTrackingRepository nexusTrackingRepository;
+    private final AuditLogWriteBehindService auditLogWriteBehindService;
+    private final NexusService nexusService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Businesses evaluated and written per transaction.
+     */
+    @Value("${app.apportionment.economic-nexus-refresh.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Re-determine economic nexus for every business with sale transactions or economic nexus in a tax year.
+     *
+     * @param taxYear   the tax year (Schedule Y tax year)
+     * @param changedBy user recorded on audit entries
+     * @return counts of rows evaluated, created, updated and nexus changes, and of sale transactions left out
+     */
+    public EconomicNexusRefreshResult refreshEconomicNexus(Integer taxYear, UUID changedBy) {
+        long started = System.currentTimeMillis();
+        log.info("Starting economic nexus refresh for tax year {}", taxYear);
+
+        long unattributed = saleTransactionRepository.countUnattributedByTaxYear(taxYear);
+        if (unattributed > 0) {
+            log.warn("{} sale transactions for tax year {} have no business and are left out of the economic nexus "
+                     + "refresh; re-apply sourcing to their sales factors to include them", unattributed, taxYear);
+        }
+
+        SortedSet<UUID> businessIds = new TreeSet<>(saleTransactionRepository.findDistinctBusinessIdsByTaxYear(taxYear));
+        businessIds.addAll(nexusTrackingRepository.findBusinessIdsByTaxYearAndNexusReason(
+            taxYear, NexusReason.ECONOMIC_NEXUS));
+        List<UUID> orderedIds = new ArrayList<>(businessIds);
+
+        RefreshState state = new RefreshState(taxYear, changedBy);
+        TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+        for (int start = 0; start < orderedIds.size(); start += batchSize) {
+            List<UUID> batch = orderedIds.subList(start, Math.min(start + batchSize, orderedIds.size()));
+            writeTransaction.executeWithoutResult(status -> writeBatch(batch, state));
+        }
+
+        long durationMs = System.currentTimeMillis() - started;
+        log.info("Economic nexus refresh for tax year {} complete: {} businesses, {} states, {} created, {} updated, "
+                 + "{} established, {} terminated in {} ms", taxYear, state.businessesEvaluated, state.statesEvaluated,
+                 state.rowsCreated, state.rowsUpdated, state.nexusEstablished, state.nexusTerminated, durationMs);
+
+        return EconomicNexusRefreshResult.builder()
+            .taxYear(taxYear)
+            .businessesEvaluated(state.businessesEvaluated)
+            .statesEvaluated(state.statesEvaluated)
+            .rowsCreated(state.rowsCreated)
+            .rowsUpdated(state.rowsUpdated)
+            .nexusEstablished(state.nexusEstablished)
+            .nexusTerminated(state.nexusTerminated)
+            .unattributedTransactions(unattributed)
+            .durationMs(durationMs)
+            .build();
+    }
+
+    /**
+     * Evaluate a batch of businesses and write changed rows and audit entries in the caller's transaction.
+     */
+    private void writeBatch(List<UUID> businessIds, RefreshState state) {
+        List<Object[]> rows = saleTransactionRepository.findEconomicNexusAggregates(state.taxYear, businessIds);
+        // Only the latest Schedule Y of each business counts
+        Map<BusinessKey, Object[]> latest = new HashMap<>();
+        for (Object[] row : rows) {
+            latest.merge(new BusinessKey((UUID) row[0], (UUID) row[1]), row, (current, candidate) ->
+                ((LocalDateTime) candidate[6]).isAfter((LocalDateTime) current[6]) ? candidate : current);
+        }
+        Map<BusinessKey, Map<String, StateAggregate>> aggregatesByBusiness = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            if (!row[3].equals(latest.get(new BusinessKey((UUID) row[0], (UUID) row[1]))[3])) {
+                continue;
+            }
+            aggregatesByBusiness.computeIfAbsent(new BusinessKey((UUID) row[0], (UUID) row[1]), key -> new HashMap<>())
+                .computeIfAbsent((String) row[2], code -> new StateAggregate((UUID) row[3]))
+                .add((BigDecimal) row[4], ((Number) row[5]).longValue());
+        }
+        Map<BusinessKey, Map<String, NexusTracking>> existing = new HashMap<>();
+        for (NexusTracking record : nexusTrackingRepository.findStateRecordsByTaxYearAndBusinessIdIn(
+                state.taxYear, businessIds)) {
+            existing.computeIfAbsent(new BusinessKey(record.getBusinessId(), record.getTenantId()), key -> new HashMap<>())
+                .put(record.getState(), record);
+        }
+
+        Set<BusinessKey> businesses = new LinkedHashSet<>(aggregatesByBusiness.keySet());
+        businesses.addAll(existing.keySet());
+
+        List<NexusTracking> changed = new ArrayList<>();
+        List<PendingAudit> auditEntries = new ArrayList<>();
+        Set<BusinessKey> changedBusinesses = new HashSet<>();
+
+        for (BusinessKey business : businesses) {
+            state.businessesEvaluated++;
+            Map<String, StateAggregate> aggregates = aggregatesByBusiness.getOrDefault(business, Map.of());
+            Map<String, NexusTracking> records = existing.getOrDefault(business, Map.of());
+            UUID anyScheduleYId = aggregates.isEmpty() ? null : aggregates.values().iterator().next().scheduleYId;
+
+            aggregates.forEach((stateCode, aggregate) -> {
+                if (evaluate(business, stateCode, records.get(stateCode), aggregate, state, changed, auditEntries)) {
+                    changedBusinesses.add(business);
+                }
+            });
+            // Economic nexus previously established in states with no sales this year
+            records.forEach((stateCode, record) -> {
+                if (!aggregates.containsKey(stateCode) && record.getNexusReasons().contains(NexusReason.ECONOMIC_NEXUS)
+                        && evaluate(business, stateCode, record, new StateAggregate(anyScheduleYId), state, changed, auditEntries)) {
+                    changedBusinesses.add(business);
+                }
+            });
+        }
+
+        nexusTrackingRepository.saveAll(changed);
+        // New rows get their IDs on save; audit entries are written after the batch commits
+        auditLogWriteBehindService.logApportionmentChanges(
+            auditEntries.stream().map(PendingAudit::withEntityId).toList());
+        changedBusinesses.forEach(business ->
+            nexusService.invalidateNexusSnapshot(business.businessId(), business.tenantId(), state.taxYear));
+    }
+
+    /**
+     * Apply the economic nexus rules to one business/state; collects the row (and audit entry) if it changed.
+     *
+     * @return true if the row was created or changed
+     */
+    private boolean evaluate(BusinessKey business, String stateCode, NexusTracking record, StateAggregate aggregate,
+                             RefreshState state, List<NexusTracking> changed,
+                             List<PendingAudit> auditEntries) {
+        state.statesEvaluated++;
+        Threshold threshold = state.thresholds.computeIfAbsent(stateCode,
+            code -> Threshold.from(nexusService.getEconomicNexusThresholds(code)));
+        boolean meetsThreshold = aggregate.sales.compareTo(threshold.sales()) >= 0
+            || aggregate.transactionCount >= threshold.transactions();
+
+        boolean isNew = record == null;
+        if (isNew) {
+            record = new NexusTracking();
+            record.setBusinessId(business.businessId());
+            record.setTenantId(business.tenantId());
+            record.setTaxYear(state.taxYear);
+            record.setState(stateCode);
+        }
+        boolean hadNexus = Boolean.TRUE.equals(record.getHasNexus());
+        List<NexusReason> reasons = record.getNexusReasons();
+        boolean modified = isNew;
+
+        if (meetsThreshold) {
+            if (!reasons.contains(NexusReason.ECONOMIC_NEXUS)) {
+                reasons.add(NexusReason.ECONOMIC_NEXUS);
+                modified = true;
+            }
+            record.setHasNexus(true);
+        } else if (reasons.remove(NexusReason.ECONOMIC_NEXUS)) {
+            // Keep nexus established for other reasons
+            modified = true;
+            if (reasons.isEmpty()) {
+                record.setHasNexus(false);
+            }
+        }
+
+        int transactionCount = (int) Math.min(aggregate.transactionCount, Integer.MAX_VALUE);
+        if (record.getSalesInState() == null || record.getSalesInState().compareTo(aggregate.sales) != 0
+                || !Objects.equals(record.getTransactionCountInState(), transactionCount)
+                || record.getEconomicNexusThreshold() == null
+                || record.getEconomicNexusThreshold().compareTo(threshold.sales()) != 0) {
+            record.setSalesInState(aggregate.sales);
+            record.setTransactionCountInState(transactionCount);
+            record.setEconomicNexusThreshold(threshold.sales());
+            modified = true;
+        }
+
+        boolean hasNexus = Boolean.TRUE.equals(record.getHasNexus());
+        if (hasNexus != hadNexus) {
+            modified = true;
+            if (hasNexus) {
+                record.setNexusEstablishedDate(LocalDate.now());
+                record.setNexusTerminatedDate(null);
+                state.nexusEstablished++;
+            } else {
+                record.setNexusTerminatedDate(LocalDate.now());
+                state.nexusTerminated++;
+            }
+            if (aggregate.scheduleYId == null) {
+                log.info("Economic nexus for business {} in {} changed to {} with no Schedule Y for tax year {}; "
+                         + "no audit entry written", business.businessId(), stateCode, hasNexus, state.taxYear);
+            } else {
+                auditEntries.add(new PendingAudit(new ApportionmentAuditLog.Builder()
+                    .scheduleYId(aggregate.scheduleYId)
+                    .tenantId(business.tenantId())
+                    .changeType(AuditChangeType.NEXUS_CHANGED)
+                    .entityType(ENTITY_TYPE)
+                    .changedBy(state.changedBy)
+                    .oldValue(String.valueOf(hadNexus))
+                    .newValue(String.valueOf(hasNexus))
+                    .changeReason(String.format("Economic nexus refresh for %s, tax year %d: sales %s, %d transactions",
+                        stateCode, state.taxYear, aggregate.sales, aggregate.transactionCount))
+                    .affectedCalculation("sales_factor")
+                    .build(), record));
+            }
+        }
+
+        if (!modified) {
+            return false;
+        }
+        changed.add(record);
+        if (isNew) {
+            state.rowsCreated++;
+        } else {
+            state.rowsUpdated++;
+        }
+        return true;
+    }
+
+    private record BusinessKey(UUID businessId, UUID tenantId) {
+    }
+
+    /**
+     * Audit entry for a nexus row that may not have its ID until it is saved.
+     */
+    private record PendingAudit(ApportionmentAuditLog entry, NexusTracking record) {
+        private ApportionmentAuditLog withEntityId() {
+            entry.setEntityId(record.getNexusId());
+            return entry;
+        }
+    }
+
+    /**
+     * Economic nexus thresholds for one state.
+     */
+    private record Threshold(BigDecimal sales, long transactions) {
+        private static Threshold from(Map<String, Object> thresholds) {
+            return new Threshold((BigDecimal) thresholds.get("sales_threshold"),
+                ((Number) thresholds.get("transaction_threshold")).longValue());
+        }
+    }
+
+    /**
+     * Sales and transaction count for one business in one state.
+     */
+    private static final class StateAggregate {
+        private final UUID scheduleYId;
+        private BigDecimal sales = BigDecimal.ZERO;
+        private long transactionCount;
+
+        private StateAggregate(UUID scheduleYId) {
+            this.scheduleYId = scheduleYId;
+        }
+
+        private void add(BigDecimal amount, long count) {
+            sales = sales.add(amount != null ? amount : BigDecimal.ZERO);
+            transactionCount += count;
+        }
+    }
+
+    /**
+     * Mutable state for one refresh run.
+     */
+    private static final class RefreshState {
+        private final Integer taxYear;
+        private final UUID changedBy;
+        private final Map<String, Threshold> thresholds = new HashMap<>();
+        private int businessesEvaluated;
+        private int statesEvaluated;
+        private int rowsCreated;
+        private int rowsUpdated;
+        private int nexusEstablished;
+        private int nexusTerminated;
+
+        private RefreshState(Integer taxYear, UUID changedBy) {
+            this.taxYear = taxYear;
+            this.changedBy = changedBy;
+        }
+    }
+}
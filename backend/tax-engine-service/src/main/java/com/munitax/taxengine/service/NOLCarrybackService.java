@@ -75,13 +75,106 @@ public class NOLCarrybackService {
     public List<NOLCarryback> processCarrybackElection(UUID nolId,
                                                         Map<Integer, PriorYearData> priorYearData,
                                                         UUID tenantId) {
+        return processCarrybackElection(nolId, priorYearData, CarrybackAllocationStrategy.FIFO, tenantId);
+    }
+    
+    /**
+     * Process NOL carryback election using the given allocation strategy.
+     * 
+     * The allocation is computed in memory by {@link #evaluateCarryback}; the resulting
+     * carryback records are then saved in one batch and the NOL is updated.
+     * 
+     * @param nolId NOL ID to carry back
+     * @param priorYearData Map of year → {taxableIncome, taxRate, taxPaid, returnId}
+     * @param strategy Allocation strategy (null defaults to FIFO)
+     * @param tenantId Tenant ID
+     * @return List of carryback records created
+     * @throws IllegalArgumentException if NOL not eligible or insufficient data
+     */
+    @Transactional
+    public List<NOLCarryback> processCarrybackElection(UUID nolId,
+                                                        Map<Integer, PriorYearData> priorYearData,
+                                                        CarrybackAllocationStrategy strategy,
+                                                        UUID tenantId) {
         
         log.info("Processing carryback election for NOL {}", nolId);
         
-        // Retrieve NOL
         NOL nol = nolRepository.findById(nolId)
             .orElseThrow(() -> new IllegalArgumentException("NOL not found: " + nolId));
         
+        CarrybackPlan plan = evaluateCarryback(nol, priorYearData, strategy);
+        
+        if (plan.allocations().isEmpty()) {
+            throw new IllegalArgumentException("No prior-year taxable income available to absorb carryback");
+        }
+        
+        // Persist all carryback records in one batch
+        LocalDate filedDate = LocalDate.now();
+        List<NOLCarryback> carrybacks = new ArrayList<>(plan.allocations().size());
+        for (CarrybackAllocation allocation : plan.allocations()) {
+            carrybacks.add(NOLCarryback.builder()
+                .tenantId(tenantId)
+                .nolId(nol.getId())
+                .carrybackYear(allocation.carrybackYear())
+                .priorYearTaxableIncome(allocation.priorYearTaxableIncome())
+                .nolApplied(allocation.nolApplied())
+                .priorYearTaxRate(allocation.priorYearTaxRate())
+                .refundAmount(allocation.refundAmount())
+                .priorYearReturnId(allocation.priorYearReturnId())
+                .refundStatus(RefundStatus.CLAIMED)
+                .filedDate(filedDate)
+                .build());
+        }
+        carrybacks = nolCarrybackRepository.saveAll(carrybacks);
+        
+        // Update NOL with carryback totals
+        nol.setIsCarriedBack(true);
+        nol.setCarrybackAmount(plan.totalCarriedBack());
+        nol.setCarrybackRefund(plan.totalRefund());
+        nol.setCurrentNOLBalance(plan.remainingNOL());
+        nolRepository.save(nol);
+        
+        log.info("Completed carryback election: carried back {} with total refund {} from NOL {}",
+                 plan.totalCarriedBack(), plan.totalRefund(), nol.getId());
+        
+        return carrybacks;
+    }
+    
+    /**
+     * Preview a carryback election without persisting anything (dry run).
+     * 
+     * @param nolId NOL ID to carry back
+     * @param priorYearData Map of year → {taxableIncome, taxRate, taxPaid, returnId}
+     * @param strategy Allocation strategy (null defaults to FIFO)
+     * @return Refund schedule the election would produce
+     * @throws IllegalArgumentException if NOL not eligible or insufficient data
+     */
+    @Transactional(readOnly = true)
+    public CarrybackPlan previewCarrybackElection(UUID nolId,
+                                                  Map<Integer, PriorYearData> priorYearData,
+                                                  CarrybackAllocationStrategy strategy) {
+        NOL nol = nolRepository.findById(nolId)
+            .orElseThrow(() -> new IllegalArgumentException("NOL not found: " + nolId));
+        
+        return evaluateCarryback(nol, priorYearData, strategy);
+    }
+    
+    /**
+     * Compute the carryback allocation for an NOL across prior years in memory.
+     * 
+     * Carrybacks already claimed against the same prior years by this business's other
+     * NOLs are fetched in one query and deducted from each year's taxable income and tax
+     * paid, so amended or repeated carrybacks cannot over-absorb a year.
+     * 
+     * @param nol NOL to carry back
+     * @param priorYearData Map of year → {taxableIncome, taxRate, taxPaid, returnId}
+     * @param strategy Allocation strategy (null defaults to FIFO)
+     * @return Allocation per prior year (ascending) with totals
+     * @throws IllegalArgumentException if NOL not eligible or already carried back
+     */
+    private CarrybackPlan evaluateCarryback(NOL nol, Map<Integer, PriorYearData> priorYearData,
+                                            CarrybackAllocationStrategy strategy) {
+        
         // Validate eligibility
         if (!isEligibleForCarryback(nol.getTaxYear())) {
             throw new IllegalArgumentException(
@@ -94,80 +187,109 @@ public class NOLCarrybackService {
             throw new IllegalArgumentException("NOL has already been carried back");
         }
         
-        // Sort prior years oldest first (FIFO ordering)
-        List<Integer> priorYears = new ArrayList<>(priorYearData.keySet());
-        Collections.sort(priorYears);
-        
-        // Apply NOL to prior years
-        List<NOLCarryback> carrybacks = new ArrayList<>();
-        BigDecimal remainingNOL = nol.getCurrentNOLBalance();
-        BigDecimal totalRefund = BigDecimal.ZERO;
-        
-        for (Integer priorYear : priorYears) {
-            if (remainingNOL.compareTo(BigDecimal.ZERO) <= 0) {
-                break; // All NOL has been used
-            }
-            
-            // Validate year is within 5-year carryback period (up to and including 5 years prior)
+        // Sort prior years oldest first, keeping only years within the 5-year carryback period
+        List<Integer> priorYears = new ArrayList<>();
+        for (Integer priorYear : priorYearData.keySet()) {
             if (nol.getTaxYear() - priorYear > CARES_ACT_CARRYBACK_YEARS) {
                 log.warn("Skipping year {} - beyond 5-year carryback period for NOL year {}",
                         priorYear, nol.getTaxYear());
                 continue;
             }
-            
+            priorYears.add(priorYear);
+        }
+        Collections.sort(priorYears);
+        
+        // One query for income and tax already absorbed by other NOLs' carrybacks
+        Map<Integer, BigDecimal> absorbedIncome = new HashMap<>();
+        Map<Integer, BigDecimal> refundedTax = new HashMap<>();
+        if (!priorYears.isEmpty()) {
+            for (NOLCarryback existing : nolCarrybackRepository.findActiveByBusinessIdAndCarrybackYearIn(
+                    nol.getBusinessId(), priorYears)) {
+                if (existing.getNolId().equals(nol.getId())) {
+                    continue;
+                }
+                absorbedIncome.merge(existing.getCarrybackYear(), existing.getNolApplied(), BigDecimal::add);
+                refundedTax.merge(existing.getCarrybackYear(), existing.getRefundAmount(), BigDecimal::add);
+            }
+        }
+        
+        // Remaining capacity per year after prior absorption
+        List<YearCapacity> capacities = new ArrayList<>(priorYears.size());
+        for (Integer priorYear : priorYears) {
             PriorYearData yearData = priorYearData.get(priorYear);
+            BigDecimal income = yearData.getTaxableIncome()
+                .subtract(absorbedIncome.getOrDefault(priorYear, BigDecimal.ZERO));
+            BigDecimal taxPaid = yearData.getTaxPaid()
+                .subtract(refundedTax.getOrDefault(priorYear, BigDecimal.ZERO))
+                .max(BigDecimal.ZERO);
             
             // Skip years with no taxable income
-            if (yearData.getTaxableIncome().compareTo(BigDecimal.ZERO) <= 0) {
+            if (income.compareTo(BigDecimal.ZERO) <= 0) {
                 log.info("Skipping year {} - no taxable income to offset", priorYear);
                 continue;
             }
+            capacities.add(new YearCapacity(priorYear, yearData, income, taxPaid));
+        }
+        
+        if (strategy == CarrybackAllocationStrategy.MAXIMIZE_REFUND) {
+            // Highest rate first yields the largest refund per dollar of NOL
+            capacities.sort(Comparator.comparing((YearCapacity c) -> c.data().getTaxRate()).reversed()
+                .thenComparing(YearCapacity::year));
+        }
+        
+        BigDecimal remainingNOL = nol.getCurrentNOLBalance();
+        BigDecimal totalRefund = BigDecimal.ZERO;
+        List<CarrybackAllocation> allocations = new ArrayList<>(capacities.size());
+        
+        for (YearCapacity capacity : capacities) {
+            if (remainingNOL.compareTo(BigDecimal.ZERO) <= 0) {
+                break; // All NOL has been used
+            }
+            
+            BigDecimal taxRate = capacity.data().getTaxRate();
             
             // Calculate NOL to apply (limited to prior year taxable income)
-            BigDecimal nolToApply = remainingNOL.min(yearData.getTaxableIncome());
+            BigDecimal nolToApply = remainingNOL.min(capacity.availableIncome());
+            if (strategy == CarrybackAllocationStrategy.MAXIMIZE_REFUND) {
+                // Only use NOL up to the point where the refund cap (tax paid) is reached
+                BigDecimal refundableIncome = capacity.availableTaxPaid()
+                    .multiply(BigDecimal.valueOf(100))
+                    .divide(taxRate, 2, RoundingMode.DOWN);
+                nolToApply = nolToApply.min(refundableIncome);
+                if (nolToApply.compareTo(BigDecimal.ZERO) <= 0) {
+                    continue;
+                }
+            }
             
             // Calculate refund: NOL applied × prior year tax rate
             // Cap refund at actual tax paid in prior year
             BigDecimal calculatedRefund = nolToApply
-                .multiply(yearData.getTaxRate())
+                .multiply(taxRate)
                 .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            BigDecimal refundAmount = calculatedRefund.min(yearData.getTaxPaid());
+            BigDecimal refundAmount = calculatedRefund.min(capacity.availableTaxPaid());
             
-            // Create carryback record
-            NOLCarryback carryback = NOLCarryback.builder()
-                .tenantId(tenantId)
-                .nolId(nol.getId())
-                .carrybackYear(priorYear)
-                .priorYearTaxableIncome(yearData.getTaxableIncome())
-                .nolApplied(nolToApply)
-                .priorYearTaxRate(yearData.getTaxRate())
-                .refundAmount(refundAmount)
-                .priorYearReturnId(yearData.getReturnId())
-                .refundStatus(RefundStatus.CLAIMED)
-                .filedDate(LocalDate.now())
-                .build();
-            
-            carryback = nolCarrybackRepository.save(carryback);
-            carrybacks.add(carryback);
+            allocations.add(new CarrybackAllocation(
+                capacity.year(),
+                capacity.data().getTaxableIncome(),
+                nolToApply,
+                taxRate,
+                refundAmount,
+                capacity.data().getReturnId()
+            ));
             
             remainingNOL = remainingNOL.subtract(nolToApply);
             totalRefund = totalRefund.add(refundAmount);
             
-            log.info("Carried back {} to year {} with refund {}", nolToApply, priorYear, refundAmount);
+            log.info("Carried back {} to year {} with refund {}", nolToApply, capacity.year(), refundAmount);
         }
         
-        // Update NOL with carryback totals
-        BigDecimal totalCarriedBack = nol.getCurrentNOLBalance().subtract(remainingNOL);
-        nol.setIsCarriedBack(true);
-        nol.setCarrybackAmount(totalCarriedBack);
-        nol.setCarrybackRefund(totalRefund);
-        nol.setCurrentNOLBalance(remainingNOL);
-        nolRepository.save(nol);
+        allocations.sort(Comparator.comparing(CarrybackAllocation::carrybackYear));
         
-        log.info("Completed carryback election: carried back {} with total refund {} from NOL {}",
-                 totalCarriedBack, totalRefund, nol.getId());
+        BigDecimal totalCarriedBack = nol.getCurrentNOLBalance().subtract(remainingNOL);
         
-        return carrybacks;
+        return new CarrybackPlan(nol.getId(), nol.getTaxYear(),
+                                 strategy != null ? strategy : CarrybackAllocationStrategy.FIFO,
+                                 allocations, totalCarriedBack, totalRefund, remainingNOL);
     }
     
     /**
@@ -224,4 +346,27 @@ public class NOLCarrybackService {
         public BigDecimal getTaxPaid() { return taxPaid; }
         public UUID getReturnId() { return returnId; }
     }
+    
+    /**
+     * Refund schedule line for one prior year.
+     */
+    public record CarrybackAllocation(Integer carrybackYear, BigDecimal priorYearTaxableIncome,
+                                      BigDecimal nolApplied, BigDecimal priorYearTaxRate,
+                                      BigDecimal refundAmount, UUID priorYearReturnId) {
+    }
+    
+    /**
+     * Computed carryback allocation for an NOL (persisted or dry run).
+     */
+    public record CarrybackPlan(UUID nolId, Integer nolTaxYear, CarrybackAllocationStrategy strategy,
+                                List<CarrybackAllocation> allocations, BigDecimal totalCarriedBack,
+                                BigDecimal totalRefund, BigDecimal remainingNOL) {
+    }
+    
+    /**
+     * Remaining carryback capacity of one prior year.
+     */
+    private record YearCapacity(Integer year, PriorYearData data, BigDecimal availableIncome,
+                                BigDecimal availableTaxPaid) {
+    }
 }
@@ -0,0 +1,160 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.nol.AlertSeverityLevel;
+import com.munitax.taxengine.domain.nol.NOL;
+import com.munitax.taxengine.domain.nol.NOLExpirationAlert;
+import com.munitax.taxengine.repository.NOLExpirationAlertRepository;
+import com.munitax.taxengine.repository.NOLRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for set-based NOL expiration alert generation.
+ *
+ * Core Functions:
+ * - FR-024: Alert users of expiring NOLs across all businesses
+ * - FR-038: Keep expiration report current ahead of year-end
+ *
+ * Instead of walking businesses and NOLs one at a time, each severity band
+ * (CRITICAL / WARNING / INFO) is resolved with a single indexed range query over
+ * nols that anti-joins existing alerts, and new alerts are inserted in JDBC batches.
+ * An NOL gets at most one alert per severity, so alerts escalate as expiration
+ * approaches and dismissed alerts are not re-raised at the same severity.
+ *
+ * @see NOLExpirationAlert
+ * @see NOLRepository#findExpiringNOLsWithoutAlert
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NOLExpirationAlertService {
+
+    private final NOLRepository nolRepository;
+    private final NOLExpirationAlertRepository nolExpirationAlertRepository;
+
+    /**
+     * Whether the scheduled run is enabled.
+     */
+    @Value("${app.nol.expiration-alerts.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * NOLs expiring within this many years raise CRITICAL alerts.
+     */
+    @Value("${app.nol.expiration-alerts.critical-years:1}")
+    private int criticalHorizonYears;
+
+    /**
+     * NOLs expiring within this many years raise WARNING alerts.
+     */
+    @Value("${app.nol.expiration-alerts.warning-years:2}")
+    private int warningHorizonYears;
+
+    /**
+     * NOLs expiring within this many years raise INFO alerts.
+     */
+    @Value("${app.nol.expiration-alerts.info-years:3}")
+    private int infoHorizonYears;
+
+    /**
+     * Number of alerts inserted per flush.
+     */
+    @Value("${app.nol.expiration-alerts.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Scheduled alert generation (default: daily at 02:00).
+     */
+    @Scheduled(cron = "${app.nol.expiration-alerts.cron:0 0 2 * * *}")
+    public void scheduledAlertGeneration() {
+        if (!enabled) {
+            log.debug("NOL expiration alert generation disabled");
+            return;
+        }
+        generateExpirationAlerts(LocalDate.now(ZoneId.of("UTC")));
+    }
+
+    /**
+     * Generate missing expiration alerts for all NOLs expiring within the configured horizons.
+     *
+     * Process:
+     * 1. For each severity band, query NOLs expiring in the band with no alert at that severity
+     * 2. Build alerts in memory
+     * 3. Insert alerts in batches
+     *
+     * @param asOfDate Date from which horizons are measured
+     * @return Number of alerts created per severity level
+     */
+    @Transactional
+    public Map<AlertSeverityLevel, Integer> generateExpirationAlerts(LocalDate asOfDate) {
+        log.info("Generating NOL expiration alerts as of {} (horizons {}/{}/{} years)",
+                 asOfDate, criticalHorizonYears, warningHorizonYears, infoHorizonYears);
+
+        LocalDate criticalEnd = asOfDate.plusYears(criticalHorizonYears);
+        LocalDate warningEnd = asOfDate.plusYears(warningHorizonYears);
+        LocalDate infoEnd = asOfDate.plusYears(infoHorizonYears);
+
+        Map<AlertSeverityLevel, Integer> created = new EnumMap<>(AlertSeverityLevel.class);
+        created.put(AlertSeverityLevel.CRITICAL,
+                    generateForBand(asOfDate, criticalEnd, AlertSeverityLevel.CRITICAL));
+        created.put(AlertSeverityLevel.WARNING,
+                    generateForBand(criticalEnd, warningEnd, AlertSeverityLevel.WARNING));
+        created.put(AlertSeverityLevel.INFO,
+                    generateForBand(warningEnd, infoEnd, AlertSeverityLevel.INFO));
+
+        log.info("Generated NOL expiration alerts: {}", created);
+
+        return created;
+    }
+
+    /**
+     * Create alerts for one severity band.
+     *
+     * @param fromDate Band start (exclusive)
+     * @param toDate Band end (inclusive)
+     * @param severity Severity for alerts in the band
+     * @return Number of alerts created
+     */
+    private int generateForBand(LocalDate fromDate, LocalDate toDate, AlertSeverityLevel severity) {
+        if (!toDate.isAfter(fromDate)) {
+            return 0;
+        }
+
+        List<NOL> nols = nolRepository.findExpiringNOLsWithoutAlert(fromDate, toDate, severity);
+
+        List<NOLExpirationAlert> batch = new ArrayList<>(Math.min(batchSize, nols.size()));
+        for (NOL nol : nols) {
+            BigDecimal yearsUntilExpiration = NOLExpirationAlert.calculateYearsUntilExpiration(nol.getExpirationDate());
+            batch.add(NOLExpirationAlert.forNOL(nol, yearsUntilExpiration.max(BigDecimal.ZERO), severity));
+
+            if (batch.size() >= batchSize) {
+                flushBatch(batch);
+            }
+        }
+        flushBatch(batch);
+
+        log.debug("Created {} {} alerts for NOLs expiring {} to {}", nols.size(), severity, fromDate, toDate);
+
+        return nols.size();
+    }
+
+    private void flushBatch(List<NOLExpirationAlert> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        nolExpirationAlertRepository.saveAllAndFlush(batch);
+        batch.clear();
+    }
+}
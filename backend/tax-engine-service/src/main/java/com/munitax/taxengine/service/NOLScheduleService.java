@@ -149,26 +149,18 @@ public class NOLScheduleService {
      * @return List of NOL vintage details
      */
     public List<NOLVintageDetail> getNOLVintageBreakdown(UUID businessId, Integer taxYear) {
-        List<NOL> nols = nolRepository.findByBusinessIdOrderByTaxYearAsc(businessId);
+        NOLVintageLedger ledger = nolService.loadVintageLedger(businessId);
         
-        return nols.stream()
-            .map(nol -> {
-                // Get usage history for this NOL
-                List<NOLUsage> usages = nolUsageRepository.findByNolIdOrderByUsageYearAsc(nol.getId());
-                
-                // Get usage for current year (if any)
-                BigDecimal usedThisYear = usages.stream()
-                    .filter(u -> u.getUsageYear().equals(taxYear))
-                    .map(NOLUsage::getActualNOLDeduction)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                
+        return ledger.getVintages().stream()
+            .map(vintage -> {
+                NOL nol = vintage.getNol();
                 return new NOLVintageDetail(
                     nol.getTaxYear(),
                     nol.getOriginalNOLAmount(),
                     nol.getUsedAmount(),
                     nol.getExpiredAmount(),
                     nol.getCurrentNOLBalance(),
-                    usedThisYear,
+                    vintage.getUsedInYear(taxYear),
                     nol.getExpirationDate(),
                     nol.getIsCarriedBack(),
                     nol.getCarrybackAmount()
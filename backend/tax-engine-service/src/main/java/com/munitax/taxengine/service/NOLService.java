@@ -242,17 +242,7 @@ public class NOLService {
         log.info("Applying NOL deduction for business {} tax year {} amount {}",
                  businessId, taxYear, nolDeductionAmount);
         
-        // Validate deduction amount
-        BigDecimal availableBalance = calculateAvailableNOLBalance(businessId, jurisdiction);
-        BigDecimal maxDeduction = calculateMaximumNOLDeduction(taxableIncomeBeforeNOL, availableBalance, taxYear);
-        
-        if (nolDeductionAmount.compareTo(maxDeduction) > 0) {
-            throw new IllegalArgumentException(
-                String.format("NOL deduction %s exceeds maximum %s", nolDeductionAmount, maxDeduction)
-            );
-        }
-        
-        // Get available NOLs in FIFO order
+        // Get available NOLs in FIFO order (loaded once for both validation and application)
         LocalDate currentDate = LocalDate.now();
         List<NOL> availableNOLs = jurisdiction != null ?
             nolRepository.findByBusinessIdAndJurisdictionOrderByTaxYearAsc(businessId, jurisdiction) :
@@ -262,6 +252,18 @@ public class NOLService {
             .filter(NOL::hasRemainingBalance)
             .collect(Collectors.toList());
         
+        // Validate deduction amount
+        BigDecimal availableBalance = availableNOLs.stream()
+            .map(NOL::getCurrentNOLBalance)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal maxDeduction = calculateMaximumNOLDeduction(taxableIncomeBeforeNOL, availableBalance, taxYear);
+        
+        if (nolDeductionAmount.compareTo(maxDeduction) > 0) {
+            throw new IllegalArgumentException(
+                String.format("NOL deduction %s exceeds maximum %s", nolDeductionAmount, maxDeduction)
+            );
+        }
+        
         // Apply NOLs oldest first
         List<NOLUsage> usages = new ArrayList<>();
         BigDecimal remainingDeduction = nolDeductionAmount;
@@ -318,6 +320,56 @@ public class NOLService {
         return usages;
     }
     
+    /**
+     * Load the NOL vintage ledger for a business.
+     * 
+     * Fetches all NOLs with their usage history in one query plus one query for
+     * carrybacks, replacing per-NOL usage lookups.
+     * 
+     * @param businessId Business profile ID
+     * @return In-memory vintage ledger
+     */
+    @Transactional(readOnly = true)
+    public NOLVintageLedger loadVintageLedger(UUID businessId) {
+        List<Object[]> vintageRows = nolUsageRepository.findVintagesWithUsagesByBusinessId(businessId);
+        List<NOLCarryback> carrybacks = nolCarrybackRepository.findByBusinessIdOrderByCarrybackYearAsc(businessId);
+        
+        NOLVintageLedger ledger = NOLVintageLedger.of(businessId, vintageRows, carrybacks);
+        
+        log.debug("Loaded NOL vintage ledger for business {}: {} vintages, {} carrybacks",
+                  businessId, ledger.getVintages().size(), carrybacks.size());
+        
+        return ledger;
+    }
+    
+    /**
+     * Simulate NOL utilization over projected future years (no database writes).
+     * 
+     * Loads the vintage ledger once and runs each scenario against it in memory,
+     * so planners can compare many income projections and ordering choices.
+     * 
+     * @param businessId Business profile ID
+     * @param jurisdiction Tax jurisdiction (null for all)
+     * @param scenarios Scenarios to simulate, each with projections and ordering method
+     * @return Simulation result per scenario, in request order
+     */
+    @Transactional(readOnly = true)
+    public List<NOLVintageLedger.SimulationResult> simulateNOLUtilization(UUID businessId, Jurisdiction jurisdiction,
+                                                                          List<SimulationScenario> scenarios) {
+        NOLVintageLedger ledger = loadVintageLedger(businessId);
+        
+        List<NOLVintageLedger.SimulationResult> results = new ArrayList<>(scenarios.size());
+        for (SimulationScenario scenario : scenarios) {
+            results.add(ledger.simulate(scenario.projections(), jurisdiction,
+                                        scenario.orderingMethod(), scenario.manualVintageOrder()));
+        }
+        
+        log.info("Simulated {} NOL scenarios for business {} jurisdiction {}",
+                 scenarios.size(), businessId, jurisdiction);
+        
+        return results;
+    }
+    
     /**
      * Calculate expiration date for NOL based on tax year and jurisdiction.
      * 
@@ -374,21 +426,9 @@ public class NOLService {
         }
         
         AlertSeverityLevel severity = NOLExpirationAlert.determineSeverityLevel(yearsUntilExpiration);
-        String message = String.format("⚠️ $%s NOL from %d expiring %s - Use before expiration or lose!",
-                                      nol.getCurrentNOLBalance(), nol.getTaxYear(), nol.getExpirationDate());
-        
-        NOLExpirationAlert alert = NOLExpirationAlert.builder()
-            .tenantId(tenantId)
-            .businessId(nol.getBusinessId())
-            .nolId(nol.getId())
-            .taxYear(nol.getTaxYear())
-            .nolBalance(nol.getCurrentNOLBalance())
-            .expirationDate(nol.getExpirationDate())
-            .yearsUntilExpiration(yearsUntilExpiration)
-            .severityLevel(severity)
-            .alertMessage(message)
-            .dismissed(false)
-            .build();
+        
+        NOLExpirationAlert alert = NOLExpirationAlert.forNOL(nol, yearsUntilExpiration, severity);
+        alert.setTenantId(tenantId);
         
         nolExpirationAlertRepository.save(alert);
         
@@ -412,4 +452,16 @@ public class NOLService {
             }
         }
     }
+    
+    /**
+     * NOL utilization scenario for simulation.
+     * 
+     * @param projections Projected taxable income by year
+     * @param orderingMethod Vintage ordering method (null defaults to FIFO)
+     * @param manualVintageOrder Vintage years to use first for MANUAL_OVERRIDE
+     */
+    public record SimulationScenario(List<NOLVintageLedger.ProjectedYear> projections,
+                                     NOLOrderingMethod orderingMethod,
+                                     List<Integer> manualVintageOrder) {
+    }
 }
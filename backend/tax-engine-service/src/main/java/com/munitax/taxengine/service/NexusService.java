@@ -1,16 +1,21 @@
 package com.munitax.taxengine.service;
 
 import com.munitax.taxengine.domain.apportionment.NexusReason;
+import com.munitax.taxengine.domain.apportionment.NexusSnapshot;
 import com.munitax.taxengine.domain.apportionment.NexusTracking;
 import com.munitax.taxengine.repository.NexusTrackingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.Year;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,13 +23,24 @@ import java.util.UUID;
 /**
  * Service for determining and tracking business nexus status across states.
  * Implements nexus determination logic based on physical presence, economic nexus, and factor presence.
+ *
+ * Sourcing runs read nexus through per-business, per-tax-year {@link NexusSnapshot}s kept in the
+ * {@value #SNAPSHOT_CACHE} cache, so throwback checks over large transaction sets are bit tests
+ * instead of one query per transaction. Snapshots expire after
+ * app.apportionment.nexus-snapshot.cache-ttl-seconds (see RedisCacheConfig) and are evicted through
+ * the cache manager whenever nexus status changes through this service, again after the surrounding
+ * transaction commits. Evictions go to Redis, so every instance sees them.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NexusService {
 
+    public static final String SNAPSHOT_CACHE = "nexusSnapshots";
+    private static final String NEXUS_CACHE = "nexusCache";
+
     private final NexusTrackingRepository nexusTrackingRepository;
+    private final CacheManager cacheManager;
 
     // Economic nexus thresholds (common standards - may vary by state)
     private static final BigDecimal ECONOMIC_NEXUS_SALES_THRESHOLD = new BigDecimal("500000");
@@ -32,7 +48,8 @@ public class NexusService {
 
     /**
      * Determine if a business has nexus in a specific state.
-     * Checks physical presence, economic nexus, and factor presence.
+     * Checks physical presence, economic nexus, and factor presence, as recorded for the
+     * latest tax year with a nexus record for the state.
      * Results are cached for 15 minutes for performance.
      *
      * @param businessId the business ID
@@ -40,13 +57,12 @@ public class NexusService {
      * @param tenantId   the tenant ID for multi-tenant isolation
      * @return true if the business has nexus in the state
      */
-    @Cacheable(value = "nexusCache", key = "#businessId + '_' + #state + '_' + #tenantId")
+    @Cacheable(value = NEXUS_CACHE, key = "#businessId + '_' + #state + '_' + #tenantId")
     public boolean hasNexus(UUID businessId, String state, UUID tenantId) {
         log.debug("Determining nexus for business: {} in state: {}, tenant: {}",
                 businessId, state, tenantId);
 
-        Optional<NexusTracking> existing = nexusTrackingRepository
-                .findByBusinessIdAndStateAndTenantId(businessId, state, tenantId);
+        Optional<NexusTracking> existing = latestStateRecord(businessId, state, tenantId);
 
         if (existing.isPresent()) {
             boolean hasNexus = existing.get().getHasNexus();
@@ -58,8 +74,41 @@ public class NexusService {
         return false;
     }
 
+    /**
+     * Get the nexus snapshot for a business and tax year, loading the year's state-level nexus records
+     * with one query on a miss. Callers sourcing many transactions should take one snapshot per run
+     * (for the Schedule Y tax year) and test states against it.
+     *
+     * @param businessId the business ID
+     * @param tenantId   the tenant ID for multi-tenant isolation
+     * @param taxYear    the tax year
+     * @return snapshot of the states where the business has nexus in the tax year
+     */
+    @Cacheable(value = SNAPSHOT_CACHE, key = "#businessId + '_' + #tenantId + '_' + #taxYear")
+    public NexusSnapshot getNexusSnapshot(UUID businessId, UUID tenantId, Integer taxYear) {
+        NexusSnapshot snapshot = NexusSnapshot.of(businessId, tenantId, taxYear, nexusTrackingRepository
+                .findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, taxYear));
+        log.debug("Loaded nexus snapshot for business: {}, tax year {} ({} nexus states)",
+                businessId, taxYear, snapshot.nexusStateCount());
+        return snapshot;
+    }
+
+    /**
+     * Invalidate the nexus snapshot for a business and tax year.
+     * The eviction is repeated after the surrounding transaction commits so a concurrent
+     * sourcing run cannot re-cache the pre-update status.
+     *
+     * @param businessId the business ID
+     * @param tenantId   the tenant ID for multi-tenant isolation
+     * @param taxYear    the tax year whose nexus changed
+     */
+    public void invalidateNexusSnapshot(UUID businessId, UUID tenantId, Integer taxYear) {
+        evict(SNAPSHOT_CACHE, businessId + "_" + tenantId + "_" + taxYear);
+    }
+
     /**
      * Create or update nexus tracking record for a business in a state.
+     * Updates the record of the latest tax year; a new record is created for the current year.
      *
      * @param businessId  the business ID
      * @param state       the state code
@@ -74,8 +123,7 @@ public class NexusService {
         log.info("Updating nexus status for business: {} in state: {}, hasNexus: {}, reason: {}",
                 businessId, state, hasNexus, nexusReason);
 
-        Optional<NexusTracking> existing = nexusTrackingRepository
-                .findByBusinessIdAndStateAndTenantId(businessId, state, tenantId);
+        Optional<NexusTracking> existing = latestStateRecord(businessId, state, tenantId);
 
         NexusTracking nexusTracking;
 
@@ -88,12 +136,16 @@ public class NexusService {
             nexusTracking = new NexusTracking();
             nexusTracking.setBusinessId(businessId);
             nexusTracking.setState(state);
+            nexusTracking.setTaxYear(Year.now().getValue());
             nexusTracking.setHasNexus(hasNexus);
             nexusTracking.getNexusReasons().add(nexusReason);
             nexusTracking.setTenantId(tenantId);
         }
 
-        return nexusTrackingRepository.save(nexusTracking);
+        NexusTracking saved = nexusTrackingRepository.save(nexusTracking);
+        evict(NEXUS_CACHE, businessId + "_" + state + "_" + tenantId);
+        invalidateNexusSnapshot(businessId, tenantId, nexusTracking.getTaxYear());
+        return saved;
     }
 
     /**
@@ -211,8 +263,7 @@ public class NexusService {
             return updateNexusStatus(businessId, state, true, NexusReason.ECONOMIC_NEXUS, tenantId);
         } else {
             // Check if existing nexus record exists with non-economic reasons
-            Optional<NexusTracking> existing = nexusTrackingRepository
-                    .findByBusinessIdAndStateAndTenantId(businessId, state, tenantId);
+            Optional<NexusTracking> existing = latestStateRecord(businessId, state, tenantId);
 
             if (existing.isPresent() && existing.get().getHasNexus()) {
                 // Keep existing nexus if established for other reasons
@@ -248,4 +299,34 @@ public class NexusService {
 
         return thresholds;
     }
+
+    private Optional<NexusTracking> latestStateRecord(UUID businessId, String state, UUID tenantId) {
+        return nexusTrackingRepository
+                .findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(
+                        businessId, state, tenantId);
+    }
+
+    /**
+     * Evict a cache entry now and again after the surrounding transaction commits.
+     */
+    private void evict(String cacheName, String key) {
+        Cache cache = cache(cacheName);
+        cache.evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(key);
+                }
+            });
+        }
+    }
+
+    private Cache cache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + cacheName);
+        }
+        return cache;
+    }
 }
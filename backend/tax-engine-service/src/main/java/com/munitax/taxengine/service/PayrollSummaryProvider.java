@@ -0,0 +1,132 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
+import com.munitax.taxengine.dto.PayrollSummary;
+import com.munitax.taxengine.repository.W1FilingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * In-process, cached source of annual payroll summaries built from W-1 filings.
+ *
+ * Replaces the HTTP round trip from {@link WithholdingIntegrationService} back into this service:
+ * summaries are aggregated by one grouped query over w1_filings and cached per tenant, business and
+ * tax year in the {@value #CACHE_NAME} cache of the shared Redis cache manager.
+ * Businesses without W-1 filings are cached as empty summaries so repeated lookups skip the query.
+ *
+ * Entries are evicted when a W-1 is filed or amended for the tenant, business and tax year (after commit),
+ * and expire after app.withholding.payroll-summary.cache-ttl-seconds (see RedisCacheConfig).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PayrollSummaryProvider {
+
+    public static final String CACHE_NAME = "payrollSummaries";
+
+    private final W1FilingRepository w1FilingRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Get the payroll summary for one business and tax year.
+     *
+     * @param businessId the business ID
+     * @param taxYear    the tax year
+     * @param tenantId   the tenant ID
+     * @return payroll summary (empty if no W-1 filings)
+     */
+    public PayrollSummary getSummary(UUID businessId, Integer taxYear, UUID tenantId) {
+        return getSummaries(List.of(businessId), taxYear, tenantId).get(businessId);
+    }
+
+    /**
+     * Get payroll summaries for many businesses in one tax year.
+     * Cached entries are served from the cache; all misses are loaded with a single query.
+     *
+     * @param businessIds the business IDs
+     * @param taxYear     the tax year
+     * @param tenantId    the tenant ID
+     * @return business ID to payroll summary (every requested business is present)
+     */
+    public Map<UUID, PayrollSummary> getSummaries(Collection<UUID> businessIds, Integer taxYear, UUID tenantId) {
+        Cache cache = cache();
+        Map<UUID, PayrollSummary> summaries = new HashMap<>();
+        Set<UUID> misses = new HashSet<>();
+
+        for (UUID businessId : businessIds) {
+            PayrollSummary summary = cache.get(key(tenantId, businessId, taxYear), PayrollSummary.class);
+            if (summary != null) {
+                summaries.put(businessId, summary);
+            } else {
+                misses.add(businessId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            summaries.putAll(load(cache, misses, taxYear, tenantId));
+        }
+        return summaries;
+    }
+
+    /**
+     * Evict the cached summary for a business + tax year.
+     *
+     * @param businessId the business ID
+     * @param taxYear    the tax year
+     * @param tenantId   the tenant ID
+     */
+    public void invalidate(UUID businessId, Integer taxYear, UUID tenantId) {
+        cache().evict(key(tenantId, businessId, taxYear));
+    }
+
+    /**
+     * Evict the summary once a W-1 filing or amendment for the business + year has committed.
+     *
+     * @param event W-1 filed/amended event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onW1Filed(W1FiledEvent event) {
+        invalidate(event.businessId(), event.taxYear(), event.tenantId());
+    }
+
+    private Map<UUID, PayrollSummary> load(Cache cache, Set<UUID> businessIds, Integer taxYear, UUID tenantId) {
+        Map<UUID, PayrollSummary> loaded = new HashMap<>();
+        for (Object[] row : w1FilingRepository.summarizePayrollByBusiness(tenantId, businessIds, taxYear)) {
+            UUID businessId = (UUID) row[0];
+            loaded.put(businessId, new PayrollSummary(
+                businessId,
+                taxYear,
+                row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO,
+                row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO,
+                row[3] != null ? ((Number) row[3]).intValue() : 0,
+                ((Number) row[4]).longValue()));
+        }
+        for (UUID businessId : businessIds) {
+            loaded.computeIfAbsent(businessId, id -> PayrollSummary.empty(id, taxYear));
+        }
+
+        loaded.forEach((businessId, summary) -> cache.put(key(tenantId, businessId, taxYear), summary));
+        log.debug("Loaded payroll summaries for {} businesses, tax year {}", businessIds.size(), taxYear);
+        return loaded;
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CACHE_NAME);
+        }
+        return cache;
+    }
+
+    private static String key(UUID tenantId, UUID businessId, Integer taxYear) {
+        return tenantId + "-" + businessId + "-" + taxYear;
+    }
+}
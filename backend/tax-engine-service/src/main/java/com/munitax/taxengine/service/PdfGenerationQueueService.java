@@ -0,0 +1,470 @@
+package com.munitax.taxengine.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.munitax.taxengine.domain.document.PdfDocumentType;
+import com.munitax.taxengine.domain.document.PdfGenerationJob;
+import com.munitax.taxengine.domain.document.PdfJobStatus;
+import com.munitax.taxengine.dto.PdfGenerationJobResponse;
+import com.munitax.taxengine.repository.PdfGenerationJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Durable, deduplicated queue for pdf-service document generation.
+ *
+ * Rendering a document is a blocking pdf-service call (up to the 30s read timeout), so request
+ * threads only enqueue a job and return its ID; a bounded worker pool renders in the background.
+ *
+ * Process:
+ * 1. Enqueue: hash document type + canonical payload; return the queued or running job for an
+ *    identical request, otherwise persist a QUEUED job (jobs survive restarts). Finished jobs are
+ *    not reused, so a repeated request after completion renders a fresh document
+ * 2. Dispatch (scheduled): claim up to the number of idle workers with FOR UPDATE SKIP LOCKED
+ *    and mark them RUNNING
+ * 3. Worker: call PdfServiceIntegrationService; COMPLETED with the pdf path, re-queued on failure
+ *    until max attempts, then FAILED
+ * 4. Reclaim (at startup, then every reclaim interval from the dispatch loop): jobs left RUNNING
+ *    longer than the abandoned-after threshold by a stopped instance are re-queued, so a live
+ *    duplicate request is never deduplicated onto a job nobody is rendering
+ *
+ * Overload never times out callers: excess requests wait in the queue.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PdfGenerationQueueService {
+
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true)
+            .build();
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PdfGenerationJobRepository jobRepository;
+    private final PdfServiceIntegrationService pdfServiceIntegrationService;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private ExecutorService workerPool;
+
+    /**
+     * Maximum concurrent pdf-service calls.
+     */
+    @Value("${app.pdf-generation.workers:4}")
+    private int workers;
+
+    /**
+     * Attempts per job before it is marked FAILED.
+     */
+    @Value("${app.pdf-generation.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * RUNNING jobs older than this are treated as abandoned and re-queued. Must exceed the
+     * pdf-service read timeout so jobs still rendering on a live instance are not reclaimed.
+     */
+    @Value("${app.pdf-generation.abandoned-after-seconds:300}")
+    private long abandonedAfterSeconds;
+
+    /**
+     * How often the dispatch loop re-queues abandoned jobs.
+     */
+    @Value("${app.pdf-generation.reclaim-interval-seconds:60}")
+    private long reclaimIntervalSeconds;
+
+    private volatile LocalDateTime nextReclaimAt = LocalDateTime.MIN;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "pdf-generation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("pdf.generation.workers.busy", busyWorkers);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        workerPool.shutdown();
+        if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Unfinished jobs stay RUNNING and are re-queued by another instance or the next startup
+            workerPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue Form 27-PA (Penalty Abatement Request) generation.
+     * FR-036: Generate form with taxpayer information and abatement request details.
+     *
+     * The job payload is stored in the database, so only a masked taxpayer ID (last four digits)
+     * is queued and printed on the form; the full SSN/FEIN is never persisted.
+     *
+     * @return queued (or deduplicated) job
+     */
+    public PdfGenerationJobResponse enqueueForm27PA(UUID abatementId, UUID tenantId, UUID returnId,
+                                                     String taxpayerName, String taxpayerId,
+                                                     BigDecimal requestedAmount, String reason, String explanation,
+                                                     Map<String, Object> penaltyDetails) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("abatementId", abatementId);
+        payload.put("returnId", returnId);
+        payload.put("taxpayerName", taxpayerName);
+        payload.put("taxpayerId", maskTaxpayerId(taxpayerId));
+        payload.put("requestedAmount", requestedAmount);
+        payload.put("reason", reason);
+        payload.put("explanation", explanation);
+        payload.put("penaltyDetails", penaltyDetails);
+        return enqueue(PdfDocumentType.FORM_27_PA, tenantId, abatementId, payload);
+    }
+
+    /**
+     * Mask every digit of an SSN/FEIN except the last four, keeping separators
+     * (123-45-6789 becomes XXX-XX-6789).
+     */
+    static String maskTaxpayerId(String taxpayerId) {
+        if (taxpayerId == null) {
+            return null;
+        }
+        int digits = (int) taxpayerId.chars().filter(Character::isDigit).count();
+        StringBuilder masked = new StringBuilder(taxpayerId.length());
+        int seen = 0;
+        for (char c : taxpayerId.toCharArray()) {
+            if (Character.isDigit(c)) {
+                masked.append(++seen > digits - 4 ? c : 'X');
+            } else {
+                masked.append(c);
+            }
+        }
+        return masked.toString();
+    }
+
+    /**
+     * Queue penalty calculation summary generation.
+     *
+     * @return queued (or deduplicated) job
+     */
+    public PdfGenerationJobResponse enqueuePenaltyCalculationSummary(UUID returnId, UUID tenantId, String taxpayerName,
+                                                                     Map<String, Object> calculationData) {
+        return enqueue(PdfDocumentType.PENALTY_SUMMARY, tenantId, returnId,
+                returnPayload(returnId, taxpayerName, "calculationData", calculationData));
+    }
+
+    /**
+     * Queue interest calculation breakdown generation.
+     *
+     * @return queued (or deduplicated) job
+     */
+    public PdfGenerationJobResponse enqueueInterestCalculationBreakdown(UUID returnId, UUID tenantId,
+                                                                        String taxpayerName,
+                                                                        Map<String, Object> interestData) {
+        return enqueue(PdfDocumentType.INTEREST_BREAKDOWN, tenantId, returnId,
+                returnPayload(returnId, taxpayerName, "interestData", interestData));
+    }
+
+    /**
+     * Queue payment allocation receipt generation.
+     *
+     * @return queued (or deduplicated) job
+     */
+    public PdfGenerationJobResponse enqueuePaymentAllocationReceipt(UUID returnId, UUID tenantId,
+                                                                    String taxpayerName,
+                                                                    Map<String, Object> allocationData) {
+        return enqueue(PdfDocumentType.PAYMENT_RECEIPT, tenantId, returnId,
+                returnPayload(returnId, taxpayerName, "allocationData", allocationData));
+    }
+
+    /**
+     * Queue a document, or return the live job for an identical request.
+     *
+     * @param documentType document to render
+     * @param tenantId     the tenant ID
+     * @param referenceId  source entity (may be null)
+     * @param payload      pdf-service call arguments (JSON-serializable)
+     * @return queued (or deduplicated) job
+     */
+    public PdfGenerationJobResponse enqueue(PdfDocumentType documentType, UUID tenantId, UUID referenceId,
+                                            Map<String, Object> payload) {
+        if (documentType == null || tenantId == null) {
+            throw new IllegalArgumentException("Document type and tenant ID are required");
+        }
+        Map<String, Object> canonicalPayload = CANONICAL_MAPPER.convertValue(payload, PAYLOAD_TYPE);
+        String dedupeKey = dedupeKey(documentType, canonicalPayload);
+
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        write.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return write.execute(status -> jobRepository.findLiveJob(tenantId, dedupeKey)
+                    .map(this::deduplicated)
+                    .orElseGet(() -> {
+                        PdfGenerationJob job = jobRepository.saveAndFlush(PdfGenerationJob.builder()
+                                .tenantId(tenantId)
+                                .documentType(documentType)
+                                .referenceId(referenceId)
+                                .dedupeKey(dedupeKey)
+                                .payload(canonicalPayload)
+                                .build());
+                        log.info("Queued {} generation job {} for tenant {}", documentType, job.getJobId(), tenantId);
+                        return toResponse(job, false);
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            // An identical request was queued concurrently (unique live dedupe key)
+            return jobRepository.findLiveJob(tenantId, dedupeKey)
+                    .map(this::deduplicated)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Get a job's status.
+     *
+     * @param jobId    the job ID
+     * @param tenantId the tenant ID
+     * @return job, if it exists for the tenant
+     */
+    public Optional<PdfGenerationJobResponse> getJob(UUID jobId, UUID tenantId) {
+        return jobRepository.findByJobIdAndTenantId(jobId, tenantId).map(job -> toResponse(job, false));
+    }
+
+    /**
+     * Re-queue jobs left RUNNING by an instance that stopped mid-render.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverAbandonedJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        nextReclaimAt = now.plusSeconds(reclaimIntervalSeconds);
+        LocalDateTime cutoff = now.minusSeconds(abandonedAfterSeconds);
+        Integer requeued = new TransactionTemplate(transactionManager)
+                .execute(status -> jobRepository.requeueAbandoned(cutoff));
+        if (requeued != null && requeued > 0) {
+            log.warn("Re-queued {} abandoned PDF generation jobs", requeued);
+        }
+    }
+
+    /**
+     * Claim queued jobs for idle workers and start rendering them.
+     */
+    @Scheduled(fixedDelayString = "${app.pdf-generation.poll-interval-ms:500}")
+    public void dispatch() {
+        if (!LocalDateTime.now().isBefore(nextReclaimAt)) {
+            recoverAbandonedJobs();
+        }
+        int idle = workers - busyWorkers.get();
+        if (idle <= 0) {
+            return;
+        }
+        for (PdfGenerationJob job : claim(idle)) {
+            busyWorkers.incrementAndGet();
+            try {
+                workerPool.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        busyWorkers.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Pool shut down: the job stays RUNNING and is re-queued once abandoned
+                busyWorkers.decrementAndGet();
+                log.warn("Could not start PDF generation job {}: {}", job.getJobId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lock and mark up to {@code limit} queued jobs RUNNING.
+     */
+    List<PdfGenerationJob> claim(int limit) {
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        List<PdfGenerationJob> claimed = write.execute(status -> {
+            List<UUID> ids = jobRepository.lockQueuedJobIds(limit);
+            if (ids.isEmpty()) {
+                return List.<PdfGenerationJob>of();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<PdfGenerationJob> jobs = jobRepository.findAllById(ids);
+            for (PdfGenerationJob job : jobs) {
+                job.setStatus(PdfJobStatus.RUNNING);
+                job.setStartedAt(now);
+                job.setAttempts(job.getAttempts() + 1);
+            }
+            return jobRepository.saveAll(jobs);
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    /**
+     * Render one claimed job and record the outcome.
+     */
+    void process(PdfGenerationJob job) {
+        String pdfPath = null;
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            pdfPath = render(job);
+            if (pdfPath == null) {
+                error = "pdf-service did not return a document";
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("PDF generation job {} ({}) failed", job.getJobId(), job.getDocumentType(), e);
+        }
+        meterRegistry.timer("pdf.generation.render", "documentType", job.getDocumentType().name())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        String outcome = complete(job.getJobId(), pdfPath, error);
+        meterRegistry.counter("pdf.generation.jobs", "documentType", job.getDocumentType().name(), "outcome", outcome)
+                .increment();
+    }
+
+    private String complete(UUID jobId, String pdfPath, String error) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            PdfGenerationJob job = jobRepository.findById(jobId)
+                    .orElseThrow(() -> new IllegalStateException("PDF generation job not found: " + jobId));
+            String outcome;
+            if (pdfPath != null) {
+                job.setStatus(PdfJobStatus.COMPLETED);
+                job.setPdfPath(pdfPath);
+                job.setErrorMessage(null);
+                job.setCompletedAt(LocalDateTime.now());
+                outcome = "completed";
+            } else if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(PdfJobStatus.FAILED);
+                job.setErrorMessage(truncate(error));
+                job.setCompletedAt(LocalDateTime.now());
+                outcome = "failed";
+                log.error("PDF generation job {} failed after {} attempts: {}", jobId, job.getAttempts(), error);
+            } else {
+                job.setStatus(PdfJobStatus.QUEUED);
+                job.setErrorMessage(truncate(error));
+                outcome = "retried";
+                log.warn("PDF generation job {} attempt {} failed, re-queued: {}", jobId, job.getAttempts(), error);
+            }
+            jobRepository.save(job);
+            return outcome;
+        });
+    }
+
+    private String render(PdfGenerationJob job) {
+        Map<String, Object> payload = job.getPayload();
+        UUID tenantId = job.getTenantId();
+        return switch (job.getDocumentType()) {
+            case FORM_27_PA -> pdfServiceIntegrationService.generateForm27PA(
+                    uuid(payload, "abatementId"), tenantId, uuid(payload, "returnId"),
+                    string(payload, "taxpayerName"), string(payload, "taxpayerId"),
+                    decimal(payload, "requestedAmount"), string(payload, "reason"),
+                    string(payload, "explanation"), map(payload, "penaltyDetails"));
+            case PENALTY_SUMMARY -> pdfServiceIntegrationService.generatePenaltyCalculationSummary(
+                    uuid(payload, "returnId"), tenantId, string(payload, "taxpayerName"),
+                    map(payload, "calculationData"));
+            case INTEREST_BREAKDOWN -> pdfServiceIntegrationService.generateInterestCalculationBreakdown(
+                    uuid(payload, "returnId"), tenantId, string(payload, "taxpayerName"),
+                    map(payload, "interestData"));
+            case PAYMENT_RECEIPT -> pdfServiceIntegrationService.generatePaymentAllocationReceipt(
+                    uuid(payload, "returnId"), tenantId, string(payload, "taxpayerName"),
+                    map(payload, "allocationData"));
+        };
+    }
+
+    private PdfGenerationJobResponse deduplicated(PdfGenerationJob job) {
+        meterRegistry.counter("pdf.generation.jobs", "documentType", job.getDocumentType().name(),
+                "outcome", "deduplicated").increment();
+        log.debug("Deduplicated {} request to job {} ({})", job.getDocumentType(), job.getJobId(), job.getStatus());
+        return toResponse(job, true);
+    }
+
+    static String dedupeKey(PdfDocumentType documentType, Map<String, Object> canonicalPayload) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(documentType.name().getBytes(StandardCharsets.UTF_8));
+            digest.update(CANONICAL_MAPPER.writeValueAsBytes(canonicalPayload));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to compute PDF job dedupe key", e);
+        }
+    }
+
+    private static Map<String, Object> returnPayload(UUID returnId, String taxpayerName,
+                                                     String dataKey, Map<String, Object> data) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("returnId", returnId);
+        payload.put("taxpayerName", taxpayerName);
+        payload.put(dataKey, data);
+        return payload;
+    }
+
+    private static PdfGenerationJobResponse toResponse(PdfGenerationJob job, boolean deduplicated) {
+        return PdfGenerationJobResponse.builder()
+                .jobId(job.getJobId())
+                .documentType(job.getDocumentType())
+                .referenceId(job.getReferenceId())
+                .status(job.getStatus())
+                .deduplicated(deduplicated)
+                .pdfPath(job.getPdfPath())
+                .errorMessage(job.getErrorMessage())
+                .attempts(job.getAttempts())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private static UUID uuid(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value != null ? UUID.fromString(value.toString()) : null;
+    }
+
+    private static String string(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+
+    private static BigDecimal decimal(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value != null ? new BigDecimal(value.toString()) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> payload, String key) {
+        return (Map<String, Object>) payload.get(key);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,422 @@
+package com.munitax.taxengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munitax.taxengine.domain.apportionment.NexusSnapshot;
+import com.munitax.taxengine.domain.apportionment.SaleTransaction;
+import com.munitax.taxengine.domain.apportionment.SaleType;
+import com.munitax.taxengine.domain.apportionment.SalesFactor;
+import com.munitax.taxengine.domain.apportionment.ScheduleY;
+import com.munitax.taxengine.domain.apportionment.ServiceSourcingMethod;
+import com.munitax.taxengine.domain.apportionment.SourcingMethod;
+import com.munitax.taxengine.domain.apportionment.ThrowbackElection;
+import com.munitax.taxengine.dto.SaleTransactionDto;
+import com.munitax.taxengine.dto.SaleTransactionImportResponse;
+import com.munitax.taxengine.dto.SaleTransactionImportResponse.RowError;
+import com.munitax.taxengine.repository.SaleTransactionRepository;
+import com.munitax.taxengine.repository.SalesFactorRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Service for streaming sale transaction imports into a Schedule Y sales factor.
+ * Throwback/throwout rules are applied per the Schedule Y election [US2].
+ *
+ * Input is streamed line by line as CSV (header row with SaleTransactionDto field names) or
+ * NDJSON (one SaleTransactionDto JSON object per line) and processed in chunks, so memory is
+ * bounded by the chunk size rather than the file size:
+ * 1. Parse and validate each row; invalid rows are reported and skipped
+ * 2. Check destination nexus against one {@link NexusSnapshot} taken for the whole import
+ * 3. Source and throwback-adjust each row ({@link SalesFactorService#applySourcing})
+ * 4. Insert the chunk with saveAll in one transaction (Hibernate JDBC batching) and add the
+ *    chunk's Ohio sales, throwback adjustment and everywhere sales to the locked SalesFactor,
+ *    falling back to row-by-row inserts if the chunk fails so errors are reported per row
+ *
+ * Imported transactions are added to the sales factor's existing totals; thrown-out sales
+ * are excluded from both numerator and denominator. CSV is read with {@link CsvRecordReader}, so
+ * quoted customer names and descriptions may contain commas.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SaleTransactionImportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String OHIO = "OH";
+    private static final List<String> CSV_REQUIRED_COLUMNS = List.of(
+        "transactionDate", "saleType", "amount", "destinationState");
+
+    private final SalesFactorRepository salesFactorRepository;
+    private final SaleTransactionRepository saleTransactionRepository;
+    private final SalesFactorService salesFactorService;
+    private final NexusService nexusService;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Rows buffered, sourced and inserted together.
+     */
+    @Value("${app.apportionment.sale-import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Import a stream of sale transactions into the sales factor of a Schedule Y.
+     *
+     * @param scheduleY  the Schedule Y (provides the throwback election)
+     * @param businessId the business whose nexus determines throwback
+     * @param input      CSV or NDJSON body
+     * @param format     {@link #FORMAT_CSV} or {@link #FORMAT_NDJSON}
+     * @param tenantId   the tenant ID for multi-tenant isolation
+     * @return Counts, amounts added and per-row errors
+     * @throws IllegalArgumentException if the format is unknown, the CSV header is invalid
+     *                                  or the Schedule Y has no sales factor
+     */
+    public SaleTransactionImportResponse importTransactions(ScheduleY scheduleY,
+                                                            UUID businessId,
+                                                            InputStream input,
+                                                            String format,
+                                                            UUID tenantId) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported sale transaction import format: " + format);
+        }
+        UUID salesFactorId = salesFactorRepository.findByScheduleY_ScheduleYId(scheduleY.getScheduleYId())
+                .map(SalesFactor::getSalesFactorId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Sales factor not found for Schedule Y: " + scheduleY.getScheduleYId()));
+        log.info("Starting sale transaction import ({}) into sales factor {}", format, salesFactorId);
+
+        ImportState state = new ImportState(scheduleY, salesFactorId, tenantId,
+            nexusService.getNexusSnapshot(businessId, tenantId, scheduleY.getTaxYear()));
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            if (FORMAT_CSV.equals(format)) {
+                CsvRecordReader records = new CsvRecordReader(reader, CSV_REQUIRED_COLUMNS);
+                while (records.hasNext()) {
+                    accept(parseRow(++state.totalRows, () -> parseCsvRow(records.next(), records.getHeader()), state),
+                           chunk, state);
+                }
+            } else {
+                BufferedReader lines = new BufferedReader(reader);
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    String json = line;
+                    accept(parseRow(++state.totalRows, () -> objectMapper.readValue(json, SaleTransactionDto.class), state),
+                           chunk, state);
+                }
+            }
+            processChunk(chunk, state);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read sale transaction input: " + e.getMessage(), e);
+        }
+
+        state.errors.sort(Comparator.comparingInt(RowError::getRowNumber));
+        log.info("Sale transaction import complete: {} rows, {} imported, {} throwback, {} throwout, {} errors",
+                 state.totalRows, state.imported.count, state.imported.throwbackCount,
+                 state.imported.throwoutCount, state.errors.size());
+
+        return SaleTransactionImportResponse.builder()
+            .salesFactorId(salesFactorId)
+            .totalRows(state.totalRows)
+            .importedCount(state.imported.count)
+            .errorCount(state.errors.size())
+            .throwbackCount(state.imported.throwbackCount)
+            .throwoutCount(state.imported.throwoutCount)
+            .ohioSourcedAmount(state.imported.ohioSourced())
+            .throwbackAmount(state.imported.throwback)
+            .salesFactorPercentage(state.salesFactorPercentage)
+            .errors(state.errors)
+            .build();
+    }
+
+    /**
+     * Buffer a parsed row, processing the chunk once it is full.
+     */
+    private void accept(ParsedRow row, List<ParsedRow> chunk, ImportState state) {
+        if (row != null) {
+            chunk.add(row);
+        }
+        if (chunk.size() >= chunkSize) {
+            processChunk(chunk, state);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Source and insert one chunk of parsed rows.
+     */
+    private void processChunk(List<ParsedRow> chunk, ImportState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        for (ParsedRow row : chunk) {
+            boolean hasNexus = state.nexus.hasNexus(row.dto.getDestinationState());
+            row.transaction = buildTransaction(row.dto, hasNexus, state);
+        }
+
+        try {
+            insert(chunk, state);
+        } catch (RuntimeException e) {
+            log.warn("Sale transaction chunk insert failed ({}), retrying {} rows individually",
+                     e.getMessage(), chunk.size());
+            for (ParsedRow row : chunk) {
+                try {
+                    row.transaction.setTransactionId(null);
+                    insert(List.of(row), state);
+                } catch (RuntimeException rowFailure) {
+                    state.reject(row.rowNumber, row.dto, "Failed to save sale transaction: " + rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert transactions and add their totals to the sales factor in one transaction.
+     * The sales factor row is locked so concurrent imports into it serialize per chunk.
+     */
+    private void insert(List<ParsedRow> rows, ImportState state) {
+        Totals delta = new Totals();
+        rows.forEach(row -> delta.add(row.transaction));
+
+        BigDecimal percentage = new TransactionTemplate(transactionManager).execute(status -> {
+            SalesFactor salesFactor = salesFactorRepository.findByIdForUpdate(state.salesFactorId)
+                .orElseThrow(() -> new IllegalArgumentException("Sales factor not found: " + state.salesFactorId));
+
+            List<SaleTransaction> transactions = new ArrayList<>(rows.size());
+            for (ParsedRow row : rows) {
+                row.transaction.setSalesFactor(salesFactor);
+                transactions.add(row.transaction);
+            }
+            saleTransactionRepository.saveAll(transactions);
+
+            delta.applyTo(salesFactor);
+            salesFactor.calculateTotalsAndPercentage();
+            return salesFactorRepository.save(salesFactor).getSalesFactorPercentage();
+        });
+
+        state.imported.merge(delta);
+        state.salesFactorPercentage = percentage;
+    }
+
+    /**
+     * Build a sourced, throwback-adjusted transaction for a validated row.
+     */
+    private SaleTransaction buildTransaction(SaleTransactionDto dto, boolean hasNexus, ImportState state) {
+        SaleTransaction transaction = new SaleTransaction(dto.getTransactionDate(), dto.getCustomerName(),
+            dto.getAmount(), dto.getSaleType(), dto.getOriginState(), dto.getDestinationState());
+        transaction.setCustomerState(dto.getCustomerState());
+        transaction.setServiceSourcingMethod(dto.getServiceSourcingMethod());
+        transaction.setScheduleYId(state.scheduleY.getScheduleYId());
+        transaction.setBusinessId(state.nexus.getBusinessId());
+        transaction.setTenantId(state.tenantId);
+
+        salesFactorService.applySourcing(transaction, hasNexus, state.throwbackElection);
+
+        if (Boolean.TRUE.equals(transaction.getThrowbackApplied())) {
+            if (state.throwbackElection == ThrowbackElection.THROWOUT) {
+                transaction.setSourcingMethod(SourcingMethod.THROWOUT);
+                transaction.setAllocatedState(dto.getDestinationState());
+                transaction.setAllocatedAmount(BigDecimal.ZERO);
+            } else {
+                transaction.setSourcingMethod(SourcingMethod.THROWBACK);
+                transaction.setAllocatedState(dto.getOriginState() != null ? dto.getOriginState() : OHIO);
+                transaction.setAllocatedAmount(transaction.getThrowbackAmount());
+            }
+        } else {
+            transaction.setSourcingMethod(dto.getSourcingMethod() != null ? dto.getSourcingMethod() : SourcingMethod.DESTINATION);
+            transaction.setAllocatedState(dto.getDestinationState());
+            transaction.setAllocatedAmount(dto.getAmount());
+        }
+        return transaction;
+    }
+
+    /**
+     * Parse and validate one row; records an error and returns null if the row is invalid.
+     */
+    private ParsedRow parseRow(int rowNumber, Callable<SaleTransactionDto> parser, ImportState state) {
+        SaleTransactionDto dto;
+        try {
+            dto = parser.call();
+        } catch (Exception e) {
+            state.reject(rowNumber, null, "Unparseable row: " + rootMessage(e));
+            return null;
+        }
+
+        List<String> messages = validator.validate(dto).stream()
+            .map(ConstraintViolation::getMessage)
+            .collect(Collectors.toCollection(ArrayList::new));
+        if (dto.getTransactionDate() == null) {
+            messages.add("Transaction date is required");
+        }
+        if (!messages.isEmpty()) {
+            state.reject(rowNumber, dto, messages.stream().sorted().collect(Collectors.joining("; ")));
+            return null;
+        }
+        return new ParsedRow(rowNumber, dto);
+    }
+
+    private SaleTransactionDto parseCsvRow(String[] values, String[] header) {
+        SaleTransactionDto dto = new SaleTransactionDto();
+        for (int i = 0; i < header.length; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header[i]) {
+                case "transactionDate" -> dto.setTransactionDate(LocalDate.parse(value));
+                case "customerName" -> dto.setCustomerName(value);
+                case "saleType" -> dto.setSaleType(SaleType.valueOf(value));
+                case "amount" -> dto.setAmount(new BigDecimal(value));
+                case "originState" -> dto.setOriginState(value);
+                case "destinationState" -> dto.setDestinationState(value);
+                case "customerState" -> dto.setCustomerState(value);
+                case "serviceSourcingMethod" -> dto.setServiceSourcingMethod(ServiceSourcingMethod.valueOf(value));
+                case "sourcingMethod" -> dto.setSourcingMethod(SourcingMethod.valueOf(value));
+                case "description" -> dto.setDescription(value);
+                case "transactionReference" -> dto.setTransactionReference(value);
+                default -> { } // Unknown columns are ignored
+            }
+        }
+        return dto;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * Sales factor amounts contributed by a set of imported transactions.
+     */
+    private static final class Totals {
+        private final Map<SaleType, BigDecimal> ohioBySaleType = new EnumMap<>(SaleType.class);
+        private BigDecimal throwback = BigDecimal.ZERO;
+        private BigDecimal everywhere = BigDecimal.ZERO;
+        private int count;
+        private int throwbackCount;
+        private int throwoutCount;
+
+        private void add(SaleTransaction transaction) {
+            count++;
+            boolean thrown = Boolean.TRUE.equals(transaction.getThrowbackApplied());
+            boolean thrownOut = thrown && transaction.getSourcingMethod() == SourcingMethod.THROWOUT;
+            if (thrownOut) {
+                throwoutCount++;
+                return;
+            }
+
+            everywhere = everywhere.add(transaction.getAmount());
+            if (thrown) {
+                // Thrown-back sales go to the throwback adjustment, not the sale-type buckets
+                throwbackCount++;
+                throwback = throwback.add(orZero(transaction.getThrowbackAmount()));
+            } else {
+                ohioBySaleType.merge(transaction.getSaleType(), orZero(transaction.getOhioSourcedAmount()), BigDecimal::add);
+            }
+        }
+
+        private void merge(Totals other) {
+            other.ohioBySaleType.forEach((type, amount) -> ohioBySaleType.merge(type, amount, BigDecimal::add));
+            throwback = throwback.add(other.throwback);
+            everywhere = everywhere.add(other.everywhere);
+            count += other.count;
+            throwbackCount += other.throwbackCount;
+            throwoutCount += other.throwoutCount;
+        }
+
+        private BigDecimal ohioSourced() {
+            return ohioBySaleType.values().stream().reduce(throwback, BigDecimal::add);
+        }
+
+        private void applyTo(SalesFactor salesFactor) {
+            ohioBySaleType.forEach((type, amount) -> {
+                switch (type) {
+                    case TANGIBLE_GOODS -> salesFactor.setOhioSalesTangibleGoods(orZero(salesFactor.getOhioSalesTangibleGoods()).add(amount));
+                    case SERVICES -> salesFactor.setOhioSalesServices(orZero(salesFactor.getOhioSalesServices()).add(amount));
+                    case RENTAL_INCOME -> salesFactor.setOhioSalesRentalIncome(orZero(salesFactor.getOhioSalesRentalIncome()).add(amount));
+                    case INTEREST -> salesFactor.setOhioSalesInterest(orZero(salesFactor.getOhioSalesInterest()).add(amount));
+                    case ROYALTIES -> salesFactor.setOhioSalesRoyalties(orZero(salesFactor.getOhioSalesRoyalties()).add(amount));
+                    default -> salesFactor.setOhioSalesOther(orZero(salesFactor.getOhioSalesOther()).add(amount));
+                }
+            });
+            salesFactor.setThrowbackAdjustment(orZero(salesFactor.getThrowbackAdjustment()).add(throwback));
+            salesFactor.setTotalSalesEverywhere(orZero(salesFactor.getTotalSalesEverywhere()).add(everywhere));
+        }
+    }
+
+    /**
+     * A parsed, valid input row and its sourced transaction.
+     */
+    private static final class ParsedRow {
+        private final int rowNumber;
+        private final SaleTransactionDto dto;
+        private SaleTransaction transaction;
+
+        private ParsedRow(int rowNumber, SaleTransactionDto dto) {
+            this.rowNumber = rowNumber;
+            this.dto = dto;
+        }
+    }
+
+    /**
+     * Mutable state for one import request.
+     */
+    private static final class ImportState {
+        private final ScheduleY scheduleY;
+        private final UUID salesFactorId;
+        private final UUID tenantId;
+        private final NexusSnapshot nexus;
+        private final ThrowbackElection throwbackElection;
+        private final Totals imported = new Totals();
+        private final List<RowError> errors = new ArrayList<>();
+        private BigDecimal salesFactorPercentage;
+        private int totalRows;
+
+        private ImportState(ScheduleY scheduleY, UUID salesFactorId, UUID tenantId, NexusSnapshot nexus) {
+            this.scheduleY = scheduleY;
+            this.salesFactorId = salesFactorId;
+            this.tenantId = tenantId;
+            this.nexus = nexus;
+            this.throwbackElection = scheduleY.getThrowbackElection() != null
+                ? scheduleY.getThrowbackElection() : ThrowbackElection.THROWBACK;
+        }
+
+        private void reject(int rowNumber, SaleTransactionDto dto, String message) {
+            errors.add(RowError.builder()
+                .rowNumber(rowNumber)
+                .transactionReference(dto != null ? dto.getTransactionReference() : null)
+                .message(message)
+                .build());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.munitax.taxengine.service;
 
+import com.munitax.taxengine.domain.apportionment.NexusSnapshot;
 import com.munitax.taxengine.domain.apportionment.SaleTransaction;
 import com.munitax.taxengine.domain.apportionment.SaleType;
 import com.munitax.taxengine.domain.apportionment.SalesFactor;
@@ -132,53 +133,29 @@ public class SalesFactorService {
         BigDecimal totalThrowbackAmount = BigDecimal.ZERO;
         int throwbackCount = 0;
 
+        // Load the business's nexus for the Schedule Y tax year once; per-transaction checks are bit tests
+        NexusSnapshot nexus = nexusService.getNexusSnapshot(businessId, tenantId,
+                salesFactor.getScheduleY().getTaxYear());
+
         // Apply sourcing to each transaction
         for (SaleTransaction transaction : transactions) {
-            // Determine if destination state has nexus
-            boolean hasNexus = nexusService.hasNexus(businessId, transaction.getDestinationState(), tenantId);
-
-            if (!hasNexus) {
-                // Apply throwback rule with election
-                BigDecimal adjustedAmount = throwbackService.applyThrowbackRule(
-                        transaction.getAmount(),
-                        transaction.getOriginState(),
-                        transaction.getDestinationState(),
-                        businessId,
-                        tenantId,
-                        throwbackElection
-                );
-
-                transaction.setThrowbackApplied(true);
-                
-                if (throwbackElection == com.munitax.taxengine.domain.apportionment.ThrowbackElection.THROWBACK) {
-                    // Throwback: Add to origin state (Ohio) numerator
-                    transaction.setThrowbackAmount(adjustedAmount);
-                    transaction.setOhioSourcedAmount(adjustedAmount);
-                    totalThrowbackAmount = totalThrowbackAmount.add(adjustedAmount);
-                } else {
-                    // Throwout: Exclude from both numerator and denominator
-                    transaction.setThrowbackAmount(BigDecimal.ZERO);
-                    transaction.setOhioSourcedAmount(BigDecimal.ZERO);
-                }
-                
-                throwbackCount++;
-            } else if (transaction.getDestinationState().equals("OH")) {
-                // Sale to Ohio (has nexus by definition)
-                transaction.setThrowbackApplied(false);
-                transaction.setThrowbackAmount(BigDecimal.ZERO);
-                transaction.setOhioSourcedAmount(transaction.getAmount());
-            } else {
-                // Sale to state with nexus (not Ohio)
-                transaction.setThrowbackApplied(false);
-                transaction.setThrowbackAmount(BigDecimal.ZERO);
-                transaction.setOhioSourcedAmount(BigDecimal.ZERO);
+            if (transaction.getBusinessId() == null) {
+                transaction.setBusinessId(businessId);
             }
+            boolean hasNexus = !throwbackService.shouldApplyThrowback(transaction.getDestinationState(), nexus);
 
-            totalOhioSourcedAmount = totalOhioSourcedAmount.add(transaction.getOhioSourcedAmount());
+            applySourcing(transaction, hasNexus, throwbackElection);
 
-            saleTransactionRepository.save(transaction);
+            if (Boolean.TRUE.equals(transaction.getThrowbackApplied())) {
+                totalThrowbackAmount = totalThrowbackAmount.add(transaction.getThrowbackAmount());
+                throwbackCount++;
+            }
+            totalOhioSourcedAmount = totalOhioSourcedAmount.add(transaction.getOhioSourcedAmount());
         }
 
+        // Single batched write instead of one UPDATE round trip per transaction
+        saleTransactionRepository.saveAll(transactions);
+
         // Update sales factor with calculated amounts
         salesFactor.setThrowbackAdjustment(totalThrowbackAmount);
 
@@ -199,6 +176,53 @@ public class SalesFactorService {
         return salesFactorRepository.save(salesFactor);
     }
 
+    /**
+     * Apply throwback/throwout sourcing to a single transaction whose destination nexus is known.
+     * Sets throwbackApplied, throwbackAmount and ohioSourcedAmount on the transaction.
+     *
+     * @param transaction         the sale transaction
+     * @param hasNexus            whether the business has nexus in the destination state
+     * @param throwbackElection   the throwback election (THROWBACK or THROWOUT)
+     */
+    void applySourcing(SaleTransaction transaction,
+                       boolean hasNexus,
+                       com.munitax.taxengine.domain.apportionment.ThrowbackElection throwbackElection) {
+        transaction.setHasDestinationNexus(hasNexus);
+
+        if (!hasNexus) {
+            // Apply throwback rule with election
+            BigDecimal adjustedAmount = throwbackService.applyThrowbackRule(
+                    transaction.getAmount(),
+                    transaction.getOriginState(),
+                    transaction.getDestinationState(),
+                    false,
+                    throwbackElection
+            );
+
+            transaction.setThrowbackApplied(true);
+
+            if (throwbackElection == com.munitax.taxengine.domain.apportionment.ThrowbackElection.THROWBACK) {
+                // Throwback: Add to origin state (Ohio) numerator
+                transaction.setThrowbackAmount(adjustedAmount);
+                transaction.setOhioSourcedAmount(adjustedAmount);
+            } else {
+                // Throwout: Exclude from both numerator and denominator
+                transaction.setThrowbackAmount(BigDecimal.ZERO);
+                transaction.setOhioSourcedAmount(BigDecimal.ZERO);
+            }
+        } else if ("OH".equals(transaction.getDestinationState())) {
+            // Sale to Ohio (has nexus by definition)
+            transaction.setThrowbackApplied(false);
+            transaction.setThrowbackAmount(BigDecimal.ZERO);
+            transaction.setOhioSourcedAmount(transaction.getAmount());
+        } else {
+            // Sale to state with nexus (not Ohio)
+            transaction.setThrowbackApplied(false);
+            transaction.setThrowbackAmount(BigDecimal.ZERO);
+            transaction.setOhioSourcedAmount(BigDecimal.ZERO);
+        }
+    }
+
     /**
      * Calculate service revenue portion of total sales.
      *
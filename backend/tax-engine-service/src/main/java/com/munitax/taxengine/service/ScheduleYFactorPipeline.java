@@ -0,0 +1,224 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.apportionment.PayrollFactor;
+import com.munitax.taxengine.dto.PayrollFactorDto;
+import com.munitax.taxengine.dto.PropertyFactorDto;
+import com.munitax.taxengine.dto.SalesFactorDto;
+import com.munitax.taxengine.dto.ScheduleYRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Computes the Schedule Y property, payroll and sales factors concurrently and combines them
+ * into the final apportionment percentage.
+ *
+ * Process:
+ * 1. Start the property, payroll and sales stages on virtual threads (the factors are independent;
+ *    the payroll stage may block on the W-1 payroll lookup)
+ * 2. Bound each stage by its own timeout
+ * 3. Wait for all three stages, so latency is that of the slowest stage rather than the sum
+ * 4. Apply the apportionment formula via ApportionmentService
+ *
+ * Every stage is timed as schedule_y.factor.duration (tags: stage, outcome) and the whole run as
+ * schedule_y.factor_pipeline.duration.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleYFactorPipeline {
+
+    static final String STAGE_PROPERTY = "property";
+    static final String STAGE_PAYROLL = "payroll";
+    static final String STAGE_SALES = "sales";
+
+    private final ApportionmentService apportionmentService;
+    private final PayrollFactorService payrollFactorService;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Maximum time for the property factor stage.
+     */
+    @Value("${app.apportionment.factor-pipeline.property-timeout-ms:2000}")
+    private long propertyTimeoutMs;
+
+    /**
+     * Maximum time for the payroll factor stage (includes the W-1 payroll lookup).
+     */
+    @Value("${app.apportionment.factor-pipeline.payroll-timeout-ms:5000}")
+    private long payrollTimeoutMs;
+
+    /**
+     * Maximum time for the sales factor stage.
+     */
+    @Value("${app.apportionment.factor-pipeline.sales-timeout-ms:2000}")
+    private long salesTimeoutMs;
+
+    /**
+     * Calculate all factor percentages and the final apportionment for a Schedule Y request.
+     * A payroll factor marked auto-populated is filled in from the business's W-1 filings.
+     *
+     * @param request  Schedule Y filing request
+     * @param tenantId Tenant ID
+     * @return Factor percentages, final apportionment and per-stage durations
+     * @throws IllegalArgumentException if a factor or the formula is invalid
+     * @throws IllegalStateException if a stage times out or fails unexpectedly
+     */
+    public FactorResult calculate(ScheduleYRequest request, UUID tenantId) {
+        long start = System.nanoTime();
+        Map<String, Long> durations = new LinkedHashMap<>();
+
+        CompletableFuture<BigDecimal> property = stage(STAGE_PROPERTY, propertyTimeoutMs, durations,
+                () -> calculatePropertyFactor(request.getPropertyFactor()));
+        CompletableFuture<BigDecimal> payroll = stage(STAGE_PAYROLL, payrollTimeoutMs, durations,
+                () -> calculatePayrollFactor(request, tenantId));
+        CompletableFuture<BigDecimal> sales = stage(STAGE_SALES, salesTimeoutMs, durations,
+                () -> calculateSalesFactor(request.getSalesFactor()));
+
+        BigDecimal propertyPercentage = join(STAGE_PROPERTY, property);
+        BigDecimal payrollPercentage = join(STAGE_PAYROLL, payroll);
+        BigDecimal salesPercentage = join(STAGE_SALES, sales);
+
+        BigDecimal finalApportionment = apportionmentService.calculateApportionmentPercentage(
+                propertyPercentage, payrollPercentage, salesPercentage, request.getApportionmentFormula());
+
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("schedule_y.factor_pipeline.duration").register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.debug("Schedule Y factors for business {} computed in {} ms: {}",
+                request.getBusinessId(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), durations);
+
+        synchronized (durations) {
+            return new FactorResult(propertyPercentage, payrollPercentage, salesPercentage, finalApportionment,
+                    Map.copyOf(durations));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start one stage on a virtual thread, bounded by its timeout and recorded in the stage timer.
+     */
+    private CompletableFuture<BigDecimal> stage(String name, long timeoutMs, Map<String, Long> durations,
+                                                Supplier<BigDecimal> calculation) {
+        long start = System.nanoTime();
+        return CompletableFuture.supplyAsync(calculation, executor)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    long elapsedNanos = System.nanoTime() - start;
+                    synchronized (durations) {
+                        durations.put(name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                    }
+                    Timer.builder("schedule_y.factor.duration")
+                            .tag("stage", name)
+                            .tag("outcome", outcome(error))
+                            .register(meterRegistry)
+                            .record(elapsedNanos, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    private BigDecimal join(String name, CompletableFuture<BigDecimal> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new IllegalStateException("Schedule Y " + name + " factor calculation timed out", cause);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Schedule Y " + name + " factor calculation failed", cause);
+        }
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? "timeout" : "error";
+    }
+
+    private BigDecimal calculatePropertyFactor(PropertyFactorDto propertyFactor) {
+        if (propertyFactor == null || propertyFactor.getTotalPropertyEverywhere() == null
+                || propertyFactor.getTotalPropertyEverywhere().compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal numerator = propertyFactor.getPropertyInOhio() != null
+                ? propertyFactor.getPropertyInOhio() : BigDecimal.ZERO;
+        return apportionmentService.calculateFactorPercentage(numerator, propertyFactor.getTotalPropertyEverywhere());
+    }
+
+    private BigDecimal calculatePayrollFactor(ScheduleYRequest request, UUID tenantId) {
+        PayrollFactorDto payrollFactor = request.getPayrollFactor();
+        if (payrollFactor != null && Boolean.TRUE.equals(payrollFactor.getAutoPopulated())
+                && request.getBusinessId() != null) {
+            // Fill the DTO from W-1 filings so the saved PayrollFactor matches the computed percentage
+            PayrollFactor fromW1 = payrollFactorService.autoPopulateFromW1Filings(
+                    request.getBusinessId(), request.getTaxYear(), null, tenantId);
+            payrollFactor.setOhioPayroll(fromW1.getOhioW2Wages());
+            payrollFactor.setTotalPayroll(fromW1.getTotalPayrollEverywhere());
+            payrollFactor.setOhioEmployeeCount(fromW1.getOhioEmployeeCount());
+            payrollFactor.setTotalEmployeeCount(fromW1.getEmployeeCount());
+        }
+
+        if (payrollFactor == null || payrollFactor.getTotalPayrollEverywhere() == null
+                || payrollFactor.getTotalPayrollEverywhere().compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal numerator = payrollFactor.getPayrollInOhio() != null
+                ? payrollFactor.getPayrollInOhio() : BigDecimal.ZERO;
+        return apportionmentService.calculateFactorPercentage(numerator, payrollFactor.getTotalPayrollEverywhere());
+    }
+
+    private BigDecimal calculateSalesFactor(SalesFactorDto salesFactor) {
+        if (salesFactor == null || salesFactor.getTotalSalesEverywhere() == null
+                || salesFactor.getTotalSalesEverywhere().compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal numerator = salesFactor.getSalesInOhio() != null
+                ? salesFactor.getSalesInOhio() : BigDecimal.ZERO;
+        return apportionmentService.calculateFactorPercentage(numerator, salesFactor.getTotalSalesEverywhere());
+    }
+
+    /**
+     * Factor percentages computed by one pipeline run.
+     *
+     * @param propertyFactorPercentage property factor (0-100)
+     * @param payrollFactorPercentage  payroll factor (0-100)
+     * @param salesFactorPercentage    sales factor (0-100)
+     * @param finalApportionmentPercentage weighted apportionment per the elected formula
+     * @param stageDurationsMs         stage name to duration in milliseconds
+     */
+    public record FactorResult(BigDecimal propertyFactorPercentage,
+                               BigDecimal payrollFactorPercentage,
+                               BigDecimal salesFactorPercentage,
+                               BigDecimal finalApportionmentPercentage,
+                               Map<String, Long> stageDurationsMs) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.munitax.taxengine.service;
 
+import com.munitax.taxengine.domain.apportionment.NexusSnapshot;
 import com.munitax.taxengine.domain.apportionment.ThrowbackElection;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,12 +53,38 @@ public class ThrowbackService {
             return saleAmount;
         }
 
-        // Default to THROWBACK if election is null
-        ThrowbackElection effectiveElection = election != null ? election : ThrowbackElection.THROWBACK;
-
         // Check if business has nexus in destination state
         boolean hasDestinationNexus = nexusService.hasNexus(businessId, destinationState, tenantId);
 
+        return applyThrowbackRule(saleAmount, originState, destinationState, hasDestinationNexus, election);
+    }
+
+    /**
+     * Apply throwback/throwout rules for a sale whose destination nexus is already known.
+     * Used when nexus has been resolved once for many transactions (e.g. bulk imports).
+     *
+     * @param saleAmount          the sale amount
+     * @param originState         the state where sale originated
+     * @param destinationState    the state where goods/services delivered
+     * @param hasDestinationNexus whether the business has nexus in the destination state
+     * @param election            throwback or throwout election
+     * @return adjusted sale amount (original for throwback, zero for throwout)
+     */
+    public BigDecimal applyThrowbackRule(BigDecimal saleAmount,
+                                        String originState,
+                                        String destinationState,
+                                        boolean hasDestinationNexus,
+                                        ThrowbackElection election) {
+        if (saleAmount == null || saleAmount.compareTo(BigDecimal.ZERO) == 0) {
+            return saleAmount == null ? BigDecimal.ZERO : saleAmount;
+        }
+        if (originState != null && originState.equals(destinationState)) {
+            return saleAmount;
+        }
+
+        // Default to THROWBACK if election is null
+        ThrowbackElection effectiveElection = election != null ? election : ThrowbackElection.THROWBACK;
+
         if (hasDestinationNexus) {
             // Business has nexus in destination state, sale is properly sourced
             log.debug("Business has nexus in destination state {}, no throwback needed", destinationState);
@@ -95,6 +122,17 @@ public class ThrowbackService {
         return shouldApply;
     }
 
+    /**
+     * Check if throwback should be applied for a sale, using a nexus snapshot taken for the sourcing run.
+     *
+     * @param destinationState the destination state
+     * @param nexus            nexus snapshot for the business
+     * @return true if throwback should be applied
+     */
+    public boolean shouldApplyThrowback(String destinationState, NexusSnapshot nexus) {
+        return !nexus.hasNexus(destinationState);
+    }
+
     /**
      * Determine which state to source the sale to after applying throwback rules.
      * Returns:
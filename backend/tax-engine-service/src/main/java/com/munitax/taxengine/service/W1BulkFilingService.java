@@ -0,0 +1,309 @@
+package com.munitax.taxengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.munitax.taxengine.domain.withholding.FilingFrequency;
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
+import com.munitax.taxengine.domain.withholding.W1Filing;
+import com.munitax.taxengine.dto.W1BulkFilingResponse;
+import com.munitax.taxengine.dto.W1BulkFilingResponse.RowError;
+import com.munitax.taxengine.dto.W1FilingRequest;
+import com.munitax.taxengine.repository.W1FilingRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Service for bulk W-1 ingestion from payroll service bureaus.
+ *
+ * Core Functions:
+ * - FR-001: File W-1 returns for many employers in one request
+ * - FR-011: Late-filing penalties calculated per filing
+ * - FR-013: All filing frequencies supported
+ *
+ * Input is streamed line by line as CSV (header row with W1FilingRequest field names) or
+ * NDJSON (one W1FilingRequest JSON object per line) and processed in chunks:
+ * 1. Parse and validate each row; invalid rows are reported and skipped
+ * 2. Prefetch already-filed periods for the whole chunk in one query; duplicates
+ *    (against the database or earlier rows in the same upload) are reported and skipped
+ * 3. Resolve the municipal rate once per tax year for the whole upload
+ * 4. Build filings in memory (due date, tax, late-filing penalty)
+ * 5. Insert the chunk with saveAll in one transaction (Hibernate JDBC batching),
+ *    falling back to row-by-row inserts if the chunk fails so errors are reported per row
+ * 6. Publish W1FiledEvent per filing so cumulative totals are updated in the chunk transaction
+ *
+ * CSV follows RFC 4180: values containing commas, quotes or line breaks are enclosed in double
+ * quotes, with embedded quotes doubled.
+ *
+ * @see W1FilingService#buildFiling
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class W1BulkFilingService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final List<String> CSV_REQUIRED_COLUMNS = List.of(
+        "businessId", "taxYear", "filingFrequency", "period", "periodStartDate", "periodEndDate", "grossWages");
+
+    private final W1FilingService w1FilingService;
+    private final W1FilingRepository w1FilingRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    /**
+     * Rows buffered, duplicate-checked and inserted together.
+     */
+    @Value("${app.withholding.bulk-filing.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Ingest a stream of W-1 filings.
+     *
+     * @param input CSV or NDJSON body
+     * @param format {@link #FORMAT_CSV} or {@link #FORMAT_NDJSON}
+     * @param userId User filing the W-1s (from JWT)
+     * @param tenantId Tenant ID (from JWT)
+     * @return Counts and per-row errors
+     * @throws IllegalArgumentException if the format is unknown or the CSV header is invalid
+     */
+    public W1BulkFilingResponse ingest(InputStream input, String format, UUID userId, UUID tenantId) {
+        if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+            throw new IllegalArgumentException("Unsupported bulk W-1 format: " + format);
+        }
+        log.info("Starting bulk W-1 ingestion ({}) for tenant {}", format, tenantId);
+
+        IngestionState state = new IngestionState(userId, tenantId);
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            if (FORMAT_CSV.equals(format)) {
+                CsvRecordReader records = new CsvRecordReader(reader, CSV_REQUIRED_COLUMNS);
+                while (records.hasNext()) {
+                    accept(parseRow(++state.totalRows, () -> parseCsvRow(records.next(), records.getHeader()), state),
+                           chunk, state);
+                }
+            } else {
+                BufferedReader lines = new BufferedReader(reader);
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    String json = line;
+                    accept(parseRow(++state.totalRows, () -> objectMapper.readValue(json, W1FilingRequest.class), state),
+                           chunk, state);
+                }
+            }
+            processChunk(chunk, state);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to read bulk W-1 input: " + e.getMessage(), e);
+        }
+
+        state.errors.sort(Comparator.comparingInt(RowError::getRowNumber));
+        log.info("Bulk W-1 ingestion complete: {} rows, {} filed, {} errors",
+                 state.totalRows, state.filedCount, state.errors.size());
+
+        return W1BulkFilingResponse.builder()
+            .totalRows(state.totalRows)
+            .filedCount(state.filedCount)
+            .errorCount(state.errors.size())
+            .errors(state.errors)
+            .build();
+    }
+
+    /**
+     * Buffer a parsed row, processing the chunk once it is full.
+     */
+    private void accept(ParsedRow row, List<ParsedRow> chunk, IngestionState state) {
+        if (row != null) {
+            chunk.add(row);
+        }
+        if (chunk.size() >= chunkSize) {
+            processChunk(chunk, state);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Duplicate-check, build and insert one chunk of parsed rows.
+     */
+    private void processChunk(List<ParsedRow> chunk, IngestionState state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> businessIds = chunk.stream().map(r -> r.request.getBusinessId()).collect(Collectors.toSet());
+        Set<Integer> taxYears = chunk.stream().map(r -> r.request.getTaxYear()).collect(Collectors.toSet());
+        for (Object[] key : w1FilingRepository.findFiledPeriodKeys(businessIds, taxYears)) {
+            state.filedKeys.add(periodKey((UUID) key[0], (Integer) key[1], (String) key[2]));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ParsedRow> accepted = new ArrayList<>(chunk.size());
+        for (ParsedRow row : chunk) {
+            W1FilingRequest request = row.request;
+            if (!state.filedKeys.add(periodKey(request.getBusinessId(), request.getTaxYear(), request.getPeriod()))) {
+                state.reject(row.rowNumber, request, String.format(
+                    "W-1 filing already exists for business %s tax year %d period %s",
+                    request.getBusinessId(), request.getTaxYear(), request.getPeriod()));
+                continue;
+            }
+            BigDecimal rate = state.ratesByYear.computeIfAbsent(
+                request.getTaxYear(), w1FilingService::resolveMunicipalTaxRate);
+            row.filing = w1FilingService.buildFiling(request, state.userId, state.tenantId, rate, now, null);
+            accepted.add(row);
+        }
+
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            insert(accepted.stream().map(r -> r.filing).toList());
+            state.filedCount += accepted.size();
+        } catch (RuntimeException e) {
+            log.warn("Bulk W-1 chunk insert failed ({}), retrying {} rows individually", e.getMessage(), accepted.size());
+            for (ParsedRow row : accepted) {
+                try {
+                    row.filing.setId(null);
+                    insert(List.of(row.filing));
+                    state.filedCount++;
+                } catch (RuntimeException rowFailure) {
+                    state.reject(row.rowNumber, row.request, "Failed to save W-1 filing: " + rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert filings in one transaction and publish their events (applied before it commits).
+     */
+    private void insert(List<W1Filing> filings) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<W1Filing> saved = w1FilingRepository.saveAll(filings);
+            saved.forEach(filing -> eventPublisher.publishEvent(W1FiledEvent.filed(filing)));
+        });
+    }
+
+    /**
+     * Parse and validate one row; records an error and returns null if the row is invalid.
+     */
+    private ParsedRow parseRow(int rowNumber, Callable<W1FilingRequest> parser, IngestionState state) {
+        W1FilingRequest request;
+        try {
+            request = parser.call();
+        } catch (Exception e) {
+            state.reject(rowNumber, null, "Unparseable row: " + rootMessage(e));
+            return null;
+        }
+
+        Set<ConstraintViolation<W1FilingRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+            state.reject(rowNumber, request, message);
+            return null;
+        }
+        return new ParsedRow(rowNumber, request);
+    }
+
+    private W1FilingRequest parseCsvRow(String[] values, String[] header) {
+        W1FilingRequest request = new W1FilingRequest();
+        for (int i = 0; i < header.length; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header[i]) {
+                case "businessId" -> request.setBusinessId(UUID.fromString(value));
+                case "taxYear" -> request.setTaxYear(Integer.valueOf(value));
+                case "filingFrequency" -> request.setFilingFrequency(FilingFrequency.valueOf(value));
+                case "period" -> request.setPeriod(value);
+                case "periodStartDate" -> request.setPeriodStartDate(LocalDate.parse(value));
+                case "periodEndDate" -> request.setPeriodEndDate(LocalDate.parse(value));
+                case "grossWages" -> request.setGrossWages(new BigDecimal(value));
+                case "taxableWages" -> request.setTaxableWages(new BigDecimal(value));
+                case "adjustments" -> request.setAdjustments(new BigDecimal(value));
+                case "employeeCount" -> request.setEmployeeCount(Integer.valueOf(value));
+                default -> { } // Unknown columns are ignored
+            }
+        }
+        return request;
+    }
+
+    private static String periodKey(UUID businessId, Integer taxYear, String period) {
+        return businessId + "|" + taxYear + "|" + period;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    /**
+     * A parsed, valid input row and (once accepted) its filing.
+     */
+    private static final class ParsedRow {
+        private final int rowNumber;
+        private final W1FilingRequest request;
+        private W1Filing filing;
+
+        private ParsedRow(int rowNumber, W1FilingRequest request) {
+            this.rowNumber = rowNumber;
+            this.request = request;
+        }
+    }
+
+    /**
+     * Mutable state for one ingestion request.
+     */
+    private static final class IngestionState {
+        private final UUID userId;
+        private final UUID tenantId;
+        private final Map<Integer, BigDecimal> ratesByYear = new HashMap<>();
+        private final Set<String> filedKeys = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int filedCount;
+
+        private IngestionState(UUID userId, UUID tenantId) {
+            this.userId = userId;
+            this.tenantId = tenantId;
+        }
+
+        private void reject(int rowNumber, W1FilingRequest request, String message) {
+            errors.add(RowError.builder()
+                .rowNumber(rowNumber)
+                .businessId(request != null ? request.getBusinessId() : null)
+                .period(request != null ? request.getPeriod() : null)
+                .message(message)
+                .build());
+        }
+    }
+}
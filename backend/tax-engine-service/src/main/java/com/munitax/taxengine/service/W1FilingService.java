@@ -1,8 +1,10 @@
 package com.munitax.taxengine.service;
 
 import com.munitax.taxengine.domain.withholding.FilingFrequency;
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
 import com.munitax.taxengine.domain.withholding.W1Filing;
 import com.munitax.taxengine.domain.withholding.W1FilingStatus;
+import com.munitax.taxengine.dto.AmendW1Request;
 import com.munitax.taxengine.dto.W1FilingRequest;
 import com.munitax.taxengine.dto.W1FilingResponse;
 import com.munitax.taxengine.integration.service.TaxRateResolverService;
@@ -10,6 +12,7 @@ import com.munitax.taxengine.repository.W1FilingRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,6 +48,7 @@ public class W1FilingService {
     
     private final W1FilingRepository w1FilingRepository;
     private final TaxRateResolverService taxRateResolver;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Fallback municipal tax rate if rule-service is unavailable.
@@ -69,7 +73,7 @@ public class W1FilingService {
      * 3. Calculate tax due = taxableWages × taxRate
      * 4. Calculate late filing penalty if filing_date > due_date
      * 5. Save W-1 filing
-     * 6. Trigger cumulative totals update (event-driven)
+     * 6. Trigger cumulative totals update (event-driven, in this transaction)
      * 7. Log audit trail
      * 
      * @param request W-1 filing request
@@ -94,6 +98,113 @@ public class W1FilingService {
             );
         }
         
+        W1Filing filing = buildFiling(request, userId, tenantId,
+                                      resolveMunicipalTaxRate(request.getTaxYear()), LocalDateTime.now(), null);
+        
+        // Save filing
+        W1Filing savedFiling = w1FilingRepository.save(filing);
+        log.info("W-1 filing saved with ID {}", savedFiling.getId());
+        
+        // Cumulative totals are updated before this transaction commits
+        eventPublisher.publishEvent(W1FiledEvent.filed(savedFiling));
+        // TODO: Log audit trail to WithholdingAuditLog
+        
+        // Convert to response DTO
+        return mapToResponse(savedFiling);
+    }
+    
+    /**
+     * File an amended W-1 return superseding an earlier filing for the same period.
+     * 
+     * Process:
+     * 1. Load and lock the filing being amended and verify it is the current filing for its period
+     *    (the lock makes a concurrent amendment of the same filing wait and then see it AMENDED)
+     * 2. Recalculate tax and penalty for the amended amounts (lateness judged on the original filing date)
+     * 3. Save the amendment referencing the superseded filing, mark the superseded filing AMENDED
+     * 4. Publish W1FiledEvent with the difference so cumulative totals are adjusted in place (FR-003).
+     *    Always published: the totals are only ever adjusted by these deltas, so a skipped amendment
+     *    would leave them stale for good
+     * 
+     * @param request Amendment request (original filing, reason and corrected amounts)
+     * @param userId User filing the amendment (from JWT)
+     * @param tenantId Tenant ID (from JWT)
+     * @return Amended W-1 filing response
+     * @throws IllegalArgumentException if the filing does not exist or was already amended
+     */
+    @Transactional
+    public W1FilingResponse amendW1Return(AmendW1Request request, UUID userId, UUID tenantId) {
+        log.info("Amending W-1 filing {}", request.getOriginalFilingId());
+        
+        W1Filing superseded = w1FilingRepository.findByIdForUpdate(request.getOriginalFilingId())
+            .orElseThrow(() -> new IllegalArgumentException("W-1 filing not found: " + request.getOriginalFilingId()));
+        
+        if (superseded.getStatus() == W1FilingStatus.AMENDED) {
+            throw new IllegalArgumentException(
+                String.format("W-1 filing %s has already been amended. Amend the latest filing for the period.",
+                             request.getOriginalFilingId()));
+        }
+        
+        W1FilingRequest amendedValues = W1FilingRequest.builder()
+            .businessId(superseded.getBusinessId())
+            .taxYear(superseded.getTaxYear())
+            .filingFrequency(superseded.getFilingFrequency())
+            .period(superseded.getPeriod())
+            .periodStartDate(superseded.getPeriodStartDate())
+            .periodEndDate(superseded.getPeriodEndDate())
+            .grossWages(request.getGrossWages())
+            .taxableWages(request.getTaxableWages())
+            .adjustments(request.getAdjustments())
+            .employeeCount(request.getEmployeeCount())
+            .build();
+        
+        W1Filing amendment = buildFiling(amendedValues, userId, tenantId,
+                                         resolveMunicipalTaxRate(superseded.getTaxYear()), LocalDateTime.now(),
+                                         superseded.getFilingDate().toLocalDate());
+        amendment.setIsAmended(true);
+        amendment.setAmendsFilingRef(superseded);
+        amendment.setAmendmentReason(request.getAmendmentReason());
+        
+        superseded.setStatus(W1FilingStatus.AMENDED);
+        w1FilingRepository.save(superseded);
+        W1Filing savedAmendment = w1FilingRepository.save(amendment);
+        log.info("Amended W-1 filing saved with ID {} (supersedes {})", savedAmendment.getId(), superseded.getId());
+        
+        eventPublisher.publishEvent(W1FiledEvent.amended(savedAmendment, superseded));
+        
+        return mapToResponse(savedAmendment);
+    }
+    
+    /**
+     * Resolve the municipal tax rate for a tax year from rule-service (fallback if unavailable).
+     * 
+     * @param taxYear Tax year
+     * @return Municipal tax rate as decimal (e.g., 0.02)
+     */
+    BigDecimal resolveMunicipalTaxRate(Integer taxYear) {
+        // **DYNAMICALLY FETCH TAX RATE FROM RULE-SERVICE**
+        BigDecimal municipalTaxRate = taxRateResolver.getMunicipalTaxRate(
+            defaultTenant, 
+            taxYear, 
+            fallbackMunicipalTaxRate
+        );
+        log.info("Using tax rate {} for tax year {}", municipalTaxRate, taxYear);
+        return municipalTaxRate;
+    }
+    
+    /**
+     * Build a W-1 filing entity with calculated due date, tax and late-filing penalty.
+     * Pure in-memory calculation; shared by single, amended and bulk filing.
+     * 
+     * @param request W-1 filing request
+     * @param userId User filing the W-1
+     * @param tenantId Tenant ID
+     * @param municipalTaxRate Municipal tax rate for the tax year
+     * @param now Filing timestamp
+     * @param penaltyFilingDate Date used for late-filing penalty (null to use the filing timestamp)
+     * @return Unsaved W1Filing
+     */
+    W1Filing buildFiling(W1FilingRequest request, UUID userId, UUID tenantId, BigDecimal municipalTaxRate,
+                         LocalDateTime now, LocalDate penaltyFilingDate) {
         // Set defaults
         BigDecimal taxableWages = request.getTaxableWages() != null ? 
                                   request.getTaxableWages() : request.getGrossWages();
@@ -103,26 +214,18 @@ public class W1FilingService {
         // Calculate due date
         LocalDate dueDate = calculateDueDate(request.getFilingFrequency(), request.getPeriodEndDate());
         
-        // **DYNAMICALLY FETCH TAX RATE FROM RULE-SERVICE**
-        BigDecimal municipalTaxRate = taxRateResolver.getMunicipalTaxRate(
-            defaultTenant, 
-            request.getTaxYear(), 
-            fallbackMunicipalTaxRate
-        );
-        log.info("Using tax rate {} for tax year {}", municipalTaxRate, request.getTaxYear());
-        
         // Calculate tax due
         BigDecimal taxDue = taxableWages.multiply(municipalTaxRate).setScale(2, RoundingMode.HALF_UP);
         
         // Calculate late filing penalty
-        LocalDateTime now = LocalDateTime.now();
-        BigDecimal lateFilingPenalty = calculateLateFilingPenalty(dueDate, now.toLocalDate(), taxDue);
+        BigDecimal lateFilingPenalty = calculateLateFilingPenalty(
+            dueDate, penaltyFilingDate != null ? penaltyFilingDate : now.toLocalDate(), taxDue);
         
         // Calculate total amount due
         BigDecimal totalAmountDue = taxDue.add(adjustments).add(lateFilingPenalty);
         
         // Build W1Filing entity
-        W1Filing filing = W1Filing.builder()
+        return W1Filing.builder()
             .tenantId(tenantId)
             .businessId(request.getBusinessId())
             .taxYear(request.getTaxYear())
@@ -145,16 +248,6 @@ public class W1FilingService {
             .underpaymentPenalty(BigDecimal.ZERO)
             .createdBy(userId)
             .build();
-        
-        // Save filing
-        W1Filing savedFiling = w1FilingRepository.save(filing);
-        log.info("W-1 filing saved with ID {}", savedFiling.getId());
-        
-        // TODO: Publish W1FiledEvent for cumulative totals update (event-driven)
-        // TODO: Log audit trail to WithholdingAuditLog
-        
-        // Convert to response DTO
-        return mapToResponse(savedFiling);
     }
     
     /**
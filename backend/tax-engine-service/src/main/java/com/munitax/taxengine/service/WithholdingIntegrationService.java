@@ -1,5 +1,6 @@
 package com.munitax.taxengine.service;
 
+import com.munitax.taxengine.dto.PayrollSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -7,6 +8,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -14,6 +16,9 @@ import java.util.UUID;
 /**
  * Service for integrating with payroll withholding data from Spec 1 (W-1 filings).
  * Auto-populates payroll factor data for apportionment calculations.
+ *
+ * Payroll is read in-process from {@link PayrollSummaryProvider} (cached W-1 aggregates).
+ * The withholding HTTP API is only called as a remote fallback when no W-1 filings exist locally.
  */
 @Slf4j
 @Service
@@ -21,10 +26,17 @@ import java.util.UUID;
 public class WithholdingIntegrationService {
 
     private final RestTemplate restTemplate;
+    private final PayrollSummaryProvider payrollSummaryProvider;
 
     @Value("${tax-engine-service.url:http://localhost:8080}")
     private String taxEngineServiceUrl;
 
+    /**
+     * Call the withholding HTTP API when no W-1 filings are found locally.
+     */
+    @Value("${app.withholding.payroll-summary.remote-fallback-enabled:true}")
+    private boolean remoteFallbackEnabled;
+
     /**
      * Retrieve Ohio payroll data from W-1 withholding filings.
      * Sums all W-1 filings for a business in a given tax year.
@@ -38,6 +50,78 @@ public class WithholdingIntegrationService {
         log.debug("Fetching Ohio payroll data for business: {}, tax year: {}, tenant: {}",
                 businessId, taxYear, tenantId);
 
+        PayrollSummary summary = payrollSummaryProvider.getSummary(businessId, taxYear, tenantId);
+        if (summary.hasData() || !remoteFallbackEnabled) {
+            return toOhioPayrollData(summary);
+        }
+        return fetchRemoteOhioPayrollData(businessId, taxYear, tenantId);
+    }
+
+    /**
+     * Retrieve Ohio payroll data for many businesses with a single lookup.
+     * Businesses without local W-1 filings are not auto-populated (no remote fallback).
+     *
+     * @param businessIds the business IDs
+     * @param taxYear     the tax year
+     * @param tenantId    the tenant ID for multi-tenant isolation
+     * @return business ID to map containing Ohio payroll and employee count
+     */
+    public Map<UUID, Map<String, Object>> getOhioPayrollData(Collection<UUID> businessIds, Integer taxYear,
+                                                             UUID tenantId) {
+        log.debug("Fetching Ohio payroll data for {} businesses, tax year: {}, tenant: {}",
+                businessIds.size(), taxYear, tenantId);
+
+        Map<UUID, Map<String, Object>> payrollDataByBusiness = new HashMap<>();
+        payrollSummaryProvider.getSummaries(businessIds, taxYear, tenantId)
+                .forEach((businessId, summary) -> payrollDataByBusiness.put(businessId, toOhioPayrollData(summary)));
+        return payrollDataByBusiness;
+    }
+
+    /**
+     * Retrieve total everywhere payroll data for many businesses with a single lookup.
+     * Businesses without local W-1 filings are not auto-populated (no remote fallback).
+     *
+     * @param businessIds the business IDs
+     * @param taxYear     the tax year
+     * @param tenantId    the tenant ID for multi-tenant isolation
+     * @return business ID to map containing total payroll and employee count
+     */
+    public Map<UUID, Map<String, Object>> getTotalPayrollData(Collection<UUID> businessIds, Integer taxYear,
+                                                              UUID tenantId) {
+        log.debug("Fetching total payroll data for {} businesses, tax year: {}, tenant: {}",
+                businessIds.size(), taxYear, tenantId);
+
+        Map<UUID, Map<String, Object>> payrollDataByBusiness = new HashMap<>();
+        payrollSummaryProvider.getSummaries(businessIds, taxYear, tenantId)
+                .forEach((businessId, summary) -> payrollDataByBusiness.put(businessId, toTotalPayrollData(summary)));
+        return payrollDataByBusiness;
+    }
+
+    private Map<String, Object> toOhioPayrollData(PayrollSummary summary) {
+        Map<String, Object> payrollData = new HashMap<>();
+        if (summary.hasData()) {
+            payrollData.put("ohioPayroll", summary.ohioPayroll());
+            payrollData.put("ohioEmployeeCount", summary.employeeCount());
+            payrollData.put("autoPopulated", true);
+        } else {
+            payrollData.put("autoPopulated", false);
+        }
+        return payrollData;
+    }
+
+    private Map<String, Object> toTotalPayrollData(PayrollSummary summary) {
+        Map<String, Object> payrollData = new HashMap<>();
+        if (summary.hasData()) {
+            payrollData.put("totalPayroll", summary.totalPayroll());
+            payrollData.put("totalEmployeeCount", summary.employeeCount());
+            payrollData.put("autoPopulated", true);
+        } else {
+            payrollData.put("autoPopulated", false);
+        }
+        return payrollData;
+    }
+
+    private Map<String, Object> fetchRemoteOhioPayrollData(UUID businessId, Integer taxYear, UUID tenantId) {
         Map<String, Object> payrollData = new HashMap<>();
 
         try {
@@ -86,6 +170,14 @@ public class WithholdingIntegrationService {
         log.debug("Fetching total (everywhere) payroll data for business: {}, tax year: {}, tenant: {}",
                 businessId, taxYear, tenantId);
 
+        PayrollSummary summary = payrollSummaryProvider.getSummary(businessId, taxYear, tenantId);
+        if (summary.hasData() || !remoteFallbackEnabled) {
+            return toTotalPayrollData(summary);
+        }
+        return fetchRemoteTotalPayrollData(businessId, taxYear, tenantId);
+    }
+
+    private Map<String, Object> fetchRemoteTotalPayrollData(UUID businessId, Integer taxYear, UUID tenantId) {
         Map<String, Object> payrollData = new HashMap<>();
 
         try {
@@ -132,6 +224,18 @@ public class WithholdingIntegrationService {
         log.debug("Fetching payroll allocation by state for business: {}, tax year: {}, tenant: {}",
                 businessId, taxYear, tenantId);
 
+        // W-1 filings only identify Ohio payroll; answer locally when all payroll is Ohio payroll
+        PayrollSummary summary = payrollSummaryProvider.getSummary(businessId, taxYear, tenantId);
+        if (summary.hasData() && summary.totalPayroll().signum() > 0
+                && summary.ohioPayroll().compareTo(summary.totalPayroll()) == 0) {
+            Map<String, BigDecimal> ohioOnly = new HashMap<>();
+            ohioOnly.put("OH", BigDecimal.ONE);
+            return ohioOnly;
+        }
+        if (!remoteFallbackEnabled) {
+            return new HashMap<>();
+        }
+
         Map<String, BigDecimal> allocationByState = new HashMap<>();
 
         try {
@@ -170,6 +274,13 @@ public class WithholdingIntegrationService {
         log.debug("Checking if withholding data exists for business: {}, tax year: {}, tenant: {}",
                 businessId, taxYear, tenantId);
 
+        if (payrollSummaryProvider.getSummary(businessId, taxYear, tenantId).hasData()) {
+            return true;
+        }
+        if (!remoteFallbackEnabled) {
+            return false;
+        }
+
         try {
             String url = String.format("%s/api/withholding/exists?businessId=%s&taxYear=%d&tenantId=%s",
                     taxEngineServiceUrl, businessId, taxYear, tenantId);
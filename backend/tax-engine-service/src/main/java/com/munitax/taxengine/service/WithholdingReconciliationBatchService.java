@@ -0,0 +1,421 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.withholding.ReconciliationStatus;
+import com.munitax.taxengine.domain.withholding.W1Filing;
+import com.munitax.taxengine.domain.withholding.W1FilingStatus;
+import com.munitax.taxengine.domain.withholding.WithholdingReconciliation;
+import com.munitax.taxengine.dto.PortfolioReconciliationResult;
+import com.munitax.taxengine.dto.ReconciliationIssue;
+import com.munitax.taxengine.dto.W2EmployerTotals;
+import com.munitax.taxengine.repository.W1FilingRepository;
+import com.munitax.taxengine.repository.WithholdingReconciliationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for portfolio-wide (every employer of a tenant) year-end withholding reconciliation.
+ *
+ * Core Functions:
+ * - FR-006: Year-end reconciliation of cumulative W-1 vs W-2 totals for all employers
+ * - FR-007: Reconciliation issues per employer (same checks as single-employer reconciliation)
+ * - FR-009: Track reconciliation status per business + tax year
+ *
+ * Process:
+ * 1. Sort the supplied W-2 totals by business ID
+ * 2. Split the tenant's W-1 filers for the tax year into contiguous business ID ranges (one partition per worker)
+ * 3. Per partition, in parallel: page through its filers {@code write-batch-size} at a time; each page
+ *    loads the page's W-1 filings, merge-joins them with the W-2 totals for the same IDs, reconciling
+ *    one employer at a time, and upserts the WithholdingReconciliation rows, all in one transaction
+ *    (one connection per partition)
+ *
+ * Employers with W-2 totals but no W-1 filings are reconciled against zero W-1 wages, and W-1 filers
+ * without W-2 totals against zero W-2 wages.
+ * Auditor-approved reconciliations are never overwritten. Every read and write is scoped to the run's
+ * tenant, so one tenant's run never touches another tenant's filers or reconciliations.
+ *
+ * @see WithholdingReconciliationService#reconcileEmployer
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WithholdingReconciliationBatchService {
+
+    /**
+     * Business ID order used for the merge join. Matches PostgreSQL uuid ordering (unsigned bytes),
+     * which {@link UUID#compareTo} does not.
+     */
+    static final Comparator<UUID> BUSINESS_ID_ORDER = Comparator.comparing(UUID::toString);
+
+    private static final BigDecimal VARIANCE_THRESHOLD_PERCENTAGE = new BigDecimal("1.0"); // 1%
+    private static final BigDecimal VARIANCE_THRESHOLD_AMOUNT = new BigDecimal("100.00");
+    private static final BigDecimal MAX_VARIANCE_PERCENTAGE = new BigDecimal("999.99"); // DECIMAL(5,2)
+
+    private final W1FilingRepository w1FilingRepository;
+    private final WithholdingReconciliationRepository reconciliationRepository;
+    private final WithholdingReconciliationService reconciliationService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Partitions reconciled concurrently.
+     */
+    @Value("${app.withholding.reconciliation-batch.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * W-1 filers reconciled, and reconciliation rows written, per transaction.
+     */
+    @Value("${app.withholding.reconciliation-batch.write-batch-size:500}")
+    private int writeBatchSize;
+
+    /**
+     * Reconcile every employer of a tenant for a tax year.
+     *
+     * @param taxYear Tax year to reconcile
+     * @param w2Totals W-2 totals per employer (at most one entry per business)
+     * @param userId User running the reconciliation (recorded as created_by)
+     * @param tenantId Tenant whose employers are reconciled
+     * @return Run summary
+     * @throws IllegalArgumentException if W-2 totals contain the same business twice or belong to another tenant
+     */
+    public PortfolioReconciliationResult reconcilePortfolio(Integer taxYear, List<W2EmployerTotals> w2Totals,
+                                                            UUID userId, UUID tenantId) {
+        long start = System.currentTimeMillis();
+        List<W2EmployerTotals> sortedW2Totals = sortW2Totals(w2Totals, tenantId);
+
+        List<UUID> businessIds = new ArrayList<>(
+            w1FilingRepository.findDistinctBusinessIdsByTenantIdAndTaxYear(tenantId, taxYear));
+        businessIds.sort(BUSINESS_ID_ORDER);
+        List<Partition> partitions = partition(businessIds, sortedW2Totals);
+
+        log.info("Starting portfolio reconciliation for tenant {}, tax year {}: {} W-1 filers, {} W-2 employers, {} partitions",
+                 tenantId, taxYear, businessIds.size(), sortedW2Totals.size(), partitions.size());
+
+        PartitionResult total = new PartitionResult();
+        int failedPartitions = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, partitions.size()));
+        try {
+            List<Future<PartitionResult>> futures = new ArrayList<>();
+            for (Partition partition : partitions) {
+                futures.add(executor.submit(() -> runPartition(taxYear, partition, userId, tenantId)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    total.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    failedPartitions++;
+                    log.error("Portfolio reconciliation partition {} for tax year {} failed", i, taxYear, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Portfolio reconciliation interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long durationMs = System.currentTimeMillis() - start;
+        log.info("Portfolio reconciliation for tax year {} completed in {} ms: {} employers, {} written, {} discrepancies, {} issues",
+                 taxYear, durationMs, total.employers, total.written, total.discrepancies, total.issues);
+
+        return PortfolioReconciliationResult.builder()
+            .taxYear(taxYear)
+            .partitions(partitions.size())
+            .failedPartitions(failedPartitions)
+            .employersReconciled(total.employers)
+            .reconciliationsWritten(total.written)
+            .discrepancyCount(total.discrepancies)
+            .issueCount(total.issues)
+            .issuesByType(total.issuesByType)
+            .durationMs(durationMs)
+            .build();
+    }
+
+    /**
+     * Reconcile one partition page by page. Reads and writes of a page share one transaction.
+     */
+    PartitionResult runPartition(Integer taxYear, Partition partition, UUID userId, UUID tenantId) {
+        PartitionContext context = new PartitionContext(taxYear, partition, userId, tenantId);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<UUID> businessIds = partition.businessIds();
+        for (int from = 0; from < businessIds.size(); from += writeBatchSize) {
+            List<UUID> page = businessIds.subList(from, Math.min(from + writeBatchSize, businessIds.size()));
+            transaction.executeWithoutResult(status -> {
+                Map<UUID, List<W1Filing>> filingsByBusiness = w1FilingRepository
+                    .findByTenantIdAndTaxYearAndBusinessIdIn(tenantId, taxYear, page)
+                    .stream()
+                    .collect(Collectors.groupingBy(W1Filing::getBusinessId));
+                for (UUID businessId : page) {
+                    reconcileFiler(context, businessId, filingsByBusiness.getOrDefault(businessId, List.of()));
+                }
+                flush(context);
+            });
+        }
+
+        // W-2 employers after the last W-1 filer in the partition
+        transaction.executeWithoutResult(status -> {
+            while (context.hasNextW2()) {
+                reconcileW2Only(context, context.nextW2());
+            }
+            flush(context);
+        });
+        return context.result;
+    }
+
+    /**
+     * Reconcile a W-1 filer, first draining W-2-only employers that sort before it.
+     */
+    private void reconcileFiler(PartitionContext context, UUID businessId, List<W1Filing> filingsByPeriod) {
+        while (context.hasNextW2() && BUSINESS_ID_ORDER.compare(context.peekW2().getBusinessId(), businessId) < 0) {
+            reconcileW2Only(context, context.nextW2());
+        }
+        W2EmployerTotals w2Totals = context.hasNextW2() && context.peekW2().getBusinessId().equals(businessId)
+            ? context.nextW2() : null;
+
+        List<ReconciliationIssue> issues = reconciliationService.reconcileEmployer(
+            businessId, context.taxYear, filingsByPeriod, w2Totals);
+        context.result.addIssues(issues);
+        context.result.employers++;
+
+        List<W1Filing> effective = filingsByPeriod.stream()
+            .filter(filing -> filing.getStatus() != W1FilingStatus.AMENDED)
+            .toList();
+        BigDecimal w1Wages = effective.stream().map(W1Filing::getGrossWages).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal w1Tax = effective.stream().map(W1Filing::getTaxDue).reduce(BigDecimal.ZERO, BigDecimal::add);
+        // No W-2s filed for a W-1 filer is itself a discrepancy: reconcile against zero W-2 wages
+        W2EmployerTotals reported = w2Totals != null ? w2Totals
+            : W2EmployerTotals.builder().businessId(businessId).tenantId(context.tenantId).build();
+        addReconciliation(context, buildReconciliation(context, businessId, w1Wages, w1Tax, reported));
+    }
+
+    /**
+     * Reconcile an employer with W-2 totals but no W-1 filings for the year.
+     */
+    private void reconcileW2Only(PartitionContext context, W2EmployerTotals w2Totals) {
+        List<ReconciliationIssue> issues = reconciliationService.reconcileEmployer(
+            w2Totals.getBusinessId(), context.taxYear, List.of(), w2Totals);
+        context.result.addIssues(issues);
+        context.result.employers++;
+
+        addReconciliation(context, buildReconciliation(
+            context, w2Totals.getBusinessId(), BigDecimal.ZERO, BigDecimal.ZERO, w2Totals));
+    }
+
+    private WithholdingReconciliation buildReconciliation(PartitionContext context, UUID businessId,
+                                                          BigDecimal w1Wages, BigDecimal w1Tax,
+                                                          W2EmployerTotals w2Totals) {
+        BigDecimal w2Wages = w2Totals.getLocalWages();
+        BigDecimal w2Tax = w2Totals.getLocalTaxWithheld();
+        BigDecimal varianceWages = w1Wages.subtract(w2Wages);
+        BigDecimal variancePercentage;
+        if (w2Wages.signum() != 0) {
+            variancePercentage = varianceWages.multiply(new BigDecimal("100")).divide(w2Wages, 2, RoundingMode.HALF_UP);
+        } else {
+            variancePercentage = varianceWages.signum() == 0 ? BigDecimal.ZERO : new BigDecimal("100.00");
+        }
+        variancePercentage = variancePercentage.min(MAX_VARIANCE_PERCENTAGE).max(MAX_VARIANCE_PERCENTAGE.negate());
+
+        boolean discrepancy = varianceWages.abs().compareTo(VARIANCE_THRESHOLD_AMOUNT) > 0
+            || variancePercentage.abs().compareTo(VARIANCE_THRESHOLD_PERCENTAGE) > 0;
+
+        return WithholdingReconciliation.builder()
+            .tenantId(context.tenantId)
+            .businessId(businessId)
+            .taxYear(context.taxYear)
+            .w1TotalWages(w1Wages)
+            .w2TotalWages(w2Wages)
+            .w1TotalTax(w1Tax)
+            .w2TotalTax(w2Tax)
+            .varianceWages(varianceWages)
+            .varianceTax(w1Tax.subtract(w2Tax))
+            .variancePercentage(variancePercentage)
+            .status(discrepancy ? ReconciliationStatus.DISCREPANCY : ReconciliationStatus.RECONCILED)
+            .reconciliationDate(discrepancy ? null : LocalDateTime.now())
+            .w2Count(w2Totals.getW2Count())
+            .w2EmployeeCount(w2Totals.getEmployeeCount())
+            .createdBy(context.userId)
+            .build();
+    }
+
+    private void addReconciliation(PartitionContext context, WithholdingReconciliation reconciliation) {
+        context.pending.add(reconciliation);
+        if (reconciliation.getStatus() == ReconciliationStatus.DISCREPANCY) {
+            context.result.discrepancies++;
+        }
+        if (context.pending.size() >= writeBatchSize) {
+            flush(context);
+        }
+    }
+
+    /**
+     * Upsert pending reconciliations in the page transaction: one lookup for existing rows, then saveAll.
+     */
+    private void flush(PartitionContext context) {
+        if (context.pending.isEmpty()) {
+            return;
+        }
+        List<WithholdingReconciliation> batch = new ArrayList<>(context.pending);
+        context.pending.clear();
+
+        Map<UUID, WithholdingReconciliation> existing = reconciliationRepository
+            .findByTenantIdAndTaxYearAndBusinessIdIn(context.tenantId, context.taxYear,
+                batch.stream().map(WithholdingReconciliation::getBusinessId).toList())
+            .stream()
+            .collect(Collectors.toMap(WithholdingReconciliation::getBusinessId, Function.identity()));
+
+        List<WithholdingReconciliation> toSave = new ArrayList<>(batch.size());
+        for (WithholdingReconciliation computed : batch) {
+            WithholdingReconciliation current = existing.get(computed.getBusinessId());
+            if (current == null) {
+                toSave.add(computed);
+            } else if (current.getApprovedBy() == null) {
+                applyTotals(current, computed);
+                toSave.add(current);
+            }
+        }
+        reconciliationRepository.saveAll(toSave);
+        context.result.written += toSave.size();
+    }
+
+    private void applyTotals(WithholdingReconciliation target, WithholdingReconciliation computed) {
+        target.setW1TotalWages(computed.getW1TotalWages());
+        target.setW2TotalWages(computed.getW2TotalWages());
+        target.setW1TotalTax(computed.getW1TotalTax());
+        target.setW2TotalTax(computed.getW2TotalTax());
+        target.setVarianceWages(computed.getVarianceWages());
+        target.setVarianceTax(computed.getVarianceTax());
+        target.setVariancePercentage(computed.getVariancePercentage());
+        target.setW2Count(computed.getW2Count());
+        target.setW2EmployeeCount(computed.getW2EmployeeCount());
+        // A business explanation (FR-008) keeps a variance RECONCILED
+        if (target.getStatus() != ReconciliationStatus.RECONCILED || target.getResolutionNotes() == null) {
+            target.setStatus(computed.getStatus());
+            target.setReconciliationDate(computed.getReconciliationDate());
+        }
+    }
+
+    private List<W2EmployerTotals> sortW2Totals(List<W2EmployerTotals> w2Totals, UUID tenantId) {
+        List<W2EmployerTotals> sorted = new ArrayList<>(w2Totals != null ? w2Totals : List.of());
+        for (W2EmployerTotals totals : sorted) {
+            if (totals.getTenantId() != null && !totals.getTenantId().equals(tenantId)) {
+                throw new IllegalArgumentException("W-2 totals for business " + totals.getBusinessId()
+                    + " belong to another tenant");
+            }
+        }
+        sorted.sort(Comparator.comparing(W2EmployerTotals::getBusinessId, BUSINESS_ID_ORDER));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getBusinessId().equals(sorted.get(i - 1).getBusinessId())) {
+                throw new IllegalArgumentException("Duplicate W-2 totals for business " + sorted.get(i).getBusinessId());
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Split sorted W-1 filer IDs into contiguous ranges and assign each W-2 employer to the range covering it.
+     * The first range also takes W-2 employers sorting before it, the last those sorting after it.
+     */
+    List<Partition> partition(List<UUID> sortedBusinessIds, List<W2EmployerTotals> sortedW2Totals) {
+        if (sortedBusinessIds.isEmpty()) {
+            return List.of(new Partition(List.of(), sortedW2Totals));
+        }
+        int count = Math.max(1, Math.min(parallelism, sortedBusinessIds.size()));
+        int size = (sortedBusinessIds.size() + count - 1) / count;
+
+        List<Partition> partitions = new ArrayList<>();
+        int w2Index = 0;
+        for (int start = 0; start < sortedBusinessIds.size(); start += size) {
+            int end = Math.min(start + size, sortedBusinessIds.size());
+            boolean last = end == sortedBusinessIds.size();
+            UUID nextFrom = last ? null : sortedBusinessIds.get(end);
+
+            int w2End = w2Index;
+            while (w2End < sortedW2Totals.size()
+                    && (last || BUSINESS_ID_ORDER.compare(sortedW2Totals.get(w2End).getBusinessId(), nextFrom) < 0)) {
+                w2End++;
+            }
+            partitions.add(new Partition(sortedBusinessIds.subList(start, end), sortedW2Totals.subList(w2Index, w2End)));
+            w2Index = w2End;
+        }
+        return partitions;
+    }
+
+    /**
+     * A contiguous range of W-1 filer IDs and the W-2 totals falling in it, both sorted by business ID.
+     * An empty ID list means the partition has no W-1 filers.
+     */
+    record Partition(List<UUID> businessIds, List<W2EmployerTotals> w2Totals) {
+    }
+
+    /**
+     * Counters for one partition (or the whole run once merged).
+     */
+    static final class PartitionResult {
+        private int employers;
+        private int written;
+        private int discrepancies;
+        private int issues;
+        private final Map<ReconciliationIssue.IssueType, Integer> issuesByType =
+            new EnumMap<>(ReconciliationIssue.IssueType.class);
+
+        private void addIssues(List<ReconciliationIssue> employerIssues) {
+            issues += employerIssues.size();
+            employerIssues.forEach(issue -> issuesByType.merge(issue.getIssueType(), 1, Integer::sum));
+        }
+
+        private void add(PartitionResult other) {
+            employers += other.employers;
+            written += other.written;
+            discrepancies += other.discrepancies;
+            issues += other.issues;
+            other.issuesByType.forEach((type, count) -> issuesByType.merge(type, count, Integer::sum));
+        }
+    }
+
+    /**
+     * Mutable state for one partition run (confined to its worker thread).
+     */
+    private static final class PartitionContext {
+        private final Integer taxYear;
+        private final List<W2EmployerTotals> w2Totals;
+        private final UUID userId;
+        private final UUID tenantId;
+        private final List<WithholdingReconciliation> pending = new ArrayList<>();
+        private final PartitionResult result = new PartitionResult();
+        private int w2Index;
+
+        private PartitionContext(Integer taxYear, Partition partition, UUID userId, UUID tenantId) {
+            this.taxYear = taxYear;
+            this.w2Totals = partition.w2Totals();
+            this.userId = userId;
+            this.tenantId = tenantId;
+        }
+
+        private boolean hasNextW2() {
+            return w2Index < w2Totals.size();
+        }
+
+        private W2EmployerTotals peekW2() {
+            return w2Totals.get(w2Index);
+        }
+
+        private W2EmployerTotals nextW2() {
+            return w2Totals.get(w2Index++);
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.munitax.taxengine.service;
 
 import com.munitax.taxengine.domain.withholding.FilingFrequency;
 import com.munitax.taxengine.domain.withholding.W1Filing;
+import com.munitax.taxengine.domain.withholding.W1FilingStatus;
 import com.munitax.taxengine.dto.ReconciliationIssue;
+import com.munitax.taxengine.dto.W2EmployerTotals;
 import com.munitax.taxengine.model.W2Form;
 import com.munitax.taxengine.repository.W1FilingRepository;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +15,6 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for W-1 withholding reconciliation operations.
@@ -69,35 +70,21 @@ public class WithholdingReconciliationService {
     public List<ReconciliationIssue> reconcileW1Filings(UUID employerId, Integer taxYear, List<W2Form> w2Forms) {
         log.info("Starting reconciliation for employer {} tax year {}", employerId, taxYear);
         
-        List<ReconciliationIssue> issues = new ArrayList<>();
-        
         // Fetch all W-1 filings for the employer and tax year
         List<W1Filing> w1Filings = w1FilingRepository.findByBusinessIdAndTaxYear(employerId, taxYear);
         
         if (w1Filings.isEmpty()) {
             log.warn("No W-1 filings found for employer {} tax year {}", employerId, taxYear);
-            return issues;
-        }
-        
-        // Check 1: Compare W-1 wages to W-2 reported wages
-        if (w2Forms != null && !w2Forms.isEmpty()) {
-            issues.addAll(checkWageReconciliation(employerId, taxYear, w1Filings, w2Forms));
+            return new ArrayList<>();
         }
         
-        // Check 2: Validate withholding rates
-        issues.addAll(checkWithholdingRates(w1Filings));
-        
-        // Check 3: Check cumulative totals
-        issues.addAll(checkCumulativeTotals(w1Filings));
-        
-        // Check 4: Detect duplicate filings
-        issues.addAll(checkDuplicateFilings(w1Filings));
+        List<W1Filing> filingsByPeriod = new ArrayList<>(w1Filings);
+        filingsByPeriod.sort(Comparator.comparing(W1Filing::getPeriod));
         
-        // Check 5: Flag late filings
-        issues.addAll(checkLateFilings(w1Filings));
+        W2EmployerTotals w2Totals = w2Forms != null && !w2Forms.isEmpty()
+            ? W2EmployerTotals.fromForms(employerId, w2Forms) : null;
         
-        // Check 6: Verify all required periods are filed
-        issues.addAll(checkMissingFilings(employerId, taxYear, w1Filings));
+        List<ReconciliationIssue> issues = reconcileEmployer(employerId, taxYear, filingsByPeriod, w2Totals);
         
         log.info("Reconciliation completed. Found {} issues for employer {} tax year {}", 
                  issues.size(), employerId, taxYear);
@@ -106,27 +93,73 @@ public class WithholdingReconciliationService {
     }
     
     /**
-     * Compare W-1 wages to W-2 reported wages.
-     * Checks both federal wages (W-2 Box 1) and local wages (W-2 Box 18).
+     * Run all reconciliation checks for one employer in a single pass over its filings.
+     * Shared by single-employer reconciliation and the portfolio batch job.
+     * 
+     * @param employerId Employer/Business ID
+     * @param taxYear Tax year to reconcile
+     * @param filingsByPeriod W-1 filings for the employer and year, sorted by period (superseded
+     *                        filings, status AMENDED, are ignored)
+     * @param w2Totals W-2 totals for the employer (null to skip the wage comparison)
+     * @return List of reconciliation issues found
      */
-    private List<ReconciliationIssue> checkWageReconciliation(UUID employerId, Integer taxYear, 
-                                                               List<W1Filing> w1Filings, List<W2Form> w2Forms) {
+    public List<ReconciliationIssue> reconcileEmployer(UUID employerId, Integer taxYear,
+                                                       List<W1Filing> filingsByPeriod, W2EmployerTotals w2Totals) {
         List<ReconciliationIssue> issues = new ArrayList<>();
+        BigDecimal w1TotalWages = BigDecimal.ZERO;
+        Map<FilingFrequency, Set<String>> filedPeriodsByFrequency = new EnumMap<>(FilingFrequency.class);
+        String currentPeriod = null;
+        W1Filing periodFirstOriginal = null;
+        int periodOriginalCount = 0;
+        
+        for (W1Filing filing : filingsByPeriod) {
+            // A superseded filing's amounts are replaced by its amendment
+            if (filing.getStatus() == W1FilingStatus.AMENDED) {
+                continue;
+            }
+            w1TotalWages = w1TotalWages.add(filing.getGrossWages());
+            filedPeriodsByFrequency.computeIfAbsent(filing.getFilingFrequency(), f -> new HashSet<>())
+                .add(filing.getPeriod());
+            
+            // Duplicates: filings are sorted by period, so a period's filings are adjacent
+            if (!filing.getPeriod().equals(currentPeriod)) {
+                addDuplicateIssue(issues, periodFirstOriginal, periodOriginalCount);
+                currentPeriod = filing.getPeriod();
+                periodFirstOriginal = null;
+                periodOriginalCount = 0;
+            }
+            if (!filing.getIsAmended()) {
+                if (periodFirstOriginal == null) {
+                    periodFirstOriginal = filing;
+                }
+                periodOriginalCount++;
+            }
+            
+            checkWithholdingRate(issues, filing);
+            checkTaxCalculation(issues, filing);
+            checkLateFiling(issues, filing);
+        }
+        addDuplicateIssue(issues, periodFirstOriginal, periodOriginalCount);
         
-        // Calculate total W-1 wages
-        BigDecimal w1TotalWages = w1Filings.stream()
-            .map(W1Filing::getGrossWages)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (w2Totals != null) {
+            checkWageReconciliation(issues, employerId, taxYear, w1TotalWages, w2Totals);
+        }
         
-        // Calculate total W-2 federal wages (Box 1)
-        BigDecimal w2TotalFederalWages = w2Forms.stream()
-            .map(w2 -> w2.federalWages() != null ? BigDecimal.valueOf(w2.federalWages()) : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (Map.Entry<FilingFrequency, Set<String>> entry : filedPeriodsByFrequency.entrySet()) {
+            checkMissingFilings(issues, employerId, taxYear, entry.getKey(), entry.getValue());
+        }
         
-        // Calculate total W-2 local wages (Box 18)
-        BigDecimal w2TotalLocalWages = w2Forms.stream()
-            .map(w2 -> w2.localWages() != null ? BigDecimal.valueOf(w2.localWages()) : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return issues;
+    }
+    
+    /**
+     * Compare W-1 wages to W-2 reported wages.
+     * Checks both federal wages (W-2 Box 1) and local wages (W-2 Box 18).
+     */
+    private void checkWageReconciliation(List<ReconciliationIssue> issues, UUID employerId, Integer taxYear,
+                                         BigDecimal w1TotalWages, W2EmployerTotals w2Totals) {
+        BigDecimal w2TotalFederalWages = w2Totals.getFederalWages();
+        BigDecimal w2TotalLocalWages = w2Totals.getLocalWages();
         
         // Check federal wage mismatch
         if (w2TotalFederalWages.compareTo(BigDecimal.ZERO) > 0) {
@@ -177,198 +210,132 @@ public class WithholdingReconciliationService {
                     .build());
             }
         }
-        
-        return issues;
     }
     
     /**
-     * Validate that withholding rates are within acceptable range (0-3.0%).
+     * Validate that the withholding rate is within acceptable range (0-3.0%).
      */
-    private List<ReconciliationIssue> checkWithholdingRates(List<W1Filing> w1Filings) {
-        List<ReconciliationIssue> issues = new ArrayList<>();
-        
-        for (W1Filing filing : w1Filings) {
-            BigDecimal taxRate = filing.getTaxRate();
-            
-            if (taxRate.compareTo(MIN_WITHHOLDING_RATE) < 0 || taxRate.compareTo(MAX_WITHHOLDING_RATE) > 0) {
-                issues.add(ReconciliationIssue.builder()
-                    .id(UUID.randomUUID())
-                    .employerId(filing.getBusinessId())
-                    .taxYear(filing.getTaxYear())
-                    .period(filing.getPeriod())
-                    .issueType(ReconciliationIssue.IssueType.WITHHOLDING_RATE_INVALID)
-                    .severity(ReconciliationIssue.IssueSeverity.CRITICAL)
-                    .description(String.format("Withholding rate %.4f%% is outside valid range (0%%-3.0%%) for period %s",
-                        taxRate.multiply(new BigDecimal("100")), filing.getPeriod()))
-                    .expectedValue(MAX_WITHHOLDING_RATE)
-                    .actualValue(taxRate)
-                    .filingDate(filing.getFilingDate().toLocalDate())
-                    .recommendedAction("Review tax rate calculation. File amended W-1 with correct rate.")
-                    .resolved(false)
-                    .build());
-            }
+    private void checkWithholdingRate(List<ReconciliationIssue> issues, W1Filing filing) {
+        BigDecimal taxRate = filing.getTaxRate();
+        
+        if (taxRate.compareTo(MIN_WITHHOLDING_RATE) < 0 || taxRate.compareTo(MAX_WITHHOLDING_RATE) > 0) {
+            issues.add(ReconciliationIssue.builder()
+                .id(UUID.randomUUID())
+                .employerId(filing.getBusinessId())
+                .taxYear(filing.getTaxYear())
+                .period(filing.getPeriod())
+                .issueType(ReconciliationIssue.IssueType.WITHHOLDING_RATE_INVALID)
+                .severity(ReconciliationIssue.IssueSeverity.CRITICAL)
+                .description(String.format("Withholding rate %.4f%% is outside valid range (0%%-3.0%%) for period %s",
+                    taxRate.multiply(new BigDecimal("100")), filing.getPeriod()))
+                .expectedValue(MAX_WITHHOLDING_RATE)
+                .actualValue(taxRate)
+                .filingDate(filing.getFilingDate().toLocalDate())
+                .recommendedAction("Review tax rate calculation. File amended W-1 with correct rate.")
+                .resolved(false)
+                .build());
         }
-        
-        return issues;
     }
     
     /**
-     * Check that cumulative totals are consistent across periods.
-     * Verifies that each period's tax calculation is correct.
+     * Check that the period's tax calculation is correct (cumulative totals consistency).
      */
-    private List<ReconciliationIssue> checkCumulativeTotals(List<W1Filing> w1Filings) {
-        List<ReconciliationIssue> issues = new ArrayList<>();
-        
-        // Sort filings by period end date
-        List<W1Filing> sortedFilings = w1Filings.stream()
-            .sorted(Comparator.comparing(W1Filing::getPeriodEndDate))
-            .toList();
-        
-        for (W1Filing filing : sortedFilings) {
-            // Calculate expected tax based on filing's gross wages and tax rate
-            BigDecimal expectedTax = filing.getGrossWages().multiply(filing.getTaxRate())
-                .setScale(2, RoundingMode.HALF_UP);
-            
-            // Check if individual period tax matches expected
-            BigDecimal taxVariance = filing.getTaxDue().subtract(expectedTax).abs();
-            if (taxVariance.compareTo(new BigDecimal("1.00")) > 0) {
-                issues.add(ReconciliationIssue.builder()
-                    .id(UUID.randomUUID())
-                    .employerId(filing.getBusinessId())
-                    .taxYear(filing.getTaxYear())
-                    .period(filing.getPeriod())
-                    .issueType(ReconciliationIssue.IssueType.CUMULATIVE_MISMATCH)
-                    .severity(ReconciliationIssue.IssueSeverity.MEDIUM)
-                    .description(String.format("Tax calculation mismatch for period %s. Expected $%,.2f, found $%,.2f",
-                        filing.getPeriod(), expectedTax, filing.getTaxDue()))
-                    .expectedValue(expectedTax)
-                    .actualValue(filing.getTaxDue())
-                    .variance(filing.getTaxDue().subtract(expectedTax))
-                    .recommendedAction("Review tax calculation for this period.")
-                    .resolved(false)
-                    .build());
-            }
+    private void checkTaxCalculation(List<ReconciliationIssue> issues, W1Filing filing) {
+        // Calculate expected tax based on filing's gross wages and tax rate
+        BigDecimal expectedTax = filing.getGrossWages().multiply(filing.getTaxRate())
+            .setScale(2, RoundingMode.HALF_UP);
+        
+        // Check if individual period tax matches expected
+        BigDecimal taxVariance = filing.getTaxDue().subtract(expectedTax).abs();
+        if (taxVariance.compareTo(new BigDecimal("1.00")) > 0) {
+            issues.add(ReconciliationIssue.builder()
+                .id(UUID.randomUUID())
+                .employerId(filing.getBusinessId())
+                .taxYear(filing.getTaxYear())
+                .period(filing.getPeriod())
+                .issueType(ReconciliationIssue.IssueType.CUMULATIVE_MISMATCH)
+                .severity(ReconciliationIssue.IssueSeverity.MEDIUM)
+                .description(String.format("Tax calculation mismatch for period %s. Expected $%,.2f, found $%,.2f",
+                    filing.getPeriod(), expectedTax, filing.getTaxDue()))
+                .expectedValue(expectedTax)
+                .actualValue(filing.getTaxDue())
+                .variance(filing.getTaxDue().subtract(expectedTax))
+                .recommendedAction("Review tax calculation for this period.")
+                .resolved(false)
+                .build());
         }
-        
-        return issues;
     }
     
     /**
-     * Detect duplicate filings for the same period.
+     * Flag a duplicate when a period has more than one non-amended filing.
      */
-    private List<ReconciliationIssue> checkDuplicateFilings(List<W1Filing> w1Filings) {
-        List<ReconciliationIssue> issues = new ArrayList<>();
-        
-        // Group filings by period
-        Map<String, List<W1Filing>> filingsByPeriod = w1Filings.stream()
-            .collect(Collectors.groupingBy(W1Filing::getPeriod));
-        
-        // Check for duplicates (more than one non-amended filing per period)
-        for (Map.Entry<String, List<W1Filing>> entry : filingsByPeriod.entrySet()) {
-            String period = entry.getKey();
-            List<W1Filing> periodFilings = entry.getValue().stream()
-                .filter(f -> !f.getIsAmended())
-                .toList();
-            
-            if (periodFilings.size() > 1) {
-                W1Filing firstFiling = periodFilings.get(0);
-                issues.add(ReconciliationIssue.builder()
-                    .id(UUID.randomUUID())
-                    .employerId(firstFiling.getBusinessId())
-                    .taxYear(firstFiling.getTaxYear())
-                    .period(period)
-                    .issueType(ReconciliationIssue.IssueType.DUPLICATE_FILING)
-                    .severity(ReconciliationIssue.IssueSeverity.HIGH)
-                    .description(String.format("Found %d duplicate filings for period %s", periodFilings.size(), period))
-                    .recommendedAction("Review duplicate filings and void incorrect ones.")
-                    .resolved(false)
-                    .build());
-            }
+    private void addDuplicateIssue(List<ReconciliationIssue> issues, W1Filing firstFiling, int originalCount) {
+        if (firstFiling == null || originalCount <= 1) {
+            return;
         }
-        
-        return issues;
+        issues.add(ReconciliationIssue.builder()
+            .id(UUID.randomUUID())
+            .employerId(firstFiling.getBusinessId())
+            .taxYear(firstFiling.getTaxYear())
+            .period(firstFiling.getPeriod())
+            .issueType(ReconciliationIssue.IssueType.DUPLICATE_FILING)
+            .severity(ReconciliationIssue.IssueSeverity.HIGH)
+            .description(String.format("Found %d duplicate filings for period %s", originalCount, firstFiling.getPeriod()))
+            .recommendedAction("Review duplicate filings and void incorrect ones.")
+            .resolved(false)
+            .build());
     }
     
     /**
-     * Flag late filings (filing_date > due_date).
+     * Flag a late filing (filing_date > due_date).
      */
-    private List<ReconciliationIssue> checkLateFilings(List<W1Filing> w1Filings) {
-        List<ReconciliationIssue> issues = new ArrayList<>();
+    private void checkLateFiling(List<ReconciliationIssue> issues, W1Filing filing) {
+        LocalDate filingDate = filing.getFilingDate().toLocalDate();
+        LocalDate dueDate = filing.getDueDate();
         
-        for (W1Filing filing : w1Filings) {
-            LocalDate filingDate = filing.getFilingDate().toLocalDate();
-            LocalDate dueDate = filing.getDueDate();
+        if (filingDate.isAfter(dueDate)) {
+            long daysLate = java.time.temporal.ChronoUnit.DAYS.between(dueDate, filingDate);
             
-            if (filingDate.isAfter(dueDate)) {
-                long daysLate = java.time.temporal.ChronoUnit.DAYS.between(dueDate, filingDate);
-                
-                issues.add(ReconciliationIssue.builder()
-                    .id(UUID.randomUUID())
-                    .employerId(filing.getBusinessId())
-                    .taxYear(filing.getTaxYear())
-                    .period(filing.getPeriod())
-                    .issueType(ReconciliationIssue.IssueType.LATE_FILING)
-                    .severity(ReconciliationIssue.IssueSeverity.MEDIUM)
-                    .description(String.format("Filing for period %s was %d days late (due: %s, filed: %s)",
-                        filing.getPeriod(), daysLate, dueDate, filingDate))
-                    .dueDate(dueDate)
-                    .filingDate(filingDate)
-                    .recommendedAction(String.format("Late filing penalty applied: $%,.2f", filing.getLateFilingPenalty()))
-                    .resolved(false)
-                    .build());
-            }
+            issues.add(ReconciliationIssue.builder()
+                .id(UUID.randomUUID())
+                .employerId(filing.getBusinessId())
+                .taxYear(filing.getTaxYear())
+                .period(filing.getPeriod())
+                .issueType(ReconciliationIssue.IssueType.LATE_FILING)
+                .severity(ReconciliationIssue.IssueSeverity.MEDIUM)
+                .description(String.format("Filing for period %s was %d days late (due: %s, filed: %s)",
+                    filing.getPeriod(), daysLate, dueDate, filingDate))
+                .dueDate(dueDate)
+                .filingDate(filingDate)
+                .recommendedAction(String.format("Late filing penalty applied: $%,.2f", filing.getLateFilingPenalty()))
+                .resolved(false)
+                .build());
         }
-        
-        return issues;
     }
     
     /**
-     * Check for missing required filings based on filing frequency.
-     * Handles cases where an employer may have different frequencies.
+     * Check for missing required filings for one filing frequency.
+     * Employers may have filed under different frequencies; each is checked separately.
      */
-    private List<ReconciliationIssue> checkMissingFilings(UUID employerId, Integer taxYear, List<W1Filing> w1Filings) {
-        List<ReconciliationIssue> issues = new ArrayList<>();
-        
-        if (w1Filings.isEmpty()) {
-            return issues;
-        }
-        
-        // Group filings by their filing frequency
-        Map<FilingFrequency, List<W1Filing>> filingsByFrequency = w1Filings.stream()
-                .collect(Collectors.groupingBy(W1Filing::getFilingFrequency));
-        
-        for (Map.Entry<FilingFrequency, List<W1Filing>> entry : filingsByFrequency.entrySet()) {
-            FilingFrequency frequency = entry.getKey();
-            List<W1Filing> filingsForFrequency = entry.getValue();
-
-            // Get filed periods for this frequency
-            Set<String> filedPeriods = filingsForFrequency.stream()
-                    .map(W1Filing::getPeriod)
-                    .collect(Collectors.toSet());
-
-            // Determine required periods based on frequency
-            Set<String> requiredPeriods = getRequiredPeriods(frequency);
-
-            // Find missing periods
-            Set<String> missingPeriods = new HashSet<>(requiredPeriods);
-            missingPeriods.removeAll(filedPeriods);
-
-            for (String period : missingPeriods) {
-                issues.add(ReconciliationIssue.builder()
-                        .id(UUID.randomUUID())
-                        .employerId(employerId)
-                        .taxYear(taxYear)
-                        .period(period)
-                        .issueType(ReconciliationIssue.IssueType.MISSING_FILING)
-                        .severity(ReconciliationIssue.IssueSeverity.CRITICAL)
-                        .description(String.format("Missing required filing for period %s (%s filer)", period, frequency))
-                        .recommendedAction("File W-1 return for missing period.")
-                        .resolved(false)
-                        .build());
-            }
+    private void checkMissingFilings(List<ReconciliationIssue> issues, UUID employerId, Integer taxYear,
+                                     FilingFrequency frequency, Set<String> filedPeriods) {
+        // Determine required periods based on frequency
+        Set<String> missingPeriods = new TreeSet<>(getRequiredPeriods(frequency));
+        missingPeriods.removeAll(filedPeriods);
+        
+        for (String period : missingPeriods) {
+            issues.add(ReconciliationIssue.builder()
+                    .id(UUID.randomUUID())
+                    .employerId(employerId)
+                    .taxYear(taxYear)
+                    .period(period)
+                    .issueType(ReconciliationIssue.IssueType.MISSING_FILING)
+                    .severity(ReconciliationIssue.IssueSeverity.CRITICAL)
+                    .description(String.format("Missing required filing for period %s (%s filer)", period, frequency))
+                    .recommendedAction("File W-1 return for missing period.")
+                    .resolved(false)
+                    .build());
         }
-        
-        return issues;
     }
     
     /**
@@ -0,0 +1,348 @@
+package com.munitax.taxengine.service.audit;
+
+import com.munitax.taxengine.domain.apportionment.ApportionmentAuditLog;
+import com.munitax.taxengine.domain.penalty.PenaltyAuditLog;
+import com.munitax.taxengine.repository.ApportionmentAuditLogRepository;
+import com.munitax.taxengine.repository.PenaltyAuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asynchronous write-behind for penalty and apportionment audit logs.
+ *
+ * Core Functions:
+ * - FR-045: Audit trail for penalty assessments, abatements and payment allocations
+ * - T060: Audit trail for apportionment changes
+ *
+ * Audit rows are append-only and never read back in the request that creates them,
+ * so they are taken off the penalty/apportionment hot paths:
+ * 1. Inside a transaction, entries are appended to the write-ahead log (see AuditWriteAheadLog)
+ *    just before it commits, so a failed append fails the caller, and queued once it has committed;
+ *    entries of rolled-back transactions are marked discarded and never written
+ * 2. Write-ahead segments left over from a crash are replayed on startup; the write-ahead log is on
+ *    by default and is only skipped when {@code wal-dir} is set empty. Each instance locks its
+ *    {@code wal-dir}, so instances sharing a working directory need their own setting
+ * 3. A background thread writes queued entries in batches of {@code batch-size} in one
+ *    transaction per batch; with Hibernate JDBC batching and {@code reWriteBatchedInserts}
+ *    each batch becomes a multi-row INSERT
+ * 4. A flush runs every {@code flush-interval-ms}, or as soon as a queue reaches the batch size
+ * 5. On graceful shutdown the scheduler is stopped and both queues are drained before the
+ *    datasource is closed; entries that cannot be drained stay in the write-ahead log
+ *
+ * Queues are bounded; when one is full the entry is written on the caller thread.
+ * When disabled, or once shutdown has begun, entries are written synchronously: in the caller's
+ * transaction if it has not committed yet, otherwise in a transaction of their own.
+ *
+ * @see WriteBehindBuffer
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogWriteBehindService implements SmartLifecycle {
+
+    private final PenaltyAuditLogRepository penaltyAuditLogRepository;
+    private final ApportionmentAuditLogRepository apportionmentAuditLogRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Whether audit rows are buffered. When false they are written synchronously.
+     */
+    @Value("${app.audit.write-behind.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum queued entries per audit table.
+     */
+    @Value("${app.audit.write-behind.capacity:10000}")
+    private int capacity;
+
+    /**
+     * Entries written per insert batch.
+     */
+    @Value("${app.audit.write-behind.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Maximum time an entry waits in the queue before being written.
+     */
+    @Value("${app.audit.write-behind.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    /**
+     * Directory for the write-ahead logs (one subdirectory per audit table); empty disables them.
+     * Locked by this instance while running.
+     */
+    @Value("${app.audit.write-behind.wal-dir:data/audit-wal}")
+    private String walDir;
+
+    /**
+     * Force every write-ahead append to disk (protects against power loss, at a latency cost).
+     */
+    @Value("${app.audit.write-behind.wal-fsync:false}")
+    private boolean walFsync;
+
+    private WriteBehindBuffer<PenaltyAuditLog> penaltyBuffer;
+    private WriteBehindBuffer<ApportionmentAuditLog> apportionmentBuffer;
+    private ScheduledExecutorService scheduler;
+    private final AtomicBoolean flushPending = new AtomicBoolean(false);
+    // Queueing holds the read lock, stopping takes the write lock: nothing is queued after the drain
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+
+    /**
+     * Record a penalty audit entry.
+     *
+     * @param entry Audit entry to write
+     */
+    public void logPenaltyEvent(PenaltyAuditLog entry) {
+        Runnable write = () -> penaltyAuditLogRepository.save(entry);
+        submit(penaltyBuffer, List.of(entry), write, queued -> write);
+    }
+
+    /**
+     * Record an apportionment audit entry.
+     *
+     * @param entry Audit entry to write
+     */
+    public void logApportionmentChange(ApportionmentAuditLog entry) {
+        stampChangeDate(entry);
+        Runnable write = () -> apportionmentAuditLogRepository.save(entry);
+        submit(apportionmentBuffer, List.of(entry), write, queued -> write);
+    }
+
+    /**
+     * Record several apportionment audit entries, e.g. from a bulk refresh.
+     * Inside a transaction they share one write-ahead append.
+     *
+     * @param entries Audit entries to write
+     */
+    public void logApportionmentChanges(List<ApportionmentAuditLog> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.forEach(this::stampChangeDate);
+        submit(apportionmentBuffer, entries, () -> apportionmentAuditLogRepository.saveAll(entries),
+               entry -> () -> apportionmentAuditLogRepository.save(entry));
+    }
+
+    private void stampChangeDate(ApportionmentAuditLog entry) {
+        if (entry.getChangeDate() == null) {
+            entry.setChangeDate(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Write everything currently queued.
+     *
+     * @return Number of entries written
+     */
+    public int flushAll() {
+        if (penaltyBuffer == null) {
+            return 0;
+        }
+        flushPending.set(false);
+        int written = 0;
+        for (WriteBehindBuffer<?> buffer : buffers()) {
+            try {
+                written += buffer.flush();
+            } catch (RuntimeException e) {
+                log.error("Audit write-behind flush failed for buffer '{}': {}", buffer.getName(), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Audit write-behind disabled, audit logs will be written synchronously");
+            return;
+        }
+        penaltyBuffer = new WriteBehindBuffer<>("penalty_audit_logs", capacity, batchSize,
+                batch -> inTransaction(() -> penaltyAuditLogRepository.saveAll(batch)),
+                writeAheadLog("penalty_audit_logs", PenaltyAuditLog.class), meterRegistry);
+        apportionmentBuffer = new WriteBehindBuffer<>("apportionment_audit_log", capacity, batchSize,
+                batch -> inTransaction(() -> apportionmentAuditLogRepository.saveAll(batch)),
+                writeAheadLog("apportionment_audit_log", ApportionmentAuditLog.class), meterRegistry);
+        buffers().forEach(WriteBehindBuffer::recover);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "audit-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        running = true;
+
+        log.info("Audit write-behind started (capacity {}, batch size {}, flush interval {} ms, write-ahead log {})",
+                 capacity, batchSize, flushIntervalMs, walDir.isBlank() ? "off" : walDir);
+    }
+
+    @Override
+    public void stop() {
+        lifecycleLock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Audit write-behind flush still running after 30s, draining on shutdown thread");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        int drained = 0;
+        while (penaltyBuffer.size() + apportionmentBuffer.size() > 0) {
+            int written = flushAll();
+            if (written == 0) {
+                log.error("Audit write-behind could not drain on shutdown, {} penalty and {} apportionment entries unwritten{}",
+                          penaltyBuffer.size(), apportionmentBuffer.size(),
+                          walDir.isBlank() ? "" : " (kept in the write-ahead log)");
+                break;
+            }
+            drained += written;
+        }
+        buffers().forEach(WriteBehindBuffer::close);
+        log.info("Audit write-behind stopped, drained {} entries", drained);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop before other lifecycle beans so the datasource is still open while draining.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1000;
+    }
+
+    /**
+     * @param writeAll Synchronous write of all entries
+     * @param writeOne Synchronous write of a single entry, used when it cannot be queued
+     */
+    private <T> void submit(WriteBehindBuffer<T> buffer, List<T> entries, Runnable writeAll,
+                            Function<T, Runnable> writeOne) {
+        if (!running) {
+            writeNow(writeAll);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entries.forEach(entry -> enqueue(buffer, entry, writeOne.apply(entry)));
+            return;
+        }
+        AuditWriteAheadLog<T> writeAheadLog = buffer.getWriteAheadLog();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private List<UUID> keys;
+            private boolean written;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!running) {
+                    // Shutdown began; write in the caller's transaction instead
+                    writeAll.run();
+                    written = true;
+                } else if (writeAheadLog != null) {
+                    keys = writeAheadLog.appendPending(entries);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                if (keys != null) {
+                    writeAheadLog.complete(keys, committed, () -> offerAll(buffer, entries, writeOne));
+                } else if (committed && !written) {
+                    offerAll(buffer, entries, writeOne);
+                }
+            }
+        });
+    }
+
+    private <T> void enqueue(WriteBehindBuffer<T> buffer, T entry, Runnable write) {
+        AuditWriteAheadLog<T> writeAheadLog = buffer.getWriteAheadLog();
+        if (writeAheadLog != null) {
+            writeAheadLog.append(entry, () -> offer(buffer, entry, write));
+        } else {
+            offer(buffer, entry, write);
+        }
+    }
+
+    private <T> void offerAll(WriteBehindBuffer<T> buffer, List<T> entries, Function<T, Runnable> writeOne) {
+        entries.forEach(entry -> offer(buffer, entry, writeOne.apply(entry)));
+    }
+
+    private <T> void offer(WriteBehindBuffer<T> buffer, T entry, Runnable write) {
+        lifecycleLock.readLock().lock();
+        try {
+            if (running) {
+                if (buffer.offer(entry) && flushPending.compareAndSet(false, true)) {
+                    scheduler.execute(this::flushAll);
+                }
+                return;
+            }
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+        // Stopped after the caller committed: the queue has been drained, write this entry now
+        inTransaction(write);
+    }
+
+    private <T> AuditWriteAheadLog<T> writeAheadLog(String bufferName, Class<T> type) {
+        if (walDir.isBlank()) {
+            return null;
+        }
+        return new AuditWriteAheadLog<>(Path.of(walDir, bufferName), objectMapper, type, walFsync);
+    }
+
+    private void writeNow(Runnable write) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            write.run();
+        } else {
+            inTransaction(write);
+        }
+    }
+
+    private void inTransaction(Runnable write) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.executeWithoutResult(status -> write.run());
+    }
+
+    private List<WriteBehindBuffer<?>> buffers() {
+        return List.of(penaltyBuffer, apportionmentBuffer);
+    }
+}
@@ -0,0 +1,369 @@
+package com.munitax.taxengine.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Local append-only file of audit entries accepted by a {@link WriteBehindBuffer}, so queued entries
+ * survive a crash before they reach the database.
+ *
+ * Entries are appended as JSON lines to the active segment (audit-&lt;n&gt;.wal), each under a record
+ * key. Before each flush the buffer seals the active segment and starts a new one; a sealed segment
+ * is deleted once every entry queued up to that point has been written. Segments left over from a
+ * previous run are replayed on startup. The audit tables have no key to detect an entry that was
+ * written just before a crash, so replay is at-least-once.
+ *
+ * Entries are read back with a private copy of the mapper that ignores unknown properties, since
+ * entity getters such as {@code isCreateOperation()} are written but have no matching field. A
+ * segment with an unreadable record is not replayed; {@link #quarantine} renames it so it is kept
+ * for manual recovery instead of being deleted.
+ *
+ * Appending and queueing happen under the shared lock and sealing under the exclusive lock, so every
+ * entry in a sealed segment is already on the queue. Entries of a transaction are appended before it
+ * commits and the shared lock is held until its outcome is known: committed entries are then queued,
+ * rolled-back entries are followed by a discard record so they are not replayed.
+ *
+ * The directory is held with an exclusive lock on its wal.lock file for the life of the log, so a
+ * second instance pointed at the same directory fails on startup instead of replaying and deleting
+ * the first instance's segments.
+ *
+ * @param <T> Entity type logged
+ */
+@Slf4j
+public class AuditWriteAheadLog<T> implements AutoCloseable {
+
+    private static final String SUFFIX = ".wal";
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+    private static final String KEY = "key";
+    private static final String ENTRY = "entry";
+    private static final String DISCARDED = "discardedKeys";
+    private static final String LOCK_FILE = "wal.lock";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private final boolean fsync;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel lockChannel;
+    private FileChannel channel;
+    private Path activeSegment;
+    private long nextSequence;
+    private volatile boolean dirty;
+
+    /**
+     * @param directory Directory holding the segments (created if missing)
+     * @param objectMapper Mapper for serializing entries (copied, the original is not reconfigured)
+     * @param type Entity type, for reading entries back
+     * @param fsync Force each append to disk (survives power loss, not only process crashes)
+     * @throws IllegalStateException If another instance holds the directory
+     */
+    public AuditWriteAheadLog(Path directory, ObjectMapper objectMapper, Class<T> type, boolean fsync) {
+        this.directory = directory;
+        this.objectMapper = objectMapper.copy()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.type = type;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+            lockDirectory();
+            nextSequence = segments().stream().mapToLong(AuditWriteAheadLog::sequence).max().orElse(0) + 1;
+            openSegment();
+        } catch (IOException e) {
+            releaseDirectory();
+            throw new UncheckedIOException("Cannot open audit write-ahead log in " + directory, e);
+        }
+    }
+
+    /**
+     * Append an entry and run the follow-up action (queueing) before the segment can be sealed.
+     *
+     * @param entry Entry to log
+     * @param afterAppend Action run while the segment is still active
+     */
+    public void append(T entry, Runnable afterAppend) {
+        byte[] line = serialize(List.of(entry), new ArrayList<>());
+
+        lock.readLock().lock();
+        try {
+            writeLine(line);
+            afterAppend.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Append the entries of a transaction that is about to commit. The segment cannot be sealed until
+     * {@link #complete} is called on the same thread with the transaction outcome.
+     *
+     * @param entries Entries to log
+     * @return Record keys to pass to {@link #complete}
+     */
+    public List<UUID> appendPending(List<T> entries) {
+        List<UUID> keys = new ArrayList<>(entries.size());
+        byte[] lines = serialize(entries, keys);
+
+        lock.readLock().lock();
+        try {
+            writeLine(lines);
+        } catch (RuntimeException e) {
+            lock.readLock().unlock();
+            throw e;
+        }
+        return keys;
+    }
+
+    /**
+     * Finish entries added with {@link #appendPending}: queue committed entries, mark rolled-back
+     * entries as discarded.
+     *
+     * @param keys Keys returned by appendPending
+     * @param committed Whether the transaction committed
+     * @param afterCommit Action run for committed entries while the segment is still active
+     */
+    public void complete(List<UUID> keys, boolean committed, Runnable afterCommit) {
+        try {
+            if (committed) {
+                afterCommit.run();
+            } else {
+                writeLine(serializeDiscard(keys));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Close the active segment and start a new one, unless nothing was appended since the last seal.
+     *
+     * @return The sealed segment, or null if the active segment is empty
+     */
+    public Path seal() {
+        lock.writeLock().lock();
+        try {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            Path sealed = activeSegment;
+            channel.close();
+            openSegment();
+            return sealed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate audit write-ahead log " + activeSegment, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Delete sealed segments whose entries have all been written.
+     */
+    public void delete(List<Path> sealedSegments) {
+        for (Path segment : sealedSegments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Failed to delete audit write-ahead segment {}: {}", segment, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Segments other than the active one, oldest first (left over from a previous run).
+     */
+    public List<Path> recoverableSegments() {
+        try {
+            return segments().stream().filter(segment -> !segment.equals(activeSegment)).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list audit write-ahead log " + directory, e);
+        }
+    }
+
+    /**
+     * Read the entries of a segment, leaving out entries of rolled-back transactions. A torn last
+     * line from a crash mid-append (no trailing newline) is skipped.
+     *
+     * @throws IllegalStateException if a complete record cannot be read; nothing of the segment
+     *         should be replayed then
+     */
+    public List<T> read(Path segment) {
+        String content;
+        try {
+            content = Files.readString(segment, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read audit write-ahead segment " + segment, e);
+        }
+        int end = content.lastIndexOf('\n') + 1;
+        if (end < content.length()) {
+            log.warn("Skipping torn last audit write-ahead record in {}", segment);
+        }
+
+        Map<UUID, T> entries = new LinkedHashMap<>();
+        Set<UUID> discarded = new HashSet<>();
+        int lineNumber = 0;
+        for (String line : content.substring(0, end).split("\n")) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                JsonNode record = objectMapper.readTree(line);
+                if (record.has(DISCARDED)) {
+                    record.get(DISCARDED).forEach(key -> discarded.add(UUID.fromString(key.asText())));
+                } else {
+                    entries.put(UUID.fromString(record.get(KEY).asText()),
+                            objectMapper.treeToValue(record.get(ENTRY), type));
+                }
+            } catch (JsonProcessingException | RuntimeException e) {
+                throw new IllegalStateException("Unreadable audit write-ahead record at " + segment + ":"
+                        + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        entries.keySet().removeAll(discarded);
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Rename a segment that cannot be replayed so it is neither replayed nor deleted again.
+     *
+     * @return The renamed file
+     */
+    public Path quarantine(Path segment) {
+        Path target = segment.resolveSibling(segment.getFileName() + CORRUPT_SUFFIX);
+        try {
+            return Files.move(segment, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot quarantine audit write-ahead segment " + segment, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit write-ahead segment {}: {}", activeSegment, e.getMessage());
+        } finally {
+            releaseDirectory();
+            lock.writeLock().unlock();
+        }
+    }
+
+    private byte[] serialize(List<T> entries, List<UUID> keys) {
+        StringBuilder lines = new StringBuilder();
+        for (T entry : entries) {
+            UUID key = UUID.randomUUID();
+            ObjectNode record = objectMapper.createObjectNode();
+            record.put(KEY, key.toString());
+            record.set(ENTRY, objectMapper.valueToTree(entry));
+            lines.append(record).append('\n');
+            keys.add(key);
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] serializeDiscard(List<UUID> keys) {
+        ObjectNode record = objectMapper.createObjectNode();
+        ArrayNode discarded = record.putArray(DISCARDED);
+        keys.forEach(key -> discarded.add(key.toString()));
+        return (record + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Callers hold the shared lock
+    private void writeLine(byte[] line) {
+        try {
+            dirty = true;
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to audit write-ahead log " + activeSegment, e);
+        }
+    }
+
+    private void lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock directoryLock;
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            releaseDirectory();
+            throw new IllegalStateException("Audit write-ahead log directory " + directory
+                    + " is in use by another instance; give each instance its own wal-dir");
+        }
+    }
+
+    private void releaseDirectory() {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            // Closing the channel releases the lock
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to release audit write-ahead log directory {}: {}", directory, e.getMessage());
+        }
+        lockChannel = null;
+    }
+
+    private void openSegment() throws IOException {
+        activeSegment = directory.resolve(String.format("audit-%019d%s", nextSequence++, SUFFIX));
+        channel = FileChannel.open(activeSegment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequence(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("audit-".length(), name.length() - SUFFIX.length()));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.munitax.taxengine.service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Consumer;
+
+/**
+ * Bounded write-behind queue for append-only audit rows.
+ *
+ * Entries are accepted on the caller thread and written in batches by {@link #flush()}.
+ * When the queue is full the entry is written synchronously on the caller thread instead
+ * of being dropped, so the buffer only ever adds latency, never loses rows.
+ * A batch whose write fails is put back at the head of the queue and retried on the
+ * next flush.
+ *
+ * With a write-ahead log, callers append entries to it before queueing them (see
+ * {@link #getWriteAheadLog()}); each flush seals the active segment and deletes sealed segments
+ * once everything queued before the seal has been written, and {@link #recover()} re-queues
+ * entries from segments left over by a crash.
+ *
+ * Metrics (tagged with {@code buffer=<name>}):
+ * - audit.write_behind.queue.depth: entries waiting to be written
+ * - audit.write_behind.flush: flush latency per batch
+ * - audit.write_behind.written: entries written
+ * - audit.write_behind.failures: failed batch writes
+ * - audit.write_behind.sync_fallback: entries written on the caller thread because the queue was full
+ * - audit.write_behind.wal.replayed: entries re-queued from the write-ahead log on startup
+ * - audit.write_behind.wal.quarantined: write-ahead segments not replayed because a record was unreadable
+ *
+ * @param <T> Entity type buffered
+ */
+@Slf4j
+public class WriteBehindBuffer<T> {
+
+    private final String name;
+    private final int batchSize;
+    private final Consumer<List<T>> writer;
+    private final BlockingDeque<T> queue;
+    private final AuditWriteAheadLog<T> writeAheadLog;
+    private final List<Path> sealedSegments = new ArrayList<>();
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter failureCounter;
+    private final Counter syncFallbackCounter;
+    private final Counter replayedCounter;
+    private final Counter quarantinedCounter;
+
+    /**
+     * In-memory only buffer.
+     *
+     * @see #WriteBehindBuffer(String, int, int, Consumer, AuditWriteAheadLog, MeterRegistry)
+     */
+    public WriteBehindBuffer(String name, int capacity, int batchSize,
+                             Consumer<List<T>> writer, MeterRegistry meterRegistry) {
+        this(name, capacity, batchSize, writer, null, meterRegistry);
+    }
+
+    /**
+     * @param name Buffer name used in logs and metric tags
+     * @param capacity Maximum number of queued entries
+     * @param batchSize Maximum number of entries per write
+     * @param writer Writes one batch (expected to be transactional)
+     * @param writeAheadLog Write-ahead log backing the queue, or null for in-memory only
+     * @param meterRegistry Registry for queue and flush metrics
+     */
+    public WriteBehindBuffer(String name, int capacity, int batchSize, Consumer<List<T>> writer,
+                             AuditWriteAheadLog<T> writeAheadLog, MeterRegistry meterRegistry) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.name = name;
+        this.batchSize = batchSize;
+        this.writer = writer;
+        this.queue = new LinkedBlockingDeque<>(capacity);
+        this.writeAheadLog = writeAheadLog;
+
+        Gauge.builder("audit.write_behind.queue.depth", queue, BlockingDeque::size)
+             .tag("buffer", name)
+             .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.write_behind.flush").tag("buffer", name).register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("audit.write_behind.written", "buffer", name);
+        this.failureCounter = meterRegistry.counter("audit.write_behind.failures", "buffer", name);
+        this.syncFallbackCounter = meterRegistry.counter("audit.write_behind.sync_fallback", "buffer", name);
+        this.replayedCounter = meterRegistry.counter("audit.write_behind.wal.replayed", "buffer", name);
+        this.quarantinedCounter = meterRegistry.counter("audit.write_behind.wal.quarantined", "buffer", name);
+    }
+
+    /**
+     * Queue an entry for writing, or write it immediately if the queue is full.
+     *
+     * @param entry Entry to write
+     * @return true if the queue has reached the batch size and should be flushed
+     */
+    public boolean offer(T entry) {
+        if (!queue.offerLast(entry)) {
+            log.warn("Audit write-behind buffer '{}' full, writing entry synchronously", name);
+            syncFallbackCounter.increment();
+            writer.accept(List.of(entry));
+            writtenCounter.increment();
+            return true;
+        }
+        return queue.size() >= batchSize;
+    }
+
+    /**
+     * Write all queued entries in batches. Stops at the first failed batch, which is re-queued.
+     *
+     * @return Number of entries written
+     */
+    public synchronized int flush() {
+        if (writeAheadLog != null) {
+            Path sealed = writeAheadLog.seal();
+            if (sealed != null) {
+                sealedSegments.add(sealed);
+            }
+        }
+
+        int written = 0;
+        while (true) {
+            // A new list per batch: the writer may keep a reference to the one it was given
+            List<T> batch = new ArrayList<>(batchSize);
+            if (queue.drainTo(batch, batchSize) == 0) {
+                break;
+            }
+            try {
+                flushTimer.record(() -> writer.accept(batch));
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                log.error("Failed to write {} audit entries from buffer '{}', will retry: {}",
+                          batch.size(), name, e.getMessage());
+                requeue(batch);
+                return written;
+            }
+            written += batch.size();
+            writtenCounter.increment(batch.size());
+        }
+
+        // Everything queued before the seal is in the database
+        if (!sealedSegments.isEmpty()) {
+            writeAheadLog.delete(sealedSegments);
+            sealedSegments.clear();
+        }
+        return written;
+    }
+
+    /**
+     * Re-queue entries from write-ahead segments left over by a previous run. The segments are
+     * deleted by the first flush that writes them. A segment with an unreadable record is
+     * quarantined as a whole and reported at ERROR, since its entries never reached the database.
+     *
+     * @return Number of entries re-queued
+     */
+    public synchronized int recover() {
+        if (writeAheadLog == null) {
+            return 0;
+        }
+        int replayed = 0;
+        for (Path segment : writeAheadLog.recoverableSegments()) {
+            List<T> entries;
+            try {
+                entries = writeAheadLog.read(segment);
+            } catch (IllegalStateException e) {
+                quarantinedCounter.increment();
+                Path quarantined = writeAheadLog.quarantine(segment);
+                log.error("Audit write-ahead segment for buffer '{}' could not be replayed, kept as {}: {}",
+                          name, quarantined, e.getMessage());
+                continue;
+            }
+            for (T entry : entries) {
+                if (!queue.offerLast(entry)) {
+                    writer.accept(List.of(entry));
+                    writtenCounter.increment();
+                }
+                replayed++;
+            }
+            sealedSegments.add(segment);
+        }
+        if (replayed > 0) {
+            replayedCounter.increment(replayed);
+            log.warn("Replayed {} audit entries for buffer '{}' from the write-ahead log", replayed, name);
+        }
+        return replayed;
+    }
+
+    /**
+     * @return The write-ahead log backing this buffer, or null if it is in-memory only
+     */
+    public AuditWriteAheadLog<T> getWriteAheadLog() {
+        return writeAheadLog;
+    }
+
+    /**
+     * Close the write-ahead log. Segments with unwritten entries are kept for the next start.
+     */
+    public void close() {
+        if (writeAheadLog != null) {
+            writeAheadLog.close();
+        }
+    }
+
+    /**
+     * @return Number of entries waiting to be written
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void requeue(List<T> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!queue.offerFirst(batch.get(i))) {
+                // Queue refilled while writing; keep the oldest entries by writing them on this thread
+                writer.accept(List.copyOf(batch.subList(0, i + 1)));
+                writtenCounter.increment(i + 1);
+                return;
+            }
+        }
+    }
+}
@@ -44,6 +44,7 @@ public class EstimatedTaxPenaltyService {
     
     private final EstimatedTaxPenaltyRepository estimatedTaxPenaltyRepository;
     private final SafeHarborEvaluationService safeHarborEvaluationService;
+    private final PriorYearLiabilityCache priorYearLiabilityCache;
     private final RuleEngineIntegrationService ruleEngineService;
     
     private static final int SCALE = 2; // 2 decimal places for currency
@@ -139,6 +140,9 @@ public class EstimatedTaxPenaltyService {
         // Save penalty first to get ID
         EstimatedTaxPenalty savedPenalty = estimatedTaxPenaltyRepository.save(penalty);
         
+        // This year's liability is the prior-year figure for next year's safe harbor
+        priorYearLiabilityCache.invalidate(tenantId, taxYear);
+        
         // Set bidirectional relationship
         underpayments.forEach(u -> u.setEstimatedPenaltyId(savedPenalty.getId()));
         
@@ -367,6 +371,9 @@ public class EstimatedTaxPenaltyService {
         // Save penalty first to get ID
         EstimatedTaxPenalty savedPenalty = estimatedTaxPenaltyRepository.save(penalty);
         
+        // This year's liability is the prior-year figure for next year's safe harbor
+        priorYearLiabilityCache.invalidate(tenantId, taxYear);
+        
         // Set the ID on underpayments
         underpayments.forEach(u -> u.setEstimatedPenaltyId(savedPenalty.getId()));
         
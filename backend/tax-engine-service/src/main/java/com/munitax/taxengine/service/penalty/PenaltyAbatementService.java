@@ -1,8 +1,12 @@
 package com.munitax.taxengine.service.penalty;
 
+import com.munitax.taxengine.domain.document.PdfJobStatus;
 import com.munitax.taxengine.domain.penalty.*;
+import com.munitax.taxengine.dto.PdfGenerationJobResponse;
 import com.munitax.taxengine.repository.PenaltyAbatementRepository;
 import com.munitax.taxengine.repository.PenaltyRepository;
+import com.munitax.taxengine.service.PdfGenerationQueueService;
+import com.munitax.taxengine.service.audit.AuditLogWriteBehindService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -10,7 +14,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -40,8 +48,8 @@ public class PenaltyAbatementService {
     
     private final PenaltyAbatementRepository abatementRepository;
     private final PenaltyRepository penaltyRepository;
-    // TODO: Inject PDF service for Form 27-PA generation
-    // private final PdfGenerationService pdfService;
+    private final AuditLogWriteBehindService auditLogWriteBehindService;
+    private final PdfGenerationQueueService pdfGenerationQueueService;
     
     private static final int FIRST_TIME_LOOKBACK_YEARS = 3;
     
@@ -124,10 +132,15 @@ public class PenaltyAbatementService {
         
         log.info("Penalty abatement request created: {}, status: PENDING", savedAbatement.getId());
         
-        // TODO: FR-036: Generate Form 27-PA PDF
-        // String formUrl = pdfService.generateForm27PA(savedAbatement);
-        // savedAbatement.setFormUrl(formUrl);
-        // abatementRepository.save(savedAbatement);
+        auditLogWriteBehindService.logPenaltyEvent(PenaltyAuditLog.builder()
+                .tenantId(tenantId)
+                .entityType(PenaltyAuditEntityType.ABATEMENT)
+                .entityId(savedAbatement.getId())
+                .action(PenaltyAuditAction.ABATEMENT_REQUESTED)
+                .actorId(requestedBy)
+                .actorRole(ActorRole.TAXPAYER)
+                .description("Penalty abatement requested: " + reason + ", amount $" + requestedAmount)
+                .build());
         
         return savedAbatement;
     }
@@ -202,6 +215,18 @@ public class PenaltyAbatementService {
         log.info("Penalty abatement request reviewed: {}, status: {}, approved amount: ${}", 
                 updatedAbatement.getId(), status, approvedAmount);
         
+        if (status != AbatementStatus.DENIED) {
+            auditLogWriteBehindService.logPenaltyEvent(PenaltyAuditLog.builder()
+                    .tenantId(updatedAbatement.getTenantId())
+                    .entityType(PenaltyAuditEntityType.ABATEMENT)
+                    .entityId(updatedAbatement.getId())
+                    .action(PenaltyAuditAction.ABATED)
+                    .actorId(reviewedBy)
+                    .actorRole(ActorRole.AUDITOR)
+                    .description("Penalty abatement " + status + ", approved amount $" + approvedAmount)
+                    .build());
+        }
+        
         return updatedAbatement;
     }
     
@@ -266,22 +291,80 @@ public class PenaltyAbatementService {
      * 
      * FR-036: Generate Form 27-PA PDF via pdf-service
      * 
-     * @param abatementId the abatement request ID
-     * @return URL of the generated PDF
+     * Generation is queued; repeated calls for an unchanged abatement return the same job.
+     * Once the job has completed, its PDF path is stored on the abatement (form_generated).
+     * 
+     * The form lists the abated penalty (or every penalty on the return when the request
+     * covers all of them) from the penalty records.
+     * 
+     * @param abatementId  the abatement request ID
+     * @param taxpayerName taxpayer name printed on the form
+     * @param taxpayerId   taxpayer ID (SSN/FEIN); only its last four digits are queued and printed
+     * @return queued, running or completed generation job
      */
-    public String generateForm27PA(UUID abatementId) {
+    @Transactional
+    public PdfGenerationJobResponse generateForm27PA(UUID abatementId, String taxpayerName, String taxpayerId) {
         log.info("Generating Form 27-PA for abatement request: {}", abatementId);
         
+        if (taxpayerName == null || taxpayerName.isBlank() || taxpayerId == null || taxpayerId.isBlank()) {
+            throw new IllegalArgumentException("Taxpayer name and ID are required for Form 27-PA");
+        }
+        
         PenaltyAbatement abatement = abatementRepository.findById(abatementId)
                 .orElseThrow(() -> new IllegalArgumentException("Abatement request not found: " + abatementId));
         
-        // TODO: Integrate with PDF generation service
-        // return pdfService.generateForm27PA(abatement);
+        PdfGenerationJobResponse job = pdfGenerationQueueService.enqueueForm27PA(
+                abatement.getId(),
+                abatement.getTenantId(),
+                abatement.getReturnId(),
+                taxpayerName.trim(),
+                taxpayerId.trim(),
+                abatement.getRequestedAmount(),
+                abatement.getReason() != null ? abatement.getReason().name() : null,
+                abatement.getExplanation(),
+                penaltyDetails(abatement));
+        
+        if (job.getStatus() == PdfJobStatus.COMPLETED
+                && !Objects.equals(job.getPdfPath(), abatement.getFormGenerated())) {
+            abatement.setFormGenerated(job.getPdfPath());
+            abatementRepository.save(abatement);
+            log.info("Form 27-PA generated: {}", job.getPdfPath());
+        }
         
-        String mockPdfUrl = "/api/pdfs/form-27pa-" + abatementId + ".pdf";
-        log.info("Form 27-PA generated (mock): {}", mockPdfUrl);
+        return job;
+    }
+    
+    /**
+     * Penalty details for Form 27-PA: the abated penalty, or all penalties on the return.
+     */
+    private Map<String, Object> penaltyDetails(PenaltyAbatement abatement) {
+        List<Penalty> penalties = abatement.getPenaltyId() != null
+                ? penaltyRepository.findByIdAndTenantId(abatement.getPenaltyId(), abatement.getTenantId())
+                        .map(List::of)
+                        .orElseThrow(() -> new IllegalArgumentException(
+                                "Penalty not found: " + abatement.getPenaltyId()))
+                : penaltyRepository.findByReturnIdAndTenantId(abatement.getReturnId(), abatement.getTenantId());
+        
+        List<Map<String, Object>> rows = new ArrayList<>(penalties.size());
+        BigDecimal totalPenalty = BigDecimal.ZERO;
+        for (Penalty penalty : penalties) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("penaltyId", penalty.getId());
+            row.put("penaltyType", penalty.getPenaltyType().name());
+            row.put("taxDueDate", penalty.getTaxDueDate());
+            row.put("actualDate", penalty.getActualDate());
+            row.put("monthsLate", penalty.getMonthsLate());
+            row.put("unpaidTaxAmount", penalty.getUnpaidTaxAmount());
+            row.put("penaltyRate", penalty.getPenaltyRate());
+            row.put("penaltyAmount", penalty.getPenaltyAmount());
+            rows.add(row);
+            totalPenalty = totalPenalty.add(penalty.getPenaltyAmount());
+        }
         
-        return mockPdfUrl;
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("penalties", rows);
+        details.put("totalPenalty", totalPenalty);
+        return details;
     }
     
     /**
@@ -0,0 +1,132 @@
+package com.munitax.taxengine.service.penalty;
+
+import com.munitax.taxengine.domain.penalty.EstimatedTaxPenalty;
+import com.munitax.taxengine.repository.EstimatedTaxPenaltyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared cache of prior-year tax liabilities for safe harbor evaluation.
+ *
+ * Functional Requirements:
+ * - FR-018: Retrieve prior year tax liability from database
+ *
+ * Liabilities live in the {@value #CACHE_NAME} cache of the shared Redis cache manager, keyed by
+ * tenant and tax year, and expire after app.cache.prior-year-liability-ttl (see RedisCacheConfig).
+ * A whole year can be preloaded with one query at the start of the penalty assessment season;
+ * tenants without a recorded liability are cached as zero on their first lookup.
+ *
+ * Entries are evicted when a liability changes (e.g. an amended prior-year return); the eviction
+ * is repeated after the surrounding transaction commits so a concurrent reader cannot re-cache
+ * the pre-amendment value. Evictions go to Redis, so every instance sees them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriorYearLiabilityCache {
+
+    public static final String CACHE_NAME = "priorYearLiabilities";
+
+    private final EstimatedTaxPenaltyRepository estimatedTaxPenaltyRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * Get the annual tax liability recorded for a tenant and tax year.
+     * Loads and caches it on a miss.
+     *
+     * @param tenantId the tenant ID
+     * @param taxYear  the tax year (the prior year when evaluating safe harbor)
+     * @return annual tax liability (zero if none recorded)
+     */
+    @Cacheable(cacheNames = CACHE_NAME, key = "#tenantId + '-' + #taxYear")
+    public BigDecimal getLiability(UUID tenantId, int taxYear) {
+        return loadLiability(tenantId, taxYear);
+    }
+
+    /**
+     * Preload liabilities for every tenant in a tax year with a single query.
+     *
+     * @param taxYear the tax year to preload
+     * @return number of tenants loaded
+     */
+    public int preload(int taxYear) {
+        Map<UUID, BigDecimal> loaded = new HashMap<>();
+        for (Object[] row : estimatedTaxPenaltyRepository.findAnnualTaxLiabilitiesByTaxYear(taxYear)) {
+            loaded.putIfAbsent((UUID) row[0], (BigDecimal) row[1]);
+        }
+        Cache cache = cache();
+        loaded.forEach((tenantId, liability) -> cache.put(key(tenantId, taxYear), liability));
+
+        log.info("Preloaded prior-year liabilities for tax year {}: {} tenants", taxYear, loaded.size());
+        return loaded.size();
+    }
+
+    /**
+     * Preload the liability for one tenant and tax year.
+     *
+     * @param tenantId the tenant ID
+     * @param taxYear  the tax year to preload
+     * @return the loaded liability
+     */
+    public BigDecimal preload(UUID tenantId, int taxYear) {
+        BigDecimal liability = loadLiability(tenantId, taxYear);
+        cache().put(key(tenantId, taxYear), liability);
+        return liability;
+    }
+
+    /**
+     * Invalidate a tenant's cached liability for a tax year, e.g. after an amended return.
+     * The tenant is reloaded on its next lookup; other tenants stay cached.
+     *
+     * @param tenantId the tenant ID
+     * @param taxYear  the tax year whose liability changed
+     */
+    public void invalidate(UUID tenantId, int taxYear) {
+        String key = key(tenantId, taxYear);
+        cache().evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache().evict(key);
+                }
+            });
+        }
+        log.debug("Invalidated prior-year liability for tenant {}, tax year {}", tenantId, taxYear);
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + CACHE_NAME);
+        }
+        return cache;
+    }
+
+    private static String key(UUID tenantId, int taxYear) {
+        return tenantId + "-" + taxYear;
+    }
+
+    private BigDecimal loadLiability(UUID tenantId, int taxYear) {
+        List<EstimatedTaxPenalty> records = estimatedTaxPenaltyRepository.findByTenantIdAndTaxYear(tenantId, taxYear);
+        return records.stream()
+                .min(Comparator.comparing(EstimatedTaxPenalty::getCreatedAt,
+                        Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder())))
+                .map(EstimatedTaxPenalty::getAnnualTaxLiability)
+                .orElse(BigDecimal.ZERO);
+    }
+}
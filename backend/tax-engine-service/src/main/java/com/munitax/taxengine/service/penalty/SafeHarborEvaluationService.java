@@ -1,8 +1,6 @@
 package com.munitax.taxengine.service.penalty;
 
-import com.munitax.taxengine.domain.penalty.EstimatedTaxPenalty;
 import com.munitax.taxengine.dto.SafeHarborEvaluationDto;
-import com.munitax.taxengine.repository.EstimatedTaxPenaltyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -35,7 +33,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SafeHarborEvaluationService {
     
-    private final EstimatedTaxPenaltyRepository estimatedTaxPenaltyRepository;
+    private final PriorYearLiabilityCache priorYearLiabilityCache;
     
     private static final int SCALE = 2; // 2 decimal places for currency
     private static final BigDecimal SAFE_HARBOR_1_THRESHOLD = new BigDecimal("0.90"); // 90%
@@ -177,23 +175,44 @@ public class SafeHarborEvaluationService {
     }
     
     /**
-     * Retrieve prior year tax liability from database.
+     * Retrieve prior year tax liability.
      * 
      * FR-018: Retrieve prior year tax liability
+     * Served from the shared prior-year liability cache; only hits the database on a miss.
      * 
      * @param tenantId the tenant ID
      * @param priorYear the prior tax year
      * @return prior year tax liability (zero if not found)
      */
     private BigDecimal retrievePriorYearTaxLiability(UUID tenantId, int priorYear) {
-        // Query database for prior year estimated tax penalty record
-        // which contains the final tax liability
-        return estimatedTaxPenaltyRepository
-                .findByTenantIdAndTaxYear(tenantId, priorYear)
-                .stream()
-                .findFirst()
-                .map(EstimatedTaxPenalty::getAnnualTaxLiability)
-                .orElse(BigDecimal.ZERO);
+        return priorYearLiabilityCache.getLiability(tenantId, priorYear);
+    }
+    
+    /**
+     * Preload prior-year liabilities used by safe harbor evaluation for a tax year,
+     * e.g. at the start of the penalty assessment season.
+     * 
+     * @param tenantId the tenant ID (null to preload every tenant)
+     * @param taxYear  the tax year being evaluated (liabilities for taxYear - 1 are loaded)
+     * @return number of liabilities loaded
+     */
+    @Transactional(readOnly = true)
+    public int preloadPriorYearLiabilities(UUID tenantId, int taxYear) {
+        if (tenantId == null) {
+            return priorYearLiabilityCache.preload(taxYear - 1);
+        }
+        priorYearLiabilityCache.preload(tenantId, taxYear - 1);
+        return 1;
+    }
+    
+    /**
+     * Invalidate a cached prior-year liability after an amended return changes it.
+     * 
+     * @param tenantId  the tenant ID
+     * @param priorYear the tax year of the amended return
+     */
+    public void invalidatePriorYearLiability(UUID tenantId, int priorYear) {
+        priorYearLiabilityCache.invalidate(tenantId, priorYear);
     }
     
     /**
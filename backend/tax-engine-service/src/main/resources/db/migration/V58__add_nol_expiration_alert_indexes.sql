@@ -0,0 +1,12 @@
+-- Flyway Migration V58: Add indexes for set-based NOL expiration alert generation
+-- Feature: Net Operating Loss (NOL) Carryforward & Carryback Tracking System
+-- Purpose: Range scan of expiring NOLs with balance and anti-join against existing alerts
+
+-- Expiring NOLs that still carry a balance (the only rows alert generation reads)
+CREATE INDEX IF NOT EXISTS idx_nol_expiring_balance
+    ON nols(expiration_date, id)
+    WHERE expiration_date IS NOT NULL AND current_nol_balance > 0;
+
+-- Existing alert lookup per NOL and severity (NOT EXISTS dedupe)
+CREATE INDEX IF NOT EXISTS idx_nol_alert_nol_severity
+    ON nol_expiration_alerts(nol_id, severity_level);
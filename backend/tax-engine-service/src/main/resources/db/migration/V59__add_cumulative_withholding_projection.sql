@@ -0,0 +1,21 @@
+-- Flyway Migration V59: Incremental cumulative withholding projection
+-- Feature: Withholding Reconciliation System
+-- Purpose: Row versioning and idempotent W-1 event handling for cumulative_withholding_totals
+
+-- Row version; concurrent W-1 filings on the same business + tax year serialize on a pessimistic row lock
+ALTER TABLE cumulative_withholding_totals
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- One row per W-1 filing applied to the cumulative totals (idempotency guard)
+CREATE TABLE IF NOT EXISTS cumulative_withholding_applied_filings (
+    filing_id UUID PRIMARY KEY,
+    business_id UUID NOT NULL,
+    tax_year INTEGER NOT NULL,
+    applied_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_cumulative_applied_business_year
+    ON cumulative_withholding_applied_filings(business_id, tax_year);
+
+COMMENT ON TABLE cumulative_withholding_applied_filings IS 'W-1 filings already applied to cumulative_withholding_totals (W1FiledEvent deduplication)';
+COMMENT ON COLUMN cumulative_withholding_totals.version IS 'Row version, incremented on every W-1 file or amend (writers hold a pessimistic row lock)';
@@ -0,0 +1,7 @@
+-- Flyway Migration V60: Portfolio reconciliation scan index
+-- Feature: Withholding Reconciliation System
+-- Purpose: Ordered range scan of a tax year's W-1 filings by (business_id, period) for the batch reconciliation job
+
+CREATE INDEX IF NOT EXISTS idx_w1_year_business_period ON w1_filings(tax_year, business_id, period);
+
+COMMENT ON INDEX idx_w1_year_business_period IS 'Portfolio reconciliation: streams W-1 filings per tax year in (business_id, period) order';
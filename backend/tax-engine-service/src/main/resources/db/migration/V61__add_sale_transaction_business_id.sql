@@ -0,0 +1,12 @@
+-- Flyway Migration V61: Attribute sale transactions to a business
+-- Feature: Schedule Y Multi-State Sourcing
+-- Purpose: Allow set-based economic nexus determination from sale_transaction aggregates
+--          (sales and transaction counts per business and destination state)
+
+ALTER TABLE sale_transaction ADD COLUMN IF NOT EXISTS business_id UUID;
+
+CREATE INDEX IF NOT EXISTS idx_sale_transaction_business_destination
+    ON sale_transaction(business_id, destination_state)
+    WHERE business_id IS NOT NULL;
+
+COMMENT ON COLUMN sale_transaction.business_id IS 'Business that made the sale (used for economic nexus aggregation)';
@@ -0,0 +1,36 @@
+-- Flyway Migration V62: Durable PDF generation job queue
+-- Feature: Penalty & Interest / Apportionment document generation
+-- Purpose: Render pdf-service documents off request threads with a bounded worker pool
+
+CREATE TABLE IF NOT EXISTS pdf_generation_jobs (
+    job_id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    document_type VARCHAR(40) NOT NULL,
+    reference_id UUID,
+    dedupe_key VARCHAR(64) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    pdf_path VARCHAR(500),
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP,
+    completed_at TIMESTAMP,
+
+    CONSTRAINT chk_pdf_job_status CHECK (status IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- At most one live (queued or running) job per identical request; once it finishes, the same
+-- request renders a fresh document (templates and source data may have changed since)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_pdf_jobs_tenant_dedupe_live
+    ON pdf_generation_jobs(tenant_id, dedupe_key)
+    WHERE status IN ('QUEUED', 'RUNNING');
+
+-- Worker claim scan: oldest queued jobs first
+CREATE INDEX IF NOT EXISTS idx_pdf_jobs_queued
+    ON pdf_generation_jobs(created_at)
+    WHERE status = 'QUEUED';
+
+COMMENT ON TABLE pdf_generation_jobs IS 'Durable queue of pdf-service generation requests (PdfGenerationQueueService)';
+COMMENT ON COLUMN pdf_generation_jobs.dedupe_key IS 'SHA-256 of document type + canonical request payload';
+COMMENT ON COLUMN pdf_generation_jobs.reference_id IS 'Source entity (e.g. penalty abatement ID for Form 27-PA)';
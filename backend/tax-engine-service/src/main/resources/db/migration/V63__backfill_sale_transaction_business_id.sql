@@ -0,0 +1,16 @@
+-- Flyway Migration V63: Backfill sale_transaction.business_id
+-- Feature: Schedule Y Multi-State Sourcing
+-- Purpose: V61 added business_id without populating it, so every sale transaction loaded before it
+--          is unattributed. The business of a return is recorded on its NOL schedule (one per
+--          return): attribute each Schedule Y's unattributed rows to that business. Rows of returns
+--          without an NOL schedule stay unattributed; the economic nexus refresh leaves them out and
+--          reports their count until their sales factor is re-sourced (SalesFactorService sets the
+--          business on each transaction).
+
+UPDATE sale_transaction st
+SET business_id = ns.business_id
+FROM sales_factor sf
+JOIN schedule_y sy ON sy.schedule_y_id = sf.schedule_y_id
+JOIN nol_schedules ns ON ns.return_id = sy.return_id AND ns.tenant_id = sy.tenant_id
+WHERE st.sales_factor_id = sf.sales_factor_id
+  AND st.business_id IS NULL;
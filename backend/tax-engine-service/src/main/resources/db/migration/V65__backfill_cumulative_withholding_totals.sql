@@ -0,0 +1,68 @@
+-- Flyway Migration V65: Backfill cumulative withholding totals from W-1 filings
+-- Feature: Withholding Reconciliation System
+-- Purpose: V59 made cumulative_withholding_totals an incremental projection of W1FiledEvents, but
+--          filings made before it were never applied: the first W-1 after deploy started from zero.
+--          Rebuild every business + tax year from w1_filings with the same rules as the events:
+--          - periods filed: filings that are not amendments (an amendment adds no period)
+--          - wages, tax and adjustments: filings not superseded by an amendment (status <> 'AMENDED')
+--          - projection: wages / periods x expected periods for the latest filing's frequency,
+--            on track when within 15% of the estimated annual wages (or when there is no estimate)
+--          Every filing is then marked applied, so a redelivered event is not counted again.
+--
+-- The totals table is locked first: a filing committing during the backfill waits on the lock and
+-- applies its event afterwards, a filing committed before it is included in the rebuild.
+
+LOCK TABLE cumulative_withholding_totals IN SHARE ROW EXCLUSIVE MODE;
+
+WITH filings AS (
+    SELECT business_id,
+           tax_year,
+           MIN(tenant_id::text)::uuid AS tenant_id,
+           COUNT(*) FILTER (WHERE is_amended = FALSE) AS periods_filed,
+           COALESCE(SUM(gross_wages) FILTER (WHERE status <> 'AMENDED'), 0) AS wages,
+           COALESCE(SUM(tax_due) FILTER (WHERE status <> 'AMENDED'), 0) AS tax,
+           COALESCE(SUM(COALESCE(adjustments, 0)) FILTER (WHERE status <> 'AMENDED'), 0) AS adjustments,
+           MAX(filing_date) AS last_filing_date,
+           (ARRAY_AGG(filing_frequency ORDER BY filing_date DESC))[1] AS filing_frequency
+    FROM w1_filings
+    GROUP BY business_id, tax_year
+),
+projected AS (
+    SELECT f.*,
+           CASE WHEN f.periods_filed > 0 THEN
+               ROUND(f.wages / f.periods_filed * CASE f.filing_frequency
+                   WHEN 'QUARTERLY' THEN 4
+                   WHEN 'MONTHLY' THEN 12
+                   WHEN 'SEMI_MONTHLY' THEN 24
+                   WHEN 'DAILY' THEN 260
+               END, 2)
+           END AS projected_annual_wages
+    FROM filings f
+)
+INSERT INTO cumulative_withholding_totals (
+    tenant_id, business_id, tax_year, periods_filed, cumulative_wages_ytd, cumulative_tax_ytd,
+    cumulative_adjustments_ytd, last_filing_date, projected_annual_wages, on_track_indicator)
+SELECT tenant_id, business_id, tax_year, periods_filed, wages, tax,
+       adjustments, last_filing_date, projected_annual_wages, TRUE
+FROM projected
+ON CONFLICT (business_id, tax_year) DO UPDATE SET
+    periods_filed = EXCLUDED.periods_filed,
+    cumulative_wages_ytd = EXCLUDED.cumulative_wages_ytd,
+    cumulative_tax_ytd = EXCLUDED.cumulative_tax_ytd,
+    cumulative_adjustments_ytd = EXCLUDED.cumulative_adjustments_ytd,
+    last_filing_date = EXCLUDED.last_filing_date,
+    projected_annual_wages = EXCLUDED.projected_annual_wages,
+    on_track_indicator = CASE
+        WHEN EXCLUDED.projected_annual_wages IS NULL
+             OR cumulative_withholding_totals.estimated_annual_wages IS NULL
+             OR cumulative_withholding_totals.estimated_annual_wages = 0 THEN TRUE
+        ELSE ABS(EXCLUDED.projected_annual_wages - cumulative_withholding_totals.estimated_annual_wages)
+             / cumulative_withholding_totals.estimated_annual_wages <= 0.15
+    END,
+    version = cumulative_withholding_totals.version + 1,
+    updated_at = NOW();
+
+INSERT INTO cumulative_withholding_applied_filings (filing_id, business_id, tax_year)
+SELECT id, business_id, tax_year
+FROM w1_filings
+ON CONFLICT (filing_id) DO NOTHING;
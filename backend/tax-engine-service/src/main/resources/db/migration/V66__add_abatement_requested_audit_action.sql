@@ -0,0 +1,11 @@
+-- Flyway Migration V66: Add ABATEMENT_REQUESTED penalty audit action
+-- Feature: Enhanced Penalty & Interest Calculation
+-- Purpose: A new abatement request is pending review, so it is audited as ABATEMENT_REQUESTED;
+--          ABATED is kept for approved (full or partial) abatements.
+
+ALTER TABLE penalty_audit_logs DROP CONSTRAINT IF EXISTS penalty_audit_logs_action_check;
+
+ALTER TABLE penalty_audit_logs ADD CONSTRAINT penalty_audit_logs_action_check
+    CHECK (action IN ('ASSESSED', 'CALCULATED', 'ABATEMENT_REQUESTED', 'ABATED', 'PAYMENT_APPLIED', 'RECALCULATED'));
+
+COMMENT ON COLUMN penalty_audit_logs.action IS 'Action performed: ASSESSED, CALCULATED, ABATEMENT_REQUESTED, ABATED, PAYMENT_APPLIED, RECALCULATED';
@@ -6,7 +6,10 @@ import com.munitax.taxengine.dto.W1FilingRequest;
 import com.munitax.taxengine.dto.W1FilingResponse;
 import com.munitax.taxengine.domain.withholding.FilingFrequency;
 import com.munitax.taxengine.domain.withholding.W1FilingStatus;
+import com.munitax.taxengine.service.CumulativeWithholdingTotalsService;
+import com.munitax.taxengine.service.W1BulkFilingService;
 import com.munitax.taxengine.service.W1FilingService;
+import com.munitax.taxengine.service.WithholdingReconciliationBatchService;
 import com.munitax.taxengine.service.WithholdingReconciliationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -48,6 +51,15 @@ class W1FilingControllerTest {
     @MockBean
     private WithholdingReconciliationService reconciliationService;
 
+    @MockBean
+    private CumulativeWithholdingTotalsService cumulativeTotalsService;
+
+    @MockBean
+    private W1BulkFilingService w1BulkFilingService;
+
+    @MockBean
+    private WithholdingReconciliationBatchService reconciliationBatchService;
+
     private UUID testBusinessId;
     private UUID testUserId;
     private UUID testTenantId;
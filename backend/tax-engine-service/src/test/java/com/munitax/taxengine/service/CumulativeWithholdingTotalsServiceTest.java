@@ -0,0 +1,149 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.withholding.CumulativeWithholdingTotals;
+import com.munitax.taxengine.domain.withholding.FilingFrequency;
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
+import com.munitax.taxengine.domain.withholding.W1Filing;
+import com.munitax.taxengine.repository.CumulativeWithholdingTotalsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CumulativeWithholdingTotalsService.
+ * Tests incremental application of W-1 filed/amended events.
+ */
+@ExtendWith(MockitoExtension.class)
+class CumulativeWithholdingTotalsServiceTest {
+
+    @Mock
+    private CumulativeWithholdingTotalsRepository totalsRepository;
+
+    @InjectMocks
+    private CumulativeWithholdingTotalsService totalsService;
+
+    private UUID testBusinessId;
+    private UUID testTenantId;
+
+    @BeforeEach
+    void setUp() {
+        testBusinessId = UUID.randomUUID();
+        testTenantId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should create totals on first filing and project annual wages")
+    void shouldCreateTotalsOnFirstFiling() {
+        // Given
+        W1Filing filing = createFiling(new BigDecimal("125000.00"), new BigDecimal("2500.00"));
+        when(totalsRepository.markFilingApplied(filing.getId(), testBusinessId, 2024)).thenReturn(1);
+        when(totalsRepository.findByBusinessIdAndTaxYearForUpdate(testBusinessId, 2024))
+            .thenReturn(Optional.of(CumulativeWithholdingTotals.builder()
+                .tenantId(testTenantId).businessId(testBusinessId).taxYear(2024).build()));
+
+        // When
+        boolean applied = totalsService.applyEvent(W1FiledEvent.filed(filing));
+
+        // Then - the row is created if absent, then locked and updated
+        assertThat(applied).isTrue();
+        InOrder inOrder = inOrder(totalsRepository);
+        inOrder.verify(totalsRepository).insertIfAbsent(testTenantId, testBusinessId, 2024);
+        inOrder.verify(totalsRepository).findByBusinessIdAndTaxYearForUpdate(testBusinessId, 2024);
+        verify(totalsRepository).save(argThat(totals ->
+            totals.getPeriodsFiled() == 1
+                && totals.getCumulativeWagesYtd().compareTo(new BigDecimal("125000.00")) == 0
+                && totals.getCumulativeTaxYtd().compareTo(new BigDecimal("2500.00")) == 0
+                && totals.getProjectedAnnualWages().compareTo(new BigDecimal("500000.00")) == 0));
+    }
+
+    @Test
+    @DisplayName("Should apply amendment as a delta without adding a period")
+    void shouldApplyAmendmentDelta() {
+        // Given
+        W1Filing original = createFiling(new BigDecimal("100000.00"), new BigDecimal("2000.00"));
+        W1Filing amendment = createFiling(new BigDecimal("110000.00"), new BigDecimal("2200.00"));
+        CumulativeWithholdingTotals existing = CumulativeWithholdingTotals.builder()
+            .tenantId(testTenantId)
+            .businessId(testBusinessId)
+            .taxYear(2024)
+            .periodsFiled(2)
+            .cumulativeWagesYtd(new BigDecimal("200000.00"))
+            .cumulativeTaxYtd(new BigDecimal("4000.00"))
+            .estimatedAnnualWages(new BigDecimal("400000.00"))
+            .build();
+        when(totalsRepository.markFilingApplied(amendment.getId(), testBusinessId, 2024)).thenReturn(1);
+        when(totalsRepository.findByBusinessIdAndTaxYearForUpdate(testBusinessId, 2024)).thenReturn(Optional.of(existing));
+
+        // When
+        totalsService.applyEvent(W1FiledEvent.amended(amendment, original));
+
+        // Then - 210K over 2 quarters projects to 420K, within 15% of the 400K estimate
+        assertThat(existing.getPeriodsFiled()).isEqualTo(2);
+        assertThat(existing.getCumulativeWagesYtd()).isEqualByComparingTo("210000.00");
+        assertThat(existing.getCumulativeTaxYtd()).isEqualByComparingTo("4200.00");
+        assertThat(existing.getProjectedAnnualWages()).isEqualByComparingTo("420000.00");
+        assertThat(existing.getOnTrackIndicator()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should skip filings that were already applied")
+    void shouldSkipAlreadyAppliedFiling() {
+        // Given
+        W1Filing filing = createFiling(new BigDecimal("50000.00"), new BigDecimal("1000.00"));
+        when(totalsRepository.markFilingApplied(filing.getId(), testBusinessId, 2024)).thenReturn(0);
+
+        // When
+        boolean applied = totalsService.applyEvent(W1FiledEvent.filed(filing));
+
+        // Then
+        assertThat(applied).isFalse();
+        verify(totalsRepository, never()).findByBusinessIdAndTaxYearForUpdate(any(), any());
+        verify(totalsRepository, never()).save(any(CumulativeWithholdingTotals.class));
+    }
+
+    @Test
+    @DisplayName("Should propagate failures so the filing transaction rolls back")
+    void shouldPropagateFailureToFilingTransaction() {
+        // Given
+        W1Filing filing = createFiling(new BigDecimal("50000.00"), new BigDecimal("1000.00"));
+        when(totalsRepository.markFilingApplied(filing.getId(), testBusinessId, 2024)).thenReturn(1);
+        when(totalsRepository.findByBusinessIdAndTaxYearForUpdate(testBusinessId, 2024))
+            .thenThrow(new QueryTimeoutException("lock timeout"));
+
+        // When / Then
+        assertThatThrownBy(() -> totalsService.onW1Filed(W1FiledEvent.filed(filing)))
+            .isInstanceOf(QueryTimeoutException.class);
+    }
+
+    private W1Filing createFiling(BigDecimal grossWages, BigDecimal taxDue) {
+        return W1Filing.builder()
+            .id(UUID.randomUUID())
+            .tenantId(testTenantId)
+            .businessId(testBusinessId)
+            .taxYear(2024)
+            .filingFrequency(FilingFrequency.QUARTERLY)
+            .period("Q1")
+            .filingDate(LocalDateTime.of(2024, 4, 15, 10, 0))
+            .grossWages(grossWages)
+            .taxableWages(grossWages)
+            .taxDue(taxDue)
+            .adjustments(BigDecimal.ZERO)
+            .build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.apportionment.ApportionmentAuditLog;
+import com.munitax.taxengine.domain.apportionment.AuditChangeType;
+import com.munitax.taxengine.domain.apportionment.NexusReason;
+import com.munitax.taxengine.domain.apportionment.NexusTracking;
+import com.munitax.taxengine.dto.EconomicNexusRefreshResult;
+import com.munitax.taxengine.repository.NexusTrackingRepository;
+import com.munitax.taxengine.repository.SaleTransactionRepository;
+import com.munitax.taxengine.service.audit.AuditLogWriteBehindService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EconomicNexusRefreshService.
+ * Tests aggregate-driven economic nexus determination, change-only writes and nexus change audit entries.
+ */
+@ExtendWith(MockitoExtension.class)
+class EconomicNexusRefreshServiceTest {
+
+    @Mock
+    private SaleTransactionRepository saleTransactionRepository;
+
+    @Mock
+    private NexusTrackingRepository nexusTrackingRepository;
+
+    @Mock
+    private AuditLogWriteBehindService auditLogWriteBehindService;
+
+    @Mock
+    private NexusService nexusService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EconomicNexusRefreshService refreshService;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID businessA = UUID.randomUUID();
+    private final UUID businessB = UUID.randomUUID();
+    private final UUID scheduleYA = UUID.randomUUID();
+    private final UUID scheduleYB = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        refreshService = new EconomicNexusRefreshService(saleTransactionRepository, nexusTrackingRepository,
+            auditLogWriteBehindService, nexusService, transactionManager);
+        ReflectionTestUtils.setField(refreshService, "batchSize", 1);
+
+        lenient().when(nexusService.getEconomicNexusThresholds(anyString())).thenAnswer(invocation -> Map.<String, Object>of(
+            "sales_threshold", new BigDecimal("500000"),
+            "transaction_threshold", 200,
+            "state", invocation.<String>getArgument(0)));
+        lenient().when(nexusTrackingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<NexusTracking> records = invocation.getArgument(0);
+            records.stream().filter(r -> r.getNexusId() == null).forEach(r -> r.setNexusId(UUID.randomUUID()));
+            return records;
+        });
+    }
+
+    @Test
+    @DisplayName("Should create, update and audit only the nexus records whose status or totals changed")
+    void shouldWriteOnlyChangedRecords() {
+        // Given - A crosses the CA threshold, has small NY sales and no longer sells into TX;
+        // B's OH record already matches its aggregate
+        NexusTracking economicTx = record(businessA, "TX", true, NexusReason.ECONOMIC_NEXUS);
+        NexusTracking unchangedOh = record(businessB, "OH", true, NexusReason.PHYSICAL_PRESENCE);
+        unchangedOh.setSalesInState(new BigDecimal("100.00"));
+        unchangedOh.setTransactionCountInState(1);
+        unchangedOh.setEconomicNexusThreshold(new BigDecimal("500000"));
+
+        stubSales(List.of(
+            aggregate(businessA, "CA", scheduleYA, "600000.00", 40),
+            aggregate(businessA, "NY", scheduleYA, "1000.00", 5),
+            aggregate(businessB, "OH", scheduleYB, "100.00", 1)));
+        stubRecords(List.of(economicTx, unchangedOh));
+
+        // When
+        EconomicNexusRefreshResult result = refreshService.refreshEconomicNexus(2024, userId);
+
+        // Then
+        assertThat(result.getBusinessesEvaluated()).isEqualTo(2);
+        assertThat(result.getStatesEvaluated()).isEqualTo(4);
+        assertThat(result.getRowsCreated()).isEqualTo(2);
+        assertThat(result.getRowsUpdated()).isEqualTo(1);
+        assertThat(result.getNexusEstablished()).isEqualTo(1);
+        assertThat(result.getNexusTerminated()).isEqualTo(1);
+
+        assertThat(economicTx.getHasNexus()).isFalse();
+        assertThat(economicTx.getNexusReasons()).isEmpty();
+        assertThat(economicTx.getSalesInState()).isEqualByComparingTo("0");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NexusTracking>> saved = ArgumentCaptor.forClass(List.class);
+        verify(nexusTrackingRepository, times(2)).saveAll(saved.capture());
+        Map<String, NexusTracking> byState = new HashMap<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(r -> byState.put(r.getState(), r)));
+        assertThat(byState).containsOnlyKeys("CA", "NY", "TX");
+        assertThat(byState.get("CA").getHasNexus()).isTrue();
+        assertThat(byState.get("CA").getNexusReasons()).containsExactly(NexusReason.ECONOMIC_NEXUS);
+        assertThat(byState.get("CA").getTaxYear()).isEqualTo(2024);
+        assertThat(byState.get("NY").getHasNexus()).isFalse();
+        assertThat(byState.get("NY").getTransactionCountInState()).isEqualTo(5);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ApportionmentAuditLog>> audits = ArgumentCaptor.forClass(List.class);
+        verify(auditLogWriteBehindService, times(2)).logApportionmentChanges(audits.capture());
+        List<ApportionmentAuditLog> entries = audits.getAllValues().stream().flatMap(List::stream).toList();
+        assertThat(entries).hasSize(2)
+            .allSatisfy(entry -> {
+                assertThat(entry.getChangeType()).isEqualTo(AuditChangeType.NEXUS_CHANGED);
+                assertThat(entry.getScheduleYId()).isEqualTo(scheduleYA);
+                assertThat(entry.getEntityId()).isNotNull();
+                assertThat(entry.getChangedBy()).isEqualTo(userId);
+            });
+
+        verify(nexusService).invalidateNexusSnapshot(businessA, tenantId, 2024);
+        verify(nexusService, never()).invalidateNexusSnapshot(eq(businessB), any(), any());
+        verify(nexusService, times(4)).getEconomicNexusThresholds(anyString());
+    }
+
+    @Test
+    @DisplayName("Should keep nexus established for other reasons when sales fall below the threshold")
+    void shouldKeepNonEconomicNexus() {
+        // Given
+        NexusTracking physicalAndEconomic = record(businessA, "CA", true, NexusReason.PHYSICAL_PRESENCE);
+        physicalAndEconomic.getNexusReasons().add(NexusReason.ECONOMIC_NEXUS);
+        stubSales(List.<Object[]>of(aggregate(businessA, "CA", scheduleYA, "1000.00", 3)));
+        stubRecords(List.of(physicalAndEconomic));
+
+        // When
+        EconomicNexusRefreshResult result = refreshService.refreshEconomicNexus(2024, userId);
+
+        // Then
+        assertThat(result.getRowsUpdated()).isEqualTo(1);
+        assertThat(result.getNexusTerminated()).isZero();
+        assertThat(physicalAndEconomic.getHasNexus()).isTrue();
+        assertThat(physicalAndEconomic.getNexusReasons()).containsExactly(NexusReason.PHYSICAL_PRESENCE);
+        verify(auditLogWriteBehindService).logApportionmentChanges(List.of());
+    }
+
+    @Test
+    @DisplayName("Should terminate economic nexus of a business with no sales in the tax year")
+    void shouldRefreshBusinessWithoutSales() {
+        // Given - B established economic nexus in TX but sold nothing this year
+        NexusTracking economicTx = record(businessB, "TX", true, NexusReason.ECONOMIC_NEXUS);
+        stubSales(List.of());
+        stubRecords(List.of(economicTx));
+        when(nexusTrackingRepository.findBusinessIdsByTaxYearAndNexusReason(2024, NexusReason.ECONOMIC_NEXUS))
+            .thenReturn(List.of(businessB));
+
+        // When
+        EconomicNexusRefreshResult result = refreshService.refreshEconomicNexus(2024, userId);
+
+        // Then - no Schedule Y to attribute an audit entry to
+        assertThat(result.getBusinessesEvaluated()).isEqualTo(1);
+        assertThat(result.getNexusTerminated()).isEqualTo(1);
+        assertThat(economicTx.getHasNexus()).isFalse();
+        verify(nexusTrackingRepository).saveAll(List.of(economicTx));
+        verify(auditLogWriteBehindService).logApportionmentChanges(List.of());
+        verify(nexusService).invalidateNexusSnapshot(businessB, tenantId, 2024);
+    }
+
+    @Test
+    @DisplayName("Should leave out and report sale transactions not attributed to a business")
+    void shouldReportUnattributedSales() {
+        // Given - legacy rows with no business alongside A's attributed CA sales
+        when(saleTransactionRepository.countUnattributedByTaxYear(2024)).thenReturn(3L);
+        stubSales(List.<Object[]>of(aggregate(businessA, "CA", scheduleYA, "600000.00", 40)));
+        stubRecords(List.of());
+
+        // When
+        EconomicNexusRefreshResult result = refreshService.refreshEconomicNexus(2024, userId);
+
+        // Then
+        assertThat(result.getUnattributedTransactions()).isEqualTo(3L);
+        assertThat(result.getBusinessesEvaluated()).isEqualTo(1);
+        assertThat(result.getNexusEstablished()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should count only the latest Schedule Y of a business")
+    void shouldUseLatestScheduleYOnly() {
+        // Given - A's sales were imported on two Schedule Ys; only the later one counts
+        UUID olderScheduleY = UUID.randomUUID();
+        Object[] older = aggregate(businessA, "CA", olderScheduleY, "400000.00", 10);
+        older[6] = LocalDateTime.of(2024, 1, 1, 0, 0);
+        stubSales(List.of(older, aggregate(businessA, "CA", scheduleYA, "400000.00", 10)));
+        stubRecords(List.of());
+
+        // When
+        EconomicNexusRefreshResult result = refreshService.refreshEconomicNexus(2024, userId);
+
+        // Then - 400,000 is below the threshold; summing both Schedule Ys would have crossed it
+        assertThat(result.getStatesEvaluated()).isEqualTo(1);
+        assertThat(result.getNexusEstablished()).isZero();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NexusTracking>> saved = ArgumentCaptor.forClass(List.class);
+        verify(nexusTrackingRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).singleElement()
+            .satisfies(record -> assertThat(record.getSalesInState()).isEqualByComparingTo("400000.00"));
+    }
+
+    private void stubSales(List<Object[]> aggregates) {
+        when(saleTransactionRepository.findDistinctBusinessIdsByTaxYear(2024))
+            .thenReturn(aggregates.stream().map(row -> (UUID) row[0]).distinct().toList());
+        when(saleTransactionRepository.findEconomicNexusAggregates(eq(2024), anyCollection()))
+            .thenAnswer(invocation -> {
+                Collection<UUID> businessIds = invocation.getArgument(1);
+                return aggregates.stream().filter(row -> businessIds.contains((UUID) row[0])).toList();
+            });
+    }
+
+    private void stubRecords(List<NexusTracking> records) {
+        when(nexusTrackingRepository.findStateRecordsByTaxYearAndBusinessIdIn(eq(2024), anyCollection()))
+            .thenAnswer(invocation -> {
+                Collection<UUID> businessIds = invocation.getArgument(1);
+                return records.stream().filter(r -> businessIds.contains(r.getBusinessId())).toList();
+            });
+    }
+
+    private Object[] aggregate(UUID businessId, String state, UUID scheduleYId, String sales, long count) {
+        return new Object[]{businessId, tenantId, state, scheduleYId, new BigDecimal(sales), count,
+            LocalDateTime.of(2024, 6, 1, 0, 0)};
+    }
+
+    private NexusTracking record(UUID businessId, String state, boolean hasNexus, NexusReason reason) {
+        NexusTracking tracking = new NexusTracking();
+        tracking.setNexusId(UUID.randomUUID());
+        tracking.setBusinessId(businessId);
+        tracking.setTenantId(tenantId);
+        tracking.setTaxYear(2024);
+        tracking.setState(state);
+        tracking.setHasNexus(hasNexus);
+        tracking.setNexusReasons(new ArrayList<>(List.of(reason)));
+        return tracking;
+    }
+}
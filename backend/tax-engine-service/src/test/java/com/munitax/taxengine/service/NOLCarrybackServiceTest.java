@@ -0,0 +1,142 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.nol.*;
+import com.munitax.taxengine.repository.NOLCarrybackRepository;
+import com.munitax.taxengine.repository.NOLRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NOLCarrybackService.
+ * Tests in-memory carryback allocation, dry run and batch persistence.
+ */
+@ExtendWith(MockitoExtension.class)
+class NOLCarrybackServiceTest {
+
+    @Mock
+    private NOLRepository nolRepository;
+
+    @Mock
+    private NOLCarrybackRepository nolCarrybackRepository;
+
+    @InjectMocks
+    private NOLCarrybackService nolCarrybackService;
+
+    private UUID testBusinessId;
+    private UUID testTenantId;
+    private NOL nol2020;
+
+    @BeforeEach
+    void setUp() {
+        testBusinessId = UUID.randomUUID();
+        testTenantId = UUID.randomUUID();
+        nol2020 = NOL.builder()
+            .id(UUID.randomUUID())
+            .tenantId(testTenantId)
+            .businessId(testBusinessId)
+            .taxYear(2020)
+            .jurisdiction(Jurisdiction.FEDERAL)
+            .entityType(EntityType.C_CORP)
+            .originalNOLAmount(new BigDecimal("300000.00"))
+            .currentNOLBalance(new BigDecimal("300000.00"))
+            .isCarriedBack(false)
+            .build();
+        when(nolRepository.findById(nol2020.getId())).thenReturn(Optional.of(nol2020));
+    }
+
+    @Test
+    @DisplayName("Should preview FIFO carryback without persisting")
+    void shouldPreviewFIFOCarrybackWithoutPersisting() {
+        // Given
+        when(nolCarrybackRepository.findActiveByBusinessIdAndCarrybackYearIn(eq(testBusinessId), any()))
+            .thenReturn(Collections.emptyList());
+
+        // When
+        NOLCarrybackService.CarrybackPlan plan = nolCarrybackService.previewCarrybackElection(
+            nol2020.getId(), priorYears(), CarrybackAllocationStrategy.FIFO);
+
+        // Then - 2015 fully absorbed (200K), then 100K of 2016
+        assertThat(plan.allocations()).hasSize(2);
+        assertThat(plan.allocations().get(0).carrybackYear()).isEqualTo(2015);
+        assertThat(plan.allocations().get(0).nolApplied()).isEqualByComparingTo("200000.00");
+        assertThat(plan.allocations().get(1).nolApplied()).isEqualByComparingTo("100000.00");
+        assertThat(plan.totalRefund()).isEqualByComparingTo("7000.00"); // 200K×2% + 100K×3%
+        assertThat(plan.remainingNOL()).isEqualByComparingTo("0");
+
+        verify(nolCarrybackRepository, never()).saveAll(anyList());
+        verify(nolRepository, never()).save(any(NOL.class));
+    }
+
+    @Test
+    @DisplayName("Should maximize refund by using highest-rate years up to tax paid")
+    void shouldMaximizeRefundByRate() {
+        // Given
+        when(nolCarrybackRepository.findActiveByBusinessIdAndCarrybackYearIn(eq(testBusinessId), any()))
+            .thenReturn(Collections.emptyList());
+
+        // When
+        NOLCarrybackService.CarrybackPlan plan = nolCarrybackService.previewCarrybackElection(
+            nol2020.getId(), priorYears(), CarrybackAllocationStrategy.MAXIMIZE_REFUND);
+
+        // Then - 2016 at 3% first (capped by 4.5K tax paid -> 150K), then 2015 at 2% for the remaining 150K
+        assertThat(plan.allocations()).hasSize(2);
+        assertThat(plan.allocations().get(0).carrybackYear()).isEqualTo(2015);
+        assertThat(plan.allocations().get(0).nolApplied()).isEqualByComparingTo("150000.00");
+        assertThat(plan.allocations().get(1).carrybackYear()).isEqualTo(2016);
+        assertThat(plan.allocations().get(1).nolApplied()).isEqualByComparingTo("150000.00");
+        assertThat(plan.totalRefund()).isEqualByComparingTo("7500.00");
+    }
+
+    @Test
+    @DisplayName("Should deduct other NOLs' carrybacks and save records in one batch")
+    void shouldDeductPriorAbsorptionAndSaveInBatch() {
+        // Given - another NOL already absorbed 150K of 2015 income
+        NOLCarryback existing = NOLCarryback.builder()
+            .nolId(UUID.randomUUID())
+            .carrybackYear(2015)
+            .nolApplied(new BigDecimal("150000.00"))
+            .refundAmount(new BigDecimal("3000.00"))
+            .build();
+        when(nolCarrybackRepository.findActiveByBusinessIdAndCarrybackYearIn(eq(testBusinessId), any()))
+            .thenReturn(List.of(existing));
+        when(nolCarrybackRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<NOLCarryback> carrybacks = nolCarrybackService.processCarrybackElection(
+            nol2020.getId(), priorYears(), testTenantId);
+
+        // Then - only 50K left in 2015, 250K into 2016
+        assertThat(carrybacks).hasSize(2);
+        assertThat(carrybacks.get(0).getNolApplied()).isEqualByComparingTo("50000.00");
+        assertThat(carrybacks.get(1).getNolApplied()).isEqualByComparingTo("250000.00");
+        assertThat(carrybacks).allMatch(c -> c.getRefundStatus() == RefundStatus.CLAIMED);
+
+        verify(nolCarrybackRepository, times(1)).saveAll(anyList());
+        verify(nolCarrybackRepository, never()).save(any(NOLCarryback.class));
+        assertThat(nol2020.getIsCarriedBack()).isTrue();
+        assertThat(nol2020.getCurrentNOLBalance()).isEqualByComparingTo("0");
+    }
+
+    private Map<Integer, NOLCarrybackService.PriorYearData> priorYears() {
+        Map<Integer, NOLCarrybackService.PriorYearData> data = new HashMap<>();
+        data.put(2015, new NOLCarrybackService.PriorYearData(
+            new BigDecimal("200000.00"), new BigDecimal("2.00"), new BigDecimal("4000.00"), UUID.randomUUID()));
+        data.put(2016, new NOLCarrybackService.PriorYearData(
+            new BigDecimal("400000.00"), new BigDecimal("3.00"), new BigDecimal("4500.00"), UUID.randomUUID()));
+        return data;
+    }
+}
@@ -0,0 +1,123 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.nol.*;
+import com.munitax.taxengine.repository.NOLExpirationAlertRepository;
+import com.munitax.taxengine.repository.NOLRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NOLExpirationAlertService.
+ * Tests set-based alert generation per severity band.
+ */
+@ExtendWith(MockitoExtension.class)
+class NOLExpirationAlertServiceTest {
+
+    @Mock
+    private NOLRepository nolRepository;
+
+    @Mock
+    private NOLExpirationAlertRepository nolExpirationAlertRepository;
+
+    @InjectMocks
+    private NOLExpirationAlertService alertService;
+
+    private final LocalDate asOfDate = LocalDate.of(2025, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(alertService, "criticalHorizonYears", 1);
+        ReflectionTestUtils.setField(alertService, "warningHorizonYears", 2);
+        ReflectionTestUtils.setField(alertService, "infoHorizonYears", 3);
+        ReflectionTestUtils.setField(alertService, "batchSize", 2);
+    }
+
+    @Test
+    @DisplayName("Should query each severity band once and insert alerts in batches")
+    void shouldGenerateAlertsPerBandInBatches() {
+        // Given
+        List<NOL> critical = Arrays.asList(
+            createNOL(2005, LocalDate.of(2025, 12, 31)),
+            createNOL(2005, LocalDate.of(2025, 12, 31)),
+            createNOL(2005, LocalDate.of(2025, 12, 31)));
+        List<NOL> info = List.of(createNOL(2007, LocalDate.of(2027, 12, 31)));
+
+        when(nolRepository.findExpiringNOLsWithoutAlert(asOfDate, asOfDate.plusYears(1), AlertSeverityLevel.CRITICAL))
+            .thenReturn(critical);
+        when(nolRepository.findExpiringNOLsWithoutAlert(asOfDate.plusYears(1), asOfDate.plusYears(2), AlertSeverityLevel.WARNING))
+            .thenReturn(Collections.emptyList());
+        when(nolRepository.findExpiringNOLsWithoutAlert(asOfDate.plusYears(2), asOfDate.plusYears(3), AlertSeverityLevel.INFO))
+            .thenReturn(info);
+
+        // When
+        Map<AlertSeverityLevel, Integer> result = alertService.generateExpirationAlerts(asOfDate);
+
+        // Then
+        assertThat(result).containsEntry(AlertSeverityLevel.CRITICAL, 3)
+                          .containsEntry(AlertSeverityLevel.WARNING, 0)
+                          .containsEntry(AlertSeverityLevel.INFO, 1);
+
+        // 3 critical alerts with batch size 2 -> 2 flushes, plus 1 for the info band
+        verify(nolExpirationAlertRepository, times(3)).saveAllAndFlush(anyList());
+        verify(nolRepository, times(3)).findExpiringNOLsWithoutAlert(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should build alerts with NOL tenant, balance and band severity")
+    @SuppressWarnings("unchecked")
+    void shouldBuildAlertFromNOL() {
+        // Given
+        NOL nol = createNOL(2006, LocalDate.of(2026, 6, 30));
+        when(nolRepository.findExpiringNOLsWithoutAlert(any(), any(), any(AlertSeverityLevel.class)))
+            .thenReturn(Collections.emptyList());
+        when(nolRepository.findExpiringNOLsWithoutAlert(asOfDate.plusYears(1), asOfDate.plusYears(2), AlertSeverityLevel.WARNING))
+            .thenReturn(List.of(nol));
+
+        List<NOLExpirationAlert> saved = new ArrayList<>();
+        when(nolExpirationAlertRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            saved.addAll((List<NOLExpirationAlert>) invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // When
+        alertService.generateExpirationAlerts(asOfDate);
+
+        // Then
+        assertThat(saved).hasSize(1);
+        NOLExpirationAlert alert = saved.get(0);
+        assertThat(alert.getNolId()).isEqualTo(nol.getId());
+        assertThat(alert.getTenantId()).isEqualTo(nol.getTenantId());
+        assertThat(alert.getNolBalance()).isEqualByComparingTo(nol.getCurrentNOLBalance());
+        assertThat(alert.getSeverityLevel()).isEqualTo(AlertSeverityLevel.WARNING);
+        assertThat(alert.getDismissed()).isFalse();
+    }
+
+    private NOL createNOL(Integer taxYear, LocalDate expirationDate) {
+        return NOL.builder()
+            .id(UUID.randomUUID())
+            .tenantId(UUID.randomUUID())
+            .businessId(UUID.randomUUID())
+            .taxYear(taxYear)
+            .jurisdiction(Jurisdiction.FEDERAL)
+            .entityType(EntityType.C_CORP)
+            .originalNOLAmount(new BigDecimal("50000.00"))
+            .currentNOLBalance(new BigDecimal("50000.00"))
+            .expirationDate(expirationDate)
+            .build();
+    }
+}
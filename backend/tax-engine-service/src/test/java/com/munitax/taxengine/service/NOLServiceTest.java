@@ -284,6 +284,89 @@ class NOLServiceTest {
         verify(nolRepository, times(2)).save(any(NOL.class));
     }
 
+    @Test
+    @DisplayName("Should simulate FIFO NOL utilization over projected years without saving")
+    void shouldSimulateFIFOUtilizationWithoutSaving() {
+        // Given
+        NOL nol2019 = createMockNOLWithBalance(2019, new BigDecimal("100000.00"));
+        NOL nol2021 = createMockNOLWithBalance(2021, new BigDecimal("200000.00"));
+        NOLUsage priorUsage = NOLUsage.builder()
+            .nolId(nol2019.getId())
+            .usageYear(2022)
+            .actualNOLDeduction(new BigDecimal("10000.00"))
+            .build();
+        
+        when(nolUsageRepository.findVintagesWithUsagesByBusinessId(testBusinessId))
+            .thenReturn(Arrays.asList(
+                new Object[]{nol2019, priorUsage},
+                new Object[]{nol2021, null}));
+        when(nolCarrybackRepository.findByBusinessIdOrderByCarrybackYearAsc(testBusinessId))
+            .thenReturn(Collections.emptyList());
+        
+        List<NOLVintageLedger.ProjectedYear> projections = Arrays.asList(
+            new NOLVintageLedger.ProjectedYear(2025, new BigDecimal("150000.00"), new BigDecimal("2.00")),
+            new NOLVintageLedger.ProjectedYear(2026, new BigDecimal("-50000.00"), new BigDecimal("2.00")),
+            new NOLVintageLedger.ProjectedYear(2027, new BigDecimal("500000.00"), new BigDecimal("2.00"))
+        );
+
+        // When
+        List<NOLVintageLedger.SimulationResult> results = nolService.simulateNOLUtilization(
+            testBusinessId, null,
+            List.of(new NOLService.SimulationScenario(projections, NOLOrderingMethod.FIFO, null)));
+
+        // Then
+        NOLVintageLedger.SimulationResult result = results.get(0);
+        NOLVintageLedger.SimulatedYear year2025 = result.years().get(0);
+        // 80% × 150K = 120K: all of 2019 (100K) then 20K of 2021
+        assertThat(year2025.nolDeduction()).isEqualByComparingTo("120000.00");
+        assertThat(year2025.vintageUsages()).hasSize(2);
+        assertThat(year2025.vintageUsages().get(0).vintageYear()).isEqualTo(2019);
+        assertThat(year2025.taxSavings()).isEqualByComparingTo("2400.00");
+        
+        NOLVintageLedger.SimulatedYear year2026 = result.years().get(1);
+        assertThat(year2026.newNOLGenerated()).isEqualByComparingTo("50000.00");
+        assertThat(year2026.endingBalance()).isEqualByComparingTo("230000.00");
+        
+        NOLVintageLedger.SimulatedYear year2027 = result.years().get(2);
+        assertThat(year2027.nolDeduction()).isEqualByComparingTo("230000.00");
+        assertThat(result.endingBalance()).isEqualByComparingTo("0");
+        
+        // Original entities untouched and nothing persisted
+        assertThat(nol2019.getCurrentNOLBalance()).isEqualByComparingTo("100000.00");
+        verify(nolRepository, never()).save(any(NOL.class));
+        verify(nolUsageRepository, never()).save(any(NOLUsage.class));
+    }
+
+    @Test
+    @DisplayName("Should honor manual vintage order and expire pre-TCJA NOLs in simulation")
+    void shouldSimulateManualOrderingAndExpiration() {
+        // Given
+        NOL nol2005 = createMockNOLWithBalance(2005, new BigDecimal("40000.00")); // expires 2025-12-31
+        NOL nol2020 = createMockNOLWithBalance(2020, new BigDecimal("100000.00"));
+        
+        when(nolUsageRepository.findVintagesWithUsagesByBusinessId(testBusinessId))
+            .thenReturn(Arrays.asList(new Object[]{nol2005, null}, new Object[]{nol2020, null}));
+        when(nolCarrybackRepository.findByBusinessIdOrderByCarrybackYearAsc(testBusinessId))
+            .thenReturn(Collections.emptyList());
+        
+        List<NOLVintageLedger.ProjectedYear> projections = Arrays.asList(
+            new NOLVintageLedger.ProjectedYear(2025, new BigDecimal("50000.00"), null),
+            new NOLVintageLedger.ProjectedYear(2026, new BigDecimal("50000.00"), null)
+        );
+
+        // When
+        NOLVintageLedger.SimulationResult result = nolService.simulateNOLUtilization(
+            testBusinessId, null,
+            List.of(new NOLService.SimulationScenario(projections, NOLOrderingMethod.MANUAL_OVERRIDE, List.of(2020))))
+            .get(0);
+
+        // Then - 2020 vintage used first, so the 2005 vintage expires unused
+        assertThat(result.years().get(0).vintageUsages().get(0).vintageYear()).isEqualTo(2020);
+        assertThat(result.years().get(0).nolDeduction()).isEqualByComparingTo("40000.00");
+        assertThat(result.years().get(1).expiredNOL()).isEqualByComparingTo("40000.00");
+        assertThat(result.totalExpired()).isEqualByComparingTo("40000.00");
+    }
+
     // Helper methods
 
     private NOL createMockNOL(Integer taxYear, BigDecimal amount) {
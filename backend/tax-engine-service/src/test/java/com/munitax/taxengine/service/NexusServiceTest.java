@@ -9,13 +9,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.math.BigDecimal;
+import java.time.Year;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -31,6 +36,9 @@ class NexusServiceTest {
     @Mock
     private NexusTrackingRepository nexusTrackingRepository;
 
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
     @InjectMocks
     private NexusService nexusService;
 
@@ -51,7 +59,7 @@ class NexusServiceTest {
     void testHasNexus_RecordExists_True() {
         // Arrange
         NexusTracking nexusTracking = createNexusTracking(STATE_OH, true, NexusReason.PHYSICAL_PRESENCE);
-        when(nexusTrackingRepository.findByBusinessIdAndStateAndTenantId(businessId, STATE_OH, tenantId))
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_OH, tenantId))
             .thenReturn(Optional.of(nexusTracking));
 
         // Act
@@ -59,7 +67,7 @@ class NexusServiceTest {
 
         // Assert
         assertTrue(result, "Should return true when nexus exists");
-        verify(nexusTrackingRepository).findByBusinessIdAndStateAndTenantId(businessId, STATE_OH, tenantId);
+        verify(nexusTrackingRepository).findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_OH, tenantId);
     }
 
     @Test
@@ -67,7 +75,7 @@ class NexusServiceTest {
     void testHasNexus_RecordExists_False() {
         // Arrange
         NexusTracking nexusTracking = createNexusTracking(STATE_CA, false, NexusReason.FACTOR_PRESENCE);
-        when(nexusTrackingRepository.findByBusinessIdAndStateAndTenantId(businessId, STATE_CA, tenantId))
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_CA, tenantId))
             .thenReturn(Optional.of(nexusTracking));
 
         // Act
@@ -75,14 +83,14 @@ class NexusServiceTest {
 
         // Assert
         assertFalse(result, "Should return false when no nexus");
-        verify(nexusTrackingRepository).findByBusinessIdAndStateAndTenantId(businessId, STATE_CA, tenantId);
+        verify(nexusTrackingRepository).findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_CA, tenantId);
     }
 
     @Test
     @DisplayName("Should return false when no nexus record exists")
     void testHasNexus_NoRecord() {
         // Arrange
-        when(nexusTrackingRepository.findByBusinessIdAndStateAndTenantId(businessId, STATE_NY, tenantId))
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_NY, tenantId))
             .thenReturn(Optional.empty());
 
         // Act
@@ -90,7 +98,7 @@ class NexusServiceTest {
 
         // Assert
         assertFalse(result, "Should return false when no record exists");
-        verify(nexusTrackingRepository).findByBusinessIdAndStateAndTenantId(businessId, STATE_NY, tenantId);
+        verify(nexusTrackingRepository).findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_NY, tenantId);
     }
 
     @Test
@@ -167,7 +175,7 @@ class NexusServiceTest {
     @DisplayName("Should create new nexus record when none exists")
     void testUpdateNexusStatus_CreateNew() {
         // Arrange
-        when(nexusTrackingRepository.findByBusinessIdAndStateAndTenantId(businessId, STATE_CA, tenantId))
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_CA, tenantId))
             .thenReturn(Optional.empty());
         
         NexusTracking savedTracking = createNexusTracking(STATE_CA, true, NexusReason.ECONOMIC_NEXUS);
@@ -182,7 +190,8 @@ class NexusServiceTest {
         assertNotNull(result, "Should return saved nexus tracking");
         assertTrue(result.getHasNexus(), "Should have nexus");
         assertEquals(STATE_CA, result.getState(), "State should match");
-        verify(nexusTrackingRepository).save(any(NexusTracking.class));
+        verify(nexusTrackingRepository).save(argThat(tracking ->
+            tracking.getTaxYear() == Year.now().getValue()));
     }
 
     @Test
@@ -190,7 +199,7 @@ class NexusServiceTest {
     void testUpdateNexusStatus_UpdateExisting() {
         // Arrange
         NexusTracking existingTracking = createNexusTracking(STATE_OH, false, NexusReason.FACTOR_PRESENCE);
-        when(nexusTrackingRepository.findByBusinessIdAndStateAndTenantId(businessId, STATE_OH, tenantId))
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, STATE_OH, tenantId))
             .thenReturn(Optional.of(existingTracking));
         
         when(nexusTrackingRepository.save(any(NexusTracking.class))).thenAnswer(i -> i.getArguments()[0]);
@@ -288,7 +297,7 @@ class NexusServiceTest {
             createNexusTracking(STATE_NY, false, NexusReason.FACTOR_PRESENCE)
         );
 
-        when(nexusTrackingRepository.findByBusinessIdAndStateAndTenantId(any(), any(), any()))
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(any(), any(), any()))
             .thenReturn(Optional.empty());
         when(nexusTrackingRepository.save(any(NexusTracking.class)))
             .thenAnswer(i -> i.getArguments()[0]);
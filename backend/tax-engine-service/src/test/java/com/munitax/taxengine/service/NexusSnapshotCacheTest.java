@@ -0,0 +1,156 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.apportionment.NexusReason;
+import com.munitax.taxengine.domain.apportionment.NexusSnapshot;
+import com.munitax.taxengine.domain.apportionment.NexusTracking;
+import com.munitax.taxengine.repository.NexusTrackingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for nexus snapshot caching in NexusService.
+ * Tests loading through the Spring cache, eviction on nexus updates and the Redis JSON round trip.
+ */
+@SpringJUnitConfig
+class NexusSnapshotCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(NexusService.class)
+    static class CacheConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+    }
+
+    @MockBean
+    private NexusTrackingRepository nexusTrackingRepository;
+
+    @Autowired
+    private NexusService nexusService;
+
+    private final UUID businessId = UUID.randomUUID();
+    private final UUID tenantId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should load the nexus snapshot once and answer state checks from it")
+    void shouldCacheSnapshot() {
+        // Given
+        when(nexusTrackingRepository.findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, 2024))
+            .thenReturn(List.of(createNexusTracking("OH", true, 2024), createNexusTracking("CA", false, 2024)));
+
+        // When
+        NexusSnapshot first = nexusService.getNexusSnapshot(businessId, tenantId, 2024);
+        NexusSnapshot second = nexusService.getNexusSnapshot(businessId, tenantId, 2024);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(first.hasNexus("OH")).isTrue();
+        assertThat(first.hasNexus("CA")).isFalse();
+        assertThat(first.hasNexus("NY")).as("States without a record have no nexus").isFalse();
+        assertThat(first.nexusStateCount()).isEqualTo(1);
+        verify(nexusTrackingRepository, times(1))
+            .findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, 2024);
+        verify(nexusTrackingRepository, never())
+            .findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should keep a separate snapshot per tax year so past nexus does not leak into later years")
+    void shouldSnapshotPerTaxYear() {
+        // Given - CA nexus in 2023 only
+        when(nexusTrackingRepository.findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, 2023))
+            .thenReturn(List.of(createNexusTracking("CA", true, 2023)));
+        when(nexusTrackingRepository.findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, 2024))
+            .thenReturn(List.of(createNexusTracking("CA", false, 2024)));
+
+        // When
+        NexusSnapshot snapshot2023 = nexusService.getNexusSnapshot(businessId, tenantId, 2023);
+        NexusSnapshot snapshot2024 = nexusService.getNexusSnapshot(businessId, tenantId, 2024);
+
+        // Then
+        assertThat(snapshot2023.hasNexus("CA")).isTrue();
+        assertThat(snapshot2024.hasNexus("CA")).isFalse();
+        assertThat(snapshot2024.getTaxYear()).isEqualTo(2024);
+    }
+
+    @Test
+    @DisplayName("Should reload the nexus snapshot after a nexus status update")
+    void shouldEvictSnapshotOnUpdate() {
+        // Given
+        when(nexusTrackingRepository.findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, 2024))
+            .thenReturn(List.of(createNexusTracking("CA", false, 2024)))
+            .thenReturn(List.of(createNexusTracking("CA", true, 2024)));
+        when(nexusTrackingRepository.findFirstByBusinessIdAndStateAndTenantIdAndMunicipalityIsNullOrderByTaxYearDesc(businessId, "CA", tenantId))
+            .thenReturn(Optional.of(createNexusTracking("CA", false, 2024)));
+        when(nexusTrackingRepository.save(any(NexusTracking.class))).thenAnswer(i -> i.getArguments()[0]);
+        assertThat(nexusService.getNexusSnapshot(businessId, tenantId, 2024).hasNexus("CA")).isFalse();
+
+        // When
+        nexusService.updateNexusStatus(businessId, "CA", true, NexusReason.ECONOMIC_NEXUS, tenantId);
+
+        // Then
+        assertThat(nexusService.getNexusSnapshot(businessId, tenantId, 2024).hasNexus("CA")).isTrue();
+        verify(nexusTrackingRepository, times(2))
+            .findByBusinessIdAndTenantIdAndTaxYearAndMunicipalityIsNull(businessId, tenantId, 2024);
+    }
+
+    @Test
+    @DisplayName("Should survive the Redis JSON serializer round trip")
+    void shouldRoundTripThroughRedisSerializer() {
+        // Given
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        NexusSnapshot snapshot = NexusSnapshot.of(businessId, tenantId, 2024, List.of(
+            createNexusTracking("OH", true, 2024),
+            createNexusTracking("ZZ", true, 2024),
+            createNexusTracking("CA", false, 2024)
+        ));
+
+        // When
+        Object restored = serializer.deserialize(serializer.serialize(snapshot));
+
+        // Then
+        assertThat(restored).isInstanceOf(NexusSnapshot.class);
+        NexusSnapshot copy = (NexusSnapshot) restored;
+        assertThat(copy.getBusinessId()).isEqualTo(businessId);
+        assertThat(copy.getTenantId()).isEqualTo(tenantId);
+        assertThat(copy.getTaxYear()).isEqualTo(2024);
+        assertThat(copy.hasNexus("OH")).isTrue();
+        assertThat(copy.hasNexus("ZZ")).isTrue();
+        assertThat(copy.hasNexus("CA")).isFalse();
+        assertThat(copy.nexusStateCount()).isEqualTo(2);
+    }
+
+    private NexusTracking createNexusTracking(String state, boolean hasNexus, int taxYear) {
+        NexusTracking tracking = new NexusTracking();
+        tracking.setNexusId(UUID.randomUUID());
+        tracking.setBusinessId(businessId);
+        tracking.setState(state);
+        tracking.setTaxYear(taxYear);
+        tracking.setHasNexus(hasNexus);
+        tracking.setNexusReasons(new ArrayList<>(List.of(NexusReason.PHYSICAL_PRESENCE)));
+        tracking.setTenantId(tenantId);
+        return tracking;
+    }
+}
@@ -0,0 +1,130 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.withholding.FilingFrequency;
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
+import com.munitax.taxengine.dto.PayrollSummary;
+import com.munitax.taxengine.repository.W1FilingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PayrollSummaryProvider.
+ * Tests batched loading, caching (including businesses without W-1s), eviction on new filings
+ * and the Redis JSON round trip.
+ */
+@ExtendWith(MockitoExtension.class)
+class PayrollSummaryProviderTest {
+
+    @Mock
+    private W1FilingRepository w1FilingRepository;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @InjectMocks
+    private PayrollSummaryProvider provider;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID businessA = UUID.randomUUID();
+    private final UUID businessB = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should load many businesses with one query and serve repeats from cache")
+    void shouldBatchLoadAndCache() {
+        // Given - business B has no W-1 filings
+        when(w1FilingRepository.summarizePayrollByBusiness(tenantId, Set.of(businessA, businessB), 2024))
+            .thenReturn(List.<Object[]>of(summaryRow(businessA, "380000.00", "400000.00", 12, 4L)));
+
+        // When
+        Map<UUID, PayrollSummary> summaries = provider.getSummaries(List.of(businessA, businessB), 2024, tenantId);
+        PayrollSummary cachedA = provider.getSummary(businessA, 2024, tenantId);
+        PayrollSummary cachedB = provider.getSummary(businessB, 2024, tenantId);
+
+        // Then
+        assertThat(summaries.get(businessA).ohioPayroll()).isEqualByComparingTo("380000.00");
+        assertThat(summaries.get(businessA).totalPayroll()).isEqualByComparingTo("400000.00");
+        assertThat(summaries.get(businessA).employeeCount()).isEqualTo(12);
+        assertThat(summaries.get(businessB).hasData()).isFalse();
+        assertThat(cachedA).isEqualTo(summaries.get(businessA));
+        assertThat(cachedB.hasData()).isFalse();
+        verify(w1FilingRepository, times(1)).summarizePayrollByBusiness(eq(tenantId), anyCollection(), eq(2024));
+    }
+
+    @Test
+    @DisplayName("Should reload only the business whose W-1 was filed")
+    void shouldEvictOnW1Filed() {
+        // Given
+        when(w1FilingRepository.summarizePayrollByBusiness(eq(tenantId), anyCollection(), eq(2024)))
+            .thenReturn(List.<Object[]>of(summaryRow(businessA, "100000.00", "100000.00", 5, 1L)))
+            .thenReturn(List.<Object[]>of(summaryRow(businessA, "200000.00", "200000.00", 6, 2L)));
+        provider.getSummaries(List.of(businessA, businessB), 2024, tenantId);
+
+        // When
+        provider.onW1Filed(new W1FiledEvent(UUID.randomUUID(), tenantId, businessA, 2024,
+            FilingFrequency.QUARTERLY, 1, new BigDecimal("100000.00"), new BigDecimal("2000.00"),
+            BigDecimal.ZERO, LocalDateTime.now()));
+        Map<UUID, PayrollSummary> reloaded = provider.getSummaries(List.of(businessA, businessB), 2024, tenantId);
+
+        // Then
+        assertThat(reloaded.get(businessA).ohioPayroll()).isEqualByComparingTo("200000.00");
+        verify(w1FilingRepository).summarizePayrollByBusiness(tenantId, Set.of(businessA), 2024);
+    }
+
+    @Test
+    @DisplayName("Should survive the Redis JSON serializer round trip")
+    void shouldRoundTripThroughRedisSerializer() {
+        // Given
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        PayrollSummary summary = new PayrollSummary(businessA, 2024, new BigDecimal("380000.00"),
+            new BigDecimal("400000.00"), 12, 4L);
+
+        // When
+        Object restored = serializer.deserialize(serializer.serialize(summary));
+
+        // Then
+        assertThat(restored).isEqualTo(summary);
+    }
+
+    @Test
+    @DisplayName("Should cache summaries per tenant")
+    void shouldCachePerTenant() {
+        // Given - another tenant reuses the business ID
+        UUID otherTenant = UUID.randomUUID();
+        when(w1FilingRepository.summarizePayrollByBusiness(tenantId, Set.of(businessA), 2024))
+            .thenReturn(List.<Object[]>of(summaryRow(businessA, "100000.00", "100000.00", 5, 1L)));
+        when(w1FilingRepository.summarizePayrollByBusiness(otherTenant, Set.of(businessA), 2024))
+            .thenReturn(List.of());
+
+        // When
+        PayrollSummary own = provider.getSummary(businessA, 2024, tenantId);
+        PayrollSummary other = provider.getSummary(businessA, 2024, otherTenant);
+
+        // Then
+        assertThat(own.hasData()).isTrue();
+        assertThat(other.hasData()).isFalse();
+    }
+
+    private Object[] summaryRow(UUID businessId, String taxable, String gross, int employees, long filings) {
+        return new Object[]{businessId, new BigDecimal(taxable), new BigDecimal(gross), employees, filings};
+    }
+}
@@ -0,0 +1,219 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.document.PdfDocumentType;
+import com.munitax.taxengine.domain.document.PdfGenerationJob;
+import com.munitax.taxengine.domain.document.PdfJobStatus;
+import com.munitax.taxengine.dto.PdfGenerationJobResponse;
+import com.munitax.taxengine.repository.PdfGenerationJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PdfGenerationQueueService.
+ * Tests request deduplication, job claiming and completion/retry/failure handling.
+ */
+@ExtendWith(MockitoExtension.class)
+class PdfGenerationQueueServiceTest {
+
+    @Mock
+    private PdfGenerationJobRepository jobRepository;
+
+    @Mock
+    private PdfServiceIntegrationService pdfServiceIntegrationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PdfGenerationQueueService queueService;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID returnId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        queueService = new PdfGenerationQueueService(jobRepository, pdfServiceIntegrationService,
+            transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(queueService, "workers", 2);
+        ReflectionTestUtils.setField(queueService, "maxAttempts", 2);
+    }
+
+    @Test
+    @DisplayName("Should queue a new job and return the live job for an identical request")
+    void shouldDeduplicateIdenticalRequests() {
+        // Given - same data, different map insertion order
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("totalPenalty", new BigDecimal("125.50"));
+        first.put("months", 3);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("months", 3);
+        second.put("totalPenalty", new BigDecimal("125.50"));
+
+        when(jobRepository.findLiveJob(eq(tenantId), anyString())).thenReturn(Optional.empty());
+        when(jobRepository.saveAndFlush(any(PdfGenerationJob.class))).thenAnswer(invocation -> {
+            PdfGenerationJob job = invocation.getArgument(0);
+            job.setJobId(UUID.randomUUID());
+            return job;
+        });
+
+        // When
+        PdfGenerationJobResponse queued = queueService.enqueuePenaltyCalculationSummary(
+            returnId, tenantId, "Acme Corp", first);
+
+        ArgumentCaptor<PdfGenerationJob> saved = ArgumentCaptor.forClass(PdfGenerationJob.class);
+        verify(jobRepository).saveAndFlush(saved.capture());
+        PdfGenerationJob job = saved.getValue();
+        when(jobRepository.findLiveJob(tenantId, job.getDedupeKey())).thenReturn(Optional.of(job));
+
+        PdfGenerationJobResponse duplicate = queueService.enqueuePenaltyCalculationSummary(
+            returnId, tenantId, "Acme Corp", second);
+
+        // Then
+        assertThat(queued.getStatus()).isEqualTo(PdfJobStatus.QUEUED);
+        assertThat(queued.isDeduplicated()).isFalse();
+        assertThat(job.getDocumentType()).isEqualTo(PdfDocumentType.PENALTY_SUMMARY);
+        assertThat(job.getReferenceId()).isEqualTo(returnId);
+        assertThat(job.getDedupeKey()).hasSize(64);
+
+        assertThat(duplicate.isDeduplicated()).isTrue();
+        assertThat(duplicate.getJobId()).isEqualTo(queued.getJobId());
+        verify(jobRepository, times(1)).saveAndFlush(any());
+        verifyNoInteractions(pdfServiceIntegrationService);
+    }
+
+    @Test
+    @DisplayName("Should store only the last four digits of the taxpayer ID in the Form 27-PA job payload")
+    void shouldMaskTaxpayerIdInForm27PAPayload() {
+        // Given
+        UUID abatementId = UUID.randomUUID();
+        when(jobRepository.findLiveJob(eq(tenantId), anyString())).thenReturn(Optional.empty());
+        when(jobRepository.saveAndFlush(any(PdfGenerationJob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        queueService.enqueueForm27PA(abatementId, tenantId, returnId, "Jane Doe", "123-45-6789",
+            new BigDecimal("250.00"), "FIRST_TIME", "First offense", Map.of());
+
+        // Then
+        ArgumentCaptor<PdfGenerationJob> saved = ArgumentCaptor.forClass(PdfGenerationJob.class);
+        verify(jobRepository).saveAndFlush(saved.capture());
+        assertThat(saved.getValue().getPayload()).containsEntry("taxpayerId", "XXX-XX-6789");
+        assertThat(saved.getValue().getPayload().toString()).doesNotContain("123-45");
+        assertThat(PdfGenerationQueueService.maskTaxpayerId("12-3456789")).isEqualTo("XX-XXX6789");
+    }
+
+    @Test
+    @DisplayName("Should claim queued jobs as RUNNING and complete them with the generated PDF path")
+    void shouldClaimAndCompleteJob() {
+        // Given
+        PdfGenerationJob job = job(PdfDocumentType.PAYMENT_RECEIPT);
+        when(jobRepository.lockQueuedJobIds(2)).thenReturn(List.of(job.getJobId()));
+        when(jobRepository.findAllById(List.of(job.getJobId()))).thenReturn(List.of(job));
+        when(jobRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jobRepository.findById(job.getJobId())).thenReturn(Optional.of(job));
+        when(pdfServiceIntegrationService.generatePaymentAllocationReceipt(
+            eq(returnId), eq(tenantId), eq("Acme Corp"), anyMap())).thenReturn("/pdfs/receipt.pdf");
+
+        // When
+        List<PdfGenerationJob> claimed = queueService.claim(2);
+        assertThat(claimed).singleElement().satisfies(running -> {
+            assertThat(running.getStatus()).isEqualTo(PdfJobStatus.RUNNING);
+            assertThat(running.getAttempts()).isEqualTo(1);
+            assertThat(running.getStartedAt()).isNotNull();
+        });
+        queueService.process(claimed.get(0));
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(PdfJobStatus.COMPLETED);
+        assertThat(job.getPdfPath()).isEqualTo("/pdfs/receipt.pdf");
+        assertThat(job.getCompletedAt()).isNotNull();
+        assertThat(meterRegistry.get("pdf.generation.jobs").tag("outcome", "completed").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should re-queue abandoned RUNNING jobs from the dispatch loop once per reclaim interval")
+    void shouldReclaimAbandonedJobsWhileDispatching() {
+        // Given
+        ReflectionTestUtils.setField(queueService, "abandonedAfterSeconds", 300L);
+        ReflectionTestUtils.setField(queueService, "reclaimIntervalSeconds", 60L);
+        when(jobRepository.requeueAbandoned(any(LocalDateTime.class))).thenReturn(1);
+
+        // When - two polls within one reclaim interval
+        LocalDateTime before = LocalDateTime.now();
+        queueService.dispatch();
+        queueService.dispatch();
+
+        // Then
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(jobRepository, times(1)).requeueAbandoned(cutoff.capture());
+        assertThat(cutoff.getValue()).isBeforeOrEqualTo(LocalDateTime.now().minusSeconds(300))
+            .isAfterOrEqualTo(before.minusSeconds(300));
+        verify(jobRepository, times(2)).lockQueuedJobIds(2);
+    }
+
+    @Test
+    @DisplayName("Should re-queue a failed job and mark it FAILED after the maximum attempts")
+    void shouldRetryThenFail() {
+        // Given - pdf-service returns no document
+        PdfGenerationJob job = job(PdfDocumentType.INTEREST_BREAKDOWN);
+        when(jobRepository.findById(job.getJobId())).thenReturn(Optional.of(job));
+        when(pdfServiceIntegrationService.generateInterestCalculationBreakdown(any(), any(), any(), any()))
+            .thenReturn(null);
+
+        // When - first attempt
+        job.setAttempts(1);
+        queueService.process(job);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(PdfJobStatus.QUEUED);
+        assertThat(job.getErrorMessage()).contains("did not return a document");
+
+        // When - second (last) attempt
+        job.setAttempts(2);
+        queueService.process(job);
+
+        // Then
+        assertThat(job.getStatus()).isEqualTo(PdfJobStatus.FAILED);
+        assertThat(job.getCompletedAt()).isNotNull();
+        assertThat(meterRegistry.get("pdf.generation.jobs").tag("outcome", "retried").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("pdf.generation.jobs").tag("outcome", "failed").counter().count())
+            .isEqualTo(1);
+    }
+
+    private PdfGenerationJob job(PdfDocumentType documentType) {
+        return PdfGenerationJob.builder()
+            .jobId(UUID.randomUUID())
+            .tenantId(tenantId)
+            .documentType(documentType)
+            .referenceId(returnId)
+            .dedupeKey("key")
+            .payload(Map.of(
+                "returnId", returnId.toString(),
+                "taxpayerName", "Acme Corp",
+                "allocationData", Map.of("amount", 100),
+                "interestData", Map.of("quarters", 4)))
+            .build();
+    }
+}
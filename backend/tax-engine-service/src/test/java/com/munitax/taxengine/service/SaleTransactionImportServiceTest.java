@@ -0,0 +1,232 @@
+package com.munitax.taxengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.munitax.taxengine.domain.apportionment.NexusSnapshot;
+import com.munitax.taxengine.domain.apportionment.NexusTracking;
+import com.munitax.taxengine.domain.apportionment.SaleTransaction;
+import com.munitax.taxengine.domain.apportionment.SalesFactor;
+import com.munitax.taxengine.domain.apportionment.ScheduleY;
+import com.munitax.taxengine.domain.apportionment.SourcingMethod;
+import com.munitax.taxengine.domain.apportionment.ThrowbackElection;
+import com.munitax.taxengine.dto.SaleTransactionImportResponse;
+import com.munitax.taxengine.repository.SaleTransactionRepository;
+import com.munitax.taxengine.repository.SalesFactorRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SaleTransactionImportService.
+ * Tests chunked CSV/NDJSON import, per-import nexus snapshot and incremental sales factor totals.
+ */
+@ExtendWith(MockitoExtension.class)
+class SaleTransactionImportServiceTest {
+
+    @Mock
+    private SalesFactorRepository salesFactorRepository;
+
+    @Mock
+    private SaleTransactionRepository saleTransactionRepository;
+
+    @Mock
+    private SourcingService sourcingService;
+
+    @Mock
+    private NexusService nexusService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SaleTransactionImportService importService;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID businessId = UUID.randomUUID();
+    private ScheduleY scheduleY;
+    private SalesFactor salesFactor;
+
+    @BeforeEach
+    void setUp() {
+        SalesFactorService salesFactorService = new SalesFactorService(salesFactorRepository, saleTransactionRepository,
+            sourcingService, new ThrowbackService(nexusService), nexusService);
+        importService = new SaleTransactionImportService(salesFactorRepository, saleTransactionRepository,
+            salesFactorService, nexusService, transactionManager,
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+
+        scheduleY = new ScheduleY();
+        scheduleY.setScheduleYId(UUID.randomUUID());
+        scheduleY.setTaxYear(2024);
+        scheduleY.setThrowbackElection(ThrowbackElection.THROWBACK);
+
+        salesFactor = new SalesFactor();
+        salesFactor.setSalesFactorId(UUID.randomUUID());
+        salesFactor.setTotalSalesEverywhere(BigDecimal.ZERO);
+
+        lenient().when(salesFactorRepository.findByScheduleY_ScheduleYId(scheduleY.getScheduleYId()))
+            .thenReturn(Optional.of(salesFactor));
+        lenient().when(salesFactorRepository.findByIdForUpdate(salesFactor.getSalesFactorId()))
+            .thenReturn(Optional.of(salesFactor));
+        lenient().when(salesFactorRepository.save(any(SalesFactor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(nexusService.getNexusSnapshot(businessId, tenantId, 2024)).thenReturn(NexusSnapshot.of(
+            businessId, tenantId, 2024, List.of(nexus("OH", true), nexus("NY", true), nexus("CA", false))));
+    }
+
+    @Test
+    @DisplayName("Should import CSV in chunks, throwing back no-nexus sales and loading nexus once per import")
+    void shouldImportCsvWithThrowback() {
+        // Given - 4 rows, chunk size 2
+        String csv = """
+            transactionDate,saleType,amount,originState,destinationState,transactionReference
+            2024-01-15,TANGIBLE_GOODS,1000.00,OH,OH,INV-1
+            2024-02-15,TANGIBLE_GOODS,500.00,OH,CA,INV-2
+            2024-03-15,SERVICES,300.00,OH,NY,INV-3
+            2024-04-15,TANGIBLE_GOODS,200.00,OH,CA,INV-4
+            """;
+
+        // When
+        SaleTransactionImportResponse response = importService.importTransactions(
+            scheduleY, businessId, stream(csv), SaleTransactionImportService.FORMAT_CSV, tenantId);
+
+        // Then
+        assertThat(response.getImportedCount()).isEqualTo(4);
+        assertThat(response.getErrorCount()).isZero();
+        assertThat(response.getThrowbackCount()).isEqualTo(2);
+        assertThat(response.getThrowbackAmount()).isEqualByComparingTo("700.00");
+        assertThat(response.getOhioSourcedAmount()).isEqualByComparingTo("1700.00");
+
+        assertThat(salesFactor.getOhioSalesTangibleGoods()).isEqualByComparingTo("1000.00");
+        assertThat(salesFactor.getOhioSalesServices()).isEqualByComparingTo("0");
+        assertThat(salesFactor.getThrowbackAdjustment()).isEqualByComparingTo("700.00");
+        assertThat(salesFactor.getTotalSalesEverywhere()).isEqualByComparingTo("2000.00");
+        assertThat(response.getSalesFactorPercentage()).isEqualByComparingTo("85.00");
+
+        verify(saleTransactionRepository, times(2)).saveAll(anyList());
+        verify(nexusService, times(1)).getNexusSnapshot(businessId, tenantId, 2024);
+        verify(nexusService, never()).hasNexus(any(), any(), any());
+
+        List<SaleTransaction> saved = captureSaved();
+        SaleTransaction thrownBack = saved.get(1);
+        assertThat(thrownBack.getSourcingMethod()).isEqualTo(SourcingMethod.THROWBACK);
+        assertThat(thrownBack.getAllocatedState()).isEqualTo("OH");
+        assertThat(thrownBack.getAllocatedAmount()).isEqualByComparingTo("500.00");
+        assertThat(thrownBack.getSalesFactor()).isSameAs(salesFactor);
+        assertThat(thrownBack.getTenantId()).isEqualTo(tenantId);
+    }
+
+    @Test
+    @DisplayName("Should exclude thrown-out sales from the denominator and report invalid NDJSON rows")
+    void shouldImportNdjsonWithThrowout() {
+        // Given
+        scheduleY.setThrowbackElection(ThrowbackElection.THROWOUT);
+        String ndjson = """
+            {"transactionDate":"2024-01-15","saleType":"TANGIBLE_GOODS","amount":1000.00,"originState":"OH","destinationState":"OH"}
+            {"transactionDate":"2024-02-15","saleType":"TANGIBLE_GOODS","amount":500.00,"originState":"OH","destinationState":"CA"}
+            {"transactionDate":"2024-03-15","saleType":"TANGIBLE_GOODS","amount":250.00,"transactionReference":"BAD-1"}
+            """;
+
+        // When
+        SaleTransactionImportResponse response = importService.importTransactions(
+            scheduleY, businessId, stream(ndjson), SaleTransactionImportService.FORMAT_NDJSON, tenantId);
+
+        // Then
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getImportedCount()).isEqualTo(2);
+        assertThat(response.getThrowoutCount()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement()
+            .satisfies(error -> {
+                assertThat(error.getRowNumber()).isEqualTo(3);
+                assertThat(error.getTransactionReference()).isEqualTo("BAD-1");
+                assertThat(error.getMessage()).contains("Destination state is required");
+            });
+        assertThat(salesFactor.getTotalSalesEverywhere()).isEqualByComparingTo("1000.00");
+        assertThat(salesFactor.getThrowbackAdjustment()).isEqualByComparingTo("0");
+        assertThat(response.getSalesFactorPercentage()).isEqualByComparingTo("100.00");
+
+        SaleTransaction thrownOut = captureSaved().get(1);
+        assertThat(thrownOut.getSourcingMethod()).isEqualTo(SourcingMethod.THROWOUT);
+        assertThat(thrownOut.getAllocatedAmount()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Should import quoted CSV customer names containing commas and quotes")
+    void shouldImportQuotedCsvValues() {
+        // Given
+        String csv = """
+            transactionDate,customerName,saleType,amount,destinationState,transactionReference
+            2024-01-15,"Acme, Inc.",TANGIBLE_GOODS,1000.00,OH,INV-1
+            2024-02-15,"The ""Corner"" Shop",SERVICES,300.00,NY,INV-2
+            """;
+
+        // When
+        SaleTransactionImportResponse response = importService.importTransactions(
+            scheduleY, businessId, stream(csv), SaleTransactionImportService.FORMAT_CSV, tenantId);
+
+        // Then
+        assertThat(response.getImportedCount()).isEqualTo(2);
+        assertThat(response.getErrorCount()).isZero();
+        assertThat(captureSaved()).extracting(SaleTransaction::getCustomerName)
+            .containsExactly("Acme, Inc.", "The \"Corner\" Shop");
+    }
+
+    @Test
+    @DisplayName("Should reject unsupported formats and CSV without required columns")
+    void shouldRejectInvalidInput() {
+        assertThatThrownBy(() -> importService.importTransactions(
+                scheduleY, businessId, stream(""), "xml", tenantId))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unsupported");
+
+        assertThatThrownBy(() -> importService.importTransactions(
+                scheduleY, businessId, stream("saleType,amount\nSERVICES,10.00\n"),
+                SaleTransactionImportService.FORMAT_CSV, tenantId))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("transactionDate")
+            .hasMessageContaining("destinationState");
+        verifyNoInteractions(saleTransactionRepository);
+    }
+
+    private NexusTracking nexus(String state, boolean hasNexus) {
+        NexusTracking tracking = new NexusTracking();
+        tracking.setBusinessId(businessId);
+        tracking.setState(state);
+        tracking.setHasNexus(hasNexus);
+        tracking.setTenantId(tenantId);
+        return tracking;
+    }
+
+    private List<SaleTransaction> captureSaved() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SaleTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(saleTransactionRepository, atLeastOnce()).saveAll(captor.capture());
+        List<SaleTransaction> saved = new ArrayList<>();
+        captor.getAllValues().forEach(saved::addAll);
+        return saved;
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,143 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.apportionment.ApportionmentFormula;
+import com.munitax.taxengine.domain.apportionment.PayrollFactor;
+import com.munitax.taxengine.dto.PayrollFactorDto;
+import com.munitax.taxengine.dto.PropertyFactorDto;
+import com.munitax.taxengine.dto.SalesFactorDto;
+import com.munitax.taxengine.dto.ScheduleYRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ScheduleYFactorPipeline.
+ * Tests concurrent factor computation, W-1 payroll auto-population, stage timeouts and timing metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+class ScheduleYFactorPipelineTest {
+
+    @Mock
+    private FormulaConfigService formulaConfigService;
+
+    @Mock
+    private PayrollFactorService payrollFactorService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduleYFactorPipeline pipeline;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID businessId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new ScheduleYFactorPipeline(new ApportionmentService(formulaConfigService, null),
+            payrollFactorService, meterRegistry);
+        ReflectionTestUtils.setField(pipeline, "propertyTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(pipeline, "payrollTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(pipeline, "salesTimeoutMs", 2000L);
+
+        lenient().when(formulaConfigService.getFormulaWeights(ApportionmentFormula.FOUR_FACTOR_DOUBLE_SALES))
+            .thenReturn(Map.of(
+                "property", new BigDecimal("0.25"),
+                "payroll", new BigDecimal("0.25"),
+                "sales", new BigDecimal("0.50")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should compute all factors, auto-populating payroll from W-1 filings, and record stage timings")
+    void shouldComputeFactorsConcurrently() {
+        // Given
+        ScheduleYRequest request = request();
+        PayrollFactorDto payroll = new PayrollFactorDto();
+        payroll.setAutoPopulated(true);
+        request.setPayrollFactor(payroll);
+
+        PayrollFactor fromW1 = new PayrollFactor();
+        fromW1.setOhioW2Wages(new BigDecimal("300000"));
+        fromW1.setTotalPayrollEverywhere(new BigDecimal("600000"));
+        fromW1.setOhioEmployeeCount(6);
+        fromW1.setEmployeeCount(12);
+        when(payrollFactorService.autoPopulateFromW1Filings(eq(businessId), eq(2024), isNull(), eq(tenantId)))
+            .thenReturn(fromW1);
+
+        // When
+        ScheduleYFactorPipeline.FactorResult result = pipeline.calculate(request, tenantId);
+
+        // Then - 25% property, 50% payroll, 80% sales, sales double-weighted
+        assertThat(result.propertyFactorPercentage()).isEqualByComparingTo("25");
+        assertThat(result.payrollFactorPercentage()).isEqualByComparingTo("50");
+        assertThat(result.salesFactorPercentage()).isEqualByComparingTo("80");
+        assertThat(result.finalApportionmentPercentage()).isEqualByComparingTo("58.75");
+        assertThat(result.stageDurationsMs()).containsOnlyKeys("property", "payroll", "sales");
+
+        assertThat(payroll.getPayrollInOhio()).isEqualByComparingTo("300000");
+        assertThat(payroll.getTotalEmployeesEverywhere()).isEqualTo(12);
+
+        assertThat(meterRegistry.get("schedule_y.factor.duration").tag("outcome", "success").timers()).hasSize(3);
+        assertThat(meterRegistry.get("schedule_y.factor_pipeline.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail the calculation when a stage exceeds its timeout")
+    void shouldTimeOutSlowStage() {
+        // Given
+        ReflectionTestUtils.setField(pipeline, "payrollTimeoutMs", 50L);
+        ScheduleYRequest request = request();
+        PayrollFactorDto payroll = new PayrollFactorDto();
+        payroll.setAutoPopulated(true);
+        request.setPayrollFactor(payroll);
+        when(payrollFactorService.autoPopulateFromW1Filings(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return new PayrollFactor();
+        });
+
+        // When / Then
+        assertThatThrownBy(() -> pipeline.calculate(request, tenantId))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("payroll factor calculation timed out");
+        assertThat(meterRegistry.get("schedule_y.factor.duration")
+            .tags("stage", "payroll", "outcome", "timeout").timer().count()).isEqualTo(1);
+        verify(formulaConfigService, never()).getFormulaWeights(any());
+    }
+
+    private ScheduleYRequest request() {
+        PropertyFactorDto property = new PropertyFactorDto();
+        property.setOhioPropertyValue(new BigDecimal("250000"));
+        property.setTotalPropertyValue(new BigDecimal("1000000"));
+
+        SalesFactorDto sales = new SalesFactorDto();
+        sales.setOhioSales(new BigDecimal("800000"));
+        sales.setTotalSales(new BigDecimal("1000000"));
+
+        ScheduleYRequest request = new ScheduleYRequest();
+        request.setBusinessId(businessId);
+        request.setTaxYear(2024);
+        request.setApportionmentFormula(ApportionmentFormula.FOUR_FACTOR_DOUBLE_SALES);
+        request.setPropertyFactor(property);
+        request.setSalesFactor(sales);
+        return request;
+    }
+}
@@ -0,0 +1,204 @@
+package com.munitax.taxengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.munitax.taxengine.domain.withholding.W1FiledEvent;
+import com.munitax.taxengine.domain.withholding.W1Filing;
+import com.munitax.taxengine.dto.W1BulkFilingResponse;
+import com.munitax.taxengine.dto.W1FilingRequest;
+import com.munitax.taxengine.repository.W1FilingRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for W1BulkFilingService.
+ * Tests streaming CSV/NDJSON ingestion, chunked duplicate prefetch and per-row errors.
+ */
+@ExtendWith(MockitoExtension.class)
+class W1BulkFilingServiceTest {
+
+    @Mock
+    private W1FilingService w1FilingService;
+
+    @Mock
+    private W1FilingRepository w1FilingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private W1BulkFilingService bulkFilingService;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID businessA = UUID.randomUUID();
+    private final UUID businessB = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        bulkFilingService = new W1BulkFilingService(w1FilingService, w1FilingRepository, transactionManager,
+                                                    eventPublisher, objectMapper, validator);
+        ReflectionTestUtils.setField(bulkFilingService, "chunkSize", 2);
+
+        lenient().when(w1FilingService.resolveMunicipalTaxRate(anyInt())).thenReturn(new BigDecimal("0.0225"));
+        lenient().when(w1FilingService.buildFiling(any(), eq(userId), eq(tenantId), any(), any(), isNull()))
+            .thenAnswer(invocation -> {
+                W1FilingRequest request = invocation.getArgument(0);
+                return W1Filing.builder()
+                    .tenantId(tenantId)
+                    .businessId(request.getBusinessId())
+                    .taxYear(request.getTaxYear())
+                    .period(request.getPeriod())
+                    .filingFrequency(request.getFilingFrequency())
+                    .grossWages(request.getGrossWages())
+                    .taxDue(request.getGrossWages().multiply(invocation.<BigDecimal>getArgument(3)))
+                    .build();
+            });
+        lenient().when(w1FilingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<W1Filing> filings = invocation.getArgument(0);
+            filings.forEach(filing -> filing.setId(UUID.randomUUID()));
+            return filings;
+        });
+    }
+
+    @Test
+    @DisplayName("Should file CSV rows in chunks, resolving the tax rate once per year")
+    void shouldFileCsvRowsInChunks() {
+        // Given
+        String csv = "businessId,taxYear,filingFrequency,period,periodStartDate,periodEndDate,grossWages\n"
+            + row(businessA, "Q1", "2024-01-01", "2024-03-31", "100000.00")
+            + row(businessA, "Q2", "2024-04-01", "2024-06-30", "110000.00")
+            + row(businessB, "Q1", "2024-01-01", "2024-03-31", "50000.00");
+
+        // When
+        W1BulkFilingResponse response = ingest(csv, W1BulkFilingService.FORMAT_CSV);
+
+        // Then - 3 rows in chunks of 2: two duplicate prefetches, two batched inserts
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getFiledCount()).isEqualTo(3);
+        assertThat(response.getErrors()).isEmpty();
+        verify(w1FilingRepository, times(2)).findFiledPeriodKeys(anyCollection(), anyCollection());
+        verify(w1FilingRepository, times(2)).saveAll(anyList());
+        verify(w1FilingService, times(1)).resolveMunicipalTaxRate(2024);
+        verify(eventPublisher, times(3)).publishEvent(any(W1FiledEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should report invalid and duplicate rows without blocking the rest")
+    void shouldReportPerRowErrors() {
+        // Given - Q1 for business A is already on file; row 3 repeats row 2; row 4 is invalid
+        when(w1FilingRepository.findFiledPeriodKeys(anyCollection(), anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[]{businessA, 2024, "Q1"}));
+        String ndjson = json(businessA, "Q1", "100000.00")
+            + json(businessB, "Q1", "50000.00")
+            + json(businessB, "Q1", "50000.00")
+            + json(businessB, "Q9", "-1.00")
+            + "{not json}\n";
+
+        // When
+        W1BulkFilingResponse response = ingest(ndjson, W1BulkFilingService.FORMAT_NDJSON);
+
+        // Then
+        assertThat(response.getTotalRows()).isEqualTo(5);
+        assertThat(response.getFiledCount()).isEqualTo(1);
+        assertThat(response.getErrorCount()).isEqualTo(4);
+        assertThat(response.getErrors()).extracting(W1BulkFilingResponse.RowError::getRowNumber)
+            .containsExactly(1, 3, 4, 5);
+        assertThat(response.getErrors().get(0).getMessage()).contains("already exists");
+        assertThat(response.getErrors().get(2).getMessage()).contains("Gross wages must be non-negative");
+        assertThat(response.getErrors().get(3).getMessage()).startsWith("Unparseable row");
+    }
+
+    @Test
+    @DisplayName("Should parse quoted CSV values containing commas, quotes and line breaks")
+    void shouldParseQuotedCsvValues() {
+        // Given - an extra notes column with RFC 4180 quoting; row 3 has a missing column
+        String csv = "businessId,taxYear,filingFrequency,period,periodStartDate,periodEndDate,grossWages,notes\n"
+            + businessA + ",2024,QUARTERLY,\"Q1\",2024-01-01,2024-03-31,100000.00,\"Acme, Inc. \"\"East\"\"\"\n"
+            + businessB + ",2024,QUARTERLY,Q1,2024-01-01,2024-03-31,50000.00,\"line one\nline two\"\n"
+            + businessB + ",2024,QUARTERLY,Q2,2024-04-01,2024-06-30,50000.00\n";
+
+        // When
+        W1BulkFilingResponse response = ingest(csv, W1BulkFilingService.FORMAT_CSV);
+
+        // Then
+        assertThat(response.getTotalRows()).isEqualTo(3);
+        assertThat(response.getFiledCount()).isEqualTo(2);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRowNumber()).isEqualTo(3);
+            assertThat(error.getMessage()).contains("expected 8 columns but found 7");
+        });
+    }
+
+    @Test
+    @DisplayName("Should report an unterminated quote as a row error and stop reading")
+    void shouldStopAtUnterminatedQuote() {
+        // Given
+        String csv = "businessId,taxYear,filingFrequency,period,periodStartDate,periodEndDate,grossWages\n"
+            + row(businessA, "Q1", "2024-01-01", "2024-03-31", "100000.00")
+            + businessB + ",2024,QUARTERLY,\"Q1,2024-01-01,2024-03-31,50000.00\n";
+
+        // When
+        W1BulkFilingResponse response = ingest(csv, W1BulkFilingService.FORMAT_CSV);
+
+        // Then
+        assertThat(response.getTotalRows()).isEqualTo(2);
+        assertThat(response.getFiledCount()).isEqualTo(1);
+        assertThat(response.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getRowNumber()).isEqualTo(2);
+            assertThat(error.getMessage()).startsWith("Unparseable row");
+        });
+    }
+
+    @Test
+    @DisplayName("Should reject CSV input missing required columns")
+    void shouldRejectCsvWithoutRequiredColumns() {
+        // Given
+        String csv = "businessId,taxYear,period\n" + businessA + ",2024,Q1\n";
+
+        // When / Then
+        assertThatThrownBy(() -> ingest(csv, W1BulkFilingService.FORMAT_CSV))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("grossWages");
+        verifyNoInteractions(w1FilingRepository);
+    }
+
+    private W1BulkFilingResponse ingest(String body, String format) {
+        return bulkFilingService.ingest(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, userId, tenantId);
+    }
+
+    private String row(UUID businessId, String period, String start, String end, String grossWages) {
+        return String.join(",", businessId.toString(), "2024", "QUARTERLY", period, start, end, grossWages) + "\n";
+    }
+
+    private String json(UUID businessId, String period, String grossWages) {
+        return String.format("{\"businessId\":\"%s\",\"taxYear\":2024,\"filingFrequency\":\"QUARTERLY\","
+            + "\"period\":\"%s\",\"periodStartDate\":\"2024-01-01\",\"periodEndDate\":\"2024-03-31\","
+            + "\"grossWages\":%s}%n", businessId, period, grossWages);
+    }
+}
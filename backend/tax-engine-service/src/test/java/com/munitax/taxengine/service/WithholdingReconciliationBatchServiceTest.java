@@ -0,0 +1,257 @@
+package com.munitax.taxengine.service;
+
+import com.munitax.taxengine.domain.withholding.FilingFrequency;
+import com.munitax.taxengine.domain.withholding.ReconciliationStatus;
+import com.munitax.taxengine.domain.withholding.W1Filing;
+import com.munitax.taxengine.domain.withholding.W1FilingStatus;
+import com.munitax.taxengine.domain.withholding.WithholdingReconciliation;
+import com.munitax.taxengine.dto.PortfolioReconciliationResult;
+import com.munitax.taxengine.dto.ReconciliationIssue;
+import com.munitax.taxengine.dto.W2EmployerTotals;
+import com.munitax.taxengine.repository.W1FilingRepository;
+import com.munitax.taxengine.repository.WithholdingReconciliationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WithholdingReconciliationBatchService.
+ * Tests partitioned merge join of W-1 filings with W-2 totals and bulk upsert of reconciliations.
+ */
+@ExtendWith(MockitoExtension.class)
+class WithholdingReconciliationBatchServiceTest {
+
+    @Mock
+    private W1FilingRepository w1FilingRepository;
+
+    @Mock
+    private WithholdingReconciliationRepository reconciliationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WithholdingReconciliationBatchService batchService;
+
+    // Signed UUID ordering would put businessB first; PostgreSQL (and the job) order A, B
+    private final UUID businessBeforeA = UUID.fromString("05000000-0000-0000-0000-000000000000");
+    private final UUID businessA = UUID.fromString("10000000-0000-0000-0000-000000000000");
+    private final UUID businessB = UUID.fromString("80000000-0000-0000-0000-000000000000");
+    private final UUID businessAfterB = UUID.fromString("f0000000-0000-0000-0000-000000000000");
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    private final List<W1Filing> allFilings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        batchService = new WithholdingReconciliationBatchService(w1FilingRepository, reconciliationRepository,
+            new WithholdingReconciliationService(w1FilingRepository), transactionManager);
+        ReflectionTestUtils.setField(batchService, "parallelism", 2);
+        ReflectionTestUtils.setField(batchService, "writeBatchSize", 500);
+
+        allFilings.addAll(createQuarterlyFilings(businessA));
+        allFilings.addAll(createQuarterlyFilings(businessB));
+
+        lenient().when(w1FilingRepository.findDistinctBusinessIdsByTenantIdAndTaxYear(any(), eq(2024)))
+            .thenAnswer(invocation -> {
+                UUID tenant = invocation.getArgument(0);
+                return allFilings.stream().filter(filing -> filing.getTenantId().equals(tenant))
+                    .map(W1Filing::getBusinessId).distinct().sorted(Comparator.reverseOrder()).toList();
+            });
+        lenient().when(w1FilingRepository.findByTenantIdAndTaxYearAndBusinessIdIn(any(), eq(2024), anyCollection()))
+            .thenAnswer(invocation -> {
+                UUID tenant = invocation.getArgument(0);
+                Collection<UUID> businessIds = invocation.getArgument(2);
+                return allFilings.stream()
+                    .filter(filing -> filing.getTenantId().equals(tenant) && businessIds.contains(filing.getBusinessId()))
+                    .toList();
+            });
+    }
+
+    @Test
+    @DisplayName("Should merge-join W-1 filers with W-2 totals across parallel partitions")
+    void shouldReconcileAllEmployersAcrossPartitions() {
+        // Given - A matches its W-2s, B under-reports, two employers have W-2s but no W-1s
+        List<W2EmployerTotals> w2Totals = List.of(
+            w2(businessAfterB, "40000.00"),
+            w2(businessA, "100000.00"),
+            w2(businessB, "120000.00"),
+            w2(businessBeforeA, "30000.00"));
+
+        // When
+        PortfolioReconciliationResult result = batchService.reconcilePortfolio(2024, w2Totals, userId, tenantId);
+
+        // Then
+        assertThat(result.getPartitions()).isEqualTo(2);
+        assertThat(result.getFailedPartitions()).isZero();
+        assertThat(result.getEmployersReconciled()).isEqualTo(4);
+        assertThat(result.getReconciliationsWritten()).isEqualTo(4);
+        assertThat(result.getDiscrepancyCount()).isEqualTo(3);
+        assertThat(result.getIssuesByType()).containsOnlyKeys(ReconciliationIssue.IssueType.WAGE_MISMATCH_LOCAL);
+        assertThat(result.getIssueCount()).isEqualTo(3);
+        verify(w1FilingRepository, times(2)).findByTenantIdAndTaxYearAndBusinessIdIn(eq(tenantId), eq(2024), anyCollection());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WithholdingReconciliation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reconciliationRepository, times(3)).saveAll(saved.capture());
+        Map<UUID, WithholdingReconciliation> byBusiness = new HashMap<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(r -> byBusiness.put(r.getBusinessId(), r)));
+        assertThat(byBusiness.get(businessA).getStatus()).isEqualTo(ReconciliationStatus.RECONCILED);
+        assertThat(byBusiness.get(businessB).getVarianceWages()).isEqualByComparingTo("-20000.00");
+        assertThat(byBusiness.get(businessBeforeA).getW1TotalWages()).isEqualByComparingTo("0");
+        assertThat(byBusiness.get(businessAfterB).getTenantId()).isEqualTo(tenantId);
+    }
+
+    @Test
+    @DisplayName("Should update existing reconciliations but never overwrite auditor-approved ones")
+    void shouldUpsertWithoutOverwritingApprovedReconciliations() {
+        // Given
+        ReflectionTestUtils.setField(batchService, "parallelism", 1);
+        WithholdingReconciliation existingA = WithholdingReconciliation.builder()
+            .businessId(businessA).taxYear(2024).status(ReconciliationStatus.DISCREPANCY).build();
+        WithholdingReconciliation approvedB = WithholdingReconciliation.builder()
+            .businessId(businessB).taxYear(2024).status(ReconciliationStatus.RECONCILED)
+            .approvedBy(UUID.randomUUID()).build();
+        when(reconciliationRepository.findByTenantIdAndTaxYearAndBusinessIdIn(eq(tenantId), eq(2024), anyCollection()))
+            .thenReturn(List.of(existingA, approvedB));
+
+        // When
+        PortfolioReconciliationResult result = batchService.reconcilePortfolio(2024,
+            List.of(w2(businessA, "100000.00"), w2(businessB, "120000.00")), userId, tenantId);
+
+        // Then
+        assertThat(result.getReconciliationsWritten()).isEqualTo(1);
+        assertThat(existingA.getStatus()).isEqualTo(ReconciliationStatus.RECONCILED);
+        assertThat(existingA.getW1TotalWages()).isEqualByComparingTo("100000.00");
+        assertThat(approvedB.getW2TotalWages()).isNull();
+        verify(reconciliationRepository).saveAll(List.of(existingA));
+    }
+
+    @Test
+    @DisplayName("Should write a discrepancy for W-1 filers without W-2 totals and ignore superseded filings")
+    void shouldReconcileFilerWithoutW2Totals() {
+        // Given - B has no W-2s; A's Q1 was superseded by an amendment
+        ReflectionTestUtils.setField(batchService, "parallelism", 1);
+        W1Filing superseded = createQuarterlyFilings(businessA).get(0);
+        superseded.setGrossWages(new BigDecimal("5000.00"));
+        superseded.setStatus(W1FilingStatus.AMENDED);
+        allFilings.add(superseded);
+
+        // When
+        PortfolioReconciliationResult result = batchService.reconcilePortfolio(2024,
+            List.of(w2(businessA, "100000.00")), userId, tenantId);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WithholdingReconciliation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reconciliationRepository).saveAll(saved.capture());
+        Map<UUID, WithholdingReconciliation> byBusiness = new HashMap<>();
+        saved.getValue().forEach(r -> byBusiness.put(r.getBusinessId(), r));
+        assertThat(result.getReconciliationsWritten()).isEqualTo(2);
+        assertThat(byBusiness.get(businessA).getStatus()).isEqualTo(ReconciliationStatus.RECONCILED);
+        assertThat(byBusiness.get(businessB).getStatus()).isEqualTo(ReconciliationStatus.DISCREPANCY);
+        assertThat(byBusiness.get(businessB).getW2TotalWages()).isEqualByComparingTo("0");
+        assertThat(byBusiness.get(businessB).getW1TotalWages()).isEqualByComparingTo("100000.00");
+    }
+
+    @Test
+    @DisplayName("Should reconcile only the run's tenant and leave other tenants' filers and reconciliations alone")
+    void shouldScopeRunToTenant() {
+        // Given - another tenant has a W-1 filer sorting between A and B, and a reconciliation for it
+        ReflectionTestUtils.setField(batchService, "parallelism", 1);
+        UUID otherTenant = UUID.randomUUID();
+        UUID otherBusiness = UUID.fromString("40000000-0000-0000-0000-000000000000");
+        createQuarterlyFilings(otherBusiness).forEach(filing -> {
+            filing.setTenantId(otherTenant);
+            allFilings.add(filing);
+        });
+
+        // When
+        PortfolioReconciliationResult result = batchService.reconcilePortfolio(2024,
+            List.of(w2(businessA, "100000.00"), w2(businessB, "100000.00")), userId, tenantId);
+
+        // Then
+        assertThat(result.getEmployersReconciled()).isEqualTo(2);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WithholdingReconciliation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reconciliationRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(WithholdingReconciliation::getBusinessId)
+            .containsExactlyInAnyOrder(businessA, businessB);
+        assertThat(saved.getValue()).extracting(WithholdingReconciliation::getTenantId).containsOnly(tenantId);
+        verify(reconciliationRepository).findByTenantIdAndTaxYearAndBusinessIdIn(eq(tenantId), eq(2024), anyCollection());
+        verify(reconciliationRepository, never())
+            .findByTenantIdAndTaxYearAndBusinessIdIn(eq(otherTenant), anyInt(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject W-2 totals belonging to another tenant")
+    void shouldRejectOtherTenantsW2Totals() {
+        W2EmployerTotals foreign = w2(businessA, "1.00");
+        foreign.setTenantId(UUID.randomUUID());
+
+        assertThatThrownBy(() -> batchService.reconcilePortfolio(2024, List.of(foreign), userId, tenantId))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("another tenant");
+        verifyNoInteractions(reconciliationRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject W-2 totals listing the same business twice")
+    void shouldRejectDuplicateW2Totals() {
+        assertThatThrownBy(() -> batchService.reconcilePortfolio(2024,
+                List.of(w2(businessA, "1.00"), w2(businessA, "2.00")), userId, tenantId))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(businessA.toString());
+        verifyNoInteractions(reconciliationRepository);
+    }
+
+    private W2EmployerTotals w2(UUID businessId, String localWages) {
+        return W2EmployerTotals.builder()
+            .businessId(businessId)
+            .localWages(new BigDecimal(localWages))
+            .localTaxWithheld(new BigDecimal(localWages).multiply(new BigDecimal("0.02")))
+            .w2Count(10)
+            .employeeCount(10)
+            .build();
+    }
+
+    private List<W1Filing> createQuarterlyFilings(UUID businessId) {
+        List<W1Filing> filings = new ArrayList<>();
+        for (int quarter = 1; quarter <= 4; quarter++) {
+            LocalDate periodEnd = LocalDate.of(2024, quarter * 3, 1).withDayOfMonth(
+                LocalDate.of(2024, quarter * 3, 1).lengthOfMonth());
+            filings.add(W1Filing.builder()
+                .id(UUID.randomUUID())
+                .tenantId(tenantId)
+                .businessId(businessId)
+                .taxYear(2024)
+                .filingFrequency(FilingFrequency.QUARTERLY)
+                .period("Q" + quarter)
+                .periodEndDate(periodEnd)
+                .dueDate(periodEnd.plusDays(30))
+                .filingDate(periodEnd.plusDays(15).atStartOfDay())
+                .grossWages(new BigDecimal("25000.00"))
+                .taxableWages(new BigDecimal("25000.00"))
+                .taxRate(new BigDecimal("0.0200"))
+                .taxDue(new BigDecimal("500.00"))
+                .build());
+        }
+        return filings;
+    }
+}
@@ -325,6 +325,35 @@ class WithholdingReconciliationServiceTest {
         assertThat(wageMismatch).isEmpty();
     }
 
+    @Test
+    @DisplayName("Should ignore superseded filings when totalling W-1 wages")
+    void shouldIgnoreSupersededFilings() {
+        // Given - Q1 was filed at 80K, then amended to 100K
+        List<W1Filing> w1Filings = new ArrayList<>(createQuarterlyFilings(
+            new BigDecimal("100000"),
+            new BigDecimal("100000"),
+            new BigDecimal("100000"),
+            new BigDecimal("100000")
+        ));
+        W1Filing superseded = createW1Filing("Q1", new BigDecimal("80000"), new BigDecimal("0.0200"));
+        superseded.setStatus(W1FilingStatus.AMENDED);
+        w1Filings.get(0).setIsAmended(true);
+        w1Filings.add(0, superseded);
+        
+        List<W2Form> w2Forms = List.of(createW2Form(400000.0, 400000.0));
+        
+        when(w1FilingRepository.findByBusinessIdAndTaxYear(testEmployerId, testTaxYear))
+            .thenReturn(w1Filings);
+
+        // When
+        List<ReconciliationIssue> issues = reconciliationService.reconcileW1Filings(
+            testEmployerId, testTaxYear, w2Forms);
+
+        // Then - 400K of effective W-1 wages matches the W-2s
+        assertThat(issues).noneMatch(i -> i.getIssueType() == ReconciliationIssue.IssueType.WAGE_MISMATCH_FEDERAL
+            || i.getIssueType() == ReconciliationIssue.IssueType.WAGE_MISMATCH_LOCAL);
+    }
+
     // Helper methods
 
     private W1Filing createW1Filing(String period, BigDecimal grossWages, BigDecimal taxRate) {
@@ -0,0 +1,318 @@
+package com.munitax.taxengine.service.audit;
+
+import com.munitax.taxengine.domain.apportionment.ApportionmentAuditLog;
+import com.munitax.taxengine.domain.apportionment.AuditChangeType;
+import com.munitax.taxengine.domain.penalty.ActorRole;
+import com.munitax.taxengine.domain.penalty.PenaltyAuditAction;
+import com.munitax.taxengine.domain.penalty.PenaltyAuditEntityType;
+import com.munitax.taxengine.domain.penalty.PenaltyAuditLog;
+import com.munitax.taxengine.repository.ApportionmentAuditLogRepository;
+import com.munitax.taxengine.repository.PenaltyAuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditLogWriteBehindService and WriteBehindBuffer.
+ * Tests batching, full-queue fallback, retry, drain on shutdown, write-ahead log replay and batch submission.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriteBehindServiceTest {
+
+    @Mock
+    private PenaltyAuditLogRepository penaltyAuditLogRepository;
+
+    @Mock
+    private ApportionmentAuditLogRepository apportionmentAuditLogRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path walDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private AuditLogWriteBehindService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = createService(walDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    @DisplayName("Should write queued entries in batches and drain on shutdown")
+    @SuppressWarnings("unchecked")
+    void shouldBatchAndDrainOnShutdown() {
+        // Given
+        List<Integer> batchSizes = new ArrayList<>();
+        when(penaltyAuditLogRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            batchSizes.add(((List<PenaltyAuditLog>) invocation.getArgument(0)).size());
+            return invocation.getArgument(0);
+        });
+        service.start();
+
+        // When - 2 entries stay below the batch size, so nothing is written until shutdown
+        service.logPenaltyEvent(createEntry());
+        service.logPenaltyEvent(createEntry());
+        assertThat(meterRegistry.get("audit.write_behind.queue.depth").tag("buffer", "penalty_audit_logs")
+            .gauge().value()).isEqualTo(2.0);
+        service.stop();
+
+        // Then
+        assertThat(batchSizes).containsExactly(2);
+        verify(penaltyAuditLogRepository, never()).save(any(PenaltyAuditLog.class));
+        assertThat(meterRegistry.get("audit.write_behind.flush").tag("buffer", "penalty_audit_logs")
+            .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should re-queue a failed batch and write it on the next flush")
+    void shouldRetryFailedBatch() {
+        // Given
+        when(penaltyAuditLogRepository.saveAll(anyList()))
+            .thenThrow(new RuntimeException("connection reset"))
+            .thenAnswer(invocation -> invocation.getArgument(0));
+        service.start();
+        service.logPenaltyEvent(createEntry());
+
+        // When
+        int firstFlush = service.flushAll();
+        int secondFlush = service.flushAll();
+
+        // Then
+        assertThat(firstFlush).isZero();
+        assertThat(secondFlush).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.write_behind.failures").tag("buffer", "penalty_audit_logs")
+            .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should write on the caller thread when the queue is full")
+    void shouldFallBackToSynchronousWriteWhenFull() {
+        // Given
+        List<PenaltyAuditLog> written = new ArrayList<>();
+        WriteBehindBuffer<PenaltyAuditLog> buffer = new WriteBehindBuffer<>(
+            "test", 2, 2, written::addAll, meterRegistry);
+
+        // When
+        buffer.offer(createEntry());
+        boolean flushNeeded = buffer.offer(createEntry());
+        buffer.offer(createEntry());
+
+        // Then - third entry bypassed the full queue
+        assertThat(flushNeeded).isTrue();
+        assertThat(written).hasSize(1);
+        assertThat(buffer.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("audit.write_behind.sync_fallback").tag("buffer", "test")
+            .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should replay committed entries from the write-ahead log after a crash and skip rolled-back ones")
+    void shouldReplayWriteAheadLogOnStartup() {
+        // Given - one committed and one rolled-back entry, never flushed before the process died
+        when(penaltyAuditLogRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        service.start();
+        PenaltyAuditLog committed = createEntry();
+        logInTransaction(committed, TransactionSynchronization.STATUS_COMMITTED);
+        logInTransaction(createEntry(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        crash(service);
+
+        // When - the next process starts on the same directory
+        AuditLogWriteBehindService restarted = createService(walDir.toString());
+        try {
+            restarted.start();
+
+            // Then
+            assertThat(meterRegistry.get("audit.write_behind.wal.replayed").tag("buffer", "penalty_audit_logs")
+                .counter().count()).isEqualTo(1.0);
+            assertThat(restarted.flushAll()).isEqualTo(1);
+            verify(penaltyAuditLogRepository).saveAll(argThat(batch ->
+                batch instanceof List<?> entries && entries.size() == 1
+                    && ((PenaltyAuditLog) entries.get(0)).getEntityId().equals(committed.getEntityId())));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should queue a batch of apportionment entries on commit and drop it on rollback")
+    void shouldQueueApportionmentBatchOnCommit() {
+        // Given
+        when(apportionmentAuditLogRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        service.start();
+        List<ApportionmentAuditLog> committed = List.of(createApportionmentEntry(), createApportionmentEntry());
+
+        // When
+        inTransaction(() -> service.logApportionmentChanges(committed), TransactionSynchronization.STATUS_COMMITTED);
+        inTransaction(() -> service.logApportionmentChanges(List.of(createApportionmentEntry())),
+            TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertThat(service.flushAll()).isEqualTo(2);
+        verify(apportionmentAuditLogRepository).saveAll(committed);
+        assertThat(committed).allSatisfy(entry -> assertThat(entry.getChangeDate()).isNotNull());
+        verify(apportionmentAuditLogRepository, never()).save(any(ApportionmentAuditLog.class));
+    }
+
+    @Test
+    @DisplayName("Should write synchronously when the caller commits after shutdown drained the queue")
+    void shouldWriteSynchronouslyAfterStop() {
+        // Given
+        service = createService("");
+        service.start();
+        TransactionSynchronizationManager.initSynchronization();
+        PenaltyAuditLog entry = createEntry();
+        service.logPenaltyEvent(entry);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        // When - shutdown runs between the caller's commit and its after-commit callback
+        service.stop();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+
+        // Then
+        verify(penaltyAuditLogRepository).save(entry);
+        verify(penaltyAuditLogRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should quarantine a write-ahead segment with an unreadable record instead of replaying or deleting it")
+    void shouldQuarantineUnreadableSegment() throws Exception {
+        // Given - a segment from a previous run whose second record is corrupt
+        Path segmentDir = Files.createDirectories(walDir.resolve("penalty_audit_logs"));
+        Path segment = segmentDir.resolve("audit-0000000000000000001.wal");
+        String record = objectMapper.createObjectNode()
+            .put("key", UUID.randomUUID().toString())
+            .set("entry", objectMapper.valueToTree(createEntry()))
+            .toString();
+        Files.writeString(segment, record + "\n{\"key\": \"not-a-uuid\"}\n");
+
+        // When
+        service.start();
+
+        // Then
+        assertThat(meterRegistry.get("audit.write_behind.wal.quarantined").tag("buffer", "penalty_audit_logs")
+            .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("audit.write_behind.wal.replayed").tag("buffer", "penalty_audit_logs")
+            .counter().count()).isZero();
+        assertThat(segment).doesNotExist();
+        assertThat(segmentDir.resolve("audit-0000000000000000001.wal.corrupt")).exists();
+        assertThat(service.flushAll()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse a write-ahead directory already held by a running instance")
+    void shouldLockWriteAheadDirectory() {
+        // Given
+        service.start();
+        AuditLogWriteBehindService second = createService(walDir.toString());
+
+        // When / Then
+        assertThatThrownBy(second::start)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("in use by another instance");
+
+        // Released once the owner stops
+        service.stop();
+        new AuditWriteAheadLog<>(walDir.resolve("penalty_audit_logs"), objectMapper, PenaltyAuditLog.class, false).close();
+    }
+
+    /**
+     * Stop a service the way a killed process would: no drain, write-ahead logs (and their
+     * directory locks) released.
+     */
+    private void crash(AuditLogWriteBehindService crashed) {
+        ((ExecutorService) ReflectionTestUtils.getField(crashed, "scheduler")).shutdownNow();
+        ReflectionTestUtils.setField(crashed, "running", false);
+        ((WriteBehindBuffer<?>) ReflectionTestUtils.getField(crashed, "penaltyBuffer")).close();
+        ((WriteBehindBuffer<?>) ReflectionTestUtils.getField(crashed, "apportionmentBuffer")).close();
+    }
+
+    private AuditLogWriteBehindService createService(String walDirectory) {
+        AuditLogWriteBehindService writeBehind = new AuditLogWriteBehindService(penaltyAuditLogRepository,
+            apportionmentAuditLogRepository, transactionManager, meterRegistry, objectMapper);
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "capacity", 100);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 3);
+        // Long interval so only explicit/size-triggered flushes run during the test
+        ReflectionTestUtils.setField(writeBehind, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(writeBehind, "walDir", walDirectory);
+        ReflectionTestUtils.setField(writeBehind, "walFsync", false);
+        return writeBehind;
+    }
+
+    private void logInTransaction(PenaltyAuditLog entry, int status) {
+        inTransaction(() -> service.logPenaltyEvent(entry), status);
+    }
+
+    private void inTransaction(Runnable work, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private PenaltyAuditLog createEntry() {
+        return PenaltyAuditLog.builder()
+            .tenantId(UUID.randomUUID())
+            .entityType(PenaltyAuditEntityType.PENALTY)
+            .entityId(UUID.randomUUID())
+            .action(PenaltyAuditAction.ASSESSED)
+            .actorId(UUID.randomUUID())
+            .actorRole(ActorRole.SYSTEM)
+            .description("Late filing penalty assessed")
+            .build();
+    }
+
+    private ApportionmentAuditLog createApportionmentEntry() {
+        return new ApportionmentAuditLog.Builder()
+            .scheduleYId(UUID.randomUUID())
+            .tenantId(UUID.randomUUID())
+            .changeType(AuditChangeType.NEXUS_CHANGED)
+            .entityType("NexusTracking")
+            .entityId(UUID.randomUUID())
+            .changedBy(UUID.randomUUID())
+            .oldValue("false")
+            .newValue("true")
+            .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.munitax.taxengine.service.penalty;
+
+import com.munitax.taxengine.domain.penalty.EstimatedTaxPenalty;
+import com.munitax.taxengine.repository.EstimatedTaxPenaltyRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriorYearLiabilityCache.
+ * Tests on-demand loading through the Spring cache, bulk preload and invalidation after amendments.
+ */
+@SpringJUnitConfig
+class PriorYearLiabilityCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @Import(PriorYearLiabilityCache.class)
+    static class CacheConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(PriorYearLiabilityCache.CACHE_NAME);
+        }
+    }
+
+    @MockBean
+    private EstimatedTaxPenaltyRepository estimatedTaxPenaltyRepository;
+
+    @Autowired
+    private PriorYearLiabilityCache cache;
+
+    private final UUID tenantA = UUID.randomUUID();
+    private final UUID tenantB = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should load a liability once and serve repeats from the cache")
+    void shouldCacheOnDemandLookups() {
+        // Given
+        when(estimatedTaxPenaltyRepository.findByTenantIdAndTaxYear(tenantA, 2023))
+            .thenReturn(List.of(createPenalty(tenantA, "12000.00")));
+
+        // When
+        BigDecimal first = cache.getLiability(tenantA, 2023);
+        BigDecimal second = cache.getLiability(tenantA, 2023);
+
+        // Then
+        assertThat(first).isEqualByComparingTo("12000.00");
+        assertThat(second).isEqualByComparingTo("12000.00");
+        verify(estimatedTaxPenaltyRepository, times(1)).findByTenantIdAndTaxYear(tenantA, 2023);
+    }
+
+    @Test
+    @DisplayName("Should serve preloaded tenants without queries and cache tenants without a liability as zero")
+    void shouldServePreloadedYearFromCache() {
+        // Given
+        when(estimatedTaxPenaltyRepository.findAnnualTaxLiabilitiesByTaxYear(2023)).thenReturn(List.of(
+            new Object[]{tenantA, new BigDecimal("12000.00")},
+            new Object[]{tenantA, new BigDecimal("99999.00")}));
+
+        // When
+        int loaded = cache.preload(2023);
+
+        // Then - first (oldest) row wins; tenant without a record is loaded once, as zero
+        assertThat(loaded).isEqualTo(1);
+        assertThat(cache.getLiability(tenantA, 2023)).isEqualByComparingTo("12000.00");
+        assertThat(cache.getLiability(tenantB, 2023)).isEqualByComparingTo("0");
+        assertThat(cache.getLiability(tenantB, 2023)).isEqualByComparingTo("0");
+        verify(estimatedTaxPenaltyRepository, never()).findByTenantIdAndTaxYear(tenantA, 2023);
+        verify(estimatedTaxPenaltyRepository, times(1)).findByTenantIdAndTaxYear(tenantB, 2023);
+    }
+
+    @Test
+    @DisplayName("Should reload only the invalidated tenant after an amended return")
+    void shouldReloadInvalidatedTenant() {
+        // Given
+        when(estimatedTaxPenaltyRepository.findAnnualTaxLiabilitiesByTaxYear(2023)).thenReturn(List.<Object[]>of(
+            new Object[]{tenantA, new BigDecimal("12000.00")},
+            new Object[]{tenantB, new BigDecimal("4000.00")}));
+        when(estimatedTaxPenaltyRepository.findByTenantIdAndTaxYear(tenantA, 2023))
+            .thenReturn(List.of(createPenalty(tenantA, "9500.00")));
+        cache.preload(2023);
+
+        // When
+        cache.invalidate(tenantA, 2023);
+
+        // Then
+        assertThat(cache.getLiability(tenantA, 2023)).isEqualByComparingTo("9500.00");
+        assertThat(cache.getLiability(tenantB, 2023)).isEqualByComparingTo("4000.00");
+        verify(estimatedTaxPenaltyRepository, never()).findByTenantIdAndTaxYear(tenantB, 2023);
+    }
+
+    private EstimatedTaxPenalty createPenalty(UUID tenantId, String liability) {
+        return EstimatedTaxPenalty.builder()
+            .id(UUID.randomUUID())
+            .tenantId(tenantId)
+            .returnId(UUID.randomUUID())
+            .taxYear(2023)
+            .annualTaxLiability(new BigDecimal(liability))
+            .createdAt(LocalDateTime.of(2024, 4, 15, 0, 0))
+            .build();
+    }
+}
@@ -201,14 +201,17 @@ export const uploadDocument = async (
  * Generate Form 27-PA PDF.
  */
 export const generateForm27PA = async (
-  abatementId: string
+  abatementId: string,
+  taxpayerName: string,
+  taxpayerId: string
 ): Promise<FormUrlResponse> => {
   const response = await fetch(`${BASE_URL}/${abatementId}/form-27pa`, {
-    method: 'GET',
+    method: 'POST',
     headers: {
       'Content-Type': 'application/json',
     },
     credentials: 'include',
+    body: JSON.stringify({ taxpayerName, taxpayerId }),
   });
 
   if (!response.ok) {